@@ -15,6 +15,7 @@
  */
 package io.seata.codec.kryo;
 
+import io.netty.buffer.ByteBuf;
 import io.seata.common.loader.LoadLevel;
 import io.seata.core.codec.Codec;
 import io.seata.core.protocol.AbstractMessage;
@@ -52,4 +53,30 @@ public class KryoCodec implements Codec {
 
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        if (t == null || !(t instanceof AbstractMessage)) {
+            throw new IllegalArgumentException("message is null");
+        }
+        KryoSerializer kryoSerializer = KryoSerializerFactory.getInstance().get();
+        try {
+            kryoSerializer.serialize(t, out);
+        } finally {
+            KryoSerializerFactory.getInstance().returnKryo(kryoSerializer);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuf in) {
+        if (in == null || !in.isReadable()) {
+            throw new IllegalArgumentException("bytes is null");
+        }
+        KryoSerializer kryoSerializer = KryoSerializerFactory.getInstance().get();
+        try {
+            return kryoSerializer.deserialize(in);
+        } finally {
+            KryoSerializerFactory.getInstance().returnKryo(kryoSerializer);
+        }
+    }
+
 }
@@ -16,8 +16,11 @@
 package io.seata.codec.kryo;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -28,6 +31,13 @@ import java.util.Objects;
  */
 public class KryoSerializer {
 
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Output buffer reused by the serializations into a ByteBuf of each thread
+     */
+    private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(() -> new Output(BUFFER_SIZE));
+
     private final Kryo kryo;
 
     public KryoSerializer(Kryo kryo) {
@@ -53,4 +63,34 @@ public class KryoSerializer {
         return (T) kryo.readClassAndObject(input);
     }
 
+    /**
+     * Serialize into the buffer, through the reused output buffer of the current thread.
+     *
+     * @param t   the t
+     * @param out the buffer
+     */
+    public <T> void serialize(T t, ByteBuf out) {
+        Output output = OUTPUT.get();
+        output.setOutputStream(new ByteBufOutputStream(out));
+        try {
+            kryo.writeClassAndObject(output, t);
+            output.flush();
+        } finally {
+            output.setOutputStream(null);
+        }
+    }
+
+    /**
+     * Deserialize all the readable bytes of the buffer, read in place.
+     *
+     * @param in the buffer
+     * @return the t
+     */
+    public <T> T deserialize(ByteBuf in) {
+        Input input = new ByteBufferInput(in.nioBuffer(in.readerIndex(), in.readableBytes()));
+        T t = (T) kryo.readClassAndObject(input);
+        in.skipBytes(in.readableBytes());
+        return t;
+    }
+
 }
@@ -34,6 +34,8 @@ import io.seata.core.protocol.RegisterTMRequest;
 import io.seata.core.protocol.RegisterTMResponse;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BatchBranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -167,6 +169,8 @@ public class KryoSerializerFactory implements KryoFactory {
         kryo.register(RegisterRMResponse.class);
         kryo.register(RegisterTMRequest.class);
         kryo.register(RegisterTMResponse.class);
+        kryo.register(BatchBranchRegisterRequest.class);
+        kryo.register(BatchBranchRegisterResponse.class);
 
         return kryo;
     }
@@ -0,0 +1,109 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.codec.kryo;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test the serialization of KryoSerializer straight into and out of a buffer.
+ */
+public class KryoSerializerTest {
+
+    private KryoSerializer serializer;
+
+    @BeforeEach
+    public void before() {
+        serializer = KryoSerializerFactory.getInstance().get();
+    }
+
+    @AfterEach
+    public void after() {
+        KryoSerializerFactory.getInstance().returnKryo(serializer);
+    }
+
+    @Test
+    public void testHeapBuffer() {
+        assertRoundTrip(Unpooled.buffer(), newRequest("app"));
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        assertRoundTrip(Unpooled.directBuffer(), newRequest("app"));
+    }
+
+    @Test
+    public void testCompositeBuffer() {
+        CompositeByteBuf out = Unpooled.compositeBuffer();
+        out.addComponents(true, Unpooled.buffer(8), Unpooled.buffer(8));
+        assertRoundTrip(out, newRequest("app"));
+    }
+
+    @Test
+    public void testLargerThanOutputBuffer() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append("application data ").append(i);
+        }
+        // flushed several times through the reused output buffer of the thread
+        assertRoundTrip(Unpooled.buffer(16), newRequest(builder.toString()));
+    }
+
+    @Test
+    public void testOutputBufferReused() {
+        // nothing of a message is left in the reused output buffer for the next one
+        assertRoundTrip(Unpooled.buffer(), newRequest("first"));
+        assertRoundTrip(Unpooled.buffer(), newRequest("second"));
+    }
+
+    private void assertRoundTrip(ByteBuf out, BranchCommitRequest request) {
+        // the content follows what is already written
+        out.writeInt(0xCAFE);
+        serializer.serialize(request, out);
+
+        assertThat(out.readInt()).isEqualTo(0xCAFE);
+        byte[] content = new byte[out.readableBytes()];
+        out.getBytes(out.readerIndex(), content);
+        assertThat(content).isEqualTo(serializer.serialize(request));
+
+        BranchCommitRequest decoded = serializer.deserialize(out);
+        assertThat(out.isReadable()).isFalse();
+        assertThat(decoded.getXid()).isEqualTo(request.getXid());
+        assertThat(decoded.getBranchId()).isEqualTo(request.getBranchId());
+        assertThat(decoded.getBranchType()).isEqualTo(request.getBranchType());
+        assertThat(decoded.getResourceId()).isEqualTo(request.getResourceId());
+        assertThat(decoded.getApplicationData()).isEqualTo(request.getApplicationData());
+        out.release();
+    }
+
+    private static BranchCommitRequest newRequest(String applicationData) {
+        BranchCommitRequest request = new BranchCommitRequest();
+        request.setBranchType(BranchType.AT);
+        request.setXid("127.0.0.1:8091:2000");
+        request.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        request.setBranchId(2001);
+        request.setApplicationData(applicationData);
+        return request;
+    }
+}
@@ -19,6 +19,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 import com.google.protobuf.GeneratedMessageV3;
+import io.netty.buffer.ByteBuf;
 import io.seata.codec.protobuf.convertor.PbConvertor;
 import io.seata.codec.protobuf.manager.ProtobufConvertManager;
 import io.seata.common.loader.LoadLevel;
@@ -79,4 +80,39 @@ public class ProtobufCodec implements Codec {
         return (T)newBody;
     }
 
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        if (t == null) {
+            throw new NullPointerException();
+        }
+
+        //translate to pb
+        final PbConvertor pbConvertor = ProtobufConvertManager.getInstance().fetchConvertor(
+            t.getClass().getName());
+        GeneratedMessageV3 newBody = (GeneratedMessageV3)pbConvertor.convert2Proto(t);
+        //for cross language,write FullName to data,which defines in proto file
+        final byte[] nameBytes = newBody.getDescriptorForType().getFullName().getBytes(UTF8);
+        out.writeInt(nameBytes.length);
+        out.writeBytes(nameBytes);
+        ProtobufSerializer.serializeContent(newBody, out);
+    }
+
+    @Override
+    public <T> T decode(ByteBuf in) {
+        if (in == null) {
+            throw new NullPointerException();
+        }
+        int clazzNameLength = in.readInt();
+        final String descriptorName = in.readCharSequence(clazzNameLength, UTF8).toString();
+        Class protobufClazz = ProtobufConvertManager.getInstance().fetchProtoClass(descriptorName);
+        //the body is parsed in place
+        Object protobufObject = ProtobufSerializer.deserializeContent(protobufClazz.getName(),
+            in.nioBuffer(in.readerIndex(), in.readableBytes()));
+        in.skipBytes(in.readableBytes());
+        //translate back to core model
+        final PbConvertor pbConvertor = ProtobufConvertManager.getInstance().fetchReversedConvertor(protobufClazz.getName());
+        Object newBody = pbConvertor.convert2Model(protobufObject);
+        return (T)newBody;
+    }
+
 }
@@ -32,6 +32,11 @@ public class ProtobufHelper {
      */
     ConcurrentMap<Class, Method> parseFromMethodMap = new ConcurrentHashMap<Class, Method>();
 
+    /**
+     * Cache of parseFrom(ByteBuffer) method
+     */
+    ConcurrentMap<Class, Method> parseFromByteBufferMethodMap = new ConcurrentHashMap<Class, Method>();
+
     /**
      * Cache of toByteArray method
      */
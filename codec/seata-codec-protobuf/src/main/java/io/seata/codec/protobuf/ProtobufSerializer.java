@@ -15,9 +15,14 @@
  */
 package io.seata.codec.protobuf;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import io.netty.buffer.ByteBuf;
 import io.seata.common.exception.ShouldNeverHappenException;
 
 /**
@@ -90,4 +95,61 @@ public class ProtobufSerializer {
 
         return (T)result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Serialize the message straight into the buffer.
+     *
+     * @param message the message
+     * @param out     the buffer
+     */
+    public static void serializeContent(MessageLite message, ByteBuf out) {
+        int size = message.getSerializedSize();
+        out.ensureWritable(size);
+        if (out.nioBufferCount() != 1) {
+            // a view of a composite buffer would be a copy
+            out.writeBytes(message.toByteArray());
+            return;
+        }
+        int writerIndex = out.writerIndex();
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(out.nioBuffer(writerIndex, size));
+            message.writeTo(output);
+            output.flush();
+        } catch (IOException e) {
+            throw new ShouldNeverHappenException("serialize occurs exception", e);
+        }
+        out.writerIndex(writerIndex + size);
+    }
+
+    public static <T> T deserializeContent(String responseClazz, ByteBuffer content) {
+        if (content == null || !content.hasRemaining()) {
+            return null;
+        }
+        Class clazz = PROTOBUF_HELPER.getPbClass(responseClazz);
+
+        Method method = PROTOBUF_HELPER.parseFromByteBufferMethodMap.get(clazz);
+        if (method == null) {
+            try {
+                method = clazz.getMethod(METHOD_PARSEFROM, ByteBuffer.class);
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    throw new ShouldNeverHappenException("Cannot found static method " + clazz.getName()
+                        + ".parseFrom(ByteBuffer), please check the generated code");
+                }
+                method.setAccessible(true);
+                PROTOBUF_HELPER.parseFromByteBufferMethodMap.put(clazz, method);
+            } catch (NoSuchMethodException e) {
+                throw new ShouldNeverHappenException("Cannot found method " + clazz.getName()
+                    + ".parseFrom(ByteBuffer), please check the generated code", e);
+            }
+        }
+        Object result;
+        try {
+            result = method.invoke(null, content);
+        } catch (Exception e) {
+            throw new ShouldNeverHappenException("Error when invoke " + clazz.getName() + ".parseFrom(ByteBuffer).",
+                e);
+        }
+
+        return (T)result;
+    }
+}
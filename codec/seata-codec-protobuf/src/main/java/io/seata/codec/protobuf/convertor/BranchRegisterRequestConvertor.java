@@ -15,11 +15,13 @@
  */
 package io.seata.codec.protobuf.convertor;
 
+import com.google.protobuf.ByteString;
 import io.seata.codec.protobuf.generated.AbstractMessageProto;
 import io.seata.codec.protobuf.generated.AbstractTransactionRequestProto;
 import io.seata.codec.protobuf.generated.BranchRegisterRequestProto;
 import io.seata.codec.protobuf.generated.BranchTypeProto;
 import io.seata.codec.protobuf.generated.MessageTypeProto;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 
@@ -41,13 +43,16 @@ public class BranchRegisterRequestConvertor implements PbConvertor<BranchRegiste
         final String applicationData = branchRegisterRequest.getApplicationData();
         final String resourceId = branchRegisterRequest.getResourceId();
         final String lockKey = branchRegisterRequest.getLockKey();
+        final String xid = branchRegisterRequest.getXid();
+        final LockKeys lockKeys = branchRegisterRequest.getLockKeys();
         BranchRegisterRequestProto result = BranchRegisterRequestProto.newBuilder()
             .setAbstractTransactionRequest(abstractTransactionRequestProto)
             .setApplicationData(applicationData == null ? "" : applicationData)
             .setBranchType(BranchTypeProto.valueOf(branchRegisterRequest.getBranchType().name()))
             .setLockKey(lockKey == null ? "" : lockKey)
+            .setLockKeys(lockKeys == null ? ByteString.EMPTY : ByteString.copyFrom(lockKeys.encode()))
             .setResourceId(resourceId == null ? "" : resourceId)
-            .setXid(branchRegisterRequest.getXid())
+            .setXid(xid == null ? "" : xid)
             .build();
         return result;
     }
@@ -58,6 +63,9 @@ public class BranchRegisterRequestConvertor implements PbConvertor<BranchRegiste
         branchRegisterRequest.setApplicationData(branchRegisterRequestProto.getApplicationData());
         branchRegisterRequest.setBranchType(BranchType.valueOf(branchRegisterRequestProto.getBranchType().name()));
         branchRegisterRequest.setLockKey(branchRegisterRequestProto.getLockKey());
+        if (!branchRegisterRequestProto.getLockKeys().isEmpty()) {
+            branchRegisterRequest.setLockKeys(LockKeys.decode(branchRegisterRequestProto.getLockKeys().toByteArray()));
+        }
         branchRegisterRequest.setResourceId(branchRegisterRequestProto.getResourceId());
         branchRegisterRequest.setXid(branchRegisterRequestProto.getXid());
         return branchRegisterRequest;
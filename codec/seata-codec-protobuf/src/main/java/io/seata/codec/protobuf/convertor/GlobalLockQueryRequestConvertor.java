@@ -15,12 +15,14 @@
  */
 package io.seata.codec.protobuf.convertor;
 
+import com.google.protobuf.ByteString;
 import io.seata.codec.protobuf.generated.AbstractMessageProto;
 import io.seata.codec.protobuf.generated.AbstractTransactionRequestProto;
 import io.seata.codec.protobuf.generated.BranchRegisterRequestProto;
 import io.seata.codec.protobuf.generated.BranchTypeProto;
 import io.seata.codec.protobuf.generated.GlobalLockQueryRequestProto;
 import io.seata.codec.protobuf.generated.MessageTypeProto;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
 
@@ -42,11 +44,13 @@ public class GlobalLockQueryRequestConvertor
 
         final String applicationData = globalLockQueryRequest.getApplicationData();
         final String lockKey = globalLockQueryRequest.getLockKey();
+        final LockKeys lockKeys = globalLockQueryRequest.getLockKeys();
         BranchRegisterRequestProto branchRegisterRequestProto = BranchRegisterRequestProto.newBuilder()
             .setAbstractTransactionRequest(abstractTransactionRequestProto)
             .setApplicationData(applicationData == null ? "" : applicationData)
             .setBranchType(BranchTypeProto.valueOf(globalLockQueryRequest.getBranchType().name()))
             .setLockKey(lockKey == null ? "" : lockKey)
+            .setLockKeys(lockKeys == null ? ByteString.EMPTY : ByteString.copyFrom(lockKeys.encode()))
             .setResourceId(globalLockQueryRequest.getResourceId())
             .setXid(globalLockQueryRequest.getXid())
             .build();
@@ -64,6 +68,9 @@ public class GlobalLockQueryRequestConvertor
         branchRegisterRequest.setApplicationData(branchRegisterRequestProto.getApplicationData());
         branchRegisterRequest.setBranchType(BranchType.valueOf(branchRegisterRequestProto.getBranchType().name()));
         branchRegisterRequest.setLockKey(branchRegisterRequestProto.getLockKey());
+        if (!branchRegisterRequestProto.getLockKeys().isEmpty()) {
+            branchRegisterRequest.setLockKeys(LockKeys.decode(branchRegisterRequestProto.getLockKeys().toByteArray()));
+        }
         branchRegisterRequest.setResourceId(branchRegisterRequestProto.getResourceId());
         branchRegisterRequest.setXid(branchRegisterRequestProto.getXid());
         return branchRegisterRequest;
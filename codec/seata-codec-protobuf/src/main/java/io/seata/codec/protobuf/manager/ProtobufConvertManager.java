@@ -17,6 +17,8 @@ package io.seata.codec.protobuf.manager;
 
 import io.seata.codec.protobuf.convertor.BranchCommitRequestConvertor;
 import io.seata.codec.protobuf.convertor.BranchCommitResponseConvertor;
+import io.seata.codec.protobuf.convertor.BatchBranchRegisterRequestConvertor;
+import io.seata.codec.protobuf.convertor.BatchBranchRegisterResponseConvertor;
 import io.seata.codec.protobuf.convertor.BranchRegisterRequestConvertor;
 import io.seata.codec.protobuf.convertor.BranchRegisterResponseConvertor;
 import io.seata.codec.protobuf.convertor.BranchReportRequestConvertor;
@@ -44,6 +46,8 @@ import io.seata.codec.protobuf.convertor.RegisterTMResponseConvertor;
 import io.seata.codec.protobuf.convertor.UndoLogDeleteRequestConvertor;
 import io.seata.codec.protobuf.generated.BranchCommitRequestProto;
 import io.seata.codec.protobuf.generated.BranchCommitResponseProto;
+import io.seata.codec.protobuf.generated.BatchBranchRegisterRequestProto;
+import io.seata.codec.protobuf.generated.BatchBranchRegisterResponseProto;
 import io.seata.codec.protobuf.generated.BranchRegisterRequestProto;
 import io.seata.codec.protobuf.generated.BranchRegisterResponseProto;
 import io.seata.codec.protobuf.generated.BranchReportRequestProto;
@@ -77,6 +81,8 @@ import io.seata.core.protocol.RegisterTMRequest;
 import io.seata.core.protocol.RegisterTMResponse;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BatchBranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -124,6 +130,10 @@ public class ProtobufConvertManager {
                 new BranchRegisterRequestConvertor());
             protobufConvertManager.convertorMap.put(BranchRegisterResponse.class.getName(),
                 new BranchRegisterResponseConvertor());
+            protobufConvertManager.convertorMap.put(BatchBranchRegisterRequest.class.getName(),
+                new BatchBranchRegisterRequestConvertor());
+            protobufConvertManager.convertorMap.put(BatchBranchRegisterResponse.class.getName(),
+                new BatchBranchRegisterResponseConvertor());
             protobufConvertManager.convertorMap.put(BranchReportRequest.class.getName(),
                 new BranchReportRequestConvertor());
             protobufConvertManager.convertorMap.put(BranchReportResponse.class.getName(),
@@ -177,6 +187,10 @@ public class ProtobufConvertManager {
                 BranchRegisterRequestProto.class);
             protobufConvertManager.protoClazzMap.put(BranchRegisterResponseProto.getDescriptor().getFullName(),
                 BranchRegisterResponseProto.class);
+            protobufConvertManager.protoClazzMap.put(BatchBranchRegisterRequestProto.getDescriptor().getFullName(),
+                BatchBranchRegisterRequestProto.class);
+            protobufConvertManager.protoClazzMap.put(BatchBranchRegisterResponseProto.getDescriptor().getFullName(),
+                BatchBranchRegisterResponseProto.class);
             protobufConvertManager.protoClazzMap.put(BranchReportRequestProto.getDescriptor().getFullName(),
                 BranchReportRequestProto.class);
             protobufConvertManager.protoClazzMap.put(BranchReportResponseProto.getDescriptor().getFullName(),
@@ -231,6 +245,10 @@ public class ProtobufConvertManager {
                 new BranchRegisterRequestConvertor());
             protobufConvertManager.reverseConvertorMap.put(BranchRegisterResponseProto.class.getName(),
                 new BranchRegisterResponseConvertor());
+            protobufConvertManager.reverseConvertorMap.put(BatchBranchRegisterRequestProto.class.getName(),
+                new BatchBranchRegisterRequestConvertor());
+            protobufConvertManager.reverseConvertorMap.put(BatchBranchRegisterResponseProto.class.getName(),
+                new BatchBranchRegisterResponseConvertor());
             protobufConvertManager.reverseConvertorMap.put(BranchReportRequestProto.class.getName(),
                 new BranchReportRequestConvertor());
             protobufConvertManager.reverseConvertorMap.put(BranchReportResponseProto.class.getName(),
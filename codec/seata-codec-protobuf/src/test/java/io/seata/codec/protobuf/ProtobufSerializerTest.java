@@ -0,0 +1,105 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.codec.protobuf;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.seata.codec.protobuf.generated.BranchCommitRequestProto;
+import io.seata.codec.protobuf.convertor.BranchCommitRequestConvertor;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test the serialization of ProtobufSerializer and ProtobufCodec straight into and out of a buffer.
+ */
+public class ProtobufSerializerTest {
+
+    @Test
+    public void testHeapBuffer() {
+        assertRoundTrip(Unpooled.buffer(), newRequest("app"));
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        assertRoundTrip(Unpooled.directBuffer(), newRequest("app"));
+    }
+
+    @Test
+    public void testCompositeBuffer() {
+        CompositeByteBuf out = Unpooled.compositeBuffer();
+        out.addComponents(true, Unpooled.buffer(8), Unpooled.buffer(8));
+        assertRoundTrip(out, newRequest("app"));
+    }
+
+    @Test
+    public void testLargeMessage() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append("application data ").append(i);
+        }
+        // grows past the initial capacity of the buffer
+        assertRoundTrip(Unpooled.buffer(16), newRequest(builder.toString()));
+    }
+
+    @Test
+    public void testCodecRoundTrip() {
+        BranchCommitRequest request = newRequest("app");
+        ProtobufCodec codec = new ProtobufCodec();
+        ByteBuf buf = Unpooled.directBuffer();
+        codec.encode(request, buf);
+
+        assertThat(buf.readableBytes()).isEqualTo(codec.encode(request).length);
+        BranchCommitRequest decoded = codec.decode(buf);
+        assertThat(buf.isReadable()).isFalse();
+        assertThat(decoded.getXid()).isEqualTo(request.getXid());
+        assertThat(decoded.getBranchId()).isEqualTo(request.getBranchId());
+        assertThat(decoded.getBranchType()).isEqualTo(request.getBranchType());
+        assertThat(decoded.getResourceId()).isEqualTo(request.getResourceId());
+        assertThat(decoded.getApplicationData()).isEqualTo(request.getApplicationData());
+    }
+
+    private static void assertRoundTrip(ByteBuf out, BranchCommitRequest request) {
+        BranchCommitRequestProto proto = new BranchCommitRequestConvertor().convert2Proto(request);
+        // the content follows what is already written
+        out.writeInt(0xCAFE);
+        ProtobufSerializer.serializeContent(proto, out);
+
+        assertThat(out.readableBytes()).isEqualTo(4 + proto.getSerializedSize());
+        assertThat(out.readInt()).isEqualTo(0xCAFE);
+        byte[] content = new byte[out.readableBytes()];
+        out.getBytes(out.readerIndex(), content);
+        assertThat(content).isEqualTo(ProtobufSerializer.serializeContent(proto));
+
+        BranchCommitRequestProto parsed = ProtobufSerializer.deserializeContent(
+            BranchCommitRequestProto.class.getName(), out.nioBuffer(out.readerIndex(), out.readableBytes()));
+        assertThat(parsed).isEqualTo(proto);
+        out.release();
+    }
+
+    private static BranchCommitRequest newRequest(String applicationData) {
+        BranchCommitRequest request = new BranchCommitRequest();
+        request.setBranchType(BranchType.AT);
+        request.setXid("127.0.0.1:8091:2000");
+        request.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        request.setBranchId(2001);
+        request.setApplicationData(applicationData);
+        return request;
+    }
+}
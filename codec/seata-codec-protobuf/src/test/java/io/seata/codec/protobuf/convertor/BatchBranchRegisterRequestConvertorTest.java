@@ -0,0 +1,59 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.codec.protobuf.convertor;
+
+import java.util.Collections;
+
+import io.seata.codec.protobuf.generated.BatchBranchRegisterRequestProto;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Batch branch register request convertor test.
+ */
+public class BatchBranchRegisterRequestConvertorTest {
+
+    @Test
+    public void convert2Proto() {
+
+        BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+        branchRegisterRequest.setApplicationData("data");
+        branchRegisterRequest.setBranchType(BranchType.AT);
+        branchRegisterRequest.setLockKey("localKey");
+        branchRegisterRequest.setResourceId("resourceId");
+
+        BatchBranchRegisterRequest batchBranchRegisterRequest = new BatchBranchRegisterRequest();
+        batchBranchRegisterRequest.setXid("xid");
+        batchBranchRegisterRequest.setBranchRegisterRequests(Collections.singletonList(branchRegisterRequest));
+
+        BatchBranchRegisterRequestConvertor convertor = new BatchBranchRegisterRequestConvertor();
+        BatchBranchRegisterRequestProto proto = convertor.convert2Proto(batchBranchRegisterRequest);
+        BatchBranchRegisterRequest real = convertor.convert2Model(proto);
+
+        assertThat(real.getTypeCode()).isEqualTo(batchBranchRegisterRequest.getTypeCode());
+        assertThat(real.getXid()).isEqualTo(batchBranchRegisterRequest.getXid());
+        assertThat(real.getBranchRegisterRequests()).hasSize(1);
+        BranchRegisterRequest realBranch = real.getBranchRegisterRequests().get(0);
+        assertThat(realBranch.getApplicationData()).isEqualTo(branchRegisterRequest.getApplicationData());
+        assertThat(realBranch.getBranchType()).isEqualTo(branchRegisterRequest.getBranchType());
+        assertThat(realBranch.getLockKey()).isEqualTo(branchRegisterRequest.getLockKey());
+        assertThat(realBranch.getResourceId()).isEqualTo(branchRegisterRequest.getResourceId());
+    }
+}
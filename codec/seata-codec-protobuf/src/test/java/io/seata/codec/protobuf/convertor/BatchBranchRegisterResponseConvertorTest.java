@@ -0,0 +1,52 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.codec.protobuf.convertor;
+
+import java.util.Arrays;
+
+import io.seata.codec.protobuf.generated.BatchBranchRegisterResponseProto;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BatchBranchRegisterResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Batch branch register response convertor test.
+ */
+public class BatchBranchRegisterResponseConvertorTest {
+
+    @Test
+    public void convert2Proto() {
+
+        BatchBranchRegisterResponse batchBranchRegisterResponse = new BatchBranchRegisterResponse();
+        batchBranchRegisterResponse.setBranchIds(Arrays.asList(123L, 124L));
+        batchBranchRegisterResponse.setTransactionExceptionCode(TransactionExceptionCode.LockKeyConflict);
+        batchBranchRegisterResponse.setResultCode(ResultCode.Failed);
+        batchBranchRegisterResponse.setMsg("msg");
+
+        BatchBranchRegisterResponseConvertor convertor = new BatchBranchRegisterResponseConvertor();
+        BatchBranchRegisterResponseProto proto = convertor.convert2Proto(batchBranchRegisterResponse);
+        BatchBranchRegisterResponse real = convertor.convert2Model(proto);
+
+        assertThat(real.getTypeCode()).isEqualTo(batchBranchRegisterResponse.getTypeCode());
+        assertThat(real.getBranchIds()).isEqualTo(batchBranchRegisterResponse.getBranchIds());
+        assertThat(real.getMsg()).isEqualTo(batchBranchRegisterResponse.getMsg());
+        assertThat(real.getResultCode()).isEqualTo(batchBranchRegisterResponse.getResultCode());
+        assertThat(real.getTransactionExceptionCode()).isEqualTo(batchBranchRegisterResponse.getTransactionExceptionCode());
+    }
+}
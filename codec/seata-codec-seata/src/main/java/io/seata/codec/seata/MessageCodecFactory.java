@@ -24,6 +24,8 @@ import io.seata.codec.seata.protocol.RegisterRMRequestCodec;
 import io.seata.codec.seata.protocol.RegisterRMResponseCodec;
 import io.seata.codec.seata.protocol.RegisterTMRequestCodec;
 import io.seata.codec.seata.protocol.RegisterTMResponseCodec;
+import io.seata.codec.seata.protocol.transaction.BatchBranchRegisterRequestCodec;
+import io.seata.codec.seata.protocol.transaction.BatchBranchRegisterResponseCodec;
 import io.seata.codec.seata.protocol.transaction.BranchCommitRequestCodec;
 import io.seata.codec.seata.protocol.transaction.BranchCommitResponseCodec;
 import io.seata.codec.seata.protocol.transaction.BranchRegisterRequestCodec;
@@ -55,6 +57,8 @@ import io.seata.core.protocol.RegisterTMRequest;
 import io.seata.core.protocol.RegisterTMResponse;
 import io.seata.core.protocol.transaction.AbstractBranchEndRequest;
 import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BatchBranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
@@ -171,6 +175,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryRequestCodec();
             case MessageType.TYPE_BRANCH_REGISTER:
                 return new BranchRegisterRequestCodec();
+            case MessageType.TYPE_BATCH_BRANCH_REGISTER:
+                return new BatchBranchRegisterRequestCodec();
             case MessageType.TYPE_BRANCH_STATUS_REPORT:
                 return new BranchReportRequestCodec();
             default:
@@ -198,6 +204,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryResponseCodec();
             case MessageType.TYPE_BRANCH_REGISTER_RESULT:
                 return new BranchRegisterResponseCodec();
+            case MessageType.TYPE_BATCH_BRANCH_REGISTER_RESULT:
+                return new BatchBranchRegisterResponseCodec();
             case MessageType.TYPE_BRANCH_STATUS_REPORT_RESULT:
                 return new BranchReportResponseCodec();
             case MessageType.TYPE_BRANCH_COMMIT_RESULT:
@@ -286,6 +294,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryRequest();
             case MessageType.TYPE_BRANCH_REGISTER:
                 return new BranchRegisterRequest();
+            case MessageType.TYPE_BATCH_BRANCH_REGISTER:
+                return new BatchBranchRegisterRequest();
             case MessageType.TYPE_BRANCH_STATUS_REPORT:
                 return new BranchReportRequest();
             default:
@@ -313,6 +323,8 @@ public class MessageCodecFactory {
                 return new GlobalLockQueryResponse();
             case MessageType.TYPE_BRANCH_REGISTER_RESULT:
                 return new BranchRegisterResponse();
+            case MessageType.TYPE_BATCH_BRANCH_REGISTER_RESULT:
+                return new BatchBranchRegisterResponse();
             case MessageType.TYPE_BRANCH_STATUS_REPORT_RESULT:
                 return new BranchReportResponse();
             case MessageType.TYPE_BRANCH_COMMIT_RESULT:
@@ -34,6 +34,16 @@ public class SeataCodec implements Codec {
 
     @Override
     public <T> byte[] encode(T t) {
+        ByteBuf out = Unpooled.buffer(1024);
+        //typecode + body
+        encode(t, out);
+        byte[] content = new byte[out.readableBytes()];
+        out.readBytes(content);
+        return content;
+    }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
         if (t == null || !(t instanceof AbstractMessage)) {
             throw new IllegalArgumentException("AbstractMessage isn't available.");
         }
@@ -42,22 +52,9 @@ public class SeataCodec implements Codec {
         short typecode = abstractMessage.getTypeCode();
         //msg codec
         MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
-        //get empty ByteBuffer
-        ByteBuf out = Unpooled.buffer(1024);
+        out.writeShort(typecode);
         //msg encode
         messageCodec.encode(t, out);
-        byte[] body = new byte[out.readableBytes()];
-        out.readBytes(body);
-
-        //typecode + body
-        ByteBuffer byteBuffer = ByteBuffer.allocate(2 + body.length);
-        byteBuffer.putShort(typecode);
-        byteBuffer.put(body);
-
-        byteBuffer.flip();
-        byte[] content = new byte[byteBuffer.limit()];
-        byteBuffer.get(content);
-        return content;
     }
 
     @Override
@@ -68,13 +65,27 @@ public class SeataCodec implements Codec {
         if (bytes.length < 2) {
             throw new IllegalArgumentException("The byte[] isn't available for decode.");
         }
-        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        ByteBuffer in = ByteBuffer.wrap(bytes);
         //typecode
-        short typecode = byteBuffer.getShort();
-        //msg body
-        byte[] body = new byte[byteBuffer.remaining()];
-        byteBuffer.get(body);
-        ByteBuffer in = ByteBuffer.wrap(body);
+        short typecode = in.getShort();
+        return decodeBody(typecode, in);
+    }
+
+    @Override
+    public <T> T decode(ByteBuf in) {
+        if (in.readableBytes() < 2) {
+            throw new IllegalArgumentException("The ByteBuf isn't available for decode.");
+        }
+        //typecode
+        short typecode = in.readShort();
+        //msg body, a view of the buffer when it is made of one component
+        ByteBuffer body = in.nioBuffer(in.readerIndex(), in.readableBytes());
+        T message = decodeBody(typecode, body);
+        in.skipBytes(in.readableBytes());
+        return message;
+    }
+
+    private <T> T decodeBody(short typecode, ByteBuffer in) {
         //new Messgae
         AbstractMessage abstractMessage = MessageCodecFactory.getMessage(typecode);
         //get messageCodec
@@ -20,7 +20,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.seata.codec.seata.MessageCodecFactory;
 import io.seata.codec.seata.MessageSeataCodec;
 import io.seata.core.protocol.AbstractMessage;
@@ -43,30 +42,32 @@ public class MergedWarpMessageCodec extends AbstractMessageCodec {
         MergedWarpMessage mergedWarpMessage = (MergedWarpMessage)t;
         List<AbstractMessage> msgs = mergedWarpMessage.msgs;
 
-        final ByteBuf buffer = Unpooled.buffer(1024);
-        buffer.writeInt(0); // write placeholder for content length
+        final int writeIndex = out.writerIndex();
+        out.writeInt(0); // write placeholder for content length
 
-        buffer.writeShort((short)msgs.size());
+        out.writeShort((short)msgs.size());
         for (final AbstractMessage msg : msgs) {
-            final ByteBuf subBuffer = Unpooled.buffer(1024);
             short typeCode = msg.getTypeCode();
             MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typeCode);
-            messageCodec.encode(msg, subBuffer);
-            buffer.writeShort(msg.getTypeCode());
-            buffer.writeBytes(subBuffer);
+            out.writeShort(typeCode);
+            messageCodec.encode(msg, out);
+        }
+        // the ids of the sub requests, inside the content so that a decoder not reading them skips them
+        List<Integer> msgIds = mergedWarpMessage.msgIds;
+        if (msgIds != null && msgIds.size() == msgs.size()) {
+            for (Integer msgId : msgIds) {
+                out.writeInt(msgId);
+            }
         }
 
-        final int length = buffer.readableBytes();
-        final byte[] content = new byte[length];
-        buffer.setInt(0, length - 4);  // minus the placeholder length itself
-        buffer.readBytes(content);
+        final int length = out.writerIndex() - writeIndex - 4; // minus the placeholder length itself
+        out.setInt(writeIndex, length);
 
         if (msgs.size() > 20) {
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("msg in one packet:" + msgs.size() + ",buffer size:" + content.length);
+                LOGGER.debug("msg in one packet:" + msgs.size() + ",buffer size:" + length);
             }
         }
-        out.writeBytes(content);
     }
 
     @Override
@@ -97,6 +98,13 @@ public class MergedWarpMessageCodec extends AbstractMessageCodec {
             msgs.add(abstractMessage);
         }
         mergedWarpMessage.msgs = msgs;
+        if (byteBuffer.remaining() >= msgNum * 4) {
+            List<Integer> msgIds = new ArrayList<>(msgNum);
+            for (int idx = 0; idx < msgNum; idx++) {
+                msgIds.add(byteBuffer.getInt());
+            }
+            mergedWarpMessage.msgIds = msgIds;
+        }
     }
 
 }
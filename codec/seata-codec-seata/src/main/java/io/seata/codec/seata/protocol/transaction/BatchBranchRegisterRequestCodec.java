@@ -0,0 +1,85 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.codec.seata.protocol.transaction;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+
+/**
+ * The type Batch branch register request codec, the sub requests are written back to back with the branch
+ * register request codec.
+ */
+public class BatchBranchRegisterRequestCodec extends AbstractTransactionRequestToTCCodec {
+
+    private final BranchRegisterRequestCodec branchRegisterRequestCodec = new BranchRegisterRequestCodec();
+
+    @Override
+    public Class<?> getMessageClassType() {
+        return BatchBranchRegisterRequest.class;
+    }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        BatchBranchRegisterRequest batchBranchRegisterRequest = (BatchBranchRegisterRequest)t;
+
+        String xid = batchBranchRegisterRequest.getXid();
+        List<BranchRegisterRequest> branchRegisterRequests = batchBranchRegisterRequest.getBranchRegisterRequests();
+
+        // 1. xid
+        if (xid != null) {
+            byte[] bs = xid.getBytes(UTF8);
+            out.writeShort((short)bs.length);
+            if (bs.length > 0) {
+                out.writeBytes(bs);
+            }
+        } else {
+            out.writeShort((short)0);
+        }
+
+        // 2. branch register requests
+        out.writeShort((short)branchRegisterRequests.size());
+        for (BranchRegisterRequest branchRegisterRequest : branchRegisterRequests) {
+            branchRegisterRequestCodec.encode(branchRegisterRequest, out);
+        }
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuffer in) {
+        BatchBranchRegisterRequest batchBranchRegisterRequest = (BatchBranchRegisterRequest)t;
+
+        short xidLen = in.getShort();
+        if (xidLen > 0) {
+            byte[] bs = new byte[xidLen];
+            in.get(bs);
+            batchBranchRegisterRequest.setXid(new String(bs, UTF8));
+        }
+
+        int size = in.getShort();
+        List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+            branchRegisterRequestCodec.decode(branchRegisterRequest, in);
+            branchRegisterRequests.add(branchRegisterRequest);
+        }
+        batchBranchRegisterRequest.setBranchRegisterRequests(branchRegisterRequests);
+    }
+
+}
@@ -18,6 +18,7 @@ package io.seata.codec.seata.protocol.transaction;
 import java.nio.ByteBuffer;
 
 import io.netty.buffer.ByteBuf;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 
@@ -41,6 +42,7 @@ public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCo
         BranchType branchType = branchRegisterRequest.getBranchType();
         String resourceId = branchRegisterRequest.getResourceId();
         String lockKey = branchRegisterRequest.getLockKey();
+        LockKeys lockKeys = branchRegisterRequest.getLockKeys();
         String applicationData = branchRegisterRequest.getApplicationData();
 
         byte[] lockKeyBytes = null;
@@ -76,8 +78,12 @@ public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCo
             out.writeShort((short)0);
         }
 
-        // 4. Lock Key
-        if (lockKey != null) {
+        // 4. Lock Key, the binary form is written with a negative length
+        if (lockKeys != null) {
+            byte[] bs = lockKeys.encode();
+            out.writeInt(-bs.length);
+            out.writeBytes(bs);
+        } else if (lockKey != null) {
             out.writeInt(lockKeyBytes.length);
             if (lockKeyBytes.length > 0) {
                 out.writeBytes(lockKeyBytes);
@@ -120,6 +126,10 @@ public class BranchRegisterRequestCodec extends AbstractTransactionRequestToTCCo
             byte[] bs = new byte[iLen];
             in.get(bs);
             branchRegisterRequest.setLockKey(new String(bs, UTF8));
+        } else if (iLen < 0) {
+            byte[] bs = new byte[-iLen];
+            in.get(bs);
+            branchRegisterRequest.setLockKeys(LockKeys.decode(bs));
         }
 
         int applicationDataLen = in.getInt();
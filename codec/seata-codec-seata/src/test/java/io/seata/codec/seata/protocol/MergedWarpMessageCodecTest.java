@@ -68,6 +68,22 @@ public class MergedWarpMessageCodecTest {
 
     }
 
+    /**
+     * Test codec of the sub request ids.
+     */
+    @Test
+    public void test_codec_msgIds(){
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        mergedWarpMessage.msgs.add(buildGlobalBeginRequest("x1"));
+        mergedWarpMessage.msgs.add(buildGlobalBeginRequest("x2"));
+        mergedWarpMessage.msgIds.add(11);
+        mergedWarpMessage.msgIds.add(12);
+
+        MergedWarpMessage mergedWarpMessage2 = seataCodec.decode(seataCodec.encode(mergedWarpMessage));
+        assertThat(mergedWarpMessage2.msgs.size()).isEqualTo(2);
+        assertThat(mergedWarpMessage2.msgIds).containsExactly(11, 12);
+    }
+
     private GlobalBeginRequest buildGlobalBeginRequest(String name) {
         final GlobalBeginRequest globalBeginRequest = new GlobalBeginRequest();
         globalBeginRequest.setTransactionName(name);
@@ -0,0 +1,116 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.codec.seata.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.seata.core.codec.CodecType;
+import io.seata.core.codec.CompressorType;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Body compression of the ProtocolV1 encoder and decoder.
+ */
+public class ProtocolV1CompressionTest {
+
+    private static final int COMPRESSOR_INDEX = 11;
+
+    @Test
+    public void test_compress_after_negotiation() {
+        EmbeddedChannel client = new EmbeddedChannel(new ProtocolV1Decoder(), new ProtocolV1Encoder());
+        EmbeddedChannel server = new EmbeddedChannel(new ProtocolV1Decoder(), new ProtocolV1Encoder());
+
+        // the server did not advertise anything yet, the first request goes raw
+        client.writeOutbound(newMessage(1));
+        ByteBuf request = client.readOutbound();
+        assertThat(request.getByte(COMPRESSOR_INDEX)).isEqualTo(CompressorType.NONE.getCode());
+        int rawLength = request.readableBytes();
+        server.writeInbound(request);
+        RpcMessage received = server.readInbound();
+        assertThat(received.getHeadMap()).doesNotContainKey(ProtocolConstants.HEAD_KEY_COMPRESSORS);
+
+        // the client advertised gzip with its first request
+        RpcMessage response = newMessage(2);
+        server.writeOutbound(response);
+        ByteBuf responseBuf = server.readOutbound();
+        assertThat(responseBuf.getByte(COMPRESSOR_INDEX)).isEqualTo(CompressorType.GZIP.getCode());
+        assertThat(responseBuf.readableBytes()).isLessThan(rawLength);
+        client.writeInbound(responseBuf);
+        RpcMessage decoded = client.readInbound();
+        assertThat(decoded.getCompressor()).isEqualTo(CompressorType.GZIP.getCode());
+        BranchRegisterRequest body = (BranchRegisterRequest)decoded.getBody();
+        assertThat(body.getLockKey()).isEqualTo(((BranchRegisterRequest)response.getBody()).getLockKey());
+
+        // now the client knows the server accepts gzip too
+        client.writeOutbound(newMessage(3));
+        ByteBuf secondRequest = client.readOutbound();
+        assertThat(secondRequest.getByte(COMPRESSOR_INDEX)).isEqualTo(CompressorType.GZIP.getCode());
+        secondRequest.release();
+    }
+
+    @Test
+    public void test_small_body_not_compressed() {
+        EmbeddedChannel client = new EmbeddedChannel(new ProtocolV1Decoder(), new ProtocolV1Encoder());
+        EmbeddedChannel server = new EmbeddedChannel(new ProtocolV1Decoder(), new ProtocolV1Encoder());
+        client.writeOutbound(newMessage(1, 10));
+        server.writeInbound((ByteBuf)client.readOutbound());
+        server.readInbound();
+
+        RpcMessage response = newMessage(2, 10);
+        server.writeOutbound(response);
+        ByteBuf responseBuf = server.readOutbound();
+        assertThat(responseBuf.getByte(COMPRESSOR_INDEX)).isEqualTo(CompressorType.NONE.getCode());
+        assertThat(responseBuf.getInt(3)).isEqualTo(responseBuf.readableBytes());
+        client.writeInbound(responseBuf);
+        RpcMessage decoded = client.readInbound();
+        assertThat(decoded.getId()).isEqualTo(2);
+        BranchRegisterRequest body = (BranchRegisterRequest)decoded.getBody();
+        assertThat(body.getXid()).isEqualTo("127.0.0.1:8091:1");
+        assertThat(body.getLockKey()).isEqualTo(((BranchRegisterRequest)response.getBody()).getLockKey());
+    }
+
+    private static RpcMessage newMessage(int id) {
+        return newMessage(id, 2000);
+    }
+
+    private static RpcMessage newMessage(int id, int keyCount) {
+        StringBuilder lockKey = new StringBuilder("t1:");
+        for (int i = 0; i < keyCount; i++) {
+            lockKey.append(i).append(',');
+        }
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setXid("127.0.0.1:8091:1");
+        request.setBranchType(BranchType.AT);
+        request.setResourceId("jdbc:mysql://127.0.0.1:3306/test");
+        request.setLockKey(lockKey.toString());
+
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(id);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST);
+        rpcMessage.setCodec(CodecType.SEATA.getCode());
+        rpcMessage.setCompressor(CompressorType.GZIP.getCode());
+        rpcMessage.setBody(request);
+        return rpcMessage;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.codec.seata.protocol.transaction;
+
+import java.util.Arrays;
+
+import io.seata.codec.seata.SeataCodec;
+import io.seata.core.lock.LockKeys;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Batch branch register request codec test.
+ */
+public class BatchBranchRegisterRequestCodecTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataCodec seataCodec = new SeataCodec();
+
+    /**
+     * Test codec.
+     */
+    @Test
+    public void test_codec(){
+        BranchRegisterRequest first = new BranchRegisterRequest();
+        first.setBranchType(BranchType.AT);
+        first.setResourceId("r1");
+        first.setLockKey("a:1,2");
+        first.setApplicationData("abc");
+        BranchRegisterRequest second = new BranchRegisterRequest();
+        second.setBranchType(BranchType.TCC);
+        second.setResourceId("r2");
+        second.setLockKeys(LockKeys.parse("b:3"));
+
+        BatchBranchRegisterRequest batchBranchRegisterRequest = new BatchBranchRegisterRequest();
+        batchBranchRegisterRequest.setXid("abc134");
+        batchBranchRegisterRequest.setBranchRegisterRequests(Arrays.asList(first, second));
+
+        byte[] bytes = seataCodec.encode(batchBranchRegisterRequest);
+
+        BatchBranchRegisterRequest batchBranchRegisterRequest2 = seataCodec.decode(bytes);
+
+        assertThat(batchBranchRegisterRequest2.getXid()).isEqualTo(batchBranchRegisterRequest.getXid());
+        assertThat(batchBranchRegisterRequest2.getBranchRegisterRequests()).hasSize(2);
+        BranchRegisterRequest first2 = batchBranchRegisterRequest2.getBranchRegisterRequests().get(0);
+        assertThat(first2.getBranchType()).isEqualTo(first.getBranchType());
+        assertThat(first2.getResourceId()).isEqualTo(first.getResourceId());
+        assertThat(first2.getLockKey()).isEqualTo(first.getLockKey());
+        assertThat(first2.getApplicationData()).isEqualTo(first.getApplicationData());
+        BranchRegisterRequest second2 = batchBranchRegisterRequest2.getBranchRegisterRequests().get(1);
+        assertThat(second2.getBranchType()).isEqualTo(second.getBranchType());
+        assertThat(second2.getResourceId()).isEqualTo(second.getResourceId());
+        assertThat(second2.getLockKeys()).isEqualTo(second.getLockKeys());
+    }
+
+}
@@ -16,6 +16,7 @@
 package io.seata.codec.seata.protocol.transaction;
 
 import io.seata.codec.seata.SeataCodec;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import org.junit.jupiter.api.Test;
@@ -59,4 +60,25 @@ public class BranchRegisterRequestCodecTest {
 
     }
 
+    /**
+     * Test codec of the binary lock keys.
+     */
+    @Test
+    public void test_codec_lockKeys(){
+        BranchRegisterRequest branchRegisterRequest = new BranchRegisterRequest();
+        branchRegisterRequest.setBranchType(BranchType.AT);
+        branchRegisterRequest.setLockKeys(LockKeys.parse("t1:1,2;t2:3"));
+        branchRegisterRequest.setResourceId("124");
+        branchRegisterRequest.setXid("abc134");
+
+        byte[] bytes = seataCodec.encode(branchRegisterRequest);
+
+        BranchRegisterRequest branchRegisterRequest2 = seataCodec.decode(bytes);
+
+        assertThat(branchRegisterRequest2.getLockKey()).isNull();
+        assertThat(branchRegisterRequest2.getLockKeys()).isEqualTo(branchRegisterRequest.getLockKeys());
+        assertThat(branchRegisterRequest2.getResourceId()).isEqualTo(branchRegisterRequest.getResourceId());
+        assertThat(branchRegisterRequest2.getXid()).isEqualTo(branchRegisterRequest.getXid());
+    }
+
 }
\ No newline at end of file
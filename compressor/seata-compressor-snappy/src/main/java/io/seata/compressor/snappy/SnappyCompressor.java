@@ -0,0 +1,52 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.compressor.snappy;
+
+import java.io.IOException;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.core.compressor.Compressor;
+import org.xerial.snappy.Snappy;
+
+/**
+ * The type Snappy compressor.
+ */
+@LoadLevel(name = "SNAPPY")
+public class SnappyCompressor implements Compressor {
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        try {
+            return Snappy.compress(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException("snappy compress error", e);
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int maxLength) {
+        try {
+            // the length in the block header is checked before allocating, it may come from the network
+            int length = Snappy.uncompressedLength(bytes);
+            if (length < 0 || length > maxLength) {
+                throw new IllegalArgumentException("snappy decompressed length out of range: " + length);
+            }
+            return Snappy.uncompress(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException("snappy decompress error", e);
+        }
+    }
+}
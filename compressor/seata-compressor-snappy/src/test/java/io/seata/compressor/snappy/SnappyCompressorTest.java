@@ -0,0 +1,83 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.compressor.snappy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.seata.core.codec.CompressorType;
+import io.seata.core.compressor.CompressorFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The type SnappyCompressor test.
+ */
+public class SnappyCompressorTest {
+
+    @Test
+    public void testCompressAndDecompress() {
+        byte[] bytes = bytes();
+        SnappyCompressor compressor = new SnappyCompressor();
+        byte[] compressed = compressor.compress(bytes);
+        assertThat(compressed.length).isLessThan(bytes.length);
+        assertThat(compressor.decompress(compressed)).isEqualTo(bytes);
+        assertThat(compressor.decompress(compressor.compress(new byte[0]))).isEmpty();
+    }
+
+    @Test
+    public void testDecompressMalformed() {
+        SnappyCompressor compressor = new SnappyCompressor();
+        // a varint length of 0x7FFFFFFF, far beyond any frame
+        assertThatThrownBy(() -> compressor.decompress(new byte[] {(byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07, 0}))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compressor.decompress(new byte[] {(byte)0xFF, (byte)0xFF}))
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void testDecompressTruncated() {
+        SnappyCompressor compressor = new SnappyCompressor();
+        byte[] compressed = compressor.compress(bytes());
+        assertThatThrownBy(() -> compressor.decompress(Arrays.copyOf(compressed, compressed.length / 2)))
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void testDecompressMaxLength() {
+        byte[] bytes = bytes();
+        SnappyCompressor compressor = new SnappyCompressor();
+        byte[] compressed = compressor.compress(bytes);
+        assertThat(compressor.decompress(compressed, bytes.length)).isEqualTo(bytes);
+        assertThatThrownBy(() -> compressor.decompress(compressed, bytes.length - 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testLoad() {
+        assertThat(CompressorFactory.getCompressor(CompressorType.SNAPPY.getCode())).isInstanceOf(SnappyCompressor.class);
+    }
+
+    private static byte[] bytes() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("table_name:").append(i).append(',');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.compressor.zstd;
+
+import com.github.luben.zstd.Zstd;
+import io.seata.common.loader.LoadLevel;
+import io.seata.core.compressor.Compressor;
+
+/**
+ * The type Zstd compressor, the frames carry the original length.
+ */
+@LoadLevel(name = "ZSTD")
+public class ZstdCompressor implements Compressor {
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        return Zstd.compress(bytes);
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int maxLength) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("zstd frame is empty");
+        }
+        // the size in the frame header is checked before allocating, it may come from the network
+        long size = Zstd.getFrameContentSize(bytes);
+        if (size < 0 || size > maxLength) {
+            throw new IllegalArgumentException("zstd decompressed size out of range: " + size);
+        }
+        byte[] out = Zstd.decompress(bytes, (int)size);
+        if (out.length != size) {
+            throw new IllegalArgumentException("zstd decompressed " + out.length + " bytes, expected: " + size);
+        }
+        return out;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.seata.core.codec;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  * The interface Codec.
  *
@@ -40,4 +42,34 @@ public interface Codec {
      * @return the t
      */
     <T> T decode(byte[] bytes);
+
+    /**
+     * Encode object into the buffer, from its writer index.
+     * <p>
+     * The default implementation copies the result of {@link #encode(Object)}, codecs override it to write
+     * straight into the buffer.
+     *
+     * @param <T> the type parameter
+     * @param t   the t
+     * @param out the buffer
+     */
+    default <T> void encode(T t, ByteBuf out) {
+        out.writeBytes(encode(t));
+    }
+
+    /**
+     * Decode t from all the readable bytes of the buffer, which are consumed.
+     * <p>
+     * The default implementation copies the bytes for {@link #decode(byte[])}, codecs override it to read
+     * straight from the buffer. The result must not keep any reference to the buffer.
+     *
+     * @param <T> the type parameter
+     * @param in  the buffer
+     * @return the t
+     */
+    default <T> T decode(ByteBuf in) {
+        byte[] bytes = new byte[in.readableBytes()];
+        in.readBytes(bytes);
+        return decode(bytes);
+    }
 }
@@ -28,7 +28,22 @@ public enum CompressorType {
     /**
      * The gzip.
      */
-    GZIP((byte) 1);
+    GZIP((byte) 1),
+
+    /**
+     * The lz4.
+     */
+    LZ4((byte) 2),
+
+    /**
+     * The zstd.
+     */
+    ZSTD((byte) 3),
+
+    /**
+     * The snappy.
+     */
+    SNAPPY((byte) 4);
 
     private final byte code;
 
@@ -0,0 +1,51 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.compressor;
+
+import io.seata.core.protocol.ProtocolConstants;
+
+/**
+ * The interface Compressor, applied to the encoded message body.
+ */
+public interface Compressor {
+
+    /**
+     * Compress byte [ ].
+     *
+     * @param bytes the bytes
+     * @return the byte [ ]
+     */
+    byte[] compress(byte[] bytes);
+
+    /**
+     * Decompress byte [ ] of a message body, never bigger than a frame.
+     *
+     * @param bytes the bytes
+     * @return the byte [ ]
+     */
+    default byte[] decompress(byte[] bytes) {
+        return decompress(bytes, ProtocolConstants.MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Decompress byte [ ], rejecting the bytes decompressing to more than the max length.
+     *
+     * @param bytes     the bytes
+     * @param maxLength the max decompressed length
+     * @return the byte [ ]
+     */
+    byte[] decompress(byte[] bytes, int maxLength);
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.compressor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.common.loader.EnhancedServiceNotFoundException;
+import io.seata.core.codec.CompressorType;
+
+/**
+ * The type Compressor factory.
+ */
+public class CompressorFactory {
+
+    /**
+     * The constant COMPRESSOR_MAP.
+     */
+    protected static final Map<CompressorType, Compressor> COMPRESSOR_MAP = new ConcurrentHashMap<>();
+
+    private static volatile List<CompressorType> availableTypes;
+
+    static {
+        COMPRESSOR_MAP.put(CompressorType.NONE, new NoneCompressor());
+    }
+
+    /**
+     * Get compressor.
+     *
+     * @param code the code
+     * @return the compressor
+     */
+    public static Compressor getCompressor(byte code) {
+        CompressorType type = CompressorType.getByCode(code);
+        Compressor compressor = COMPRESSOR_MAP.get(type);
+        if (compressor != null) {
+            return compressor;
+        }
+        synchronized (COMPRESSOR_MAP) {
+            return COMPRESSOR_MAP.computeIfAbsent(type, key -> EnhancedServiceLoader.load(Compressor.class,
+                key.name()));
+        }
+    }
+
+    /**
+     * The compressor types whose implementation is on the classpath, NONE excluded.
+     *
+     * @return the available types
+     */
+    public static List<CompressorType> getAvailableTypes() {
+        if (availableTypes == null) {
+            List<CompressorType> types = new ArrayList<>();
+            for (CompressorType type : CompressorType.values()) {
+                if (type == CompressorType.NONE) {
+                    continue;
+                }
+                try {
+                    getCompressor(type.getCode());
+                    types.add(type);
+                } catch (EnhancedServiceNotFoundException ignore) {
+                    // the module of this compressor is not on the classpath
+                }
+            }
+            availableTypes = types;
+        }
+        return availableTypes;
+    }
+
+    /**
+     * The type None compressor.
+     */
+    public static class NoneCompressor implements Compressor {
+
+        @Override
+        public byte[] compress(byte[] bytes) {
+            return bytes;
+        }
+
+        @Override
+        public byte[] decompress(byte[] bytes, int maxLength) {
+            return bytes;
+        }
+    }
+}
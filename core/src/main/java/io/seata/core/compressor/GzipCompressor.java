@@ -0,0 +1,63 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.compressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.seata.common.loader.LoadLevel;
+
+/**
+ * The type Gzip compressor, relying on the jdk only.
+ */
+@LoadLevel(name = "GZIP")
+public class GzipCompressor implements Compressor {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(bytes.length / 2, BUFFER_SIZE));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException("gzip compress error", e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int maxLength) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int)Math.min(bytes.length * 4L, maxLength));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = gzip.read(buffer)) > -1) {
+                long length = (long)out.size() + n;
+                if (length > maxLength) {
+                    throw new IllegalArgumentException("gzip decompressed length out of range: " + length);
+                }
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("gzip decompress error", e);
+        }
+        return out.toByteArray();
+    }
+}
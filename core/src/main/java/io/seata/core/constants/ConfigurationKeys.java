@@ -87,6 +87,10 @@ public class ConfigurationKeys {
      * The constant CLIENT_LOCK_RETRY_INTERNAL.
      */
     public static final String CLIENT_LOCK_RETRY_INTERNAL = CLIENT_PREFIX + "lock.retry.internal";
+    /**
+     * The constant CLIENT_LOCK_BINARY_KEY.
+     */
+    public static final String CLIENT_LOCK_BINARY_KEY = CLIENT_PREFIX + "lock.binary-key";
 
     /**
      * The constant SERVICE_SESSION_RELOAD_READ_SIZE
@@ -108,6 +112,16 @@ public class ConfigurationKeys {
      */
     public static final String CLIENT_TABLE_META_CHECK_ENABLE  = CLIENT_PREFIX + "table.meta.check.enable";
 
+    /**
+     * The constant CLIENT_SQL_RECOGNIZER_CACHE_SIZE.
+     */
+    public static final String CLIENT_SQL_RECOGNIZER_CACHE_SIZE = CLIENT_PREFIX + "sql.recognizer.cache.size";
+
+    /**
+     * The constant CLIENT_UPDATE_COMPUTE_AFTER_IMAGE.
+     */
+    public static final String CLIENT_UPDATE_COMPUTE_AFTER_IMAGE = CLIENT_PREFIX + "update.compute.after.image";
+
 
     /**
      * The constant SERIALIZE_FOR_RPC.
@@ -121,6 +135,11 @@ public class ConfigurationKeys {
      */
     public static final String COMPRESSOR_FOR_RPC = TRANSPORT_PREFIX + "compressor";
 
+    /**
+     * The constant COMPRESSOR_THRESHOLD.
+     */
+    public static final String COMPRESSOR_THRESHOLD = TRANSPORT_PREFIX + "compressor-threshold";
+
     /**
      * The constant STORE_DB_GLOBAL_TABLE.
      */
@@ -186,6 +205,56 @@ public class ConfigurationKeys {
      */
     public static final String STORE_DB_LOG_QUERY_LIMIT  = "store.db.query-limit";
 
+    /**
+     * The constant STORE_DB_SESSION_CACHE_SIZE.
+     */
+    public static final String STORE_DB_SESSION_CACHE_SIZE = "store.db.session-cache-size";
+
+    /**
+     * The constant STORE_DB_BRANCH_GROUP_COMMIT.
+     */
+    public static final String STORE_DB_BRANCH_GROUP_COMMIT = "store.db.branch-group-commit";
+
+    /**
+     * The constant STORE_DB_BRANCH_GROUP_COMMIT_MAX_SIZE.
+     */
+    public static final String STORE_DB_BRANCH_GROUP_COMMIT_MAX_SIZE = "store.db.branch-group-commit-max-size";
+
+    /**
+     * The constant STORE_REDIS_HOST.
+     */
+    public static final String STORE_REDIS_HOST = "store.redis.host";
+
+    /**
+     * The constant STORE_REDIS_PORT.
+     */
+    public static final String STORE_REDIS_PORT = "store.redis.port";
+
+    /**
+     * The constant STORE_REDIS_PASSWORD.
+     */
+    public static final String STORE_REDIS_PASSWORD = "store.redis.password";
+
+    /**
+     * The constant STORE_REDIS_DATABASE.
+     */
+    public static final String STORE_REDIS_DATABASE = "store.redis.database";
+
+    /**
+     * The constant STORE_REDIS_MIN_CONN.
+     */
+    public static final String STORE_REDIS_MIN_CONN = "store.redis.min-conn";
+
+    /**
+     * The constant STORE_REDIS_MAX_CONN.
+     */
+    public static final String STORE_REDIS_MAX_CONN = "store.redis.max-conn";
+
+    /**
+     * The constant STORE_REDIS_QUERY_LIMIT.
+     */
+    public static final String STORE_REDIS_QUERY_LIMIT = "store.redis.query-limit";
+
     /**
      * The constant LOCK_MODE.
      */
@@ -221,6 +290,51 @@ public class ConfigurationKeys {
      */
     public static final String TIMEOUT_RETRY_PERIOD = "recovery.timeout-retry-period";
 
+    /**
+     * The constant TIMEOUT_FULL_SCAN_PERIOD.
+     */
+    public static final String TIMEOUT_FULL_SCAN_PERIOD = "recovery.timeout-full-scan-period";
+
+    /**
+     * The constant RETRY_SHARD_SIZE.
+     */
+    public static final String RETRY_SHARD_SIZE = "recovery.retry-shard-size";
+
+    /**
+     * The constant MAX_RETRY_BACKOFF.
+     */
+    public static final String MAX_RETRY_BACKOFF = "recovery.max-retry-backoff";
+
+    /**
+     * The constant SERVER_PREFIX.
+     */
+    public static final String SERVER_PREFIX = "server.";
+
+    /**
+     * The constant PHASE_TWO_DISPATCH_THREAD_SIZE.
+     */
+    public static final String PHASE_TWO_DISPATCH_THREAD_SIZE = SERVER_PREFIX + "phase-two.dispatch-thread-size";
+
+    /**
+     * The constant PHASE_TWO_MAX_INFLIGHT_PER_CHANNEL.
+     */
+    public static final String PHASE_TWO_MAX_INFLIGHT_PER_CHANNEL = SERVER_PREFIX + "phase-two.max-inflight-per-channel";
+
+    /**
+     * The constant EVENT_BUS_TYPE.
+     */
+    public static final String EVENT_BUS_TYPE = SERVER_PREFIX + "event-bus.type";
+
+    /**
+     * The constant EVENT_BUS_QUEUE_SIZE.
+     */
+    public static final String EVENT_BUS_QUEUE_SIZE = SERVER_PREFIX + "event-bus.queue-size";
+
+    /**
+     * The constant EVENT_BUS_FULL_POLICY.
+     */
+    public static final String EVENT_BUS_FULL_POLICY = SERVER_PREFIX + "event-bus.full-policy";
+
     /**
      * The constant TRANSACTION_PREFIX.
      */
@@ -234,6 +348,22 @@ public class ConfigurationKeys {
      * The constant TRANSACTION_UNDO_LOG_SERIALIZATION.
      */
     public static final String TRANSACTION_UNDO_LOG_SERIALIZATION = TRANSACTION_PREFIX + "undo.log.serialization";
+    /**
+     * The constant TRANSACTION_UNDO_LOG_COMPRESS_TYPE.
+     */
+    public static final String TRANSACTION_UNDO_LOG_COMPRESS_TYPE = TRANSACTION_PREFIX + "undo.log.compress.type";
+    /**
+     * The constant TRANSACTION_UNDO_LOG_COMPRESS_THRESHOLD.
+     */
+    public static final String TRANSACTION_UNDO_LOG_COMPRESS_THRESHOLD = TRANSACTION_PREFIX + "undo.log.compress.threshold";
+    /**
+     * The constant TRANSACTION_UNDO_BATCH_SIZE.
+     */
+    public static final String TRANSACTION_UNDO_BATCH_SIZE = TRANSACTION_PREFIX + "undo.batch.size";
+    /**
+     * The constant TRANSACTION_UNDO_BATCH_BYTES.
+     */
+    public static final String TRANSACTION_UNDO_BATCH_BYTES = TRANSACTION_PREFIX + "undo.batch.bytes";
 
     /**
      * The constant METRICS_PREFIX.
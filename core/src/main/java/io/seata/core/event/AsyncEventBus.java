@@ -0,0 +1,193 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.event;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import io.seata.common.thread.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event bus posting without running any subscriber on the caller thread.
+ * <p>
+ * Posted events are put into a bounded queue and delivered to the subscribers of a Guava event bus by one
+ * dispatcher thread, in the order they are posted. When the queue is full, the event is dropped and counted, or the
+ * caller waits for room, according to the {@link FullPolicy}.
+ */
+public class AsyncEventBus implements EventBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncEventBus.class);
+
+    private static final long DROP_LOG_INTERVAL = 10000;
+
+    private final GuavaEventBus delegate;
+
+    private final BoundedMpscQueue<Event> queue;
+
+    private final FullPolicy fullPolicy;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final Thread dispatcher;
+
+    private volatile boolean waiting;
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Async event bus.
+     *
+     * @param identifier the identifier
+     * @param queueSize  the max number of the events waiting for dispatch
+     * @param fullPolicy the policy when the queue is full
+     */
+    public AsyncEventBus(String identifier, int queueSize, FullPolicy fullPolicy) {
+        this.delegate = new GuavaEventBus(identifier);
+        this.queue = new BoundedMpscQueue<>(queueSize);
+        this.fullPolicy = fullPolicy;
+        this.dispatcher = new NamedThreadFactory("eventBus_" + identifier, 1, true).newThread(this::dispatch);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public void register(Object subscriber) {
+        delegate.register(subscriber);
+    }
+
+    @Override
+    public void unregister(Object subscriber) {
+        delegate.unregister(subscriber);
+    }
+
+    @Override
+    public void post(Event event) {
+        while (!queue.offer(event)) {
+            if (fullPolicy == FullPolicy.DROP || !running) {
+                long dropped = droppedCount.incrementAndGet();
+                if (dropped % DROP_LOG_INTERVAL == 1) {
+                    LOGGER.warn("event bus queue of size {} is full, {} events dropped", queue.capacity(), dropped);
+                }
+                return;
+            }
+            LockSupport.unpark(dispatcher);
+            Thread.yield();
+        }
+        if (waiting) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    /**
+     * Number of the events dropped as the queue was full.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Wait until the events posted before are delivered.
+     *
+     * @param timeout the max time to wait
+     * @param unit    the unit of the timeout
+     * @return false if they are not delivered in time, or the bus is shut down
+     * @throws InterruptedException the interrupted exception
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!running) {
+            return false;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        FlushMarker marker = new FlushMarker();
+        while (!queue.offer(marker)) {
+            if (!running || System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.unpark(dispatcher);
+            Thread.yield();
+        }
+        if (waiting) {
+            LockSupport.unpark(dispatcher);
+        }
+        return marker.delivered.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop the dispatcher after delivering the events already posted.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            Event event = queue.poll();
+            if (event == null) {
+                if (!running) {
+                    return;
+                }
+                // announce the wait before the last check, so that a post seeing it unparks us, both sides write
+                // before they read with volatiles, so one of them sees the other
+                waiting = true;
+                event = queue.poll();
+                if (event == null) {
+                    LockSupport.park(this);
+                    waiting = false;
+                    continue;
+                }
+                waiting = false;
+            }
+            if (event instanceof FlushMarker) {
+                ((FlushMarker)event).delivered.countDown();
+                continue;
+            }
+            try {
+                delegate.post(event);
+            } catch (Throwable t) {
+                LOGGER.error("dispatch event error: {}", t.getMessage(), t);
+            }
+        }
+    }
+
+    private static class FlushMarker implements Event {
+        private final CountDownLatch delivered = new CountDownLatch(1);
+    }
+
+    /**
+     * What a post does when the queue is full.
+     */
+    public enum FullPolicy {
+        /**
+         * Drop the event and count it, the caller never waits.
+         */
+        DROP,
+        /**
+         * Wait until the dispatcher makes room.
+         */
+        BLOCK
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock free queue for many producers and one consumer.
+ * <p>
+ * Each slot carries a sequence telling whether it is free for the producer claiming position p (sequence == p) or
+ * filled for the consumer reading position p (sequence == p + 1), so that producers only contend on one CAS and
+ * never wait for each other.
+ *
+ * @param <E> the element type
+ */
+class BoundedMpscQueue<E> {
+
+    private final Object[] buffer;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    private long consumerIndex;
+
+    /**
+     * Instantiates a new queue.
+     *
+     * @param capacity the capacity, rounded up to a power of two
+     */
+    BoundedMpscQueue(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add an element, safe to be called by any thread.
+     *
+     * @param e the element
+     * @return false if the queue is full
+     */
+    boolean offer(E e) {
+        long pos = producerIndex.get();
+        while (true) {
+            int index = (int)pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(pos, pos + 1)) {
+                    buffer[index] = e;
+                    // a volatile write, ordered before the producer reads whether the consumer waits
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = producerIndex.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = producerIndex.get();
+            }
+        }
+    }
+
+    /**
+     * Take the oldest element, must be called by the single consumer thread only.
+     *
+     * @return the element, null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long pos = consumerIndex;
+        int index = (int)pos & mask;
+        if (sequences.get(index) != pos + 1) {
+            return null;
+        }
+        E e = (E)buffer[index];
+        buffer[index] = null;
+        sequences.lazySet(index, pos + buffer.length);
+        consumerIndex = pos + 1;
+        return e;
+    }
+
+    /**
+     * The capacity.
+     *
+     * @return the capacity
+     */
+    int capacity() {
+        return buffer.length;
+    }
+}
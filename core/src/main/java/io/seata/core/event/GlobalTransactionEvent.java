@@ -29,6 +29,11 @@ public class GlobalTransactionEvent implements Event {
 
     public static final String ROLE_RM = "rm";
 
+    /**
+     * End time of the transaction not committed or rollbacked yet
+     */
+    public static final long NO_END_TIME = -1L;
+
     /**
      * Transaction Id
      */
@@ -47,12 +52,12 @@ public class GlobalTransactionEvent implements Event {
     /**
      * Transaction Begin Time
      */
-    private final Long beginTime;
+    private final long beginTime;
 
     /**
-     * Transaction End Time (If Transaction do not committed or rollbacked, null)
+     * Transaction End Time (If Transaction do not committed or rollbacked, NO_END_TIME)
      */
-    private final Long endTime;
+    private final long endTime;
 
     /**
      * Transaction Status
@@ -76,7 +81,7 @@ public class GlobalTransactionEvent implements Event {
     }
 
     public Long getEndTime() {
-        return endTime;
+        return endTime == NO_END_TIME ? null : endTime;
     }
 
     public GlobalStatus getStatus() {
@@ -85,6 +90,21 @@ public class GlobalTransactionEvent implements Event {
 
     public GlobalTransactionEvent(long id, String role, String name, Long beginTime, Long endTime,
                                   GlobalStatus status) {
+        this(id, role, name, beginTime == null ? 0L : beginTime, endTime == null ? NO_END_TIME : endTime, status);
+    }
+
+    /**
+     * Instantiates a new event without boxing the times, so that posting it allocates nothing but the event.
+     *
+     * @param id        the transaction id
+     * @param role      the role
+     * @param name      the transaction name
+     * @param beginTime the begin time
+     * @param endTime   the end time, NO_END_TIME if the transaction is not ended
+     * @param status    the status
+     */
+    public GlobalTransactionEvent(long id, String role, String name, long beginTime, long endTime,
+                                  GlobalStatus status) {
         this.id = id;
         this.role = role;
         this.name = name;
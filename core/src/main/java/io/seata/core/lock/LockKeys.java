@@ -0,0 +1,336 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.lock;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.seata.common.util.StringUtils;
+
+/**
+ * The structured lock keys of a branch: the table names, each followed by the primary keys locked in it.
+ * <p>
+ * It is the parsed form of the legacy lock key string "table1:pk1,pk2;table2:pk3", and is serialized as
+ * [short tableCount]{[short len][tableName][int pkCount]{[short len][pk]}}, so that it can be iterated on the TC
+ * without splitting any string. The shorts are unsigned.
+ */
+public class LockKeys {
+
+    /**
+     * The max number of tables, and the max length in bytes of a table name or a pk, of the binary form.
+     */
+    public static final int MAX_ENCODED_LENGTH = 0xFFFF;
+
+    private static final Charset UTF8 = StandardCharsets.UTF_8;
+
+    private static final String[] EMPTY = new String[0];
+
+    private String[] tableNames;
+
+    /**
+     * the exclusive end in pks of the keys of each table
+     */
+    private int[] tableEnds;
+
+    private String[] pks;
+
+    /**
+     * Instantiates new empty lock keys.
+     */
+    public LockKeys() {
+        this(EMPTY, new int[0], EMPTY);
+    }
+
+    private LockKeys(String[] tableNames, int[] tableEnds, String[] pks) {
+        this.tableNames = tableNames;
+        this.tableEnds = tableEnds;
+        this.pks = pks;
+    }
+
+    /**
+     * Parse the legacy lock key string.
+     *
+     * @param lockKey the lock key
+     * @return the lock keys
+     */
+    public static LockKeys parse(String lockKey) {
+        Builder builder = new Builder();
+        if (StringUtils.isBlank(lockKey)) {
+            return builder.build();
+        }
+        for (String tableGroupedLockKey : lockKey.split(";")) {
+            int idx = tableGroupedLockKey.indexOf(":");
+            if (idx < 0) {
+                break;
+            }
+            String tableName = tableGroupedLockKey.substring(0, idx);
+            String mergedPKs = tableGroupedLockKey.substring(idx + 1);
+            if (StringUtils.isBlank(mergedPKs)) {
+                break;
+            }
+            for (String pk : mergedPKs.split(",")) {
+                if (StringUtils.isNotBlank(pk)) {
+                    builder.add(tableName, pk);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Decode the binary form.
+     *
+     * @param bytes the bytes
+     * @return the lock keys
+     */
+    public static LockKeys decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        int tableCount = in.getShort() & 0xFFFF;
+        String[] tableNames = new String[tableCount];
+        int[] tableEnds = new int[tableCount];
+        List<String> pks = new ArrayList<>();
+        for (int t = 0; t < tableCount; t++) {
+            tableNames[t] = readString(in);
+            int pkCount = in.getInt();
+            for (int i = 0; i < pkCount; i++) {
+                pks.add(readString(in));
+            }
+            tableEnds[t] = pks.size();
+        }
+        return new LockKeys(tableNames, tableEnds, pks.toArray(EMPTY));
+    }
+
+    /**
+     * Whether the lock keys fit in the binary form, see {@link #MAX_ENCODED_LENGTH}.
+     *
+     * @return the boolean
+     */
+    public boolean isEncodable() {
+        if (tableNames.length > MAX_ENCODED_LENGTH) {
+            return false;
+        }
+        for (String tableName : tableNames) {
+            if (!isEncodable(tableName)) {
+                return false;
+            }
+        }
+        for (String pk : pks) {
+            if (!isEncodable(pk)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEncodable(String s) {
+        // a char takes at most 3 bytes in utf8
+        return s.length() * 3 <= MAX_ENCODED_LENGTH || s.getBytes(UTF8).length <= MAX_ENCODED_LENGTH;
+    }
+
+    /**
+     * Encode the binary form.
+     *
+     * @return the bytes
+     * @throws IllegalStateException if the lock keys are not {@link #isEncodable() encodable}
+     */
+    public byte[] encode() {
+        byte[][] tableBytes = new byte[tableNames.length][];
+        byte[][] pkBytes = new byte[pks.length][];
+        int size = 2;
+        for (int t = 0; t < tableNames.length; t++) {
+            tableBytes[t] = tableNames[t].getBytes(UTF8);
+            size += 2 + tableBytes[t].length + 4;
+        }
+        for (int i = 0; i < pks.length; i++) {
+            pkBytes[i] = pks[i].getBytes(UTF8);
+            size += 2 + pkBytes[i].length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        putLength(out, tableNames.length);
+        int start = 0;
+        for (int t = 0; t < tableNames.length; t++) {
+            putLength(out, tableBytes[t].length);
+            out.put(tableBytes[t]);
+            out.putInt(tableEnds[t] - start);
+            for (int i = start; i < tableEnds[t]; i++) {
+                putLength(out, pkBytes[i].length);
+                out.put(pkBytes[i]);
+            }
+            start = tableEnds[t];
+        }
+        return out.array();
+    }
+
+    /**
+     * Visit every (table name, pk) in order.
+     *
+     * @param visitor the visitor
+     */
+    public void forEach(RowKeyVisitor visitor) {
+        int start = 0;
+        for (int t = 0; t < tableNames.length; t++) {
+            for (int i = start; i < tableEnds[t]; i++) {
+                visitor.visit(tableNames[t], pks[i]);
+            }
+            start = tableEnds[t];
+        }
+    }
+
+    /**
+     * Number of the locked rows.
+     *
+     * @return the size
+     */
+    public int size() {
+        return pks.length;
+    }
+
+    /**
+     * Is empty boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isEmpty() {
+        return pks.length == 0;
+    }
+
+    /**
+     * The legacy lock key string.
+     *
+     * @return the lock key
+     */
+    public String toLockKeyString() {
+        StringBuilder sb = new StringBuilder();
+        int start = 0;
+        for (int t = 0; t < tableNames.length; t++) {
+            if (tableEnds[t] == start) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(tableNames[t]).append(':');
+            for (int i = start; i < tableEnds[t]; i++) {
+                if (i > start) {
+                    sb.append(',');
+                }
+                sb.append(pks[i]);
+            }
+            start = tableEnds[t];
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LockKeys)) {
+            return false;
+        }
+        LockKeys lockKeys = (LockKeys)o;
+        return Arrays.equals(tableNames, lockKeys.tableNames) && Arrays.equals(tableEnds, lockKeys.tableEnds)
+            && Arrays.equals(pks, lockKeys.pks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(pks);
+    }
+
+    @Override
+    public String toString() {
+        return toLockKeyString();
+    }
+
+    private static void putLength(ByteBuffer out, int length) {
+        if (length > MAX_ENCODED_LENGTH) {
+            throw new IllegalStateException("lock keys too long for the binary form: " + length);
+        }
+        out.putShort((short)length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int len = in.getShort() & 0xFFFF;
+        byte[] bs = new byte[len];
+        in.get(bs);
+        return new String(bs, UTF8);
+    }
+
+    /**
+     * The visitor of the locked rows.
+     */
+    @FunctionalInterface
+    public interface RowKeyVisitor {
+
+        /**
+         * Visit one locked row.
+         *
+         * @param tableName the table name
+         * @param pk        the pk
+         */
+        void visit(String tableName, String pk);
+    }
+
+    /**
+     * The builder of lock keys, the keys of a table are grouped as long as they are added in a row.
+     */
+    public static class Builder {
+
+        private final List<String> tableNames = new ArrayList<>();
+
+        private final List<Integer> tableEnds = new ArrayList<>();
+
+        private final List<String> pks = new ArrayList<>();
+
+        /**
+         * Add a locked row.
+         *
+         * @param tableName the table name
+         * @param pk        the pk
+         * @return the builder
+         */
+        public Builder add(String tableName, String pk) {
+            int last = tableNames.size() - 1;
+            if (last < 0 || !tableNames.get(last).equals(tableName)) {
+                tableNames.add(tableName);
+                tableEnds.add(pks.size());
+                last++;
+            }
+            pks.add(pk);
+            tableEnds.set(last, pks.size());
+            return this;
+        }
+
+        /**
+         * Build lock keys.
+         *
+         * @return the lock keys
+         */
+        public LockKeys build() {
+            int[] ends = new int[tableEnds.size()];
+            for (int t = 0; t < ends.length; t++) {
+                ends[t] = tableEnds.get(t);
+            }
+            return new LockKeys(tableNames.toArray(EMPTY), ends, pks.toArray(EMPTY));
+        }
+    }
+}
@@ -64,7 +64,9 @@ public class MessageFuture {
             throw new TimeoutException("cost " + (System.currentTimeMillis() - start) + " ms");
         }
 
-        if (result instanceof RuntimeException) {
+        if (result instanceof TimeoutException) {
+            throw (TimeoutException)result;
+        } else if (result instanceof RuntimeException) {
             throw (RuntimeException)result;
         } else if (result instanceof Throwable) {
             throw new RuntimeException((Throwable)result);
@@ -73,6 +75,32 @@ public class MessageFuture {
         return result;
     }
 
+    /**
+     * The result as a completable future, completed exceptionally when the result is an exception.
+     *
+     * @return the completable future
+     */
+    public CompletableFuture<Object> toCompletableFuture() {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        origin.whenComplete((result, throwable) -> {
+            if (result instanceof Throwable) {
+                future.completeExceptionally((Throwable)result);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Run the action once the result is set.
+     *
+     * @param action the action
+     */
+    public void whenDone(Runnable action) {
+        origin.whenComplete((result, throwable) -> action.run());
+    }
+
     /**
      * Sets result message.
      *
@@ -96,6 +96,14 @@ public class MessageType {
      * The constant TYPE_BRANCH_STATUS_REPORT_RESULT.
      */
     public static final short TYPE_BRANCH_STATUS_REPORT_RESULT = 14;
+    /**
+     * The constant TYPE_BATCH_BRANCH_REGISTER.
+     */
+    public static final short TYPE_BATCH_BRANCH_REGISTER = 17;
+    /**
+     * The constant TYPE_BATCH_BRANCH_REGISTER_RESULT.
+     */
+    public static final short TYPE_BATCH_BRANCH_REGISTER_RESULT = 18;
 
     /**
      * The constant TYPE_SEATA_MERGE.
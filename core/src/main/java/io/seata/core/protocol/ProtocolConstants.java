@@ -86,4 +86,22 @@ public class ProtocolConstants {
     public static final byte CONFIGURED_COMPRESSOR = CompressorType.getByName(ConfigurationFactory.getInstance()
             .getConfig(ConfigurationKeys.COMPRESSOR_FOR_RPC, CompressorType.NONE.name())).getCode();
 
+    /**
+     * Bodies smaller than this number of bytes are sent uncompressed, default is 4096
+     */
+    public static final int CONFIGURED_COMPRESSOR_THRESHOLD = ConfigurationFactory.getInstance()
+            .getInt(ConfigurationKeys.COMPRESSOR_THRESHOLD, 4096);
+
+    /**
+     * Head map key advertising the compressors a peer can decompress, as comma separated compressor codes.
+     * Peers not sending it only receive uncompressed bodies.
+     */
+    public static final String HEAD_KEY_COMPRESSORS = "compressors";
+
+    /**
+     * Head map key of a merged request whose sender accepts the sub results one by one as they complete, each
+     * answered with the id of its sub request, followed by an empty merge result closing the batch.
+     */
+    public static final String HEAD_KEY_MERGE_STREAM = "mergeStream";
+
 }
@@ -0,0 +1,92 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.protocol.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.seata.core.protocol.MessageType;
+import io.seata.core.rpc.RpcContext;
+
+/**
+ * The type Batch branch register request, registers several branches of one global transaction in one round trip.
+ * <p>
+ * The branches are registered all or nothing, the xid of the sub requests is ignored in favor of the one of the batch.
+ */
+public class BatchBranchRegisterRequest extends AbstractTransactionRequestToTC {
+
+    private String xid;
+
+    private List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>();
+
+    /**
+     * Gets xid.
+     *
+     * @return the xid
+     */
+    public String getXid() {
+        return xid;
+    }
+
+    /**
+     * Sets xid.
+     *
+     * @param xid the xid
+     */
+    public void setXid(String xid) {
+        this.xid = xid;
+    }
+
+    /**
+     * Gets branch register requests.
+     *
+     * @return the branch register requests
+     */
+    public List<BranchRegisterRequest> getBranchRegisterRequests() {
+        return branchRegisterRequests;
+    }
+
+    /**
+     * Sets branch register requests.
+     *
+     * @param branchRegisterRequests the branch register requests
+     */
+    public void setBranchRegisterRequests(List<BranchRegisterRequest> branchRegisterRequests) {
+        this.branchRegisterRequests = branchRegisterRequests;
+    }
+
+    @Override
+    public short getTypeCode() {
+        return MessageType.TYPE_BATCH_BRANCH_REGISTER;
+    }
+
+    @Override
+    public AbstractTransactionResponse handle(RpcContext rpcContext) {
+        return handler.handle(this, rpcContext);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("xid=");
+        result.append(xid);
+        result.append(",");
+        result.append("branchRegisterRequests=");
+        result.append(branchRegisterRequests);
+
+        return result.toString();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.seata.core.protocol.transaction;
 
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchType;
 import io.seata.core.protocol.MessageType;
 import io.seata.core.rpc.RpcContext;
@@ -34,6 +35,8 @@ public class BranchRegisterRequest extends AbstractTransactionRequestToTC  {
 
     private String lockKey;
 
+    private LockKeys lockKeys;
+
     private String applicationData;
 
     /**
@@ -90,6 +93,24 @@ public class BranchRegisterRequest extends AbstractTransactionRequestToTC  {
         this.lockKey = lockKey;
     }
 
+    /**
+     * Gets the structured lock keys, set instead of the lock key string by the clients sending the binary form.
+     *
+     * @return the lock keys
+     */
+    public LockKeys getLockKeys() {
+        return lockKeys;
+    }
+
+    /**
+     * Sets lock keys.
+     *
+     * @param lockKeys the lock keys
+     */
+    public void setLockKeys(LockKeys lockKeys) {
+        this.lockKeys = lockKeys;
+    }
+
     /**
      * Gets resource id.
      *
@@ -149,7 +170,7 @@ public class BranchRegisterRequest extends AbstractTransactionRequestToTC  {
         result.append(resourceId);
         result.append(",");
         result.append("lockKey=");
-        result.append(lockKey);
+        result.append(lockKey != null || lockKeys == null ? lockKey : lockKeys.toLockKeyString());
 
         return result.toString();
     }
@@ -17,6 +17,7 @@ package io.seata.core.rpc;
 
 import io.seata.core.protocol.RpcMessage;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -56,6 +57,27 @@ public interface ClientMessageSender {
      */
     Object sendMsgWithResponse(Object msg) throws TimeoutException;
 
+    /**
+     * Send msg without waiting for the response.
+     *
+     * @param msg     the msg
+     * @param timeout the timeout
+     * @return the future of the response object, completed exceptionally with a TimeoutException when no response
+     * comes in time
+     */
+    CompletableFuture<Object> sendAsyncRequest(Object msg, long timeout);
+
+    /**
+     * Send msg without waiting for the response.
+     *
+     * @param serverAddress the server address
+     * @param msg           the msg
+     * @param timeout       the timeout
+     * @return the future of the response object, completed exceptionally with a TimeoutException when no response
+     * comes in time
+     */
+    CompletableFuture<Object> sendAsyncRequest(String serverAddress, Object msg, long timeout);
+
     /**
      * Send response.
      *
@@ -15,25 +15,54 @@
  */
 package io.seata.core.rpc;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.NetUtil;
+import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.MergeResultMessage;
 import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RegisterRMRequest;
 import io.seata.core.protocol.RegisterRMResponse;
 import io.seata.core.protocol.RegisterTMRequest;
 import io.seata.core.protocol.RegisterTMResponse;
+import io.seata.core.protocol.ResultCode;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.protocol.Version;
+import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
+import io.seata.core.protocol.transaction.AbstractGlobalEndResponse;
+import io.seata.core.protocol.transaction.AbstractTransactionResponse;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BatchBranchRegisterResponse;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import io.seata.core.protocol.transaction.BranchReportRequest;
+import io.seata.core.protocol.transaction.BranchReportResponse;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalBeginResponse;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalCommitResponse;
+import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import io.seata.core.protocol.transaction.GlobalLockQueryResponse;
+import io.seata.core.protocol.transaction.GlobalRollbackRequest;
+import io.seata.core.protocol.transaction.GlobalRollbackResponse;
+import io.seata.core.protocol.transaction.GlobalStatusRequest;
+import io.seata.core.protocol.transaction.GlobalStatusResponse;
 import io.seata.core.rpc.netty.RegisterCheckAuthHandler;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -51,6 +80,7 @@ public class DefaultServerMessageListenerImpl implements ServerMessageListener {
     private static BlockingQueue<String> messageStrings = new LinkedBlockingQueue<String>();
     private ServerMessageSender serverMessageSender;
     private final TransactionMessageHandler transactionMessageHandler;
+    private final Executor mergeExecutor;
     private static final int MAX_LOG_SEND_THREAD = 1;
     private static final long KEEP_ALIVE_TIME = 0L;
     private static final String THREAD_PREFIX = "batchLoggerPrint";
@@ -63,7 +93,20 @@ public class DefaultServerMessageListenerImpl implements ServerMessageListener {
      * @param transactionMessageHandler the transaction message handler
      */
     public DefaultServerMessageListenerImpl(TransactionMessageHandler transactionMessageHandler) {
+        this(transactionMessageHandler, Runnable::run);
+    }
+
+    /**
+     * Instantiates a new Default server message listener.
+     *
+     * @param transactionMessageHandler the transaction message handler
+     * @param mergeExecutor             the executor handling the sub requests of different global transactions of a
+     *                                  merged request concurrently
+     */
+    public DefaultServerMessageListenerImpl(TransactionMessageHandler transactionMessageHandler,
+                                            Executor mergeExecutor) {
         this.transactionMessageHandler = transactionMessageHandler;
+        this.mergeExecutor = mergeExecutor;
     }
 
     @Override
@@ -81,14 +124,7 @@ public class DefaultServerMessageListenerImpl implements ServerMessageListener {
         }
         if (!(message instanceof AbstractMessage)) { return; }
         if (message instanceof MergedWarpMessage) {
-            AbstractResultMessage[] results = new AbstractResultMessage[((MergedWarpMessage)message).msgs.size()];
-            for (int i = 0; i < results.length; i++) {
-                final AbstractMessage subMessage = ((MergedWarpMessage)message).msgs.get(i);
-                results[i] = transactionMessageHandler.onRequest(subMessage, rpcContext);
-            }
-            MergeResultMessage resultMessage = new MergeResultMessage();
-            resultMessage.setMsgs(results);
-            sender.sendResponse(request, ctx.channel(), resultMessage);
+            new MergedRequest(request, (MergedWarpMessage)message, ctx, rpcContext, sender).handle();
         } else if (message instanceof AbstractResultMessage) {
             transactionMessageHandler.onResponse((AbstractResultMessage)message, rpcContext);
         }
@@ -182,6 +218,181 @@ public class DefaultServerMessageListenerImpl implements ServerMessageListener {
         this.serverMessageSender = serverMessageSender;
     }
 
+    /**
+     * Global transaction of a sub request, null when it does not belong to one yet.
+     *
+     * @param message the sub request
+     * @return the xid
+     */
+    private static String getXid(AbstractMessage message) {
+        if (message instanceof AbstractGlobalEndRequest) {
+            return ((AbstractGlobalEndRequest)message).getXid();
+        }
+        if (message instanceof BranchRegisterRequest) {
+            return ((BranchRegisterRequest)message).getXid();
+        }
+        if (message instanceof BranchReportRequest) {
+            return ((BranchReportRequest)message).getXid();
+        }
+        if (message instanceof BatchBranchRegisterRequest) {
+            return ((BatchBranchRegisterRequest)message).getXid();
+        }
+        return null;
+    }
+
+    /**
+     * The failed result of a sub request whose handler threw, so that a merged request is still answered, null when
+     * it is not a request to the coordinator.
+     *
+     * @param message the sub request
+     * @param th      the cause
+     * @return the result
+     */
+    private static AbstractResultMessage failedResult(AbstractMessage message, Throwable th) {
+        AbstractTransactionResponse response;
+        if (message instanceof GlobalBeginRequest) {
+            response = new GlobalBeginResponse();
+        } else if (message instanceof GlobalCommitRequest) {
+            response = new GlobalCommitResponse();
+        } else if (message instanceof GlobalRollbackRequest) {
+            response = new GlobalRollbackResponse();
+        } else if (message instanceof GlobalStatusRequest) {
+            response = new GlobalStatusResponse();
+        } else if (message instanceof GlobalLockQueryRequest) {
+            response = new GlobalLockQueryResponse();
+        } else if (message instanceof BranchRegisterRequest) {
+            response = new BranchRegisterResponse();
+        } else if (message instanceof BranchReportRequest) {
+            response = new BranchReportResponse();
+        } else if (message instanceof BatchBranchRegisterRequest) {
+            response = new BatchBranchRegisterResponse();
+        } else {
+            return null;
+        }
+        if (response instanceof AbstractGlobalEndResponse) {
+            ((AbstractGlobalEndResponse)response).setGlobalStatus(GlobalStatus.UnKnown);
+        }
+        response.setResultCode(ResultCode.Failed);
+        response.setMsg("RuntimeException[" + th.getMessage() + "]");
+        return response;
+    }
+
+    /**
+     * A merged request being handled.
+     * <p>
+     * The sub requests are grouped by global transaction, the groups are handled concurrently and the sub requests of
+     * one group in order. When the client accepts it, each result is sent as soon as it is ready and an empty merge
+     * result closes the batch, otherwise the results are sent together once all the groups are done.
+     */
+    private class MergedRequest {
+        private final RpcMessage request;
+        private final List<AbstractMessage> msgs;
+        private final List<Integer> msgIds;
+        private final ChannelHandlerContext ctx;
+        private final RpcContext rpcContext;
+        private final ServerMessageSender sender;
+        private final boolean stream;
+        private final AbstractResultMessage[] results;
+        private final AtomicInteger remainingGroups = new AtomicInteger();
+
+        MergedRequest(RpcMessage request, MergedWarpMessage message, ChannelHandlerContext ctx,
+                      RpcContext rpcContext, ServerMessageSender sender) {
+            this.request = request;
+            this.msgs = message.msgs;
+            this.msgIds = message.msgIds;
+            this.ctx = ctx;
+            this.rpcContext = rpcContext;
+            this.sender = sender;
+            this.stream = Boolean.parseBoolean(request.getHeadMap().get(ProtocolConstants.HEAD_KEY_MERGE_STREAM))
+                && msgIds != null && msgIds.size() == msgs.size();
+            this.results = stream ? null : new AbstractResultMessage[msgs.size()];
+        }
+
+        void handle() {
+            List<List<Integer>> groups = new ArrayList<>();
+            Map<String, List<Integer>> groupOfXid = new HashMap<>();
+            for (int i = 0; i < msgs.size(); i++) {
+                String xid = getXid(msgs.get(i));
+                List<Integer> group = xid == null ? null : groupOfXid.get(xid);
+                if (group == null) {
+                    group = new ArrayList<>();
+                    groups.add(group);
+                    if (xid != null) {
+                        groupOfXid.put(xid, group);
+                    }
+                }
+                group.add(i);
+            }
+            if (groups.isEmpty()) {
+                complete();
+                return;
+            }
+            remainingGroups.set(groups.size());
+            // the first group is handled by the current thread
+            for (int i = 1; i < groups.size(); i++) {
+                final List<Integer> group = groups.get(i);
+                try {
+                    mergeExecutor.execute(() -> handleGroup(group));
+                } catch (RejectedExecutionException e) {
+                    handleGroup(group);
+                }
+            }
+            handleGroup(groups.get(0));
+        }
+
+        private void handleGroup(List<Integer> group) {
+            try {
+                for (int index : group) {
+                    AbstractResultMessage result;
+                    try {
+                        result = transactionMessageHandler.onRequest(msgs.get(index), rpcContext);
+                    } catch (Throwable th) {
+                        LOGGER.error("handle merged sub request error: {}", th.getMessage(), th);
+                        result = failedResult(msgs.get(index), th);
+                        if (result == null) {
+                            continue;
+                        }
+                    }
+                    if (stream) {
+                        sender.sendResponse(subRequest(msgIds.get(index)), ctx.channel(), result);
+                    } else {
+                        results[index] = result;
+                    }
+                }
+            } finally {
+                if (remainingGroups.decrementAndGet() == 0) {
+                    complete();
+                }
+            }
+        }
+
+        private void complete() {
+            MergeResultMessage resultMessage = new MergeResultMessage();
+            if (stream) {
+                resultMessage.setMsgs(new AbstractResultMessage[0]);
+            } else {
+                for (AbstractResultMessage result : results) {
+                    if (result == null) {
+                        // only a sub request without a result type of its own, the client times out like for any
+                        // request left unanswered
+                        return;
+                    }
+                }
+                resultMessage.setMsgs(results);
+            }
+            sender.sendResponse(request, ctx.channel(), resultMessage);
+        }
+
+        private RpcMessage subRequest(int msgId) {
+            RpcMessage subRequest = new RpcMessage();
+            subRequest.setId(msgId);
+            subRequest.setMessageType(request.getMessageType());
+            subRequest.setCodec(request.getCodec());
+            subRequest.setCompressor(request.getCompressor());
+            return subRequest;
+        }
+    }
+
     /**
      * The type Batch log runnable.
      */
@@ -22,10 +22,13 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.thread.PositiveAtomicCounter;
+import io.seata.core.codec.CompressorType;
 import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.MergeMessage;
 import io.seata.core.protocol.MessageFuture;
@@ -38,13 +41,10 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.net.SocketAddress;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -78,26 +78,19 @@ public abstract class AbstractRpcRemoting extends ChannelDuplexHandler implement
      * The Futures.
      */
     protected final ConcurrentHashMap<Integer, MessageFuture> futures = new ConcurrentHashMap<>();
-    /**
-     * The Basket map.
-     */
-    protected final ConcurrentHashMap<String, BlockingQueue<RpcMessage>> basketMap = new ConcurrentHashMap<>();
 
-    private static final long NOT_WRITEABLE_CHECK_MILLS = 10L;
     /**
-     * The Merge lock.
+     * The Not writeable check mills.
      */
-    protected final Object mergeLock = new Object();
+    protected static final long NOT_WRITEABLE_CHECK_MILLS = 10L;
+    private static final long TIMEOUT_TICK_MILLS = 10L;
     /**
-     * The Now mills.
+     * Expires the futures not answered in time, a timeout is registered when the request is sent and cancelled when
+     * the response comes.
      */
-    protected volatile long nowMills = 0;
-    private static final int TIMEOUT_CHECK_INTERNAL = 3000;
+    private final HashedWheelTimer timeoutTimer = new HashedWheelTimer(
+        new NamedThreadFactory("rpcTimeoutWheel", 1, true), TIMEOUT_TICK_MILLS, TimeUnit.MILLISECONDS);
     private final Object lock = new Object();
-    /**
-     * The Is sending.
-     */
-    protected volatile boolean isSending = false;
     private String group = "DEFAULT";
     /**
      * The Merge msg map.
@@ -130,25 +123,7 @@ public abstract class AbstractRpcRemoting extends ChannelDuplexHandler implement
      * Init.
      */
     public void init() {
-        timerExecutor.scheduleAtFixedRate(new Runnable() {
-            @Override
-            public void run() {
-                List<MessageFuture> timeoutMessageFutures = new ArrayList<MessageFuture>(futures.size());
-                for (MessageFuture future : futures.values()) {
-                    if (future.isTimeout()) {
-                        timeoutMessageFutures.add(future);
-                    }
-                }
-                for (MessageFuture messageFuture : timeoutMessageFutures) {
-                    futures.remove(messageFuture.getRequestMessage().getId());
-                    messageFuture.setResultMessage(null);
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("timeout clear future : " + messageFuture.getRequestMessage().getBody());
-                    }
-                }
-                nowMills = System.currentTimeMillis();
-            }
-        }, TIMEOUT_CHECK_INTERNAL, TIMEOUT_CHECK_INTERNAL, TimeUnit.MILLISECONDS);
+        timeoutTimer.start();
     }
 
     /**
@@ -157,6 +132,7 @@ public abstract class AbstractRpcRemoting extends ChannelDuplexHandler implement
     @Override
     public void destroy() {
         timerExecutor.shutdown();
+        timeoutTimer.stop();
         messageExecutor.shutdown();
     }
 
@@ -214,8 +190,52 @@ public abstract class AbstractRpcRemoting extends ChannelDuplexHandler implement
         return sendAsyncRequest(null, channel, msg, 0);
     }
 
+    /**
+     * Send async request, the returned future completes with the response object, or exceptionally with a
+     * TimeoutException when no response comes in time.
+     *
+     * @param address the address, the request is merged with the other requests to it when not null
+     * @param channel the channel
+     * @param msg     the msg
+     * @param timeout the timeout
+     * @return the future of the response object
+     */
+    protected CompletableFuture<Object> sendAsyncRequestWithFuture(String address, Channel channel, Object msg,
+                                                                   long timeout) {
+        if (timeout <= 0) {
+            throw new FrameworkException("timeout should more than 0ms");
+        }
+        MessageFuture messageFuture = writeAsyncRequest(address, channel, msg, timeout);
+        if (messageFuture == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return messageFuture.toCompletableFuture();
+    }
+
     private Object sendAsyncRequest(String address, Channel channel, Object msg, long timeout)
         throws TimeoutException {
+        MessageFuture messageFuture = writeAsyncRequest(address, channel, msg, timeout);
+        if (messageFuture != null && timeout > 0) {
+            try {
+                return messageFuture.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (Exception exx) {
+                // nobody waits for it any more
+                if (futures.remove(messageFuture.getRequestMessage().getId()) != null) {
+                    messageFuture.setResultMessage(null);
+                }
+                LOGGER.error("wait response error:" + exx.getMessage() + ",ip:" + address + ",request:" + msg);
+                if (exx instanceof TimeoutException) {
+                    throw (TimeoutException)exx;
+                } else {
+                    throw new RuntimeException(exx);
+                }
+            }
+        } else {
+            return null;
+        }
+    }
+
+    private MessageFuture writeAsyncRequest(String address, Channel channel, Object msg, long timeout) {
         if (channel == null) {
             LOGGER.warn("sendAsyncRequestWithResponse nothing, caused by null channel.");
             return null;
@@ -230,57 +250,69 @@ public abstract class AbstractRpcRemoting extends ChannelDuplexHandler implement
         final MessageFuture messageFuture = new MessageFuture();
         messageFuture.setRequestMessage(rpcMessage);
         messageFuture.setTimeout(timeout);
-        futures.put(rpcMessage.getId(), messageFuture);
+        if (timeout > 0) {
+            // nobody waits for the response of a request without timeout
+            registerFuture(messageFuture);
+        }
 
         if (address != null) {
-            ConcurrentHashMap<String, BlockingQueue<RpcMessage>> map = basketMap;
-            BlockingQueue<RpcMessage> basket = map.get(address);
-            if (basket == null) {
-                map.putIfAbsent(address, new LinkedBlockingQueue<>());
-                basket = map.get(address);
-            }
-            basket.offer(rpcMessage);
+            sendMergedRequest(address, channel, rpcMessage);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("offer message: " + rpcMessage.getBody());
             }
-            if (!isSending) {
-                synchronized (mergeLock) {
-                    mergeLock.notifyAll();
+        } else {
+            writeRequest(channel, rpcMessage);
+        }
+        return messageFuture;
+    }
+
+    private void registerFuture(MessageFuture messageFuture) {
+        final int id = messageFuture.getRequestMessage().getId();
+        futures.put(id, messageFuture);
+        Timeout timeout = timeoutTimer.newTimeout(task -> {
+            MessageFuture expired = futures.remove(id);
+            if (expired != null) {
+                expired.setResultMessage(new TimeoutException("cost " + expired.getTimeout() + " ms"));
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("timeout clear future : " + expired.getRequestMessage().getBody());
                 }
             }
-        } else {
-            ChannelFuture future;
-            channelWriteableCheck(channel, msg);
-            future = channel.writeAndFlush(rpcMessage);
-            future.addListener(new ChannelFutureListener() {
-                @Override
-                public void operationComplete(ChannelFuture future) {
-                    if (!future.isSuccess()) {
-                        MessageFuture messageFuture = futures.remove(rpcMessage.getId());
-                        if (messageFuture != null) {
-                            messageFuture.setResultMessage(future.cause());
-                        }
-                        destroyChannel(future.channel());
+        }, messageFuture.getTimeout(), TimeUnit.MILLISECONDS);
+        messageFuture.whenDone(timeout::cancel);
+    }
+
+    /**
+     * Write a request to the channel on its own, its pending future fails when the write does.
+     *
+     * @param channel    the channel
+     * @param rpcMessage the rpc message
+     */
+    protected void writeRequest(Channel channel, RpcMessage rpcMessage) {
+        channelWriteableCheck(channel, rpcMessage.getBody());
+        ChannelFuture future = channel.writeAndFlush(rpcMessage);
+        future.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (!future.isSuccess()) {
+                    MessageFuture messageFuture = futures.remove(rpcMessage.getId());
+                    if (messageFuture != null) {
+                        messageFuture.setResultMessage(future.cause());
                     }
-                }
-            });
-        }
-        if (timeout > 0) {
-            try {
-                return messageFuture.get(timeout, TimeUnit.MILLISECONDS);
-            } catch (Exception exx) {
-                LOGGER.error("wait response error:" + exx.getMessage() + ",ip:" + address + ",request:" + msg);
-                if (exx instanceof TimeoutException) {
-                    throw (TimeoutException)exx;
-                } else {
-                    throw new RuntimeException(exx);
+                    destroyChannel(future.channel());
                 }
             }
-        } else {
-            return null;
-        }
+        });
     }
 
+    /**
+     * Send a request to the address, which may be merged with the other requests to it.
+     *
+     * @param address    the address
+     * @param channel    the channel of the address
+     * @param rpcMessage the rpc message
+     */
+    protected abstract void sendMergedRequest(String address, Channel channel, RpcMessage rpcMessage);
+
     /**
      * Send request.
      *
@@ -298,6 +330,8 @@ public abstract class AbstractRpcRemoting extends ChannelDuplexHandler implement
         rpcMessage.setId(getNextMessageId());
         if (msg instanceof MergeMessage) {
             mergeMsgMap.put(rpcMessage.getId(), (MergeMessage)msg);
+            // take the sub results as they complete, a server not knowing it answers them all at once
+            rpcMessage.getHeadMap().put(ProtocolConstants.HEAD_KEY_MERGE_STREAM, Boolean.TRUE.toString());
         }
         channelWriteableCheck(channel, msg);
         if (LOGGER.isDebugEnabled()) {
@@ -320,7 +354,9 @@ public abstract class AbstractRpcRemoting extends ChannelDuplexHandler implement
                 ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE :
                 ProtocolConstants.MSGTYPE_RESPONSE);
         rpcMessage.setCodec(request.getCodec()); // same with request
-        rpcMessage.setCompressor(request.getCompressor());
+        // a request sent raw, e.g. being below the threshold, does not mean the response must be
+        rpcMessage.setCompressor(request.getCompressor() != CompressorType.NONE.getCode() ? request.getCompressor()
+            : ProtocolConstants.CONFIGURED_COMPRESSOR);
         rpcMessage.setBody(msg);
         rpcMessage.setId(request.getId());
         channelWriteableCheck(channel, msg);
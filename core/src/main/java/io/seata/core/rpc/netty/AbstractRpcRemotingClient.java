@@ -17,7 +17,7 @@ package io.seata.core.rpc.netty;
 
 import java.net.InetSocketAddress;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -63,7 +63,6 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
     private static final String MSG_ID_PREFIX = "msgId:";
     private static final String FUTURES_PREFIX = "futures:";
     private static final String SINGLE_LOG_POSTFIX = ";";
-    private static final int MAX_MERGE_SEND_MILLS = 1;
     private static final String THREAD_PREFIX_SPLIT_CHAR = "_";
     
     private static final int MAX_MERGE_SEND_THREAD = 1;
@@ -76,6 +75,7 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
     private ClientMessageListener clientMessageListener;
     private final NettyPoolKey.TransactionRole transactionRole;
     private ExecutorService mergeSendExecutorService;
+    private RpcMessageBatcher rpcMessageBatcher;
     
     public AbstractRpcRemotingClient(NettyClientConfig nettyClientConfig, EventExecutorGroup eventExecutorGroup,
                                      ThreadPoolExecutor messageExecutor, NettyPoolKey.TransactionRole transactionRole) {
@@ -118,13 +118,19 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
             KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
             new LinkedBlockingQueue<>(),
             new NamedThreadFactory(getThreadPrefix(), MAX_MERGE_SEND_THREAD));
-        mergeSendExecutorService.submit(new MergedSendRunnable());
+        rpcMessageBatcher = new RpcMessageBatcher(new MergedBatchSender(), NettyClientConfig.getBatchMaxSize(),
+            NettyClientConfig.getBatchLingerMicros(),
+            NettyClientConfig.getMaxNotWriteableRetry() * NOT_WRITEABLE_CHECK_MILLS);
+        mergeSendExecutorService.submit(rpcMessageBatcher);
         super.init();
     }
     
     @Override
     public void destroy() {
         clientBootstrap.shutdown();
+        if (rpcMessageBatcher != null) {
+            rpcMessageBatcher.shutdown();
+        }
         mergeSendExecutorService.shutdown();
     }
     
@@ -143,7 +149,8 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
         if (rpcMessage.getBody() instanceof MergeResultMessage) {
             MergeResultMessage results = (MergeResultMessage) rpcMessage.getBody();
             MergedWarpMessage mergeMessage = (MergedWarpMessage) mergeMsgMap.remove(rpcMessage.getId());
-            for (int i = 0; i < mergeMessage.msgs.size(); i++) {
+            // the results streamed one by one were already delivered, an empty result just closes the batch
+            for (int i = 0; i < results.getMsgs().length; i++) {
                 int msgId = mergeMessage.msgIds.get(i);
                 MessageFuture future = futures.remove(msgId);
                 if (future == null) {
@@ -159,6 +166,29 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
         super.channelRead(ctx, msg);
     }
     
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable() && rpcMessageBatcher != null) {
+            rpcMessageBatcher.onWritable();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    protected void sendMergedRequest(String address, Channel channel, RpcMessage rpcMessage) {
+        // the batcher writes to the channel of the address when the batch is sent
+        rpcMessageBatcher.offer(address, rpcMessage);
+    }
+
+    /**
+     * Gets the batcher of the merged requests, giving the batch size and queueing delay statistics.
+     *
+     * @return the rpc message batcher
+     */
+    public RpcMessageBatcher getRpcMessageBatcher() {
+        return rpcMessageBatcher;
+    }
+
     @Override
     public void dispatch(RpcMessage request, ChannelHandlerContext ctx) {
         if (clientMessageListener != null) {
@@ -239,6 +269,19 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
         return sendAsyncRequestWithResponse(serverAddress, clientChannelManager.acquireChannel(serverAddress), msg, timeout);
     }
     
+    @Override
+    public CompletableFuture<Object> sendAsyncRequest(Object msg, long timeout) {
+        String validAddress = loadBalance(getTransactionServiceGroup());
+        Channel channel = clientChannelManager.acquireChannel(validAddress);
+        return sendAsyncRequestWithFuture(validAddress, channel, msg, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Object> sendAsyncRequest(String serverAddress, Object msg, long timeout) {
+        return sendAsyncRequestWithFuture(serverAddress, clientChannelManager.acquireChannel(serverAddress), msg,
+            timeout);
+    }
+
     @Override
     public void sendResponse(RpcMessage request, String serverAddress, Object msg) {
         super.sendResponse(request, clientChannelManager.acquireChannel(serverAddress), msg);
@@ -286,54 +329,62 @@ public abstract class AbstractRpcRemotingClient extends AbstractRpcRemoting
     }
 
     /**
-     * The type Merged send runnable.
+     * Sends the batches of the requests to one address as merged requests.
      */
-    private class MergedSendRunnable implements Runnable {
+    private class MergedBatchSender implements RpcMessageBatcher.BatchSender {
 
         @Override
-        public void run() {
-            while (true) {
-                synchronized (mergeLock) {
-                    try {
-                        mergeLock.wait(MAX_MERGE_SEND_MILLS);
-                    } catch (InterruptedException e) {
-                    }
+        public boolean isWritable(String address) {
+            try {
+                return clientChannelManager.acquireChannel(address).isWritable();
+            } catch (Exception e) {
+                // let the send fail fast
+                return true;
+            }
+        }
+
+        @Override
+        public void send(String address, List<RpcMessage> batch) {
+            MergedWarpMessage mergeMessage = new MergedWarpMessage();
+            for (RpcMessage msg : batch) {
+                mergeMessage.msgs.add((AbstractMessage) msg.getBody());
+                mergeMessage.msgIds.add(msg.getId());
+            }
+            if (mergeMessage.msgIds.size() > 1) {
+                printMergeMessageLog(mergeMessage);
+            }
+            Channel sendChannel = null;
+            try {
+                sendChannel = clientChannelManager.acquireChannel(address);
+                sendRequest(sendChannel, mergeMessage);
+            } catch (RuntimeException e) {
+                if (e instanceof FrameworkException
+                    && ((FrameworkException) e).getErrcode() == FrameworkErrorCode.ChannelIsNotWritable
+                    && sendChannel != null) {
+                    destroyChannel(address, sendChannel);
                 }
-                isSending = true;
-                for (String address : basketMap.keySet()) {
-                    BlockingQueue<RpcMessage> basket = basketMap.get(address);
-                    if (basket.isEmpty()) {
-                        continue;
-                    }
+                // fast fail, whatever failed: nothing else completes the futures of the batch
+                failFutures(batch);
+                LOGGER.error("client merge call failed: {}", e.getMessage(), e);
+            }
+        }
 
-                    MergedWarpMessage mergeMessage = new MergedWarpMessage();
-                    while (!basket.isEmpty()) {
-                        RpcMessage msg = basket.poll();
-                        mergeMessage.msgs.add((AbstractMessage) msg.getBody());
-                        mergeMessage.msgIds.add(msg.getId());
-                    }
-                    if (mergeMessage.msgIds.size() > 1) {
-                        printMergeMessageLog(mergeMessage);
-                    }
-                    Channel sendChannel = null;
-                    try {
-                        sendChannel = clientChannelManager.acquireChannel(address);
-                        sendRequest(sendChannel, mergeMessage);
-                    } catch (FrameworkException e) {
-                        if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
-                            destroyChannel(address, sendChannel);
-                        }
-                        // fast fail
-                        for (Integer msgId : mergeMessage.msgIds) {
-                            MessageFuture messageFuture = futures.remove(msgId);
-                            if (messageFuture != null) {
-                                messageFuture.setResultMessage(null);
-                            }
-                        }
-                        LOGGER.error("client merge call failed: {}", e.getMessage(), e);
-                    }
+        @Override
+        public void fail(String address, List<RpcMessage> batch) {
+            try {
+                destroyChannel(address, clientChannelManager.acquireChannel(address));
+            } catch (Exception e) {
+                LOGGER.error("failed to destroy channel to {}: {}", address, e.getMessage());
+            }
+            failFutures(batch);
+        }
+
+        private void failFutures(List<RpcMessage> batch) {
+            for (RpcMessage msg : batch) {
+                MessageFuture messageFuture = futures.remove(msg.getId());
+                if (messageFuture != null) {
+                    messageFuture.setResultMessage(null);
                 }
-                isSending = false;
             }
         }
 
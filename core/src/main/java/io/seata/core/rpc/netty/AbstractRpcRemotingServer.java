@@ -34,6 +34,7 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.seata.common.XID;
 import io.seata.common.thread.NamedThreadFactory;
+import io.seata.core.protocol.RpcMessage;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
 import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
@@ -192,4 +193,10 @@ public abstract class AbstractRpcRemotingServer extends AbstractRpcRemoting impl
         channel.close();
     }
 
+    @Override
+    protected void sendMergedRequest(String address, Channel channel, RpcMessage rpcMessage) {
+        // the requests to the clients are not merged
+        writeRequest(channel, rpcMessage);
+    }
+
 }
@@ -39,6 +39,8 @@ public class NettyClientConfig extends NettyBaseConfig {
     private static int clientType;
     private static int maxInactiveChannelCheck = 10;
     private static final int MAX_NOT_WRITEABLE_RETRY = 2000;
+    private static final int DEFAULT_BATCH_MAX_SIZE = 256;
+    private static final long DEFAULT_BATCH_LINGER_MICROS = 0L;
     private static final int MAX_CHECK_ALIVE_RETRY = 300;
     private static final int CHECK_ALIVE_INTERNAL = 10;
     private static final String SOCKET_ADDRESS_START_CHAR = "/";
@@ -300,6 +302,24 @@ public class NettyClientConfig extends NettyBaseConfig {
         return MAX_NOT_WRITEABLE_RETRY;
     }
 
+    /**
+     * Gets the max number of requests merged into one batch.
+     *
+     * @return the batch max size
+     */
+    public static int getBatchMaxSize() {
+        return CONFIG.getInt("transport.batch-max-size", DEFAULT_BATCH_MAX_SIZE);
+    }
+
+    /**
+     * Gets how long a batch waits to fill up before being sent, 0 sends it as soon as possible.
+     *
+     * @return the batch linger in microseconds
+     */
+    public static long getBatchLingerMicros() {
+        return CONFIG.getLong("transport.batch-linger-micros", DEFAULT_BATCH_LINGER_MICROS);
+    }
+
     /**
      * Gets per host min conn.
      *
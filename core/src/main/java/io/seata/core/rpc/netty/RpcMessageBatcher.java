@@ -0,0 +1,363 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import io.seata.core.protocol.RpcMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batches the requests sent to each server address.
+ * <p>
+ * Every address has its own lock free queue. The first request queued into an idle queue hands the queue to the
+ * sending thread, which otherwise blocks, so an idle client costs nothing. A batch is sent as soon as the sending
+ * thread is free, made of whatever was queued meanwhile: batches grow with the load without delaying the requests of a
+ * light load. A batch holds at most the max batch size requests, and when a linger is set the sending thread waits
+ * for the batch to fill up to that long after its oldest request was queued.
+ * <p>
+ * Nothing is written toward a channel which is not writable, the requests stay queued until it drains, and are
+ * failed if it does not drain in time.
+ */
+public class RpcMessageBatcher implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RpcMessageBatcher.class);
+
+    private static final long NOT_WRITABLE_CHECK_MILLIS = 10L;
+
+    private static final Basket WAKE_UP = new Basket(null);
+
+    private final ConcurrentHashMap<String, Basket> baskets = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<Basket> readyBaskets = new LinkedBlockingQueue<>();
+
+    private final List<Basket> notWritableBaskets = new ArrayList<>();
+
+    private final BatchSender batchSender;
+
+    private final int maxBatchSize;
+
+    private final long lingerNanos;
+
+    private final long maxNotWritableNanos;
+
+    private final LongAdder batchCount = new LongAdder();
+
+    private final LongAdder messageCount = new LongAdder();
+
+    private final LongAdder queueingNanos = new LongAdder();
+
+    private final AtomicLong maxBatchCount = new AtomicLong();
+
+    private final AtomicLong maxQueueingNanos = new AtomicLong();
+
+    private volatile Thread sendingThread;
+
+    private volatile boolean lingering;
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Rpc message batcher.
+     *
+     * @param batchSender          the batch sender
+     * @param maxBatchSize         the max number of requests in a batch
+     * @param lingerMicros         how long to wait for a batch to fill up, 0 to send right away
+     * @param maxNotWritableMillis how long the requests wait for a channel which is not writable
+     */
+    public RpcMessageBatcher(BatchSender batchSender, int maxBatchSize, long lingerMicros, long maxNotWritableMillis) {
+        this.batchSender = batchSender;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.maxNotWritableNanos = TimeUnit.MILLISECONDS.toNanos(maxNotWritableMillis);
+    }
+
+    /**
+     * Queue a request to the address.
+     *
+     * @param address    the server address
+     * @param rpcMessage the request
+     */
+    public void offer(String address, RpcMessage rpcMessage) {
+        Basket basket = baskets.computeIfAbsent(address, Basket::new);
+        basket.queue.offer(new Entry(rpcMessage, System.nanoTime()));
+        int size = basket.size.incrementAndGet();
+        if (basket.scheduled.compareAndSet(false, true)) {
+            readyBaskets.offer(basket);
+        } else if (lingering && size >= maxBatchSize) {
+            LockSupport.unpark(sendingThread);
+        }
+    }
+
+    /**
+     * Retry the requests waiting for a channel which became writable.
+     */
+    public void onWritable() {
+        readyBaskets.offer(WAKE_UP);
+    }
+
+    /**
+     * Stop sending, the requests still queued are dropped and time out.
+     */
+    public void shutdown() {
+        running = false;
+        readyBaskets.offer(WAKE_UP);
+    }
+
+    @Override
+    public void run() {
+        sendingThread = Thread.currentThread();
+        while (running) {
+            Basket basket;
+            try {
+                basket = notWritableBaskets.isEmpty() ? readyBaskets.take()
+                    : readyBaskets.poll(NOT_WRITABLE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                if (basket != null && basket != WAKE_UP) {
+                    send(basket);
+                }
+                if (!notWritableBaskets.isEmpty()) {
+                    retryNotWritable();
+                }
+            } catch (Throwable th) {
+                LOGGER.error("send batch error: {}", th.getMessage(), th);
+            }
+        }
+    }
+
+    private void send(Basket basket) {
+        if (!batchSender.isWritable(basket.address)) {
+            if (basket.notWritableSince == 0) {
+                basket.notWritableSince = System.nanoTime();
+                notWritableBaskets.add(basket);
+            }
+            return;
+        }
+        linger(basket);
+        List<RpcMessage> batch = drain(basket, maxBatchSize);
+        if (!batch.isEmpty()) {
+            batchSender.send(basket.address, batch);
+        }
+        // let the next request reschedule it, unless some are already there
+        basket.scheduled.set(false);
+        if (basket.size.get() > 0 && basket.scheduled.compareAndSet(false, true)) {
+            readyBaskets.offer(basket);
+        }
+    }
+
+    private void linger(Basket basket) {
+        if (lingerNanos <= 0) {
+            return;
+        }
+        Entry oldest = basket.queue.peek();
+        if (oldest == null) {
+            return;
+        }
+        lingering = true;
+        try {
+            long deadline = oldest.queuedNanos + lingerNanos;
+            long remaining;
+            while (basket.size.get() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            lingering = false;
+        }
+    }
+
+    private void retryNotWritable() {
+        // sent after the loop, a send may add the basket back to the list when the channel turned not writable again
+        List<Basket> writableBaskets = new ArrayList<>();
+        Iterator<Basket> iterator = notWritableBaskets.iterator();
+        while (iterator.hasNext()) {
+            Basket basket = iterator.next();
+            if (batchSender.isWritable(basket.address)) {
+                iterator.remove();
+                basket.notWritableSince = 0;
+                writableBaskets.add(basket);
+            } else if (System.nanoTime() - basket.notWritableSince > maxNotWritableNanos) {
+                iterator.remove();
+                basket.notWritableSince = 0;
+                List<RpcMessage> pending = drain(basket, Integer.MAX_VALUE);
+                LOGGER.error("channel to {} is not writable, {} requests failed", basket.address, pending.size());
+                batchSender.fail(basket.address, pending);
+                basket.scheduled.set(false);
+                if (basket.size.get() > 0 && basket.scheduled.compareAndSet(false, true)) {
+                    readyBaskets.offer(basket);
+                }
+            }
+        }
+        for (Basket basket : writableBaskets) {
+            send(basket);
+        }
+    }
+
+    private List<RpcMessage> drain(Basket basket, int max) {
+        List<RpcMessage> batch = new ArrayList<>(Math.min(max, basket.size.get()));
+        long now = System.nanoTime();
+        Entry entry;
+        while (batch.size() < max && (entry = basket.queue.poll()) != null) {
+            basket.size.decrementAndGet();
+            batch.add(entry.rpcMessage);
+            long queueing = now - entry.queuedNanos;
+            queueingNanos.add(queueing);
+            if (queueing > maxQueueingNanos.get()) {
+                maxQueueingNanos.accumulateAndGet(queueing, Math::max);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchCount.increment();
+            messageCount.add(batch.size());
+            if (batch.size() > maxBatchCount.get()) {
+                maxBatchCount.accumulateAndGet(batch.size(), Math::max);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Number of the batches drained so far.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * Number of the requests drained so far.
+     *
+     * @return the message count
+     */
+    public long getMessageCount() {
+        return messageCount.sum();
+    }
+
+    /**
+     * Average number of requests in a batch.
+     *
+     * @return the average batch size
+     */
+    public double getAverageBatchSize() {
+        long batches = batchCount.sum();
+        return batches == 0 ? 0 : (double)messageCount.sum() / batches;
+    }
+
+    /**
+     * Largest number of requests in a batch.
+     *
+     * @return the max batch size
+     */
+    public long getMaxBatchSize() {
+        return maxBatchCount.get();
+    }
+
+    /**
+     * Average time a request waited in its queue, in microseconds.
+     *
+     * @return the average queueing delay
+     */
+    public double getAverageQueueingMicros() {
+        long messages = messageCount.sum();
+        return messages == 0 ? 0 : (double)queueingNanos.sum() / messages / 1000;
+    }
+
+    /**
+     * Longest time a request waited in its queue, in microseconds.
+     *
+     * @return the max queueing delay
+     */
+    public long getMaxQueueingMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxQueueingNanos.get());
+    }
+
+    /**
+     * Writes the batches.
+     */
+    public interface BatchSender {
+
+        /**
+         * Whether the channel to the address can take a batch now.
+         *
+         * @param address the server address
+         * @return true if a batch can be sent
+         */
+        boolean isWritable(String address);
+
+        /**
+         * Send a batch.
+         *
+         * @param address the server address
+         * @param batch   the requests
+         */
+        void send(String address, List<RpcMessage> batch);
+
+        /**
+         * Give up the requests waiting for a channel which stayed not writable.
+         *
+         * @param address the server address
+         * @param batch   the requests
+         */
+        void fail(String address, List<RpcMessage> batch);
+    }
+
+    private static class Basket {
+        private final String address;
+
+        private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Only used by the sending thread
+         */
+        private long notWritableSince;
+
+        Basket(String address) {
+            this.address = address;
+        }
+    }
+
+    private static class Entry {
+        private final RpcMessage rpcMessage;
+
+        private final long queuedNanos;
+
+        Entry(RpcMessage rpcMessage, long queuedNanos) {
+            this.rpcMessage = rpcMessage;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+}
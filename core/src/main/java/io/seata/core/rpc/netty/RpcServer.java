@@ -123,7 +123,7 @@ public class RpcServer extends AbstractRpcRemotingServer implements ServerMessag
         super.init();
         setChannelHandlers(RpcServer.this);
         DefaultServerMessageListenerImpl defaultServerMessageListenerImpl = new DefaultServerMessageListenerImpl(
-            transactionMessageHandler);
+            transactionMessageHandler, messageExecutor);
         defaultServerMessageListenerImpl.init();
         defaultServerMessageListenerImpl.setServerMessageSender(this);
         this.setServerMessageListener(defaultServerMessageListenerImpl);
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty.v1;
+
+import java.util.Map;
+
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.seata.core.codec.CompressorType;
+import io.seata.core.compressor.CompressorFactory;
+import io.seata.core.protocol.ProtocolConstants;
+
+/**
+ * Keeps track of the compressors each peer can decompress.
+ * <p>
+ * Each side puts the codes of its available compressors in the head map of the first request or response it sends
+ * on a channel. A body is only compressed toward a peer which advertised that compressor, so peers of older
+ * versions, which ignore the head entry and never send it, keep receiving uncompressed bodies.
+ */
+final class CompressorNegotiator {
+
+    private static final AttributeKey<Boolean> ADVERTISED = AttributeKey.valueOf("seata.compressorsAdvertised");
+
+    private static final AttributeKey<String> PEER_COMPRESSORS = AttributeKey.valueOf("seata.peerCompressors");
+
+    private static volatile String localCompressors;
+
+    private CompressorNegotiator() {
+    }
+
+    /**
+     * Put the local compressors into the head map if they were not sent on this channel yet.
+     *
+     * @param channel the channel
+     * @param headMap the head map of the message to send
+     */
+    static void advertise(Channel channel, Map<String, String> headMap) {
+        if (channel == null || headMap == null) {
+            return;
+        }
+        Attribute<Boolean> advertised = channel.attr(ADVERTISED);
+        if (advertised.get() == null && advertised.setIfAbsent(Boolean.TRUE) == null) {
+            headMap.put(ProtocolConstants.HEAD_KEY_COMPRESSORS, getLocalCompressors());
+        }
+    }
+
+    /**
+     * Remember the compressors advertised by the peer, if any.
+     *
+     * @param channel the channel
+     * @param headMap the head map of the received message
+     */
+    static void onReceive(Channel channel, Map<String, String> headMap) {
+        if (channel == null || headMap == null) {
+            return;
+        }
+        String compressors = headMap.remove(ProtocolConstants.HEAD_KEY_COMPRESSORS);
+        if (compressors != null) {
+            channel.attr(PEER_COMPRESSORS).set("," + compressors + ",");
+        }
+    }
+
+    /**
+     * Whether the peer can decompress bodies compressed with the compressor.
+     *
+     * @param channel    the channel
+     * @param compressor the compressor code
+     * @return the boolean
+     */
+    static boolean peerSupports(Channel channel, byte compressor) {
+        if (channel == null) {
+            return false;
+        }
+        String compressors = channel.attr(PEER_COMPRESSORS).get();
+        return compressors != null && compressors.contains("," + compressor + ",");
+    }
+
+    private static String getLocalCompressors() {
+        if (localCompressors == null) {
+            StringBuilder builder = new StringBuilder();
+            for (CompressorType type : CompressorFactory.getAvailableTypes()) {
+                if (builder.length() > 0) {
+                    builder.append(',');
+                }
+                builder.append(type.getCode());
+            }
+            localCompressors = builder.toString();
+        }
+        return localCompressors;
+    }
+}
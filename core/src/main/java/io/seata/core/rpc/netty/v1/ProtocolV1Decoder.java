@@ -20,6 +20,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.seata.core.codec.Codec;
 import io.seata.core.codec.CodecFactory;
+import io.seata.core.codec.CompressorType;
+import io.seata.core.compressor.CompressorFactory;
 import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
@@ -80,7 +82,11 @@ public class ProtocolV1Decoder extends LengthFieldBasedFrameDecoder {
         if (decoded instanceof ByteBuf) {
             ByteBuf frame = (ByteBuf) decoded;
             try {
-                return decodeFrame(frame);
+                Object rpcMessage = decodeFrame(frame);
+                if (rpcMessage instanceof RpcMessage) {
+                    CompressorNegotiator.onReceive(ctx.channel(), ((RpcMessage) rpcMessage).getHeadMap());
+                }
+                return rpcMessage;
             } catch (Exception e) {
                 LOGGER.error("Decode frame error!", e);
                 throw e;
@@ -130,10 +136,16 @@ public class ProtocolV1Decoder extends LengthFieldBasedFrameDecoder {
         } else {
             int bodyLength = fullLength - headLength;
             if (bodyLength > 0) {
-                byte[] bs = new byte[bodyLength];
-                frame.readBytes(bs);
                 Codec codec = CodecFactory.getCodec(codecType);
-                rpcMessage.setBody(codec.decode(bs));
+                if (compressor != CompressorType.NONE.getCode()) {
+                    byte[] bs = new byte[bodyLength];
+                    frame.readBytes(bs);
+                    bs = CompressorFactory.getCompressor(compressor).decompress(bs);
+                    rpcMessage.setBody(codec.decode(bs));
+                } else {
+                    // decode the body in place
+                    rpcMessage.setBody(codec.decode(frame.readSlice(bodyLength)));
+                }
             }
         }
 
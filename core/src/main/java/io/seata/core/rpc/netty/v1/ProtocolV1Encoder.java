@@ -20,6 +20,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.seata.core.codec.Codec;
 import io.seata.core.codec.CodecFactory;
+import io.seata.core.codec.CompressorType;
+import io.seata.core.compressor.CompressorFactory;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
 import org.slf4j.Logger;
@@ -60,55 +62,65 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
 
     @Override
     public void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+        int start = out.writerIndex();
         try {
             if (msg instanceof RpcMessage) {
                 RpcMessage rpcMessage = (RpcMessage) msg;
 
-                int fullLength = ProtocolConstants.V1_HEAD_LENGTH;
                 int headLength = ProtocolConstants.V1_HEAD_LENGTH;
 
                 byte messageType = rpcMessage.getMessageType();
+                boolean hasBody = messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
+                        && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE;
+                if (hasBody) {
+                    CompressorNegotiator.advertise(ctx.channel(), rpcMessage.getHeadMap());
+                }
+
                 out.writeBytes(ProtocolConstants.MAGIC_CODE_BYTES);
                 out.writeByte(ProtocolConstants.VERSION);
                 // full Length(4B) and head length(2B) will fix in the end. 
                 out.writerIndex(out.writerIndex() + 6);
                 out.writeByte(messageType);
                 out.writeByte(rpcMessage.getCodec());
-                out.writeByte(rpcMessage.getCompressor());
+                // compressor will fix in the end if the body is compressed
+                out.writeByte(CompressorType.NONE.getCode());
                 out.writeInt(rpcMessage.getId());
 
                 // direct write head with zero-copy
                 Map<String, String> headMap = rpcMessage.getHeadMap();
                 if (headMap != null && !headMap.isEmpty()) {
-                    int headMapBytesLength = HeadMapSerializer.getInstance().encode(headMap, out);
-                    headLength += headMapBytesLength;
-                    fullLength += headMapBytesLength;
+                    headLength += HeadMapSerializer.getInstance().encode(headMap, out);
                 }
 
-                byte[] bodyBytes = null;
-                if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
-                        && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
-                    // heartbeat has no body
+                if (hasBody) {
+                    // heartbeat has no body, the others are encoded straight into the buffer
+                    int bodyStart = out.writerIndex();
                     Codec codec = CodecFactory.getCodec(rpcMessage.getCodec());
-                    bodyBytes = codec.encode(rpcMessage.getBody());
-                    fullLength += bodyBytes.length;
-                }
-
-                if (bodyBytes != null) {
-                    out.writeBytes(bodyBytes);
+                    codec.encode(rpcMessage.getBody(), out);
+                    int bodyLength = out.writerIndex() - bodyStart;
+                    // only compress big bodies, toward a peer able to decompress them
+                    byte compressor = rpcMessage.getCompressor();
+                    if (compressor != CompressorType.NONE.getCode()
+                            && bodyLength >= ProtocolConstants.CONFIGURED_COMPRESSOR_THRESHOLD
+                            && CompressorNegotiator.peerSupports(ctx.channel(), compressor)) {
+                        byte[] bodyBytes = new byte[bodyLength];
+                        out.getBytes(bodyStart, bodyBytes);
+                        bodyBytes = CompressorFactory.getCompressor(compressor).compress(bodyBytes);
+                        out.writerIndex(bodyStart);
+                        out.writeBytes(bodyBytes);
+                        out.setByte(start + 11, compressor);
+                    }
                 }
 
-                // fix fullLength and headLength
-                int writeIndex = out.writerIndex();
-                // skip magic code(2B) + version(1B)
-                out.writerIndex(writeIndex - fullLength + 3);
-                out.writeInt(fullLength);
-                out.writeShort(headLength);
-                out.writerIndex(writeIndex);
+                // fix fullLength and headLength, skip magic code(2B) + version(1B)
+                out.setInt(start + 3, out.writerIndex() - start);
+                out.setShort(start + 7, headLength);
             } else {
                 throw new UnsupportedOperationException("Not support this class:" + msg.getClass());
             }
         } catch (Throwable e) {
+            // drop the partially written frame
+            out.writerIndex(start);
             LOGGER.error("Encode request error!", e);
         }
     }
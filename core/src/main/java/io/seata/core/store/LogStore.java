@@ -51,6 +51,18 @@ public interface LogStore {
      */
     List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, int limit);
 
+    /**
+     * Query a page of global transaction do list, ordered by transaction id and xid.
+     *
+     * @param status             the status
+     * @param afterTransactionId the transaction id of the last global transaction of the previous page
+     * @param afterXid           the xid of the last global transaction of the previous page, empty for the first page
+     * @param limit              the limit
+     * @return the list
+     */
+    List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, long afterTransactionId, String afterXid,
+                                                       int limit);
+
     /**
      * Insert global transaction do boolean.
      *
@@ -83,6 +95,14 @@ public interface LogStore {
      */
     List<BranchTransactionDO> queryBranchTransactionDO(String xid);
 
+    /**
+     * Query the branch transaction dos of several global transactions.
+     *
+     * @param xids the xids
+     * @return the list
+     */
+    List<BranchTransactionDO> queryBranchTransactionDO(List<String> xids);
+
     /**
      * Insert branch transaction do boolean.
      *
@@ -91,6 +111,26 @@ public interface LogStore {
      */
     boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO);
 
+    /**
+     * Insert the branch transaction dos in one batch, all or nothing.
+     *
+     * @param branchTransactionDOs the branch transaction dos
+     * @return the boolean
+     */
+    boolean insertBranchTransactionDOs(List<BranchTransactionDO> branchTransactionDOs);
+
+    /**
+     * Insert, update the status of, and delete branch transaction dos in one transaction, all or nothing.
+     * Each branch transaction appears in one of the lists at most.
+     *
+     * @param insertDOs the branch transaction dos to insert
+     * @param updateDOs the branch transaction dos to update
+     * @param deleteDOs the branch transaction dos to delete
+     * @return the boolean
+     */
+    boolean writeBranchTransactionDOs(List<BranchTransactionDO> insertDOs, List<BranchTransactionDO> updateDOs,
+                                      List<BranchTransactionDO> deleteDOs);
+
     /**
      * Update branch transaction do boolean.
      *
@@ -31,7 +31,12 @@ public enum StoreMode {
     /**
      * database store
      */
-    DB;
+    DB,
+
+    /**
+     * redis store
+     */
+    REDIS;
 
     /**
      * Valueof store mode.
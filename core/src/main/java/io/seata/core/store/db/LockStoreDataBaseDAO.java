@@ -19,6 +19,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -53,6 +54,32 @@ public class LockStoreDataBaseDAO implements LockStore, Initialize {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LockStoreDataBaseDAO.class);
 
+    /**
+     * The sizes the in lists of row keys are padded to, so that a few statements are prepared again and again.
+     * The largest one is the max size of an in list, oracle does not take more.
+     */
+    private static final int[] IN_LIST_SIZES = {1, 4, 16, 64, 256, 1000};
+
+    private static final String[] IN_LIST_PLACEHOLDERS = new String[IN_LIST_SIZES.length];
+
+    static {
+        for (int i = 0; i < IN_LIST_SIZES.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < IN_LIST_SIZES[i]; j++) {
+                if (j > 0) {
+                    sb.append(", ");
+                }
+                sb.append("?");
+            }
+            IN_LIST_PLACEHOLDERS[i] = sb.toString();
+        }
+    }
+
+    /**
+     * The max number of inserts in a jdbc batch.
+     */
+    private static final int MAX_INSERT_BATCH_SIZE = 1000;
+
     /**
      * The constant CONFIG.
      */
@@ -102,52 +129,22 @@ public class LockStoreDataBaseDAO implements LockStore, Initialize {
     @Override
     public boolean acquireLock(List<LockDO> lockDOs) {
         Connection conn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
         List<LockDO> unrepeatedLockDOs = null;
         Set<String> dbExistedRowKeys = new HashSet<>();
         boolean originalAutoCommit = true;
+        boolean committed = false;
         try {
             conn = logStoreDataSource.getConnection();
             if (originalAutoCommit = conn.getAutoCommit()) {
                 conn.setAutoCommit(false);
             }
             //check lock
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < lockDOs.size(); i++) {
-                sb.append("?");
-                if (i != (lockDOs.size() - 1)) {
-                    sb.append(", ");
-                }
-            }
-            boolean canLock = true;
-            //query
-            String checkLockSQL = LockStoreSqls.getCheckLockableSql(lockTable, sb.toString(), dbType);
-            ps = conn.prepareStatement(checkLockSQL);
-            for (int i = 0; i < lockDOs.size(); i++) {
-                ps.setString(i + 1, lockDOs.get(i).getRowKey());
-            }
-            rs = ps.executeQuery();
             String currentXID = lockDOs.get(0).getXid();
-            while (rs.next()) {
-                String dbXID = rs.getString(ServerTableColumnsName.LOCK_TABLE_XID);
-                if (!StringUtils.equals(dbXID, currentXID)) {
-                    if (LOGGER.isInfoEnabled()) {
-                        String dbPk = rs.getString(ServerTableColumnsName.LOCK_TABLE_PK);
-                        String dbTableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
-                        Long dbBranchId = rs.getLong(ServerTableColumnsName.LOCK_TABLE_BRANCH_ID);
-                        LOGGER.info("Global lock on [{}:{}] is holding by xid {} branchId {}", dbTableName, dbPk, dbXID,
-                            dbBranchId);
-                    }
-                    canLock &= false;
-                    break;
+            for (int from = 0; from < lockDOs.size(); from += maxInListSize()) {
+                List<LockDO> chunk = lockDOs.subList(from, Math.min(from + maxInListSize(), lockDOs.size()));
+                if (!collectExistedRowKeys(conn, chunk, currentXID, dbExistedRowKeys)) {
+                    return false;
                 }
-                dbExistedRowKeys.add(rs.getString(ServerTableColumnsName.LOCK_TABLE_ROW_KEY));
-            }
-
-            if (!canLock) {
-                conn.rollback();
-                return false;
             }
             if (CollectionUtils.isNotEmpty(dbExistedRowKeys)) {
                 unrepeatedLockDOs = lockDOs.stream().filter(lockDO -> !dbExistedRowKeys.contains(lockDO.getRowKey()))
@@ -156,44 +153,84 @@ public class LockStoreDataBaseDAO implements LockStore, Initialize {
                 unrepeatedLockDOs = lockDOs;
             }
             if (CollectionUtils.isEmpty(unrepeatedLockDOs)) {
-                conn.rollback();
                 return true;
             }
 
             //lock
-            for (LockDO lockDO : unrepeatedLockDOs) {
-                if (!doAcquireLock(conn, lockDO)) {
-                    if (LOGGER.isInfoEnabled()) {
-                        LOGGER.info("Global lock acquire failed, xid {} branchId {} pk {}", lockDO.getXid(),
-                            lockDO.getBranchId(), lockDO.getPk());
-                    }
-                    conn.rollback();
-                    return false;
+            if (!doAcquireLocks(conn, unrepeatedLockDOs)) {
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Global lock acquire failed, xid {} branchId {}", currentXID,
+                        lockDOs.get(0).getBranchId());
                 }
+                return false;
             }
             conn.commit();
+            committed = true;
             return true;
         } catch (SQLException e) {
             throw new StoreException(e);
         } finally {
-            if (rs != null) {
+            if (conn != null) {
+                // whatever failed, a duplicate key of a concurrent acquirer included, none of the locks is kept
+                if (!committed) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException ignore) {
+                    }
+                }
                 try {
-                    rs.close();
+                    if (originalAutoCommit) {
+                        conn.setAutoCommit(true);
+                    }
+                    conn.close();
                 } catch (SQLException e) {
                 }
             }
-            if (ps != null) {
+        }
+    }
+
+    /**
+     * Collect the row keys already locked by the transaction.
+     *
+     * @param conn             the conn
+     * @param lockDOs          the lock dos, at most the max in list size
+     * @param currentXID       the xid of the transaction
+     * @param dbExistedRowKeys the row keys already locked by the transaction
+     * @return false if a row is locked by another transaction
+     * @throws SQLException the sql exception
+     */
+    private boolean collectExistedRowKeys(Connection conn, List<LockDO> lockDOs, String currentXID,
+                                          Set<String> dbExistedRowKeys) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = prepareCheckLockable(conn, lockDOs);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                String dbXID = rs.getString(ServerTableColumnsName.LOCK_TABLE_XID);
+                if (!StringUtils.equals(dbXID, currentXID)) {
+                    if (LOGGER.isInfoEnabled()) {
+                        String dbPk = rs.getString(ServerTableColumnsName.LOCK_TABLE_PK);
+                        String dbTableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
+                        Long dbBranchId = rs.getLong(ServerTableColumnsName.LOCK_TABLE_BRANCH_ID);
+                        LOGGER.info("Global lock on [{}:{}] is holding by xid {} branchId {}", dbTableName, dbPk, dbXID,
+                            dbBranchId);
+                    }
+                    return false;
+                }
+                dbExistedRowKeys.add(rs.getString(ServerTableColumnsName.LOCK_TABLE_ROW_KEY));
+            }
+            return true;
+        } finally {
+            if (rs != null) {
                 try {
-                    ps.close();
+                    rs.close();
                 } catch (SQLException e) {
                 }
             }
-            if (conn != null) {
+            if (ps != null) {
                 try {
-                    if (originalAutoCommit) {
-                        conn.setAutoCommit(true);
-                    }
-                    conn.close();
+                    ps.close();
                 } catch (SQLException e) {
                 }
             }
@@ -213,21 +250,21 @@ public class LockStoreDataBaseDAO implements LockStore, Initialize {
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
 
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < lockDOs.size(); i++) {
-                sb.append("?");
-                if (i != (lockDOs.size() - 1)) {
-                    sb.append(", ");
-                }
-            }
             //batch release lock
-            String batchDeleteSQL = LockStoreSqls.getBatchDeleteLockSql(lockTable, sb.toString(), dbType);
-            ps = conn.prepareStatement(batchDeleteSQL);
-            ps.setString(1, lockDOs.get(0).getXid());
-            for (int i = 0; i < lockDOs.size(); i++) {
-                ps.setString(i + 2, lockDOs.get(i).getRowKey());
+            boolean released = false;
+            for (int from = 0; from < lockDOs.size(); from += maxInListSize()) {
+                List<LockDO> chunk = lockDOs.subList(from, Math.min(from + maxInListSize(), lockDOs.size()));
+                int inList = inList(chunk.size());
+                String batchDeleteSQL = LockStoreSqls.getBatchDeleteLockSql(lockTable, IN_LIST_PLACEHOLDERS[inList],
+                    dbType);
+                ps = conn.prepareStatement(batchDeleteSQL);
+                ps.setString(1, chunk.get(0).getXid());
+                setRowKeys(ps, 2, chunk, IN_LIST_SIZES[inList]);
+                released |= ps.executeUpdate() > 0;
+                ps.close();
+                ps = null;
             }
-            return ps.executeUpdate() > 0;
+            return released;
         } catch (SQLException e) {
             throw new StoreException(e);
         } finally {
@@ -301,6 +338,53 @@ public class LockStoreDataBaseDAO implements LockStore, Initialize {
         }
     }
 
+    /**
+     * Insert the locks with jdbc batches.
+     *
+     * @param conn    the conn
+     * @param lockDOs the lock dos
+     * @return false if a lock was not inserted
+     */
+    protected boolean doAcquireLocks(Connection conn, List<LockDO> lockDOs) {
+        if (lockDOs.size() == 1) {
+            return doAcquireLock(conn, lockDOs.get(0));
+        }
+        PreparedStatement ps = null;
+        try {
+            //insert
+            String insertLockSQL = LockStoreSqls.getInsertLockSQL(lockTable, dbType);
+            ps = conn.prepareStatement(insertLockSQL);
+            for (int from = 0; from < lockDOs.size(); from += MAX_INSERT_BATCH_SIZE) {
+                int to = Math.min(from + MAX_INSERT_BATCH_SIZE, lockDOs.size());
+                for (LockDO lockDO : lockDOs.subList(from, to)) {
+                    ps.setString(1, lockDO.getXid());
+                    ps.setLong(2, lockDO.getTransactionId());
+                    ps.setLong(3, lockDO.getBranchId());
+                    ps.setString(4, lockDO.getResourceId());
+                    ps.setString(5, lockDO.getTableName());
+                    ps.setString(6, lockDO.getPk());
+                    ps.setString(7, lockDO.getRowKey());
+                    ps.addBatch();
+                }
+                for (int count : ps.executeBatch()) {
+                    if (count == 0 || count == Statement.EXECUTE_FAILED) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        } finally {
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                }
+            }
+        }
+    }
+
     /**
      * Check lock boolean.
      *
@@ -312,26 +396,21 @@ public class LockStoreDataBaseDAO implements LockStore, Initialize {
         PreparedStatement ps = null;
         ResultSet rs = null;
         try {
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < lockDOs.size(); i++) {
-                sb.append("?");
-                if (i != (lockDOs.size() - 1)) {
-                    sb.append(", ");
-                }
-            }
-
-            //query
-            String checkLockSQL = LockStoreSqls.getCheckLockableSql(lockTable, sb.toString(), dbType);
-            ps = conn.prepareStatement(checkLockSQL);
-            for (int i = 0; i < lockDOs.size(); i++) {
-                ps.setString(i + 1, lockDOs.get(i).getRowKey());
-            }
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                String xid = rs.getString("xid");
-                if (!StringUtils.equals(xid, lockDOs.get(0).getXid())) {
-                    return false;
+            for (int from = 0; from < lockDOs.size(); from += maxInListSize()) {
+                List<LockDO> chunk = lockDOs.subList(from, Math.min(from + maxInListSize(), lockDOs.size()));
+                //query
+                ps = prepareCheckLockable(conn, chunk);
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    String xid = rs.getString("xid");
+                    if (!StringUtils.equals(xid, lockDOs.get(0).getXid())) {
+                        return false;
+                    }
                 }
+                rs.close();
+                rs = null;
+                ps.close();
+                ps = null;
             }
             return true;
         } catch (SQLException e) {
@@ -352,6 +431,48 @@ public class LockStoreDataBaseDAO implements LockStore, Initialize {
         }
     }
 
+    private PreparedStatement prepareCheckLockable(Connection conn, List<LockDO> lockDOs) throws SQLException {
+        int inList = inList(lockDOs.size());
+        String checkLockSQL = LockStoreSqls.getCheckLockableSql(lockTable, IN_LIST_PLACEHOLDERS[inList], dbType);
+        PreparedStatement ps = conn.prepareStatement(checkLockSQL);
+        try {
+            setRowKeys(ps, 1, lockDOs, IN_LIST_SIZES[inList]);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        return ps;
+    }
+
+    /**
+     * Set the row keys of the in list, the list is padded with the last row key.
+     */
+    private static void setRowKeys(PreparedStatement ps, int firstIndex, List<LockDO> lockDOs, int inListSize)
+        throws SQLException {
+        for (int i = 0; i < inListSize; i++) {
+            ps.setString(firstIndex + i, lockDOs.get(Math.min(i, lockDOs.size() - 1)).getRowKey());
+        }
+    }
+
+    private static int maxInListSize() {
+        return IN_LIST_SIZES[IN_LIST_SIZES.length - 1];
+    }
+
+    /**
+     * The smallest in list holding the given number of row keys.
+     *
+     * @param size the number of row keys, at most the max in list size
+     * @return the index of the in list size
+     */
+    static int inList(int size) {
+        for (int i = 0; i < IN_LIST_SIZES.length; i++) {
+            if (size <= IN_LIST_SIZES[i]) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("too many row keys in a list: " + size);
+    }
+
     /**
      * Sets lock table.
      *
@@ -21,6 +21,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -60,6 +61,11 @@ public class LogStoreDataBaseDAO implements LogStore, Initialize {
      */
     private static final int TRANSACTION_NAME_DEFAULT_SIZE = 128;
 
+    /**
+     * The max number of xids in the in list of a branch query, oracle does not take more
+     */
+    private static final int MAX_XIDS_PER_QUERY = 1000;
+
     /**
      * The constant CONFIG.
      */
@@ -252,6 +258,56 @@ public class LogStoreDataBaseDAO implements LogStore, Initialize {
         }
     }
 
+    @Override
+    public List<GlobalTransactionDO> queryGlobalTransactionDO(int[] statuses, long afterTransactionId,
+                                                              String afterXid, int limit) {
+        List<GlobalTransactionDO> ret = new ArrayList<>();
+        String sql = LogStoreSqls.getQueryGlobalTransactionSQLByStatusAfter(globalTable, dbType,
+            paramsPlaceHolder(statuses.length));
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(true);
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (int status : statuses) {
+                ps.setInt(index++, status);
+            }
+            ps.setLong(index++, afterTransactionId);
+            ps.setLong(index++, afterTransactionId);
+            ps.setString(index++, afterXid);
+            ps.setInt(index, limit);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                ret.add(convertGlobalTransactionDO(rs));
+            }
+            return ret;
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        } finally {
+            if (rs != null) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                }
+            }
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                }
+            }
+        }
+    }
+
     @Override
     public boolean insertGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
         String sql = LogStoreSqls.getInsertGlobalTransactionSQL(globalTable, dbType);
@@ -387,6 +443,60 @@ public class LogStoreDataBaseDAO implements LogStore, Initialize {
         }
     }
 
+    @Override
+    public List<BranchTransactionDO> queryBranchTransactionDO(List<String> xids) {
+        List<BranchTransactionDO> rets = new ArrayList<>();
+        if (xids.isEmpty()) {
+            return rets;
+        }
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(true);
+            for (int from = 0; from < xids.size(); from += MAX_XIDS_PER_QUERY) {
+                List<String> chunk = xids.subList(from, Math.min(from + MAX_XIDS_PER_QUERY, xids.size()));
+                String sql = LogStoreSqls.getQureyBranchTransactionByXids(brachTable, dbType,
+                    paramsPlaceHolder(chunk.size()));
+                ps = conn.prepareStatement(sql);
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setString(i + 1, chunk.get(i));
+                }
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    rets.add(convertBranchTransactionDO(rs));
+                }
+                rs.close();
+                rs = null;
+                ps.close();
+                ps = null;
+            }
+            return rets;
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        } finally {
+            if (rs != null) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                }
+            }
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                }
+            }
+        }
+    }
+
     @Override
     public boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
         String sql = LogStoreSqls.getInsertBranchTransactionSQL(brachTable, dbType);
@@ -425,6 +535,86 @@ public class LogStoreDataBaseDAO implements LogStore, Initialize {
         }
     }
 
+    @Override
+    public boolean insertBranchTransactionDOs(List<BranchTransactionDO> branchTransactionDOs) {
+        return writeBranchTransactionDOs(branchTransactionDOs, Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Override
+    public boolean writeBranchTransactionDOs(List<BranchTransactionDO> insertDOs, List<BranchTransactionDO> updateDOs,
+                                             List<BranchTransactionDO> deleteDOs) {
+        Connection conn = null;
+        boolean originalAutoCommit = true;
+        try {
+            conn = logStoreDataSource.getConnection();
+            if (originalAutoCommit = conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+            }
+            if (!insertDOs.isEmpty()) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                    LogStoreSqls.getInsertBranchTransactionSQL(brachTable, dbType))) {
+                    for (BranchTransactionDO branchTransactionDO : insertDOs) {
+                        ps.setString(1, branchTransactionDO.getXid());
+                        ps.setLong(2, branchTransactionDO.getTransactionId());
+                        ps.setLong(3, branchTransactionDO.getBranchId());
+                        ps.setString(4, branchTransactionDO.getResourceGroupId());
+                        ps.setString(5, branchTransactionDO.getResourceId());
+                        ps.setString(6, branchTransactionDO.getLockKey());
+                        ps.setString(7, branchTransactionDO.getBranchType());
+                        ps.setInt(8, branchTransactionDO.getStatus());
+                        ps.setString(9, branchTransactionDO.getClientId());
+                        ps.setString(10, branchTransactionDO.getApplicationData());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            if (!updateDOs.isEmpty()) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                    LogStoreSqls.getUpdateBranchTransactionStatusSQL(brachTable, dbType))) {
+                    for (BranchTransactionDO branchTransactionDO : updateDOs) {
+                        ps.setInt(1, branchTransactionDO.getStatus());
+                        ps.setString(2, branchTransactionDO.getXid());
+                        ps.setLong(3, branchTransactionDO.getBranchId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            if (!deleteDOs.isEmpty()) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                    LogStoreSqls.getDeleteBranchTransactionByBranchIdSQL(brachTable, dbType))) {
+                    for (BranchTransactionDO branchTransactionDO : deleteDOs) {
+                        ps.setString(1, branchTransactionDO.getXid());
+                        ps.setLong(2, branchTransactionDO.getBranchId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ignore) {
+                }
+            }
+            throw new StoreException(e);
+        } finally {
+            if (conn != null) {
+                try {
+                    if (originalAutoCommit) {
+                        conn.setAutoCommit(true);
+                    }
+                    conn.close();
+                } catch (SQLException e) {
+                }
+            }
+        }
+    }
+
     @Override
     public boolean updateBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
         String sql = LogStoreSqls.getUpdateBranchTransactionStatusSQL(brachTable, dbType);
@@ -486,6 +676,17 @@ public class LogStoreDataBaseDAO implements LogStore, Initialize {
         }
     }
 
+    private static String paramsPlaceHolder(int size) {
+        StringBuilder sb = new StringBuilder(size * 3);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("?");
+        }
+        return sb.toString();
+    }
+
     private GlobalTransactionDO convertGlobalTransactionDO(ResultSet rs) throws SQLException {
         GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
         globalTransactionDO.setXid(rs.getString(ServerTableColumnsName.GLOBAL_TABLE_XID));
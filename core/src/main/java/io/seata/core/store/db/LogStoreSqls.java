@@ -124,6 +124,32 @@ public class LogStoreSqls {
                     + "  where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
                     + "  order by " + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED + ") t"
                     + " where ROWNUM <= ?";
+    /**
+     * The constant QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_MYSQL.
+     */
+    public static final String QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_MYSQL =
+            "select " + ALL_GLOBAL_COLUMNS + " from " + GLOBAL_TABLE_PLACEHOLD
+                    + " where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
+                    + " and (" + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + " > ? or ("
+                    + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + " = ? and "
+                    + ServerTableColumnsName.GLOBAL_TABLE_XID + " > ?))"
+                    + " order by " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + ", "
+                    + ServerTableColumnsName.GLOBAL_TABLE_XID + " limit ?";
+
+    /**
+     * The constant QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_ORACLE.
+     */
+    public static final String QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_ORACLE =
+            "select t.* from ("
+                    + "  select " + ALL_GLOBAL_COLUMNS + " from " + GLOBAL_TABLE_PLACEHOLD
+                    + "  where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
+                    + "  and (" + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + " > ? or ("
+                    + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + " = ? and "
+                    + ServerTableColumnsName.GLOBAL_TABLE_XID + " > ?))"
+                    + "  order by " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + ", "
+                    + ServerTableColumnsName.GLOBAL_TABLE_XID + ") t"
+                    + " where ROWNUM <= ?";
+
     /**
      * The constant QUERY_GLOBAL_TRANSACTION_FOR_RECOVERY_MYSQL.
      */
@@ -184,6 +210,12 @@ public class LogStoreSqls {
     public static final String QUREY_BRANCH_TRANSACTION = "select " + ALL_BRANCH_COLUMNS + " from "
         + BRANCH_TABLE_PLACEHOLD + " where " + ServerTableColumnsName.BRANCH_TABLE_XID + " = ?";
 
+    /**
+     * The constant QUREY_BRANCH_TRANSACTION_BY_XIDS.
+     */
+    public static final String QUREY_BRANCH_TRANSACTION_BY_XIDS = "select " + ALL_BRANCH_COLUMNS + " from "
+        + BRANCH_TABLE_PLACEHOLD + " where " + ServerTableColumnsName.BRANCH_TABLE_XID + " in (" + PRAMETER_PLACEHOLD + ")";
+
     /**
      * Get insert global transaction sql string.
      *
@@ -278,6 +310,29 @@ public class LogStoreSqls {
         }
     }
 
+    /**
+     * Get query global transaction sql by status, after a transaction, string.
+     *
+     * @param globalTable       the global table
+     * @param dbType            the db type
+     * @param paramsPlaceHolder the params place holder
+     * @return the string
+     */
+    public static String getQueryGlobalTransactionSQLByStatusAfter(String globalTable, String dbType,
+                                                                   String paramsPlaceHolder) {
+        if (DBType.MYSQL.name().equalsIgnoreCase(dbType)
+            || DBType.OCEANBASE.name().equalsIgnoreCase(dbType)
+            || DBType.H2.name().equalsIgnoreCase(dbType)) {
+            return QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_MYSQL.replace(GLOBAL_TABLE_PLACEHOLD, globalTable).replace(
+                    PRAMETER_PLACEHOLD, paramsPlaceHolder);
+        } else if (DBType.ORACLE.name().equalsIgnoreCase(dbType)) {
+            return QUERY_GLOBAL_TRANSACTION_BY_STATUS_AFTER_ORACLE.replace(GLOBAL_TABLE_PLACEHOLD, globalTable).replace(
+                    PRAMETER_PLACEHOLD, paramsPlaceHolder);
+        } else {
+            throw new IllegalArgumentException("unknown database type");
+        }
+    }
+
     /**
      * Get query global transaction for recovery sql string.
      *
@@ -367,4 +422,18 @@ public class LogStoreSqls {
     public static String getQureyBranchTransaction(String branchTable, String dbType) {
         return QUREY_BRANCH_TRANSACTION.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
     }
+
+    /**
+     * Get qurey branch transaction by xids string.
+     *
+     * @param branchTable       the branch table
+     * @param dbType            the db type
+     * @param paramsPlaceHolder the params place holder
+     * @return the string
+     */
+    public static String getQureyBranchTransactionByXids(String branchTable, String dbType,
+                                                         String paramsPlaceHolder) {
+        return QUREY_BRANCH_TRANSACTION_BY_XIDS.replace(BRANCH_TABLE_PLACEHOLD, branchTable).replace(
+            PRAMETER_PLACEHOLD, paramsPlaceHolder);
+    }
 }
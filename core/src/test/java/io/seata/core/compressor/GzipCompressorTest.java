@@ -0,0 +1,85 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.compressor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.seata.core.codec.CompressorType;
+import io.seata.core.protocol.ProtocolConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The type GzipCompressor test.
+ */
+public class GzipCompressorTest {
+
+    @Test
+    public void testCompressAndDecompress() {
+        byte[] bytes = bytes();
+        GzipCompressor compressor = new GzipCompressor();
+        byte[] compressed = compressor.compress(bytes);
+        assertThat(compressed.length).isLessThan(bytes.length);
+        assertThat(compressor.decompress(compressed)).isEqualTo(bytes);
+        assertThat(compressor.decompress(compressor.compress(new byte[0]))).isEmpty();
+    }
+
+    @Test
+    public void testDecompressOversized() {
+        GzipCompressor compressor = new GzipCompressor();
+        // a few kilobytes inflating beyond any frame must be rejected
+        byte[] bomb = compressor.compress(new byte[ProtocolConstants.MAX_FRAME_LENGTH + 1]);
+        assertThat(bomb.length).isLessThan(64 * 1024);
+        assertThatThrownBy(() -> compressor.decompress(bomb)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(compressor.decompress(compressor.compress(new byte[ProtocolConstants.MAX_FRAME_LENGTH])))
+            .hasSize(ProtocolConstants.MAX_FRAME_LENGTH);
+    }
+
+    @Test
+    public void testDecompressMalformed() {
+        GzipCompressor compressor = new GzipCompressor();
+        byte[] compressed = compressor.compress(bytes());
+        assertThatThrownBy(() -> compressor.decompress(new byte[] {1, 2, 3})).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> compressor.decompress(Arrays.copyOf(compressed, compressed.length / 2)))
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void testDecompressMaxLength() {
+        byte[] bytes = bytes();
+        GzipCompressor compressor = new GzipCompressor();
+        byte[] compressed = compressor.compress(bytes);
+        assertThat(compressor.decompress(compressed, bytes.length)).isEqualTo(bytes);
+        assertThatThrownBy(() -> compressor.decompress(compressed, bytes.length - 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testLoad() {
+        assertThat(CompressorFactory.getCompressor(CompressorType.GZIP.getCode())).isInstanceOf(GzipCompressor.class);
+    }
+
+    private static byte[] bytes() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("table_name:").append(i).append(',');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
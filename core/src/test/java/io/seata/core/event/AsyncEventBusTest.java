@@ -0,0 +1,137 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.eventbus.Subscribe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test AsyncEventBus.
+ */
+public class AsyncEventBusTest {
+
+    @Test
+    public void testDeliverInOrder() throws InterruptedException {
+        AsyncEventBus eventBus = new AsyncEventBus("test", 16, AsyncEventBus.FullPolicy.BLOCK);
+        TestSubscriber subscriber = new TestSubscriber(null);
+        eventBus.register(subscriber);
+        for (int i = 0; i < 1000; i++) {
+            eventBus.post(new TestEvent(i));
+        }
+        eventBus.shutdown();
+
+        Assertions.assertEquals(1000, subscriber.values.size());
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i, (int)subscriber.values.get(i));
+        }
+        Assertions.assertEquals(0, eventBus.getDroppedCount());
+    }
+
+    @Test
+    public void testDropWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncEventBus eventBus = new AsyncEventBus("test", 4, AsyncEventBus.FullPolicy.DROP);
+        TestSubscriber subscriber = new TestSubscriber(release);
+        eventBus.register(subscriber);
+
+        // the first event holds the dispatcher, the next 4 fill the queue
+        eventBus.post(new TestEvent(0));
+        Assertions.assertTrue(subscriber.started.await(1, TimeUnit.SECONDS));
+        for (int i = 1; i <= 10; i++) {
+            eventBus.post(new TestEvent(i));
+        }
+        Assertions.assertEquals(6, eventBus.getDroppedCount());
+
+        release.countDown();
+        eventBus.shutdown();
+        Assertions.assertEquals(5, subscriber.values.size());
+    }
+
+    @Test
+    public void testFlush() throws InterruptedException {
+        AsyncEventBus eventBus = new AsyncEventBus("test", 16, AsyncEventBus.FullPolicy.BLOCK);
+        TestSubscriber subscriber = new TestSubscriber(null);
+        eventBus.register(subscriber);
+        for (int i = 0; i < 100; i++) {
+            eventBus.post(new TestEvent(i));
+        }
+        Assertions.assertTrue(eventBus.flush(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(100, subscriber.values.size());
+
+        // the idle dispatcher is woken up by the next post
+        Thread.sleep(50);
+        eventBus.post(new TestEvent(100));
+        Assertions.assertTrue(eventBus.flush(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(101, subscriber.values.size());
+
+        eventBus.shutdown();
+        Assertions.assertFalse(eventBus.flush(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testWakeUpIdleDispatcher() throws InterruptedException {
+        AsyncEventBus eventBus = new AsyncEventBus("test", 16, AsyncEventBus.FullPolicy.BLOCK);
+        Semaphore delivered = new Semaphore(0);
+        eventBus.register(new Object() {
+            @Subscribe
+            public void process(TestEvent event) {
+                delivered.release();
+            }
+        });
+        // each post meets the dispatcher going idle, none may be left in the queue until the next one
+        for (int i = 0; i < 20000; i++) {
+            eventBus.post(new TestEvent(i));
+            Assertions.assertTrue(delivered.tryAcquire(5, TimeUnit.SECONDS), "event " + i + " stranded");
+        }
+        eventBus.shutdown();
+    }
+
+    private static class TestEvent implements Event {
+        private final int value;
+
+        TestEvent(int value) {
+            this.value = value;
+        }
+    }
+
+    private static class TestSubscriber {
+        private final List<Integer> values = new ArrayList<>();
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release;
+
+        TestSubscriber(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Subscribe
+        public void process(TestEvent event) throws InterruptedException {
+            values.add(event.value);
+            started.countDown();
+            if (release != null) {
+                release.await();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.lock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Lock keys test.
+ */
+public class LockKeysTest {
+
+    @Test
+    public void testParse() {
+        LockKeys lockKeys = LockKeys.parse("t1:1,2;t2:3");
+        Assertions.assertEquals(3, lockKeys.size());
+        Assertions.assertEquals("t1:1,2;t2:3", lockKeys.toLockKeyString());
+
+        List<String> rows = new ArrayList<>();
+        lockKeys.forEach((tableName, pk) -> rows.add(tableName + "." + pk));
+        Assertions.assertEquals("[t1.1, t1.2, t2.3]", rows.toString());
+
+        Assertions.assertTrue(LockKeys.parse(null).isEmpty());
+        Assertions.assertTrue(LockKeys.parse("t1").isEmpty());
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        LockKeys lockKeys = new LockKeys.Builder().add("t1", "1").add("t1", "\u4e2d").add("t2", "a,b").build();
+        LockKeys decoded = LockKeys.decode(lockKeys.encode());
+        Assertions.assertEquals(lockKeys, decoded);
+        Assertions.assertEquals(3, decoded.size());
+
+        Assertions.assertTrue(LockKeys.decode(new LockKeys().encode()).isEmpty());
+    }
+
+    @Test
+    public void testEncodeLongKeys() {
+        String longPk = String.join("", Collections.nCopies(LockKeys.MAX_ENCODED_LENGTH, "1"));
+        LockKeys lockKeys = new LockKeys.Builder().add("t1", longPk).add("t1", "2").build();
+        Assertions.assertTrue(lockKeys.isEncodable());
+        Assertions.assertEquals(lockKeys, LockKeys.decode(lockKeys.encode()));
+
+        // 3 bytes per char in utf8
+        String tooLongPk = String.join("", Collections.nCopies(LockKeys.MAX_ENCODED_LENGTH / 3 + 1, "\u4e2d"));
+        LockKeys tooLongKeys = new LockKeys.Builder().add("t1", "1").add("t1", tooLongPk).build();
+        Assertions.assertFalse(tooLongKeys.isEncodable());
+        Assertions.assertThrows(IllegalStateException.class, tooLongKeys::encode);
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -187,6 +188,39 @@ public class MessageFutureTest {
         }
     }
 
+    /**
+     * Test get has result with time out exception result.
+     */
+    @Test
+    public void testGetHasTimeOutExceptionResult() {
+        Assertions.assertThrows(TimeoutException.class, () -> {
+            MessageFuture messageFuture = new MessageFuture();
+            messageFuture.setRequestMessage(buildRepcMessage());
+            messageFuture.setTimeout(TIME_OUT_FIELD);
+            messageFuture.setResultMessage(new TimeoutException("expired"));
+            messageFuture.get(TIME_OUT_FIELD, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Test to completable future.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testToCompletableFuture() throws Exception {
+        MessageFuture messageFuture = new MessageFuture();
+        CompletableFuture<Object> future = messageFuture.toCompletableFuture();
+        assertThat(future.isDone()).isFalse();
+        messageFuture.setResultMessage("has_result");
+        assertThat(future.get()).isEqualTo("has_result");
+
+        MessageFuture failedFuture = new MessageFuture();
+        RuntimeException runtimeException = new RuntimeException("test_runtime");
+        failedFuture.setResultMessage(runtimeException);
+        assertThat(failedFuture.toCompletableFuture().isCompletedExceptionally()).isTrue();
+    }
+
     private RpcMessage buildRepcMessage() {
         RpcMessage rpcMessage = new RpcMessage();
         rpcMessage.setId(ID_FIELD);
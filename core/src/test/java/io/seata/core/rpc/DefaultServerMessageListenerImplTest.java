@@ -0,0 +1,220 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RegisterTMRequest;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalBeginResponse;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalCommitResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Handling of the merged requests by DefaultServerMessageListenerImpl.
+ */
+public class DefaultServerMessageListenerImplTest {
+
+    private static final int MERGE_ID = 100;
+
+    private final Map<String, List<Long>> handledBranches = new ConcurrentHashMap<>();
+
+    private volatile boolean commitFails;
+
+    private final LinkedBlockingQueue<Object[]> responses = new LinkedBlockingQueue<>();
+
+    private ExecutorService executor;
+
+    private ChannelHandlerContext ctx;
+
+    private ServerMessageSender sender;
+
+    private DefaultServerMessageListenerImpl listener;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Channel channel = Mockito.mock(Channel.class);
+        Mockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8091));
+        ChannelManager.registerTMChannel(new RegisterTMRequest("app", "group"), channel);
+        ctx = Mockito.mock(ChannelHandlerContext.class);
+        Mockito.when(ctx.channel()).thenReturn(channel);
+
+        sender = Mockito.mock(ServerMessageSender.class);
+        Mockito.doAnswer(invocation -> responses.add(invocation.getArguments())).when(sender)
+            .sendResponse(Mockito.any(RpcMessage.class), Mockito.any(Channel.class), Mockito.any());
+
+        executor = Executors.newFixedThreadPool(4);
+        listener = new DefaultServerMessageListenerImpl(new TestHandler(), executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testStreamResults() throws InterruptedException {
+        listener.onTrxMessage(newRequest(true), ctx, sender);
+
+        Map<Integer, Object> resultOfId = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            Object[] response = responses.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(response);
+            resultOfId.put(((RpcMessage)response[0]).getId(), response[2]);
+        }
+        Assertions.assertTrue(resultOfId.get(1) instanceof BranchRegisterResponse);
+        Assertions.assertTrue(resultOfId.get(2) instanceof GlobalCommitResponse);
+        Assertions.assertTrue(resultOfId.get(3) instanceof BranchRegisterResponse);
+        Assertions.assertTrue(resultOfId.get(4) instanceof GlobalBeginResponse);
+        Assertions.assertEquals(0, ((MergeResultMessage)resultOfId.get(MERGE_ID)).getMsgs().length);
+
+        // the branches of one global transaction are registered in order
+        Assertions.assertEquals(2, handledBranches.get("xid1").size());
+        Assertions.assertEquals(1L, (long)handledBranches.get("xid1").get(0));
+        Assertions.assertEquals(3L, (long)handledBranches.get("xid1").get(1));
+    }
+
+    @Test
+    public void testMergeResults() throws InterruptedException {
+        listener.onTrxMessage(newRequest(false), ctx, sender);
+
+        Object[] response = responses.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals(MERGE_ID, ((RpcMessage)response[0]).getId());
+        AbstractResultMessage[] results = ((MergeResultMessage)response[2]).getMsgs();
+        Assertions.assertEquals(4, results.length);
+        Assertions.assertTrue(results[0] instanceof BranchRegisterResponse);
+        Assertions.assertTrue(results[1] instanceof GlobalCommitResponse);
+        Assertions.assertTrue(results[2] instanceof BranchRegisterResponse);
+        Assertions.assertTrue(results[3] instanceof GlobalBeginResponse);
+        Assertions.assertNull(responses.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testFailedSubRequest() throws InterruptedException {
+        commitFails = true;
+        listener.onTrxMessage(newRequest(false), ctx, sender);
+
+        Object[] response = responses.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(response);
+        AbstractResultMessage[] results = ((MergeResultMessage)response[2]).getMsgs();
+        Assertions.assertEquals(4, results.length);
+        Assertions.assertTrue(results[0] instanceof BranchRegisterResponse);
+        Assertions.assertNotEquals(ResultCode.Failed, results[0].getResultCode());
+        // the failed one is answered with a failed result of its own type
+        Assertions.assertTrue(results[1] instanceof GlobalCommitResponse);
+        Assertions.assertEquals(ResultCode.Failed, results[1].getResultCode());
+        Assertions.assertEquals(GlobalStatus.UnKnown, ((GlobalCommitResponse)results[1]).getGlobalStatus());
+        Assertions.assertTrue(results[1].getMsg().contains("commit failed"));
+        Assertions.assertTrue(results[2] instanceof BranchRegisterResponse);
+        Assertions.assertTrue(results[3] instanceof GlobalBeginResponse);
+    }
+
+    @Test
+    public void testFailedSubRequestStreamed() throws InterruptedException {
+        commitFails = true;
+        listener.onTrxMessage(newRequest(true), ctx, sender);
+
+        Map<Integer, Object> resultOfId = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            Object[] response = responses.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(response);
+            resultOfId.put(((RpcMessage)response[0]).getId(), response[2]);
+        }
+        Assertions.assertEquals(ResultCode.Failed, ((GlobalCommitResponse)resultOfId.get(2)).getResultCode());
+        Assertions.assertTrue(resultOfId.get(4) instanceof GlobalBeginResponse);
+        Assertions.assertEquals(0, ((MergeResultMessage)resultOfId.get(MERGE_ID)).getMsgs().length);
+    }
+
+    private static RpcMessage newRequest(boolean stream) {
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        mergedWarpMessage.msgs.add(newBranchRegister("xid1", 1L));
+        GlobalCommitRequest commitRequest = new GlobalCommitRequest();
+        commitRequest.setXid("xid2");
+        mergedWarpMessage.msgs.add(commitRequest);
+        mergedWarpMessage.msgs.add(newBranchRegister("xid1", 3L));
+        mergedWarpMessage.msgs.add(new GlobalBeginRequest());
+        for (int i = 1; i <= 4; i++) {
+            mergedWarpMessage.msgIds.add(i);
+        }
+
+        RpcMessage request = new RpcMessage();
+        request.setId(MERGE_ID);
+        request.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST);
+        request.setBody(mergedWarpMessage);
+        if (stream) {
+            request.getHeadMap().put(ProtocolConstants.HEAD_KEY_MERGE_STREAM, Boolean.TRUE.toString());
+        }
+        return request;
+    }
+
+    private static BranchRegisterRequest newBranchRegister(String xid, long order) {
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setXid(xid);
+        request.setApplicationData(String.valueOf(order));
+        return request;
+    }
+
+    private class TestHandler implements TransactionMessageHandler {
+
+        @Override
+        public AbstractResultMessage onRequest(AbstractMessage request, RpcContext context) {
+            if (request instanceof BranchRegisterRequest) {
+                BranchRegisterRequest branchRegisterRequest = (BranchRegisterRequest)request;
+                handledBranches.computeIfAbsent(branchRegisterRequest.getXid(), xid -> new ArrayList<>())
+                    .add(Long.parseLong(branchRegisterRequest.getApplicationData()));
+                return new BranchRegisterResponse();
+            }
+            if (request instanceof GlobalCommitRequest) {
+                if (commitFails) {
+                    throw new IllegalStateException("commit failed");
+                }
+                return new GlobalCommitResponse();
+            }
+            return new GlobalBeginResponse();
+        }
+
+        @Override
+        public void onResponse(AbstractResultMessage response, RpcContext context) {
+        }
+    }
+}
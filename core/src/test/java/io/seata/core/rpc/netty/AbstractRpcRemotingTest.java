@@ -0,0 +1,117 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalBeginResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Request timeouts and async requests of AbstractRpcRemoting.
+ */
+public class AbstractRpcRemotingTest {
+
+    private TestRemoting remoting;
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    public void setUp() {
+        remoting = new TestRemoting();
+        remoting.init();
+        channel = new EmbeddedChannel();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        remoting.destroy();
+        channel.close();
+    }
+
+    @Test
+    public void testAsyncRequestCompletedByResponse() throws Exception {
+        CompletableFuture<Object> future = remoting.sendAsyncRequestWithFuture(null, channel,
+            new GlobalBeginRequest(), 10000);
+        RpcMessage request = channel.readOutbound();
+        Assertions.assertFalse(future.isDone());
+
+        GlobalBeginResponse response = new GlobalBeginResponse();
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(request.getId());
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESPONSE);
+        rpcMessage.setBody(response);
+        remoting.channelRead(Mockito.mock(ChannelHandlerContext.class), rpcMessage);
+
+        Assertions.assertSame(response, future.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(remoting.futures.isEmpty());
+    }
+
+    @Test
+    public void testAsyncRequestTimeout() throws Exception {
+        CompletableFuture<Object> future = remoting.sendAsyncRequestWithFuture(null, channel,
+            new GlobalBeginRequest(), 50);
+        try {
+            future.get(2, TimeUnit.SECONDS);
+            Assertions.fail("the request should time out");
+        } catch (ExecutionException e) {
+            Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Assertions.assertTrue(remoting.futures.isEmpty());
+    }
+
+    @Test
+    public void testSyncRequestTimeout() {
+        Assertions.assertThrows(TimeoutException.class,
+            () -> remoting.sendAsyncRequestWithResponse(null, channel, new GlobalBeginRequest(), 50));
+        Assertions.assertTrue(remoting.futures.isEmpty());
+    }
+
+    private static class TestRemoting extends AbstractRpcRemoting {
+
+        TestRemoting() {
+            super(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()));
+        }
+
+        @Override
+        public void dispatch(RpcMessage request, ChannelHandlerContext ctx) {
+        }
+
+        @Override
+        public void destroyChannel(String serverAddress, Channel channel) {
+        }
+
+        @Override
+        protected void sendMergedRequest(String address, Channel channel, RpcMessage rpcMessage) {
+            writeRequest(channel, rpcMessage);
+        }
+    }
+}
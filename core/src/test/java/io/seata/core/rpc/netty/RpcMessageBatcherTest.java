@@ -0,0 +1,171 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.protocol.RpcMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test RpcMessageBatcher.
+ */
+public class RpcMessageBatcherTest {
+
+    private static final String ADDRESS = "127.0.0.1:8091";
+
+    private final List<List<RpcMessage>> sentBatches = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<RpcMessage> failed = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile boolean writable = true;
+
+    private final AtomicInteger flakyAnswers = new AtomicInteger();
+
+    private volatile CountDownLatch sent;
+
+    private RpcMessageBatcher batcher;
+
+    @AfterEach
+    public void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testSendInOrderWithinMaxBatchSize() throws InterruptedException {
+        start(4, 0, 1000);
+        sent = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            batcher.offer(ADDRESS, newMessage(i));
+        }
+        Assertions.assertTrue(sent.await(5, TimeUnit.SECONDS));
+
+        int expected = 0;
+        synchronized (sentBatches) {
+            for (List<RpcMessage> batch : sentBatches) {
+                Assertions.assertTrue(batch.size() <= 4);
+                for (RpcMessage message : batch) {
+                    Assertions.assertEquals(expected++, message.getId());
+                }
+            }
+        }
+        Assertions.assertEquals(100, batcher.getMessageCount());
+        Assertions.assertEquals(sentBatches.size(), batcher.getBatchCount());
+        Assertions.assertTrue(batcher.getMaxBatchSize() <= 4);
+    }
+
+    @Test
+    public void testLingerFillsTheBatch() throws InterruptedException {
+        start(10, TimeUnit.SECONDS.toMicros(5), 1000);
+        sent = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            batcher.offer(ADDRESS, newMessage(i));
+        }
+        // sent on size, long before the linger ends
+        Assertions.assertTrue(sent.await(2, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, sentBatches.size());
+        Assertions.assertEquals(10, sentBatches.get(0).size());
+    }
+
+    @Test
+    public void testWaitForWritable() throws InterruptedException {
+        writable = false;
+        start(100, 0, 10000);
+        sent = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            batcher.offer(ADDRESS, newMessage(i));
+        }
+        Assertions.assertFalse(sent.await(100, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(sentBatches.isEmpty());
+
+        writable = true;
+        batcher.onWritable();
+        Assertions.assertTrue(sent.await(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    public void testNotWritableAgainWhenRetried() throws InterruptedException {
+        writable = false;
+        start(100, 0, 10000);
+        sent = new CountDownLatch(1);
+        batcher.offer(ADDRESS, newMessage(0));
+        Assertions.assertFalse(sent.await(100, TimeUnit.MILLISECONDS));
+
+        // writable for the retry only, the send finds it not writable and puts it back to wait
+        flakyAnswers.set(1);
+        batcher.onWritable();
+        Assertions.assertFalse(sent.await(100, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(0, flakyAnswers.get());
+
+        writable = true;
+        batcher.onWritable();
+        Assertions.assertTrue(sent.await(2, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, sentBatches.size());
+        Assertions.assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    public void testFailWhenNotWritableTooLong() throws InterruptedException {
+        writable = false;
+        start(100, 0, 50);
+        sent = new CountDownLatch(2);
+        batcher.offer(ADDRESS, newMessage(0));
+        batcher.offer(ADDRESS, newMessage(1));
+        Assertions.assertTrue(sent.await(2, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, failed.size());
+        Assertions.assertTrue(sentBatches.isEmpty());
+    }
+
+    private void start(int maxBatchSize, long lingerMicros, long maxNotWritableMillis) {
+        batcher = new RpcMessageBatcher(new RpcMessageBatcher.BatchSender() {
+            @Override
+            public boolean isWritable(String address) {
+                return writable || flakyAnswers.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+            }
+
+            @Override
+            public void send(String address, List<RpcMessage> batch) {
+                sentBatches.add(batch);
+                batch.forEach(message -> sent.countDown());
+            }
+
+            @Override
+            public void fail(String address, List<RpcMessage> batch) {
+                failed.addAll(batch);
+                batch.forEach(message -> sent.countDown());
+            }
+        }, maxBatchSize, lingerMicros, maxNotWritableMillis);
+        Thread thread = new Thread(batcher, "batcherTest");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static RpcMessage newMessage(int id) {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(id);
+        return rpcMessage;
+    }
+}
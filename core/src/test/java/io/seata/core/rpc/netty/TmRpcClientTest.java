@@ -20,11 +20,17 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.seata.core.protocol.MessageFuture;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -124,6 +130,46 @@ public class TmRpcClientTest {
 
     }
 
+    /**
+     * A merged send failing with any runtime exception completes the futures of the batch.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testMergedSendFailed() throws Exception {
+        TmRpcClient tmRpcClient = TmRpcClient.getInstance("app 1", "group A");
+        String address = "127.0.0.1:8091";
+        Channel channel = Mockito.mock(Channel.class);
+        Mockito.when(channel.isWritable()).thenReturn(true);
+        Mockito.when(channel.writeAndFlush(Mockito.any())).thenThrow(new IllegalStateException("encode failed"));
+        NettyClientChannelManager clientChannelManager = Mockito.mock(NettyClientChannelManager.class);
+        Mockito.when(clientChannelManager.acquireChannel(address)).thenReturn(channel);
+        Field clientChannelManagerField = getDeclaredField(tmRpcClient, "clientChannelManager");
+        clientChannelManagerField.setAccessible(true);
+        Object originalClientChannelManager = clientChannelManagerField.get(tmRpcClient);
+        clientChannelManagerField.set(tmRpcClient, clientChannelManager);
+        try {
+            Constructor<?> senderConstructor = Class.forName(AbstractRpcRemotingClient.class.getName()
+                + "$MergedBatchSender").getDeclaredConstructor(AbstractRpcRemotingClient.class);
+            senderConstructor.setAccessible(true);
+            RpcMessageBatcher.BatchSender sender = (RpcMessageBatcher.BatchSender)senderConstructor.newInstance(
+                tmRpcClient);
+            RpcMessage rpcMessage = new RpcMessage();
+            rpcMessage.setId(-1);
+            rpcMessage.setBody(new GlobalBeginRequest());
+            MessageFuture messageFuture = new MessageFuture();
+            messageFuture.setRequestMessage(rpcMessage);
+            tmRpcClient.futures.put(rpcMessage.getId(), messageFuture);
+
+            sender.send(address, Collections.singletonList(rpcMessage));
+
+            Assertions.assertFalse(tmRpcClient.futures.containsKey(rpcMessage.getId()));
+            Assertions.assertNull(messageFuture.get(1, TimeUnit.SECONDS));
+        } finally {
+            clientChannelManagerField.set(tmRpcClient, originalClientChannelManager);
+        }
+    }
+
     /**
      * get private field in parent class
      *
@@ -15,6 +15,7 @@
  */
 package io.seata.core.store.db;
 
+import io.seata.common.exception.StoreException;
 import io.seata.core.store.LockDO;
 import org.apache.commons.dbcp.BasicDataSource;
 
@@ -297,6 +298,83 @@ public class DataBaseLockStoreDAOTest {
 
     }
 
+    @Test
+    public void test_acquireManyLocks() throws SQLException {
+        List<LockDO> lockDOs = newLocks("abc-123:777", 777L, "many-", 0, 1500);
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs.subList(0, 10)));
+        // the locks already held by the transaction are not inserted again
+        Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs));
+        Assertions.assertEquals(1500, countLocks("abc-123:777"));
+        Assertions.assertTrue(dataBaseLockStoreDAO.isLockable(lockDOs));
+
+        // a conflict in the second chunk fails the whole acquisition
+        List<LockDO> otherLockDOs = newLocks("abc-123:888", 888L, "other-", 0, 1000);
+        otherLockDOs.addAll(newLocks("abc-123:888", 888L, "many-", 1400, 1401));
+        Assertions.assertFalse(dataBaseLockStoreDAO.acquireLock(otherLockDOs));
+        Assertions.assertFalse(dataBaseLockStoreDAO.isLockable(otherLockDOs));
+        Assertions.assertEquals(0, countLocks("abc-123:888"));
+
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock(lockDOs));
+        Assertions.assertEquals(0, countLocks("abc-123:777"));
+    }
+
+    @Test
+    public void test_acquireLocksConflictingOnInsert() throws SQLException {
+        List<LockDO> lockDOs = newLocks("abc-123:999", 999L, "conflict-", 0, 5);
+        // another transaction inserts a lock in the middle of the batch after the check
+        LockStoreDataBaseDAO racingLockStoreDAO = new LockStoreDataBaseDAO(dataSource) {
+            @Override
+            protected boolean doAcquireLocks(Connection conn, List<LockDO> lockDOs) {
+                Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(
+                    newLocks("abc-123:1000", 1000L, "conflict-", 2, 3)));
+                return super.doAcquireLocks(conn, lockDOs);
+            }
+        };
+        racingLockStoreDAO.setDbType("h2");
+        racingLockStoreDAO.setLockTable("lock_table");
+
+        Assertions.assertThrows(StoreException.class, () -> racingLockStoreDAO.acquireLock(lockDOs));
+        Assertions.assertEquals(0, countLocks("abc-123:999"));
+        Assertions.assertEquals(1, countLocks("abc-123:1000"));
+
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock(newLocks("abc-123:1000", 1000L, "conflict-", 2, 3)));
+    }
+
+    @Test
+    public void test_inList() {
+        Assertions.assertEquals(0, LockStoreDataBaseDAO.inList(1));
+        Assertions.assertEquals(1, LockStoreDataBaseDAO.inList(2));
+        Assertions.assertEquals(1, LockStoreDataBaseDAO.inList(4));
+        Assertions.assertEquals(4, LockStoreDataBaseDAO.inList(200));
+        Assertions.assertEquals(5, LockStoreDataBaseDAO.inList(1000));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LockStoreDataBaseDAO.inList(1001));
+    }
+
+    private static List<LockDO> newLocks(String xid, long transactionId, String rowKeyPrefix, int from, int to) {
+        List<LockDO> lockDOs = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            LockDO lock = new LockDO();
+            lock.setResourceId("abc");
+            lock.setXid(xid);
+            lock.setTransactionId(transactionId);
+            lock.setBranchId(1L);
+            lock.setRowKey(rowKeyPrefix + i);
+            lock.setPk(String.valueOf(i));
+            lock.setTableName("t");
+            lockDOs.add(lock);
+        }
+        return lockDOs;
+    }
+
+    private static int countLocks(String xid) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             ResultSet rs = conn.createStatement().executeQuery(
+                 "select count(*) from lock_table where xid = '" + xid + "'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
     @AfterAll
     public static void clearStoreDB(){
         FileUtils.deleteRecursive("db_store", true);
@@ -30,6 +30,8 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -323,6 +325,50 @@ public class LogStoreDataBaseDAOTest {
 
     }
 
+    @Test
+    public void queryGlobalTransactionDO_by_statuses_after() throws SQLException {
+        String[] xids = {"abc-123:8801", "abc-123:8802", "abc-123:8803", "abc-123:8804"};
+        long[] transactionIds = {300, 100, 200, 200};
+        for (int i = 0; i < xids.length; i++) {
+            GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+            globalTransactionDO.setXid(xids[i]);
+            globalTransactionDO.setApplicationData("abc=8800");
+            globalTransactionDO.setTransactionServiceGroup("abc");
+            globalTransactionDO.setTransactionName("test");
+            globalTransactionDO.setTransactionId(transactionIds[i]);
+            globalTransactionDO.setTimeout(20);
+            globalTransactionDO.setBeginTime(System.currentTimeMillis());
+            globalTransactionDO.setApplicationId("test");
+            globalTransactionDO.setStatus(11);
+            Assertions.assertTrue(logStoreDataBaseDAO.insertGlobalTransactionDO(globalTransactionDO));
+        }
+
+        List<GlobalTransactionDO> page = logStoreDataBaseDAO.queryGlobalTransactionDO(new int[]{11}, Long.MIN_VALUE, "", 2);
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("abc-123:8802", page.get(0).getXid());
+        Assertions.assertEquals("abc-123:8803", page.get(1).getXid());
+
+        // the transaction id shared with the last of the previous page is not skipped
+        page = logStoreDataBaseDAO.queryGlobalTransactionDO(new int[]{11}, 200, "abc-123:8803", 2);
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("abc-123:8804", page.get(0).getXid());
+        Assertions.assertEquals("abc-123:8801", page.get(1).getXid());
+
+        page = logStoreDataBaseDAO.queryGlobalTransactionDO(new int[]{11}, 300, "abc-123:8801", 2);
+        Assertions.assertTrue(page.isEmpty());
+
+        String delSql = "delete from global_table where xid in ('abc-123:8801', 'abc-123:8802', 'abc-123:8803', 'abc-123:8804')";
+        Connection conn = null;
+        try{
+            conn = dataSource.getConnection();
+            conn.createStatement().execute(delSql);
+        }finally {
+            if(conn != null){
+                conn.close();
+            }
+        }
+    }
+
     @Test
     public void insertGlobalTransactionDO() throws SQLException {
         GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
@@ -520,6 +566,44 @@ public class LogStoreDataBaseDAOTest {
         }
     }
 
+    @Test
+    public void queryBranchTransactionDO_by_xids() throws SQLException {
+        String[] xids = {"abc-123:9901", "abc-123:9902", "abc-123:9903"};
+        for (int i = 0; i < xids.length; i++) {
+            BranchTransactionDO branchTransactionDO = new BranchTransactionDO();
+            branchTransactionDO.setResourceId("qqqq");
+            branchTransactionDO.setXid(xids[i]);
+            branchTransactionDO.setTransactionId(9900 + i);
+            branchTransactionDO.setBranchId(99000 + i);
+            branchTransactionDO.setBranchType("TCC");
+            branchTransactionDO.setLockKey("t:1");
+            branchTransactionDO.setClientId("1.1.1.1");
+            branchTransactionDO.setStatus(1);
+            branchTransactionDO.setApplicationData("abc=123");
+            branchTransactionDO.setResourceGroupId("test");
+            Assertions.assertTrue(logStoreDataBaseDAO.insertBranchTransactionDO(branchTransactionDO));
+        }
+
+        List<BranchTransactionDO> rets = logStoreDataBaseDAO.queryBranchTransactionDO(
+            Arrays.asList("abc-123:9901", "abc-123:9903", "abc-123:9909"));
+        Assertions.assertEquals(2, rets.size());
+        for (BranchTransactionDO ret : rets) {
+            Assertions.assertNotEquals("abc-123:9902", ret.getXid());
+        }
+        Assertions.assertTrue(logStoreDataBaseDAO.queryBranchTransactionDO(new ArrayList<>()).isEmpty());
+
+        String delSql = "delete from branch_table where xid in ('abc-123:9901', 'abc-123:9902', 'abc-123:9903')";
+        Connection conn = null;
+        try{
+            conn = dataSource.getConnection();
+            conn.createStatement().execute(delSql);
+        }finally {
+            if(conn != null){
+                conn.close();
+            }
+        }
+    }
+
     @Test
     public void insertBranchTransactionDO() throws SQLException {
         BranchTransactionDO branchTransactionDO = new BranchTransactionDO();
@@ -23,6 +23,8 @@ package io.seata.metrics;
 public class IdConstants {
     public static final String SEATA_TRANSACTION = "seata.transaction";
 
+    public static final String SEATA_EVENT_BUS = "seata.event.bus";
+
     public static final String NAME_KEY = "name";
 
     public static final String ROLE_KEY = "role";
@@ -57,9 +59,19 @@ public class IdConstants {
 
     public static final String STATISTIC_VALUE_AVERAGE = "average";
 
+    public static final String STATISTIC_VALUE_P50 = "p50";
+
+    public static final String STATISTIC_VALUE_P90 = "p90";
+
+    public static final String STATISTIC_VALUE_P99 = "p99";
+
+    public static final String STATISTIC_VALUE_P999 = "p999";
+
     public static final String STATUS_VALUE_ACTIVE = "active";
 
     public static final String STATUS_VALUE_COMMITTED = "committed";
 
     public static final String STATUS_VALUE_ROLLBACKED = "rollbacked";
+
+    public static final String STATUS_VALUE_DROPPED = "dropped";
 }
@@ -17,7 +17,10 @@ package io.seata.metrics.exporter.prometheus;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import io.prometheus.client.Collector;
@@ -26,12 +29,16 @@ import io.prometheus.client.exporter.HTTPServer;
 import io.seata.common.loader.LoadLevel;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.metrics.IdConstants;
 import io.seata.metrics.Measurement;
 import io.seata.metrics.exporter.Exporter;
 import io.seata.metrics.registry.Registry;
 
 /**
  * Exporter for Prometheus
+ * <p>
+ * The count, total and percentiles of the timers are exported as summary families named after the meter with a
+ * "_timer" suffix, everything else as untyped samples of the "seata" family.
  *
  * @author zhengyangyong
  */
@@ -39,6 +46,19 @@ import io.seata.metrics.registry.Registry;
 public class PrometheusExporter extends Collector implements Collector.Describable, Exporter {
     private static final String METRICS_EXPORTER_PROMETHEUS_PORT = "exporter-prometheus-port";
 
+    private static final String TIMER_SUFFIX = "_timer";
+
+    private static final String QUANTILE_LABEL = "quantile";
+
+    private static final Map<String, String> QUANTILES = new HashMap<>();
+
+    static {
+        QUANTILES.put(IdConstants.STATISTIC_VALUE_P50, "0.5");
+        QUANTILES.put(IdConstants.STATISTIC_VALUE_P90, "0.9");
+        QUANTILES.put(IdConstants.STATISTIC_VALUE_P99, "0.99");
+        QUANTILES.put(IdConstants.STATISTIC_VALUE_P999, "0.999");
+    }
+
     private final HTTPServer server;
 
     private Registry registry;
@@ -57,20 +77,71 @@ public class PrometheusExporter extends Collector implements Collector.Describab
 
     @Override
     public List<MetricFamilySamples> collect() {
-        List<MetricFamilySamples> familySamples = new ArrayList<>();
-        if (registry != null) {
-            Iterable<Measurement> measurements = registry.measure();
-            List<Sample> samples = new ArrayList<>();
-            measurements.forEach(measurement -> samples.add(convertMeasurementToSample(measurement)));
+        if (registry == null) {
+            return new ArrayList<>();
+        }
+        return toFamilySamples(registry.measure());
+    }
 
-            if (samples.size() != 0) {
-                familySamples.add(new MetricFamilySamples("seata", Type.UNTYPED, "seata", samples));
+    static List<MetricFamilySamples> toFamilySamples(Iterable<Measurement> measurements) {
+        List<MetricFamilySamples> familySamples = new ArrayList<>();
+        List<Sample> samples = new ArrayList<>();
+        Map<String, List<Sample>> timerSamples = new LinkedHashMap<>();
+        measurements.forEach(measurement -> {
+            Sample timerSample = convertTimerMeasurementToSample(measurement);
+            if (timerSample != null) {
+                String familyName = measurement.getId().getName().replace(".", "_") + TIMER_SUFFIX;
+                timerSamples.computeIfAbsent(familyName, key -> new ArrayList<>()).add(timerSample);
+            } else {
+                samples.add(convertMeasurementToSample(measurement));
             }
+        });
+
+        if (samples.size() != 0) {
+            familySamples.add(new MetricFamilySamples("seata", Type.UNTYPED, "seata", samples));
         }
+        timerSamples.forEach((familyName, summarySamples) -> familySamples.add(
+            new MetricFamilySamples(familyName, Type.SUMMARY, familyName, summarySamples)));
         return familySamples;
     }
 
-    private Sample convertMeasurementToSample(Measurement measurement) {
+    private static Sample convertTimerMeasurementToSample(Measurement measurement) {
+        String meter = null;
+        String statistic = null;
+        List<String> labelNames = new ArrayList<>();
+        List<String> labelValues = new ArrayList<>();
+        for (Entry<String, String> tag : measurement.getId().getTags()) {
+            if (IdConstants.STATISTIC_KEY.equals(tag.getKey())) {
+                statistic = tag.getValue();
+                continue;
+            }
+            if (IdConstants.METER_KEY.equals(tag.getKey())) {
+                meter = tag.getValue();
+            }
+            labelNames.add(tag.getKey());
+            labelValues.add(tag.getValue());
+        }
+        if (!IdConstants.METER_VALUE_TIMER.equals(meter) || statistic == null) {
+            return null;
+        }
+        String familyName = measurement.getId().getName().replace(".", "_") + TIMER_SUFFIX;
+        String sampleName;
+        if (IdConstants.STATISTIC_VALUE_COUNT.equals(statistic)) {
+            sampleName = familyName + "_count";
+        } else if (IdConstants.STATISTIC_VALUE_TOTAL.equals(statistic)) {
+            sampleName = familyName + "_sum";
+        } else if (QUANTILES.containsKey(statistic)) {
+            sampleName = familyName;
+            labelNames.add(QUANTILE_LABEL);
+            labelValues.add(QUANTILES.get(statistic));
+        } else {
+            return null;
+        }
+        return new Sample(sampleName, labelNames, labelValues, measurement.getValue(),
+            (long)measurement.getTimestamp());
+    }
+
+    private static Sample convertMeasurementToSample(Measurement measurement) {
         String prometheusName = measurement.getId().getName().replace(".", "_");
         List<String> labelNames = new ArrayList<>();
         List<String> labelValues = new ArrayList<>();
@@ -0,0 +1,110 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.exporter.prometheus;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.Collector.Type;
+import io.prometheus.client.exporter.common.TextFormat;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Measurement;
+import io.seata.metrics.registry.compact.CompactCounter;
+import io.seata.metrics.registry.compact.CompactTimer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the samples exported by PrometheusExporter.
+ */
+public class PrometheusExporterTest {
+
+    @Test
+    public void testTimerExportedAsSummary() throws Exception {
+        CompactTimer timer = new CompactTimer(new Id(IdConstants.SEATA_TRANSACTION)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+            .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_COMMITTED));
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i, TimeUnit.MILLISECONDS);
+        }
+        CompactCounter counter = new CompactCounter(new Id(IdConstants.SEATA_TRANSACTION)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_COUNTER)
+            .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ACTIVE));
+        counter.increase(3);
+
+        List<Measurement> measurements = new ArrayList<>();
+        timer.measure().forEach(measurements::add);
+        counter.measure().forEach(measurements::add);
+        List<MetricFamilySamples> familySamples = PrometheusExporter.toFamilySamples(measurements);
+
+        Assertions.assertEquals(2, familySamples.size());
+        Assertions.assertEquals(Type.UNTYPED, familySamples.get(0).type);
+        // the counter, max and average of the timer
+        Assertions.assertEquals(3, familySamples.get(0).samples.size());
+        MetricFamilySamples summary = familySamples.get(1);
+        Assertions.assertEquals("seata_transaction_timer", summary.name);
+        Assertions.assertEquals(Type.SUMMARY, summary.type);
+        // count, sum and 4 quantiles
+        Assertions.assertEquals(6, summary.samples.size());
+
+        StringWriter writer = new StringWriter();
+        TextFormat.write004(writer, Collections.enumeration(familySamples));
+        String text = writer.toString();
+        Assertions.assertTrue(text.contains("# TYPE seata_transaction_timer summary\n"), text);
+        Map<String, Double> series = parse(text);
+        String labels = "meter=\"timer\",role=\"tc\",status=\"committed\",";
+        Assertions.assertEquals(100, series.get("seata_transaction_timer_count{" + labels + "}"), 0);
+        Assertions.assertEquals(5050, series.get("seata_transaction_timer_sum{" + labels + "}"), 0.001);
+        assertWithinError(50, series.get("seata_transaction_timer{" + labels + "quantile=\"0.5\",}"));
+        assertWithinError(90, series.get("seata_transaction_timer{" + labels + "quantile=\"0.9\",}"));
+        assertWithinError(99, series.get("seata_transaction_timer{" + labels + "quantile=\"0.99\",}"));
+        Assertions.assertEquals(100, series.get("seata_transaction_timer{" + labels + "quantile=\"0.999\",}"), 0);
+        Assertions.assertEquals(100,
+            series.get("seata_transaction{meter=\"timer\",role=\"tc\",statistic=\"max\",status=\"committed\",}"), 0);
+        Assertions.assertEquals(3,
+            series.get("seata_transaction{meter=\"counter\",role=\"tc\",status=\"active\",}"), 0);
+    }
+
+    /**
+     * The value of each series of the text format, the lines are: series value [timestamp]
+     */
+    private static Map<String, Double> parse(String text) {
+        Map<String, Double> series = new HashMap<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(" ");
+            series.put(parts[0], Double.parseDouble(parts[1]));
+        }
+        return series;
+    }
+
+    private static void assertWithinError(double expectedMillis, Double actualMillis) {
+        Assertions.assertNotNull(actualMillis);
+        Assertions.assertTrue(actualMillis >= expectedMillis && actualMillis <= expectedMillis * (1 + 1.0 / 32),
+            "expected " + expectedMillis + " within 1/32 but was " + actualMillis);
+    }
+}
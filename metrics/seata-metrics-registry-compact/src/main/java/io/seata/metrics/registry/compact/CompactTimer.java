@@ -26,11 +26,18 @@ import io.seata.metrics.Timer;
 import io.seata.metrics.IdConstants;
 
 /**
- * Compact Timer implement with TimerValue
+ * Compact Timer implement with Histogram
+ * <p>
+ * count and total are cumulative, max, average and percentiles are of the last minute, measuring resets nothing so
+ * that several exporters or scrapers can measure concurrently.
  *
  * @author zhengyangyong
  */
 public class CompactTimer implements Timer {
+    private static final long WINDOW_MILLISECONDS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final int WINDOW_SLICE_COUNT = 3;
+
     private final Id id;
 
     private final Id countId;
@@ -41,7 +48,17 @@ public class CompactTimer implements Timer {
 
     private final Id averageId;
 
-    private volatile TimerValue value;
+    private final Id p50Id;
+
+    private final Id p90Id;
+
+    private final Id p99Id;
+
+    private final Id p999Id;
+
+    private final Histogram histogram;
+
+    private final TimeWindowHistogram windowHistogram;
 
     private final Clock clock;
 
@@ -51,18 +68,23 @@ public class CompactTimer implements Timer {
 
     public CompactTimer(Id id, Clock clock) {
         this.id = id;
-        this.countId = new Id(id.getName()).withTag(id.getTags())
-            .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_COUNT);
-        this.totalId = new Id(id.getName()).withTag(id.getTags())
-            .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_TOTAL);
-        this.maxId = new Id(id.getName()).withTag(id.getTags())
-            .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_MAX);
-        this.averageId = new Id(id.getName()).withTag(id.getTags())
-            .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_AVERAGE);
-        this.value = new TimerValue();
+        this.countId = statisticId(id, IdConstants.STATISTIC_VALUE_COUNT);
+        this.totalId = statisticId(id, IdConstants.STATISTIC_VALUE_TOTAL);
+        this.maxId = statisticId(id, IdConstants.STATISTIC_VALUE_MAX);
+        this.averageId = statisticId(id, IdConstants.STATISTIC_VALUE_AVERAGE);
+        this.p50Id = statisticId(id, IdConstants.STATISTIC_VALUE_P50);
+        this.p90Id = statisticId(id, IdConstants.STATISTIC_VALUE_P90);
+        this.p99Id = statisticId(id, IdConstants.STATISTIC_VALUE_P99);
+        this.p999Id = statisticId(id, IdConstants.STATISTIC_VALUE_P999);
+        this.histogram = new Histogram();
+        this.windowHistogram = new TimeWindowHistogram(clock, WINDOW_MILLISECONDS, WINDOW_SLICE_COUNT);
         this.clock = clock;
     }
 
+    private static Id statisticId(Id id, String statistic) {
+        return new Id(id.getName()).withTag(id.getTags()).withTag(IdConstants.STATISTIC_KEY, statistic);
+    }
+
     @Override
     public Id getId() {
         return id;
@@ -70,38 +92,63 @@ public class CompactTimer implements Timer {
 
     @Override
     public void record(long value, TimeUnit unit) {
-        this.value.record(value, unit);
+        if (value < 0) {
+            return;
+        }
+        long changeValue = unit == TimeUnit.MICROSECONDS ? value : TimeUnit.MICROSECONDS.convert(value, unit);
+        this.histogram.record(changeValue);
+        this.windowHistogram.record(changeValue);
     }
 
     @Override
     public long count() {
-        return this.value.getCount();
+        return this.histogram.getCount();
     }
 
     @Override
     public long total() {
-        return this.value.getTotal();
+        return this.histogram.getTotal();
     }
 
     @Override
     public long max() {
-        return this.value.getMax();
+        return this.histogram.getMax();
     }
 
     @Override
     public double average() {
-        return this.value.getAverage();
+        return this.histogram.getAverage();
+    }
+
+    /**
+     * All the values recorded since the timer is created, in microseconds
+     *
+     * @return the snapshot
+     */
+    public HistogramSnapshot snapshot() {
+        return this.histogram.snapshot();
+    }
+
+    /**
+     * The values recorded during the last minute, in microseconds
+     *
+     * @return the snapshot
+     */
+    public HistogramSnapshot windowSnapshot() {
+        return this.windowHistogram.snapshot();
     }
 
     @Override
     public Iterable<Measurement> measure() {
-        //reset value when measure
         double time = clock.getCurrentMilliseconds();
-        TimerValue value = this.value;
-        this.value = new TimerValue();
-        return Arrays.asList(new Measurement(countId, time, value.getCount()),
-            new Measurement(totalId, time, value.getTotal() * 0.001),
-            new Measurement(maxId, time, value.getMax() * 0.001),
-            new Measurement(averageId, time, value.getAverage() * 0.001));
+        HistogramSnapshot window = this.windowHistogram.snapshot();
+        return Arrays.asList(new Measurement(countId, time, this.histogram.getCount()),
+            new Measurement(totalId, time, this.histogram.getTotal() * 0.001),
+            new Measurement(maxId, time, window.getMax() * 0.001),
+            new Measurement(averageId, time, window.getAverage() * 0.001),
+            new Measurement(p50Id, time, window.getValueAtQuantile(0.5) * 0.001),
+            new Measurement(p90Id, time, window.getValueAtQuantile(0.9) * 0.001),
+            new Measurement(p99Id, time, window.getValueAtQuantile(0.99) * 0.001),
+            new Measurement(p999Id, time, window.getValueAtQuantile(0.999) * 0.001));
     }
 }
@@ -0,0 +1,139 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log linear bucketed histogram of non negative values, recording is lock free
+ * <p>
+ * Values below 32 have a bucket each, above that every power of two range is split in 32 equal buckets, so that a
+ * value is located with an error below 1/32 (about 3%) of itself, up to 2^40.
+ */
+public class Histogram {
+    static final int SUB_BUCKET_BITS = 5;
+
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    static final int MAX_MAGNITUDE = 40;
+
+    static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets;
+
+    private final LongAdder count;
+
+    private final LongAdder total;
+
+    private final AtomicLong max;
+
+    public Histogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new LongAdder();
+        this.total = new LongAdder();
+        this.max = new AtomicLong(0);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getAverage() {
+        double count = this.count.doubleValue();
+        double total = this.total.doubleValue();
+        return count == 0 ? 0 : total / count;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        buckets.incrementAndGet(bucketIndex(Math.min(value, MAX_VALUE)));
+        count.increment();
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Clear all recorded values, records running concurrently may be lost
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * Add the recorded values into the snapshot
+     *
+     * @param snapshot the snapshot
+     */
+    void addTo(HistogramSnapshot snapshot) {
+        long[] counts = snapshot.getBuckets();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += buckets.get(i);
+        }
+        snapshot.add(count.sum(), total.sum(), max.get());
+    }
+
+    public HistogramSnapshot snapshot() {
+        HistogramSnapshot snapshot = new HistogramSnapshot();
+        addTo(snapshot);
+        return snapshot;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int)value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + (magnitude - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * The highest value falling into the bucket
+     *
+     * @param index the bucket index
+     * @return the value
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long subBucket = SUB_BUCKET_COUNT + (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
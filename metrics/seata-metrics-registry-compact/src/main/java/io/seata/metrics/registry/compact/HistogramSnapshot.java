@@ -0,0 +1,85 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+/**
+ * Immutable view of the values recorded by one or more Histogram
+ */
+public class HistogramSnapshot {
+    private final long[] buckets;
+
+    private long count;
+
+    private long total;
+
+    private long max;
+
+    HistogramSnapshot() {
+        this.buckets = new long[Histogram.BUCKET_COUNT];
+    }
+
+    long[] getBuckets() {
+        return buckets;
+    }
+
+    void add(long count, long total, long max) {
+        this.count += count;
+        this.total += total;
+        this.max = Math.max(this.max, max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : (double)total / count;
+    }
+
+    /**
+     * The value below which the given fraction of the recorded values fall
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the value, 0 if nothing is recorded
+     */
+    public long getValueAtQuantile(double quantile) {
+        // count the buckets themselves, the counters of a concurrently recorded snapshot may be ahead of them
+        long bucketTotal = 0;
+        for (long bucket : buckets) {
+            bucketTotal += bucket;
+        }
+        if (bucketTotal == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(quantile * bucketTotal));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return max == 0 ? Histogram.bucketUpperBound(i) : Math.min(Histogram.bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+}
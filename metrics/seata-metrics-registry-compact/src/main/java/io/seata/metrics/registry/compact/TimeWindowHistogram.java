@@ -0,0 +1,78 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.metrics.Clock;
+
+/**
+ * Histogram of the values recorded during the last time window
+ * <p>
+ * The window is made of a ring of slices, values are recorded into the newest slice and the oldest slice is cleared
+ * to become the newest one as time goes, so a snapshot covers between (slices - 1) and slices slice durations. The
+ * window only depends on time, taking a snapshot does not reset anything.
+ */
+public class TimeWindowHistogram {
+    private final Histogram[] slices;
+
+    private final long sliceMilliseconds;
+
+    private final Clock clock;
+
+    private final AtomicLong sliceStart;
+
+    private volatile int current;
+
+    public TimeWindowHistogram(Clock clock, long windowMilliseconds, int sliceCount) {
+        this.slices = new Histogram[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Histogram();
+        }
+        this.sliceMilliseconds = Math.max(1, windowMilliseconds / sliceCount);
+        this.clock = clock;
+        this.sliceStart = new AtomicLong((long)clock.getCurrentMilliseconds());
+    }
+
+    public void record(long value) {
+        rotate();
+        slices[current].record(value);
+    }
+
+    public HistogramSnapshot snapshot() {
+        rotate();
+        HistogramSnapshot snapshot = new HistogramSnapshot();
+        for (Histogram slice : slices) {
+            slice.addTo(snapshot);
+        }
+        return snapshot;
+    }
+
+    private void rotate() {
+        long now = (long)clock.getCurrentMilliseconds();
+        long start = sliceStart.get();
+        long elapsedSlices = (now - start) / sliceMilliseconds;
+        if (elapsedSlices <= 0 || !sliceStart.compareAndSet(start, start + elapsedSlices * sliceMilliseconds)) {
+            return;
+        }
+        int next = current;
+        for (long i = Math.min(elapsedSlices, slices.length); i > 0; i--) {
+            next = (next + 1) % slices.length;
+            slices[next].reset();
+        }
+        current = next;
+    }
+}
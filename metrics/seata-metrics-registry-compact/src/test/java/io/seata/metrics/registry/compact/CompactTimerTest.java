@@ -0,0 +1,79 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Measurement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test CompactTimer.
+ */
+public class CompactTimerTest {
+
+    @Test
+    public void testMeasure() {
+        TimeWindowHistogramTest.ManualClock clock = new TimeWindowHistogramTest.ManualClock();
+        CompactTimer timer = new CompactTimer(new Id("test").withTag(IdConstants.METER_KEY,
+            IdConstants.METER_VALUE_TIMER), clock);
+        for (int i = 1; i <= 1000; i++) {
+            timer.record(i, TimeUnit.MILLISECONDS);
+        }
+
+        Map<String, Double> values = measure(timer);
+        Assertions.assertEquals(1000, values.get(IdConstants.STATISTIC_VALUE_COUNT), 0);
+        Assertions.assertEquals(500500, values.get(IdConstants.STATISTIC_VALUE_TOTAL), 0.001);
+        Assertions.assertEquals(1000, values.get(IdConstants.STATISTIC_VALUE_MAX), 0);
+        Assertions.assertEquals(500.5, values.get(IdConstants.STATISTIC_VALUE_AVERAGE), 0.001);
+        assertWithinError(500, values.get(IdConstants.STATISTIC_VALUE_P50));
+        assertWithinError(900, values.get(IdConstants.STATISTIC_VALUE_P90));
+        assertWithinError(990, values.get(IdConstants.STATISTIC_VALUE_P99));
+        assertWithinError(999, values.get(IdConstants.STATISTIC_VALUE_P999));
+
+        // measuring resets nothing, the window moves with time only
+        Assertions.assertEquals(values, measure(timer));
+        clock.now = TimeUnit.MINUTES.toMillis(2);
+        values = measure(timer);
+        Assertions.assertEquals(1000, values.get(IdConstants.STATISTIC_VALUE_COUNT), 0);
+        Assertions.assertEquals(500500, values.get(IdConstants.STATISTIC_VALUE_TOTAL), 0.001);
+        Assertions.assertEquals(0, values.get(IdConstants.STATISTIC_VALUE_P99), 0);
+        Assertions.assertEquals(0, values.get(IdConstants.STATISTIC_VALUE_MAX), 0);
+    }
+
+    private static Map<String, Double> measure(CompactTimer timer) {
+        Map<String, Double> values = new HashMap<>();
+        for (Measurement measurement : timer.measure()) {
+            measurement.getId().getTags().forEach(tag -> {
+                if (IdConstants.STATISTIC_KEY.equals(tag.getKey())) {
+                    values.put(tag.getValue(), measurement.getValue());
+                }
+            });
+        }
+        return values;
+    }
+
+    private static void assertWithinError(double expectedMillis, double actualMillis) {
+        Assertions.assertTrue(actualMillis >= expectedMillis
+                && actualMillis <= expectedMillis * (1 + 1.0 / Histogram.SUB_BUCKET_COUNT),
+            "expected " + expectedMillis + " within 1/32 but was " + actualMillis);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test Histogram and HistogramSnapshot.
+ */
+public class HistogramTest {
+
+    @Test
+    public void testBucketBounds() {
+        int previousIndex = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = Histogram.bucketIndex(value);
+            Assertions.assertTrue(index == previousIndex || index == previousIndex + 1);
+            Assertions.assertTrue(value <= Histogram.bucketUpperBound(index));
+            if (index > 0) {
+                Assertions.assertTrue(value > Histogram.bucketUpperBound(index - 1));
+            }
+            assertWithinError(value, Histogram.bucketUpperBound(index));
+            previousIndex = index;
+        }
+        Assertions.assertEquals(Histogram.BUCKET_COUNT - 1, Histogram.bucketIndex(Histogram.MAX_VALUE));
+        Assertions.assertEquals(Histogram.MAX_VALUE, Histogram.bucketUpperBound(Histogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 20; value++) {
+            histogram.record(value);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(10, snapshot.getValueAtQuantile(0.5));
+        Assertions.assertEquals(18, snapshot.getValueAtQuantile(0.9));
+        Assertions.assertEquals(20, snapshot.getValueAtQuantile(0.99));
+        Assertions.assertEquals(1, snapshot.getValueAtQuantile(0));
+        Assertions.assertEquals(20, snapshot.getValueAtQuantile(1));
+        Assertions.assertEquals(20, snapshot.getMax());
+        Assertions.assertEquals(10.5, snapshot.getAverage(), 0);
+    }
+
+    @Test
+    public void testUniformDistribution() {
+        Histogram histogram = new Histogram();
+        int count = 100000;
+        for (int value = 1; value <= count; value++) {
+            histogram.record(value * 10L);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(count, snapshot.getCount());
+        Assertions.assertEquals(10L * count * (count + 1) / 2, snapshot.getTotal());
+        Assertions.assertEquals(10L * count, snapshot.getMax());
+        assertWithinError(500000, snapshot.getValueAtQuantile(0.5));
+        assertWithinError(900000, snapshot.getValueAtQuantile(0.9));
+        assertWithinError(990000, snapshot.getValueAtQuantile(0.99));
+        assertWithinError(999000, snapshot.getValueAtQuantile(0.999));
+        Assertions.assertEquals(10L * count, snapshot.getValueAtQuantile(1));
+    }
+
+    @Test
+    public void testSkewedDistribution() {
+        Histogram histogram = new Histogram();
+        // 99 fast values for one slow value
+        for (int i = 0; i < 9900; i++) {
+            histogram.record(1000);
+        }
+        for (int i = 0; i < 100; i++) {
+            histogram.record(1000000);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertWithinError(1000, snapshot.getValueAtQuantile(0.5));
+        assertWithinError(1000, snapshot.getValueAtQuantile(0.99));
+        Assertions.assertEquals(1000000, snapshot.getValueAtQuantile(0.999));
+    }
+
+    @Test
+    public void testEmptyLargeAndNegativeValues() {
+        Histogram histogram = new Histogram();
+        Assertions.assertEquals(0, histogram.snapshot().getValueAtQuantile(0.99));
+        histogram.record(-1);
+        Assertions.assertEquals(0, histogram.getCount());
+
+        histogram.record(Long.MAX_VALUE / 4);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(1, snapshot.getCount());
+        Assertions.assertEquals(Histogram.MAX_VALUE, snapshot.getValueAtQuantile(0.5));
+
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getMax());
+        Assertions.assertEquals(0, histogram.snapshot().getValueAtQuantile(0.5));
+    }
+
+    /**
+     * The upper bound of the bucket of a value is at most 1/32 above it.
+     */
+    private static void assertWithinError(long expected, long actual) {
+        Assertions.assertTrue(actual >= expected && actual <= expected + expected / Histogram.SUB_BUCKET_COUNT,
+            "expected " + expected + " within 1/32 but was " + actual);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import io.seata.metrics.Clock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test TimeWindowHistogram.
+ */
+public class TimeWindowHistogramTest {
+
+    @Test
+    public void testWindowRotation() {
+        ManualClock clock = new ManualClock();
+        TimeWindowHistogram histogram = new TimeWindowHistogram(clock, 60000, 3);
+
+        histogram.record(100);
+        clock.now = 19999;
+        histogram.record(200);
+        Assertions.assertEquals(2, histogram.snapshot().getCount());
+
+        // the slice of the first two values is the oldest, still in the window
+        clock.now = 59999;
+        histogram.record(300);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(3, snapshot.getCount());
+        Assertions.assertEquals(300, snapshot.getMax());
+
+        // it is cleared to become the newest slice
+        clock.now = 60000;
+        snapshot = histogram.snapshot();
+        Assertions.assertEquals(1, snapshot.getCount());
+        Assertions.assertEquals(300, snapshot.getValueAtQuantile(0.5));
+
+        // taking snapshots resets nothing
+        Assertions.assertEquals(1, histogram.snapshot().getCount());
+
+        // a pause longer than the window clears every slice
+        clock.now = 1000000;
+        Assertions.assertEquals(0, histogram.snapshot().getCount());
+        histogram.record(400);
+        Assertions.assertEquals(400, histogram.snapshot().getMax());
+    }
+
+    static class ManualClock implements Clock {
+        volatile long now;
+
+        @Override
+        public double getCurrentMilliseconds() {
+            return now;
+        }
+    }
+}
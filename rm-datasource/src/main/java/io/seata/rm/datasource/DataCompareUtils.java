@@ -48,6 +48,10 @@ public class DataCompareUtils {
      * @return the Result<Boolean>
      */
     public static Result<Boolean> isFieldEquals(Field f0, Field f1) {
+        return isFieldEquals(f0, f1, isFastjsonSerializer());
+    }
+
+    private static Result<Boolean> isFieldEquals(Field f0, Field f1, boolean fastjson) {
         if (f0 == null) {
             return Result.build(f1 == null);
         } else {
@@ -62,8 +66,7 @@ public class DataCompareUtils {
                         if (f1.getValue() == null) {
                             return Result.buildWithParams(false, "Field not equals, name {}, new value is null", f0.getName());
                         } else {
-                            String currentSerializer = AbstractUndoLogManager.getCurrentSerializer();
-                            if (StringUtils.equals(currentSerializer, FastjsonUndoLogParser.NAME)) {
+                            if (fastjson) {
                                 convertType(f0, f1);
                             }
                             boolean result = Objects.deepEquals(f0.getValue(), f1.getValue());
@@ -81,6 +84,10 @@ public class DataCompareUtils {
         }
     }
 
+    private static boolean isFastjsonSerializer() {
+        return StringUtils.equals(AbstractUndoLogManager.getCurrentSerializer(), FastjsonUndoLogParser.NAME);
+    }
+
     private static void convertType(Field f0, Field f1) {
         int f0Type = f0.getType();
         int f1Type = f1.getType();
@@ -141,25 +148,46 @@ public class DataCompareUtils {
         return compareRows(tableMetaData, oldRows, newRows);
     }
 
+    /**
+     * Compare the rows by primary key.
+     * <p>
+     * The images of a table are read with the same columns, and most often in the same row order: each row is first
+     * compared with the row at the same position, and each field with the field at the same position, only a
+     * mismatch falls back to the lookup by primary key or by field name.
+     */
     private static Result<Boolean> compareRows(TableMeta tableMetaData, List<Row> oldRows, List<Row> newRows) {
-        // old row to map
-        Map<String, Map<String, Field>> oldRowsMap = rowListToMap(oldRows, tableMetaData.getPkName());
-        // new row to map
-        Map<String, Map<String, Field>> newRowsMap = rowListToMap(newRows, tableMetaData.getPkName());
-        // compare data
-        for (String rowKey : oldRowsMap.keySet()) {
-            Map<String, Field> oldRow = oldRowsMap.get(rowKey);
-            Map<String, Field> newRow = newRowsMap.get(rowKey);
+        if (oldRows == newRows || CollectionUtils.isEmpty(oldRows)) {
+            return Result.ok();
+        }
+        String pkName = tableMetaData.getPkName();
+        boolean fastjson = isFastjsonSerializer();
+        Map<String, Row> newRowsMap = null;
+        for (int i = 0; i < oldRows.size(); i++) {
+            Row oldRow = oldRows.get(i);
+            String rowKey = rowKey(oldRow, pkName);
+            Row newRow = null;
+            if (newRowsMap == null) {
+                newRow = newRows.get(i);
+                if (!Objects.equals(rowKey, rowKey(newRow, pkName))) {
+                    newRowsMap = rowListToMap(newRows, pkName);
+                }
+            }
+            if (newRowsMap != null) {
+                newRow = newRowsMap.get(rowKey);
+            }
             if (newRow == null) {
                 return Result.buildWithParams(false, "compare row failed, rowKey {}, reason [newRow is null]", rowKey);
             }
-            for (String fieldName : oldRow.keySet()) {
-                Field oldField = oldRow.get(fieldName);
-                Field newField = newRow.get(fieldName);
+            List<Field> oldFields = oldRow.getFields();
+            List<Field> newFields = newRow.getFields();
+            for (int j = 0; j < oldFields.size(); j++) {
+                Field oldField = oldFields.get(j);
+                Field newField = j < newFields.size() && isSameName(oldField, newFields.get(j)) ? newFields.get(j)
+                    : findField(newFields, oldField);
                 if (newField == null) {
-                    return Result.buildWithParams(false, "compare row failed, rowKey {}, fieldName {}, reason [newField is null]", rowKey, fieldName);
+                    return Result.buildWithParams(false, "compare row failed, rowKey {}, fieldName {}, reason [newField is null]", rowKey, oldField.getName().trim().toUpperCase());
                 }
-                Result<Boolean> oldEqualsNewFieldResult = isFieldEquals(oldField, newField);
+                Result<Boolean> oldEqualsNewFieldResult = isFieldEquals(oldField, newField, fastjson);
                 if (!oldEqualsNewFieldResult.getResult()) {
                     return oldEqualsNewFieldResult;
                 }
@@ -168,21 +196,36 @@ public class DataCompareUtils {
         return Result.ok();
     }
 
-    private static Map<String, Map<String, Field>> rowListToMap(List<Row> rowList, String primaryKey) {
-        // {value of primaryKey, value of all columns}
-        Map<String, Map<String, Field>> rowMap = new HashMap<>();
-        for (Row row : rowList) {
-            // {uppercase fieldName : field}
-            Map<String, Field> colsMap = new HashMap<>();
-            String rowKey = null;
-            for (int j = 0; j < row.getFields().size(); j++) {
-                Field field = row.getFields().get(j);
-                if (field.getName().equalsIgnoreCase(primaryKey)) {
-                    rowKey = String.valueOf(field.getValue());
-                }
-                colsMap.put(field.getName().trim().toUpperCase(), field);
+    private static String rowKey(Row row, String primaryKey) {
+        String rowKey = null;
+        for (Field field : row.getFields()) {
+            if (field.getName().equalsIgnoreCase(primaryKey)) {
+                rowKey = String.valueOf(field.getValue());
             }
-            rowMap.put(rowKey, colsMap);
+        }
+        return rowKey;
+    }
+
+    private static boolean isSameName(Field f0, Field f1) {
+        return f0.getName().trim().equalsIgnoreCase(f1.getName().trim());
+    }
+
+    private static Field findField(List<Field> fields, Field field) {
+        // the last one wins, as when the fields were put into a map
+        Field found = null;
+        for (Field candidate : fields) {
+            if (isSameName(field, candidate)) {
+                found = candidate;
+            }
+        }
+        return found;
+    }
+
+    private static Map<String, Row> rowListToMap(List<Row> rowList, String primaryKey) {
+        // {value of primaryKey, row}
+        Map<String, Row> rowMap = new HashMap<>(rowList.size() * 4 / 3 + 1);
+        for (Row row : rowList) {
+            rowMap.put(rowKey(row, primaryKey), row);
         }
         return rowMap;
     }
@@ -76,7 +76,7 @@ public class DataSourceManager extends AbstractResourceManager implements Initia
         try {
             GlobalLockQueryRequest request = new GlobalLockQueryRequest();
             request.setXid(xid);
-            request.setLockKey(lockKeys);
+            setLockKeys(request, lockKeys);
             request.setResourceId(resourceId);
 
             GlobalLockQueryResponse response = null;
@@ -15,18 +15,28 @@
  */
 package io.seata.rm.datasource.exec;
 
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
 
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.rm.datasource.ParametersHolder;
 import io.seata.rm.datasource.StatementProxy;
+import io.seata.rm.datasource.sql.SQLParsingException;
 import io.seata.rm.datasource.sql.SQLRecognizer;
 import io.seata.rm.datasource.sql.SQLUpdateRecognizer;
+import io.seata.rm.datasource.sql.druid.BaseRecognizer;
+import io.seata.rm.datasource.sql.struct.ColumnMeta;
 import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.Null;
+import io.seata.rm.datasource.sql.struct.Row;
 import io.seata.rm.datasource.sql.struct.TableMeta;
 import io.seata.rm.datasource.sql.struct.TableRecords;
 
@@ -42,6 +52,14 @@ import org.apache.commons.lang.StringUtils;
  */
 public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecutor<T, S> {
 
+    /**
+     * Compute the after image from the before image when possible, instead of querying it.
+     */
+    private static final boolean COMPUTE_AFTER_IMAGE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.CLIENT_UPDATE_COMPUTE_AFTER_IMAGE, false);
+
+    private static final Object NOT_COMPUTABLE = new Object();
+
     /**
      * Instantiates a new Update executor.
      *
@@ -89,6 +107,12 @@ public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecu
         if (beforeImage == null || beforeImage.size() == 0) {
             return TableRecords.empty(getTableMeta());
         }
+        if (isComputeAfterImage()) {
+            TableRecords afterImage = computeAfterImage(tmeta, beforeImage);
+            if (afterImage != null) {
+                return afterImage;
+            }
+        }
         String selectSQL = buildAfterImageSQL(tmeta, beforeImage);
         TableRecords afterImage = null;
         PreparedStatement pst = null;
@@ -114,6 +138,188 @@ public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecu
         return afterImage;
     }
 
+    /**
+     * Whether the after image is computed from the before image when possible.
+     *
+     * @return the client.update.compute.after.image switch
+     */
+    protected boolean isComputeAfterImage() {
+        return COMPUTE_AFTER_IMAGE;
+    }
+
+    /**
+     * Compute the after image from the before image, when every column is set to a literal number, null or a bind
+     * parameter, whose value the database stores as it is. The rows of the before image are locked, they are exactly
+     * the rows updated.
+     * <p>
+     * A column the database changes on its own when the row is updated, like a MySQL ON UPDATE CURRENT_TIMESTAMP
+     * column, would be stale in a computed image, so the image is queried when it holds one.
+     *
+     * @param tableMeta   the table meta
+     * @param beforeImage the before image
+     * @return the after image, null if it has to be queried
+     */
+    protected TableRecords computeAfterImage(TableMeta tableMeta, TableRecords beforeImage) {
+        SQLUpdateRecognizer recognizer = (SQLUpdateRecognizer)sqlRecognizer;
+        List<String> updateColumns = recognizer.getUpdateColumns();
+        if (tableMeta.containsPK(updateColumns)) {
+            return null;
+        }
+        List<Field> beforeFields = beforeImage.getRows().get(0).getFields();
+        for (Field beforeField : beforeFields) {
+            ColumnMeta columnMeta = tableMeta.getColumnMeta(beforeField.getName());
+            if (columnMeta != null && isUpdatedByDatabase(columnMeta)) {
+                return null;
+            }
+        }
+        List<Object> updateValues;
+        try {
+            updateValues = recognizer.getUpdateValues();
+        } catch (SQLParsingException e) {
+            // a column is set to an expression
+            return null;
+        }
+        ArrayList<Object>[] parameters = statementProxy instanceof ParametersHolder
+            ? ((ParametersHolder)statementProxy).getParameters() : null;
+        int[] fieldIndexes = new int[updateColumns.size()];
+        Object[] values = new Object[updateColumns.size()];
+        int parameterIndex = 0;
+        for (int i = 0; i < updateColumns.size(); i++) {
+            Object value = updateValues.get(i);
+            if (value instanceof BaseRecognizer.VMarker) {
+                // the placeholders of the set items come first, and are bound once unless in a batch
+                if (parameters == null || parameterIndex >= parameters.length
+                    || parameters[parameterIndex].size() != 1) {
+                    return null;
+                }
+                value = parameters[parameterIndex++].get(0);
+            } else if (value instanceof String) {
+                // how a literal string is stored depends on the sql mode
+                return null;
+            }
+            fieldIndexes[i] = indexOfField(beforeFields, updateColumns.get(i));
+            if (fieldIndexes[i] < 0) {
+                return null;
+            }
+            ColumnMeta columnMeta = tableMeta.getColumnMeta(beforeFields.get(fieldIndexes[i]).getName());
+            values[i] = columnMeta == null ? NOT_COMPUTABLE : toStoredValue(columnMeta, value);
+            if (values[i] == NOT_COMPUTABLE) {
+                return null;
+            }
+            for (int j = 0; j < i; j++) {
+                if (fieldIndexes[j] == fieldIndexes[i]) {
+                    return null;
+                }
+            }
+        }
+
+        TableRecords afterImage = new TableRecords(tableMeta);
+        for (Row beforeRow : beforeImage.getRows()) {
+            List<Field> fields = new ArrayList<>(beforeRow.getFields().size());
+            for (Field beforeField : beforeRow.getFields()) {
+                Field field = new Field(beforeField.getName(), beforeField.getType(), beforeField.getValue());
+                field.setKeyType(beforeField.getKeyType());
+                fields.add(field);
+            }
+            for (int i = 0; i < fieldIndexes.length; i++) {
+                fields.get(fieldIndexes[i]).setValue(values[i]);
+            }
+            Row row = new Row();
+            row.setFields(fields);
+            afterImage.add(row);
+        }
+        return afterImage;
+    }
+
+    private static int indexOfField(List<Field> fields, String updateColumn) {
+        // the column may be qualified by the table alias, and quoted
+        String columnName = updateColumn.substring(updateColumn.lastIndexOf('.') + 1).replace("`", "")
+            .replace("\"", "");
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).getName().equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether the database may change the column on its own when the row is updated: a timestamp defaulting to the
+     * current time, which is how the jdbc meta data shows an ON UPDATE CURRENT_TIMESTAMP column of MySQL.
+     *
+     * @param columnMeta the column meta
+     * @return true if it may
+     */
+    private static boolean isUpdatedByDatabase(ColumnMeta columnMeta) {
+        String columnDef = columnMeta.getColumnDef();
+        if (columnDef == null) {
+            return false;
+        }
+        switch (columnMeta.getDataType()) {
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+            case Types.TIME:
+            case Types.DATE:
+                String upperColumnDef = columnDef.toUpperCase();
+                return upperColumnDef.contains("CURRENT_TIMESTAMP") || upperColumnDef.contains("NOW(");
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The value a query would read back once the value is written into the column.
+     *
+     * @param columnMeta the column meta
+     * @param value      the value written
+     * @return the value read back, NOT_COMPUTABLE when it is not known for sure
+     */
+    private static Object toStoredValue(ColumnMeta columnMeta, Object value) {
+        if (value == null || value == Null.get()) {
+            return columnMeta.getNullAble() == DatabaseMetaData.columnNullable ? null : NOT_COMPUTABLE;
+        }
+        String typeName = columnMeta.getDataTypeName();
+        if (typeName != null && typeName.toUpperCase().contains("UNSIGNED")) {
+            return NOT_COMPUTABLE;
+        }
+        switch (columnMeta.getDataType()) {
+            case Types.VARCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+                // oracle stores an empty string as null
+                if (value instanceof String && !((String)value).isEmpty()
+                    && ((String)value).length() <= columnMeta.getColumnSize()) {
+                    return value;
+                }
+                return NOT_COMPUTABLE;
+            case Types.TINYINT:
+                return toInteger(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case Types.SMALLINT:
+                return toInteger(value, Short.MIN_VALUE, Short.MAX_VALUE);
+            case Types.INTEGER:
+                return toInteger(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case Types.BIGINT:
+                if (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte) {
+                    return ((Number)value).longValue();
+                }
+                return NOT_COMPUTABLE;
+            default:
+                return NOT_COMPUTABLE;
+        }
+    }
+
+    private static Object toInteger(Object value, long min, long max) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            long longValue = ((Number)value).longValue();
+            if (longValue >= min && longValue <= max) {
+                return (int)longValue;
+            }
+        }
+        return NOT_COMPUTABLE;
+    }
+
     private String buildAfterImageSQL(TableMeta tableMeta, TableRecords beforeImage) throws SQLException {
         SQLUpdateRecognizer recognizer = (SQLUpdateRecognizer)sqlRecognizer;
         List<String> updateColumns = recognizer.getUpdateColumns();
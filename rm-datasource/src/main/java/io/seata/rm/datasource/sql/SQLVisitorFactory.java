@@ -15,6 +15,9 @@
  */
 package io.seata.rm.datasource.sql;
 
+import java.util.List;
+import java.util.Optional;
+
 import com.alibaba.druid.sql.SQLUtils;
 import com.alibaba.druid.sql.ast.SQLStatement;
 import com.alibaba.druid.sql.ast.statement.SQLDeleteStatement;
@@ -22,6 +25,10 @@ import com.alibaba.druid.sql.ast.statement.SQLInsertStatement;
 import com.alibaba.druid.sql.ast.statement.SQLSelectStatement;
 import com.alibaba.druid.sql.ast.statement.SQLUpdateStatement;
 import com.alibaba.druid.util.JdbcConstants;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.rm.datasource.sql.druid.MySQLDeleteRecognizer;
 import io.seata.rm.datasource.sql.druid.MySQLInsertRecognizer;
 import io.seata.rm.datasource.sql.druid.MySQLSelectForUpdateRecognizer;
@@ -30,7 +37,6 @@ import io.seata.rm.datasource.sql.druid.oracle.OracleDeleteRecognizer;
 import io.seata.rm.datasource.sql.druid.oracle.OracleInsertRecognizer;
 import io.seata.rm.datasource.sql.druid.oracle.OracleSelectForUpdateRecognizer;
 import io.seata.rm.datasource.sql.druid.oracle.OracleUpdateRecognizer;
-import java.util.List;
 
 /**
  * The type Sql visitor factory.
@@ -39,14 +45,65 @@ import java.util.List;
  */
 public class SQLVisitorFactory {
 
+    private static final long DEFAULT_RECOGNIZER_CACHE_SIZE = 4096;
+
+    /**
+     * The recognizers by db type and sql, null when disabled. A recognizer only holds the parsed statement, the
+     * parameters of each execution are bound when its where condition is built, so it is shared by all the executions
+     * of its sql. The statements are only read once parsed. No recognizer, as for a plain select, is cached as empty.
+     */
+    private static final Cache<RecognizerKey, Optional<SQLRecognizer>> RECOGNIZER_CACHE = buildRecognizerCache(
+        ConfigurationFactory.getInstance().getLong(ConfigurationKeys.CLIENT_SQL_RECOGNIZER_CACHE_SIZE,
+            DEFAULT_RECOGNIZER_CACHE_SIZE));
+
+    private static Cache<RecognizerKey, Optional<SQLRecognizer>> buildRecognizerCache(long cacheSize) {
+        if (cacheSize <= 0) {
+            return null;
+        }
+        return Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+    }
+
     /**
-     * Get sql recognizer.
+     * Get sql recognizer, parsed once per sql while it stays in the cache.
      *
      * @param sql    the sql
      * @param dbType the db type
      * @return the sql recognizer
      */
     public static SQLRecognizer get(String sql, String dbType) {
+        if (RECOGNIZER_CACHE == null) {
+            return parse(sql, dbType);
+        }
+        return RECOGNIZER_CACHE.get(new RecognizerKey(dbType, sql), key -> Optional.ofNullable(parse(sql, dbType)))
+            .orElse(null);
+    }
+
+    /**
+     * Number of the recognizers found in the cache.
+     *
+     * @return the hit count
+     */
+    public static long getRecognizerCacheHitCount() {
+        return RECOGNIZER_CACHE == null ? 0 : RECOGNIZER_CACHE.stats().hitCount();
+    }
+
+    /**
+     * Number of the sqls parsed because they were not in the cache.
+     *
+     * @return the miss count
+     */
+    public static long getRecognizerCacheMissCount() {
+        return RECOGNIZER_CACHE == null ? 0 : RECOGNIZER_CACHE.stats().missCount();
+    }
+
+    /**
+     * Parse the sql into a new recognizer.
+     *
+     * @param sql    the sql
+     * @param dbType the db type
+     * @return the sql recognizer, null if the sql needs none
+     */
+    static SQLRecognizer parse(String sql, String dbType) {
         List<SQLStatement> asts = SQLUtils.parseStatements(sql, dbType);
         if (asts == null || asts.size() != 1) {
             throw new UnsupportedOperationException("Unsupported SQL: " + sql);
@@ -82,4 +139,33 @@ public class SQLVisitorFactory {
         }
         return recognizer;
     }
+
+    private static final class RecognizerKey {
+
+        private final String dbType;
+
+        private final String sql;
+
+        RecognizerKey(String dbType, String sql) {
+            this.dbType = dbType;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RecognizerKey)) {
+                return false;
+            }
+            RecognizerKey other = (RecognizerKey)o;
+            return sql.equals(other.sql) && dbType.equals(other.dbType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * dbType.hashCode() + sql.hashCode();
+        }
+    }
 }
@@ -24,6 +24,7 @@ import com.alibaba.druid.sql.ast.expr.SQLBetweenExpr;
 import com.alibaba.druid.sql.ast.expr.SQLBinaryOpExpr;
 import com.alibaba.druid.sql.ast.expr.SQLIdentifierExpr;
 import com.alibaba.druid.sql.ast.expr.SQLInListExpr;
+import com.alibaba.druid.sql.ast.expr.SQLNullExpr;
 import com.alibaba.druid.sql.ast.expr.SQLPropertyExpr;
 import com.alibaba.druid.sql.ast.expr.SQLValuableExpr;
 import com.alibaba.druid.sql.ast.expr.SQLVariantRefExpr;
@@ -35,6 +36,7 @@ import io.seata.rm.datasource.ParametersHolder;
 import io.seata.rm.datasource.sql.SQLParsingException;
 import io.seata.rm.datasource.sql.SQLType;
 import io.seata.rm.datasource.sql.SQLUpdateRecognizer;
+import io.seata.rm.datasource.sql.struct.Null;
 
 /**
  * The type My sql update recognizer.
@@ -88,9 +90,11 @@ public class MySQLUpdateRecognizer extends BaseRecognizer implements SQLUpdateRe
         List<Object> list = new ArrayList<>(updateSetItems.size());
         for (SQLUpdateSetItem updateSetItem : updateSetItems) {
             SQLExpr expr = updateSetItem.getValue();
-            if (expr instanceof SQLValuableExpr) {
+            if (expr instanceof SQLNullExpr) {
+                list.add(Null.get());
+            } else if (expr instanceof SQLValuableExpr) {
                 list.add(((SQLValuableExpr) expr).getValue());
-            } else if (expr instanceof SQLVariantRefExpr) {
+            } else if (expr instanceof SQLVariantRefExpr && "?".equals(((SQLVariantRefExpr) expr).getName())) {
                 list.add(new VMarker());
             } else {
                 throw new SQLParsingException("Unknown SQLExpr: " + expr.getClass() + " " + expr);
@@ -18,6 +18,7 @@ package io.seata.rm.datasource.sql.druid.oracle;
 import com.alibaba.druid.sql.ast.SQLExpr;
 import com.alibaba.druid.sql.ast.SQLStatement;
 import com.alibaba.druid.sql.ast.expr.SQLIdentifierExpr;
+import com.alibaba.druid.sql.ast.expr.SQLNullExpr;
 import com.alibaba.druid.sql.ast.expr.SQLPropertyExpr;
 import com.alibaba.druid.sql.ast.expr.SQLValuableExpr;
 import com.alibaba.druid.sql.ast.expr.SQLVariantRefExpr;
@@ -33,6 +34,7 @@ import io.seata.rm.datasource.sql.SQLParsingException;
 import io.seata.rm.datasource.sql.SQLType;
 import io.seata.rm.datasource.sql.SQLUpdateRecognizer;
 import io.seata.rm.datasource.sql.druid.BaseRecognizer;
+import io.seata.rm.datasource.sql.struct.Null;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -90,9 +92,11 @@ public class OracleUpdateRecognizer extends BaseRecognizer implements SQLUpdateR
         List<Object> list = new ArrayList<>(updateSetItems.size());
         for (SQLUpdateSetItem updateSetItem : updateSetItems) {
             SQLExpr expr = updateSetItem.getValue();
-            if (expr instanceof SQLValuableExpr) {
+            if (expr instanceof SQLNullExpr) {
+                list.add(Null.get());
+            } else if (expr instanceof SQLValuableExpr) {
                 list.add(((SQLValuableExpr) expr).getValue());
-            } else if (expr instanceof SQLVariantRefExpr) {
+            } else if (expr instanceof SQLVariantRefExpr && "?".equals(((SQLVariantRefExpr) expr).getName())) {
                 list.add(new VMarker());
             } else {
                 throw new SQLParsingException("Unknown SQLExpr: " + expr.getClass() + " " + expr);
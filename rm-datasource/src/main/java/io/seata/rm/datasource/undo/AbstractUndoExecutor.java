@@ -64,6 +64,18 @@ public abstract class AbstractUndoExecutor {
     public static final boolean IS_UNDO_DATA_VALIDATION_ENABLE = ConfigurationFactory.getInstance()
             .getBoolean(ConfigurationKeys.TRANSACTION_UNDO_DATA_VALIDATION, true);
 
+    /**
+     * Max number of rows undone by one jdbc batch or one multi row statement, 1 to undo the rows one by one
+     */
+    public static final int UNDO_BATCH_SIZE = ConfigurationFactory.getInstance()
+            .getInt(ConfigurationKeys.TRANSACTION_UNDO_BATCH_SIZE, 1000);
+
+    /**
+     * Max estimated bytes of the values of one multi row statement, kept below the max_allowed_packet of mysql
+     */
+    public static final int UNDO_BATCH_BYTES = ConfigurationFactory.getInstance()
+            .getInt(ConfigurationKeys.TRANSACTION_UNDO_BATCH_BYTES, 1024 * 1024);
+
     /**
      * The Sql undo log.
      */
@@ -107,37 +119,150 @@ public abstract class AbstractUndoExecutor {
         }
 
         try {
-            String undoSQL = buildUndoSQL();
+            List<Row> undoRows = getUndoRows().getRows();
+            int multiRowSize = this instanceof MultiRowUndoExecutor
+                ? Math.min(UNDO_BATCH_SIZE, ((MultiRowUndoExecutor) this).getMultiRowUndoLimit()) : 1;
+            if (undoRows.size() > 1 && multiRowSize > 1) {
+                executeMultiRow(conn, (MultiRowUndoExecutor) this, undoRows, multiRowSize);
+            } else {
+                executeBatch(conn, undoRows);
+            }
+        } catch (Exception ex) {
+            if (ex instanceof SQLException) {
+                throw (SQLException) ex;
+            } else {
+                throw new SQLException(ex);
+            }
 
-            PreparedStatement undoPST = conn.prepareStatement(undoSQL);
+        }
 
-            TableRecords undoRows = getUndoRows();
+    }
 
-            for (Row undoRow : undoRows.getRows()) {
+    private void executeBatch(Connection conn, List<Row> undoRows) throws SQLException {
+        try (PreparedStatement undoPST = conn.prepareStatement(buildUndoSQL())) {
+            int batched = 0;
+            for (Row undoRow : undoRows) {
                 ArrayList<Field> undoValues = new ArrayList<>();
-                Field pkValue = null;
-                for (Field field : undoRow.getFields()) {
-                    if (field.getKeyType() == KeyType.PrimaryKey) {
-                        pkValue = field;
-                    } else {
-                        undoValues.add(field);
-                    }
-                }
+                Field pkValue = splitUndoValues(undoRow, undoValues);
 
                 undoPrepare(undoPST, undoValues, pkValue);
 
+                if (UNDO_BATCH_SIZE <= 1) {
+                    undoPST.executeUpdate();
+                    continue;
+                }
+                undoPST.addBatch();
+                if (++batched == UNDO_BATCH_SIZE) {
+                    undoPST.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                undoPST.executeBatch();
+            }
+        }
+    }
+
+    private void executeMultiRow(Connection conn, MultiRowUndoExecutor multiRowExecutor, List<Row> undoRows,
+                                 int multiRowSize) throws SQLException {
+        PreparedStatement undoPST = null;
+        int preparedRowCount = 0;
+        try {
+            int from = 0;
+            while (from < undoRows.size()) {
+                // a chunk takes rows up to the row count limit or the bytes limit, but always at least one row
+                int to = from + 1;
+                long chunkBytes = estimateUndoBytes(undoRows.get(from));
+                while (to < undoRows.size() && to - from < multiRowSize) {
+                    long rowBytes = estimateUndoBytes(undoRows.get(to));
+                    if (chunkBytes + rowBytes > UNDO_BATCH_BYTES) {
+                        break;
+                    }
+                    chunkBytes += rowBytes;
+                    to++;
+                }
+                List<Row> chunk = undoRows.subList(from, to);
+                // chunks of the same size have the same shape, and reuse the statement
+                if (chunk.size() != preparedRowCount) {
+                    if (undoPST != null) {
+                        undoPST.close();
+                    }
+                    undoPST = conn.prepareStatement(multiRowExecutor.buildMultiRowUndoSQL(chunk.size()));
+                    preparedRowCount = chunk.size();
+                }
+                multiRowUndoPrepare(undoPST, chunk);
                 undoPST.executeUpdate();
+                from = to;
             }
+        } finally {
+            if (undoPST != null) {
+                undoPST.close();
+            }
+        }
+    }
 
-        } catch (Exception ex) {
-            if (ex instanceof SQLException) {
-                throw (SQLException) ex;
+    private static Field splitUndoValues(Row undoRow, List<Field> undoValues) {
+        Field pkValue = null;
+        for (Field field : undoRow.getFields()) {
+            if (field.getKeyType() == KeyType.PrimaryKey) {
+                pkValue = field;
             } else {
-                throw new SQLException(ex);
+                undoValues.add(field);
             }
+        }
+        return pkValue;
+    }
 
+    /**
+     * Estimate the bytes taken by the values of a row in a statement sent as text, on the high side: strings are
+     * counted as 4 bytes utf8 characters and binaries as escaped.
+     *
+     * @param undoRow the undo row
+     * @return the estimated bytes
+     * @throws SQLException the sql exception
+     */
+    protected long estimateUndoBytes(Row undoRow) throws SQLException {
+        long bytes = 0;
+        for (Field field : undoRow.getFields()) {
+            // the separator and the quotes
+            bytes += 4;
+            Object value = field.getValue();
+            if (value == null) {
+                bytes += 4;
+            } else if (value instanceof String) {
+                bytes += ((String) value).length() * 4L;
+            } else if (value instanceof byte[]) {
+                bytes += ((byte[]) value).length * 2L;
+            } else if (value instanceof SerialBlob) {
+                bytes += ((SerialBlob) value).length() * 2;
+            } else if (value instanceof SerialClob) {
+                bytes += ((SerialClob) value).length() * 4;
+            } else {
+                bytes += 32;
+            }
         }
+        return bytes;
+    }
 
+    /**
+     * Multi row undo prepare of a {@link MultiRowUndoExecutor}, the values of each row are bound the way
+     * {@link #undoPrepare} binds them, one row after the other.
+     *
+     * @param undoPST  the undo pst
+     * @param undoRows the undo rows
+     * @throws SQLException the sql exception
+     */
+    protected void multiRowUndoPrepare(PreparedStatement undoPST, List<Row> undoRows) throws SQLException {
+        int undoIndex = 0;
+        for (Row undoRow : undoRows) {
+            List<Field> undoValues = new ArrayList<>();
+            Field pkValue = splitUndoValues(undoRow, undoValues);
+            for (Field undoValue : undoValues) {
+                setUndoValue(undoPST, ++undoIndex, undoValue);
+            }
+            undoIndex++;
+            undoPST.setObject(undoIndex, pkValue.getValue(), pkValue.getType());
+        }
     }
 
     /**
@@ -153,16 +278,7 @@ public abstract class AbstractUndoExecutor {
         int undoIndex = 0;
         for (Field undoValue : undoValues) {
             undoIndex++;
-            if (undoValue.getType() == JDBCType.BLOB.getVendorTypeNumber()) {
-                SerialBlob serialBlob = (SerialBlob) undoValue.getValue();
-                undoPST.setBlob(undoIndex, serialBlob.getBinaryStream());
-            } else if (undoValue.getType() == JDBCType.CLOB.getVendorTypeNumber()) {
-                SerialClob serialClob = (SerialClob) undoValue.getValue();
-                undoPST.setClob(undoIndex, serialClob.getCharacterStream());
-            } else {
-                undoPST.setObject(undoIndex, undoValue.getValue(), undoValue.getType());
-            }
-
+            setUndoValue(undoPST, undoIndex, undoValue);
         }
         // PK is at last one.
         // INSERT INTO a (x, y, z, pk) VALUES (?, ?, ?, ?)
@@ -172,6 +288,18 @@ public abstract class AbstractUndoExecutor {
         undoPST.setObject(undoIndex, pkValue.getValue(), pkValue.getType());
     }
 
+    private static void setUndoValue(PreparedStatement undoPST, int undoIndex, Field undoValue) throws SQLException {
+        if (undoValue.getType() == JDBCType.BLOB.getVendorTypeNumber()) {
+            SerialBlob serialBlob = (SerialBlob) undoValue.getValue();
+            undoPST.setBlob(undoIndex, serialBlob.getBinaryStream());
+        } else if (undoValue.getType() == JDBCType.CLOB.getVendorTypeNumber()) {
+            SerialClob serialClob = (SerialClob) undoValue.getValue();
+            undoPST.setClob(undoIndex, serialClob.getCharacterStream());
+        } else {
+            undoPST.setObject(undoIndex, undoValue.getValue(), undoValue.getType());
+        }
+    }
+
     /**
      * Gets undo rows.
      *
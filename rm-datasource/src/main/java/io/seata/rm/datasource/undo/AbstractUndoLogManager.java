@@ -18,6 +18,8 @@ package io.seata.rm.datasource.undo;
 import io.seata.common.util.CollectionUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ClientTableColumnsName;
+import io.seata.core.codec.CompressorType;
+import io.seata.core.compressor.CompressorFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +70,8 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
     protected static final String DELETE_UNDO_LOG_SQL = "DELETE FROM " + UNDO_LOG_TABLE_NAME +
             " WHERE " + ClientTableColumnsName.UNDO_LOG_BRANCH_XID + " = ? AND " + ClientTableColumnsName.UNDO_LOG_XID + " = ?";
 
+    private static final CompressorType COMPRESSOR_TYPE = CompressorType.getByName(UndoLogConstants.DEFAULT_COMPRESSOR);
+
     private static final ThreadLocal<String> SERIALIZER_LOCAL = new ThreadLocal<>();
 
     public static String getCurrentSerializer() {
@@ -185,11 +189,55 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
     }
 
     protected static String buildContext(String serializer) {
+        return buildContext(serializer, CompressorType.NONE);
+    }
+
+    protected static String buildContext(String serializer, CompressorType compressorType) {
         Map<String, String> map = new HashMap<>();
         map.put(UndoLogConstants.SERIALIZER_KEY, serializer);
+        if (compressorType != CompressorType.NONE) {
+            map.put(UndoLogConstants.COMPRESSOR_KEY, compressorType.name());
+        }
         return CollectionUtils.encodeMap(map);
     }
 
+    /**
+     * The compressor of the rollback info, none unless one is configured and the rollback info reaches the threshold.
+     *
+     * @param rollbackInfo the encoded rollback info
+     * @return the compressor type
+     */
+    protected static CompressorType getRollbackInfoCompressor(byte[] rollbackInfo) {
+        if (COMPRESSOR_TYPE == CompressorType.NONE || rollbackInfo.length < UndoLogConstants.DEFAULT_COMPRESS_THRESHOLD) {
+            return CompressorType.NONE;
+        }
+        return COMPRESSOR_TYPE;
+    }
+
+    protected static byte[] compressRollbackInfo(byte[] rollbackInfo, CompressorType compressorType) {
+        if (compressorType == CompressorType.NONE) {
+            return rollbackInfo;
+        }
+        return CompressorFactory.getCompressor(compressorType.getCode()).compress(rollbackInfo);
+    }
+
+    /**
+     * Decompress the rollback info, the undo logs written without compression have no compressor in their context.
+     *
+     * @param rollbackInfo the rollback info read from the undo log table
+     * @param context      the context of the undo log
+     * @return the encoded rollback info
+     */
+    protected static byte[] decompressRollbackInfo(byte[] rollbackInfo, Map<String, String> context) {
+        String compressor = context == null ? null : context.get(UndoLogConstants.COMPRESSOR_KEY);
+        if (compressor == null) {
+            return rollbackInfo;
+        }
+        CompressorType compressorType = CompressorType.getByName(compressor);
+        return CompressorFactory.getCompressor(compressorType.getCode()).decompress(rollbackInfo,
+            UndoLogConstants.MAX_ROLLBACK_INFO_LENGTH);
+    }
+
     protected static Map<String, String> parseContext(String data) {
         return CollectionUtils.decodeMap(data);
     }
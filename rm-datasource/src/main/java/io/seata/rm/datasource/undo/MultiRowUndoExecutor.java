@@ -0,0 +1,39 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo;
+
+/**
+ * An undo executor able to undo several rows with one statement. The values of each row are bound the way
+ * {@link AbstractUndoExecutor#undoPrepare} binds them, one row after the other, unless the executor overrides
+ * {@link AbstractUndoExecutor#multiRowUndoPrepare}.
+ */
+public interface MultiRowUndoExecutor {
+
+    /**
+     * Max number of rows undone by one statement of {@link #buildMultiRowUndoSQL(int)}.
+     *
+     * @return the max row count
+     */
+    int getMultiRowUndoLimit();
+
+    /**
+     * Build the sql undoing several rows at once.
+     *
+     * @param rowCount the number of rows
+     * @return the sql
+     */
+    String buildMultiRowUndoSQL(int rowCount);
+}
@@ -24,7 +24,20 @@ import io.seata.core.constants.ConfigurationKeys;
 public class UndoLogConstants {
 
     public final static String SERIALIZER_KEY = "serializer";
+
+    public final static String COMPRESSOR_KEY = "compressor";
     
     public static final String DEFAULT_SERIALIZER = ConfigurationFactory.getInstance()
             .getConfig(ConfigurationKeys.TRANSACTION_UNDO_LOG_SERIALIZATION, "jackson");
+
+    public static final String DEFAULT_COMPRESSOR = ConfigurationFactory.getInstance()
+            .getConfig(ConfigurationKeys.TRANSACTION_UNDO_LOG_COMPRESS_TYPE, "none");
+
+    public static final int DEFAULT_COMPRESS_THRESHOLD = ConfigurationFactory.getInstance()
+            .getInt(ConfigurationKeys.TRANSACTION_UNDO_LOG_COMPRESS_THRESHOLD, 65536);
+
+    /**
+     * The max decompressed length of a rollback info, written by the rm itself and not bounded by a frame.
+     */
+    public static final int MAX_ROLLBACK_INFO_LENGTH = Integer.MAX_VALUE - 8;
 }
@@ -16,6 +16,7 @@
 package io.seata.rm.datasource.undo.mysql;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +28,7 @@ import io.seata.rm.datasource.sql.struct.TableRecords;
 import io.seata.rm.datasource.undo.AbstractUndoExecutor;
 import io.seata.rm.datasource.undo.KeywordChecker;
 import io.seata.rm.datasource.undo.KeywordCheckerFactory;
+import io.seata.rm.datasource.undo.MultiRowUndoExecutor;
 import io.seata.rm.datasource.undo.SQLUndoLog;
 
 /**
@@ -34,7 +36,7 @@ import io.seata.rm.datasource.undo.SQLUndoLog;
  *
  * @author sharajava
  */
-public class MySQLUndoDeleteExecutor extends AbstractUndoExecutor {
+public class MySQLUndoDeleteExecutor extends AbstractUndoExecutor implements MultiRowUndoExecutor {
 
     /**
      * Instantiates a new My sql undo delete executor.
@@ -50,6 +52,11 @@ public class MySQLUndoDeleteExecutor extends AbstractUndoExecutor {
      */
     private static final String INSERT_SQL_TEMPLATE = "INSERT INTO %s (%s) VALUES (%s)";
 
+    /**
+     * The max number of placeholders in a mysql prepared statement.
+     */
+    static final int MAX_PARAMETER_COUNT = 65535;
+
     /**
      * Undo delete.
      *
@@ -60,24 +67,44 @@ public class MySQLUndoDeleteExecutor extends AbstractUndoExecutor {
      */
     @Override
     protected String buildUndoSQL() {
-        KeywordChecker keywordChecker = KeywordCheckerFactory.getKeywordChecker(JdbcConstants.MYSQL);
         TableRecords beforeImage = sqlUndoLog.getBeforeImage();
         List<Row> beforeImageRows = beforeImage.getRows();
         if (beforeImageRows == null || beforeImageRows.size() == 0) {
             throw new ShouldNeverHappenException("Invalid UNDO LOG");
         }
-        Row row = beforeImageRows.get(0);
+        return buildInsertSQL(beforeImageRows.get(0), 1);
+    }
+
+    @Override
+    public int getMultiRowUndoLimit() {
+        return MAX_PARAMETER_COUNT / sqlUndoLog.getBeforeImage().getRows().get(0).getFields().size();
+    }
+
+    /**
+     * Undo delete of several rows: INSERT INTO a (x, y, z, pk) VALUES (?, ?, ?, ?), (?, ?, ?, ?)
+     *
+     * @param rowCount the number of rows
+     * @return sql
+     */
+    @Override
+    public String buildMultiRowUndoSQL(int rowCount) {
+        return buildInsertSQL(sqlUndoLog.getBeforeImage().getRows().get(0), rowCount);
+    }
+
+    private String buildInsertSQL(Row row, int rowCount) {
+        KeywordChecker keywordChecker = KeywordCheckerFactory.getKeywordChecker(JdbcConstants.MYSQL);
         List<Field> fields = new ArrayList<>(row.nonPrimaryKeys());
         Field pkField = row.primaryKeys().get(0);
         // PK is at last one.
         fields.add(pkField);
-
         String insertColumns = fields.stream()
             .map(field -> keywordChecker.checkAndReplace(field.getName()))
             .collect(Collectors.joining(", "));
         String insertValues = fields.stream().map(field -> "?")
             .collect(Collectors.joining(", "));
-
+        if (rowCount > 1) {
+            insertValues = String.join("), (", Collections.nCopies(rowCount, insertValues));
+        }
         return String.format(INSERT_SQL_TEMPLATE, keywordChecker.checkAndReplace(sqlUndoLog.getTableName()),
                              insertColumns, insertValues);
     }
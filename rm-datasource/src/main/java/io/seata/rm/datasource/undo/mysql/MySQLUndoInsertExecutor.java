@@ -18,6 +18,7 @@ package io.seata.rm.datasource.undo.mysql;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.alibaba.druid.util.JdbcConstants;
@@ -28,6 +29,7 @@ import io.seata.rm.datasource.sql.struct.TableRecords;
 import io.seata.rm.datasource.undo.AbstractUndoExecutor;
 import io.seata.rm.datasource.undo.KeywordChecker;
 import io.seata.rm.datasource.undo.KeywordCheckerFactory;
+import io.seata.rm.datasource.undo.MultiRowUndoExecutor;
 import io.seata.rm.datasource.undo.SQLUndoLog;
 
 /**
@@ -35,13 +37,18 @@ import io.seata.rm.datasource.undo.SQLUndoLog;
  *
  * @author sharajava
  */
-public class MySQLUndoInsertExecutor extends AbstractUndoExecutor {
+public class MySQLUndoInsertExecutor extends AbstractUndoExecutor implements MultiRowUndoExecutor {
 
     /**
      * DELETE FROM a WHERE pk = ?
      */
     private static final String DELETE_SQL_TEMPLATE = "DELETE FROM %s WHERE %s = ?";
 
+    /**
+     * DELETE FROM a WHERE pk IN (?, ?, ?)
+     */
+    private static final String MULTI_ROW_DELETE_SQL_TEMPLATE = "DELETE FROM %s WHERE %s IN (%s)";
+
     /**
      * Undo Inset.
      *
@@ -62,6 +69,30 @@ public class MySQLUndoInsertExecutor extends AbstractUndoExecutor {
                              keywordChecker.checkAndReplace(pkField.getName()));
     }
 
+    @Override
+    public int getMultiRowUndoLimit() {
+        return MySQLUndoDeleteExecutor.MAX_PARAMETER_COUNT;
+    }
+
+    @Override
+    public String buildMultiRowUndoSQL(int rowCount) {
+        KeywordChecker keywordChecker = KeywordCheckerFactory.getKeywordChecker(JdbcConstants.MYSQL);
+        Field pkField = sqlUndoLog.getAfterImage().getRows().get(0).primaryKeys().get(0);
+        return String.format(MULTI_ROW_DELETE_SQL_TEMPLATE,
+                             keywordChecker.checkAndReplace(sqlUndoLog.getTableName()),
+                             keywordChecker.checkAndReplace(pkField.getName()),
+                             String.join(", ", Collections.nCopies(rowCount, "?")));
+    }
+
+    @Override
+    protected void multiRowUndoPrepare(PreparedStatement undoPST, List<Row> undoRows) throws SQLException {
+        int undoIndex = 0;
+        for (Row undoRow : undoRows) {
+            Field pkValue = undoRow.primaryKeys().get(0);
+            undoPST.setObject(++undoIndex, pkValue.getValue(), pkValue.getType());
+        }
+    }
+
     @Override
     protected void undoPrepare(PreparedStatement undoPST, ArrayList<Field> undoValues, Field pkValue)
         throws SQLException {
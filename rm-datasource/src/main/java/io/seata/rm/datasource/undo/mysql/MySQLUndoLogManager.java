@@ -31,6 +31,7 @@ import com.alibaba.druid.util.JdbcConstants;
 import io.seata.common.Constants;
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.util.BlobUtils;
+import io.seata.core.codec.CompressorType;
 import io.seata.core.constants.ClientTableColumnsName;
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.TransactionException;
@@ -104,7 +105,10 @@ public class MySQLUndoLogManager extends AbstractUndoLogManager {
             LOGGER.debug("Flushing UNDO LOG: {}", new String(undoLogContent, Constants.DEFAULT_CHARSET));
         }
 
-        insertUndoLogWithNormal(xid, branchID, buildContext(parser.getName()), undoLogContent,
+        CompressorType compressorType = getRollbackInfoCompressor(undoLogContent);
+        undoLogContent = compressRollbackInfo(undoLogContent, compressorType);
+
+        insertUndoLogWithNormal(xid, branchID, buildContext(parser.getName(), compressorType), undoLogContent,
                 cp.getTargetConnection());
     }
 
@@ -159,7 +163,7 @@ public class MySQLUndoLogManager extends AbstractUndoLogManager {
                     String contextString = rs.getString(ClientTableColumnsName.UNDO_LOG_CONTEXT);
                     Map<String, String> context = parseContext(contextString);
                     Blob b = rs.getBlob(ClientTableColumnsName.UNDO_LOG_ROLLBACK_INFO);
-                    byte[] rollbackInfo = BlobUtils.blob2Bytes(b);
+                    byte[] rollbackInfo = decompressRollbackInfo(BlobUtils.blob2Bytes(b), context);
 
                     String serializer = context == null ? null : context.get(UndoLogConstants.SERIALIZER_KEY);
                     UndoLogParser parser = serializer == null ? UndoLogParserFactory.getInstance() :
@@ -24,6 +24,7 @@ import io.seata.rm.datasource.sql.struct.TableRecords;
 import io.seata.rm.datasource.undo.AbstractUndoExecutor;
 import io.seata.rm.datasource.undo.KeywordChecker;
 import io.seata.rm.datasource.undo.KeywordCheckerFactory;
+import io.seata.rm.datasource.undo.MultiRowUndoExecutor;
 import io.seata.rm.datasource.undo.SQLUndoLog;
 
 import java.sql.PreparedStatement;
@@ -36,7 +37,7 @@ import java.util.List;
  * @author ccg
  * @date 2019/3/25
  */
-public class OracleUndoInsertExecutor extends AbstractUndoExecutor {
+public class OracleUndoInsertExecutor extends AbstractUndoExecutor implements MultiRowUndoExecutor {
 
     @Override
     protected String buildUndoSQL() {
@@ -59,6 +60,37 @@ public class OracleUndoInsertExecutor extends AbstractUndoExecutor {
         return mainSQL.append(where).toString();
     }
 
+    /**
+     * Oracle takes at most 1000 expressions in an IN list.
+     *
+     * @return the max row count
+     */
+    @Override
+    public int getMultiRowUndoLimit() {
+        return 1000;
+    }
+
+    @Override
+    public String buildMultiRowUndoSQL(int rowCount) {
+        KeywordChecker keywordChecker = KeywordCheckerFactory.getKeywordChecker(JdbcConstants.ORACLE);
+        Row row = sqlUndoLog.getAfterImage().getRows().get(0);
+        StringBuilder mainSQL = new StringBuilder("DELETE FROM ").append(keywordChecker.checkAndReplace(sqlUndoLog.getTableName()));
+        mainSQL.append(" WHERE ").append(keywordChecker.checkAndReplace(row.primaryKeys().get(0).getName())).append(" IN (");
+        for (int i = 0; i < rowCount; i++) {
+            mainSQL.append(i == 0 ? "?" : ", ?");
+        }
+        return mainSQL.append(")").toString();
+    }
+
+    @Override
+    protected void multiRowUndoPrepare(PreparedStatement undoPST, List<Row> undoRows) throws SQLException {
+        int undoIndex = 0;
+        for (Row undoRow : undoRows) {
+            Field pkValue = undoRow.primaryKeys().get(0);
+            undoPST.setObject(++undoIndex, pkValue.getValue(), pkValue.getType());
+        }
+    }
+
     @Override
     protected void undoPrepare(PreparedStatement undoPST, ArrayList<Field> undoValues, Field pkValue) throws SQLException {
         undoPST.setObject(1, pkValue.getValue(), pkValue.getType());
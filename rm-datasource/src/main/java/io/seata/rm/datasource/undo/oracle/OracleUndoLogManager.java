@@ -30,6 +30,7 @@ import com.alibaba.druid.util.JdbcConstants;
 import io.seata.common.Constants;
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.util.BlobUtils;
+import io.seata.core.codec.CompressorType;
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.rm.datasource.ConnectionContext;
@@ -97,7 +98,11 @@ public class OracleUndoLogManager extends AbstractUndoLogManager {
             LOGGER.debug("Flushing UNDO LOG: {}",new String(undoLogContent, Constants.DEFAULT_CHARSET));
         }
 
-        insertUndoLogWithNormal(xid, branchID,buildContext(parser.getName()), undoLogContent, cp.getTargetConnection());
+        CompressorType compressorType = getRollbackInfoCompressor(undoLogContent);
+        undoLogContent = compressRollbackInfo(undoLogContent, compressorType);
+
+        insertUndoLogWithNormal(xid, branchID, buildContext(parser.getName(), compressorType), undoLogContent,
+                cp.getTargetConnection());
     }
 
     /**
@@ -149,7 +154,7 @@ public class OracleUndoLogManager extends AbstractUndoLogManager {
                     String contextString = rs.getString("context");
                     Map<String, String> context = parseContext(contextString);
                     Blob b = rs.getBlob("rollback_info");
-                    byte[] rollbackInfo = BlobUtils.blob2Bytes(b);
+                    byte[] rollbackInfo = decompressRollbackInfo(BlobUtils.blob2Bytes(b), context);
 
                     String serializer = context == null ? null : context.get(UndoLogConstants.SERIALIZER_KEY);
                     UndoLogParser parser = serializer == null ? UndoLogParserFactory.getInstance() :
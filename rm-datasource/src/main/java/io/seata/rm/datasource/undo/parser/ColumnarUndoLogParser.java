@@ -0,0 +1,688 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import io.seata.common.exception.NotSupportYetException;
+import io.seata.common.exception.ShouldNeverHappenException;
+import io.seata.common.loader.LoadLevel;
+import io.seata.rm.datasource.sql.SQLType;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+
+/**
+ * Compact binary undo log.
+ * <p>
+ * The rows of an image are read with the same columns: the name, sql type and key type of each column are written
+ * once per image, then the values column after column. A column whose values are all of one java type gets the type
+ * once, a bitmap of its nulls, and the values without any tag. Numbers and times are written as variable length
+ * integers. An image whose rows do not share their columns is written row by row.
+ */
+@LoadLevel(name = ColumnarUndoLogParser.NAME)
+public class ColumnarUndoLogParser implements UndoLogParser {
+
+    public static final String NAME = "columnar";
+
+    private static final byte VERSION = 1;
+
+    private static final byte IMAGE_NULL = 0;
+    private static final byte IMAGE_EMPTY = 1;
+    private static final byte IMAGE_COLUMNS = 2;
+    private static final byte IMAGE_ROWS = 3;
+
+    private static final byte MIXED = -1;
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte SHORT = 4;
+    private static final byte BYTE = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte BIG_INTEGER = 10;
+    private static final byte TIMESTAMP = 11;
+    private static final byte SQL_DATE = 12;
+    private static final byte TIME = 13;
+    private static final byte DATE = 14;
+    private static final byte BYTES = 15;
+    private static final byte BLOB = 16;
+    private static final byte CLOB = 17;
+    private static final byte LOCAL_DATE_TIME = 18;
+    private static final byte LOCAL_DATE = 19;
+    private static final byte LOCAL_TIME = 20;
+
+    @Override
+    public String getName() {
+        return ColumnarUndoLogParser.NAME;
+    }
+
+    @Override
+    public byte[] getDefaultContent() {
+        return new byte[0];
+    }
+
+    @Override
+    public byte[] encode(BranchUndoLog branchUndoLog) {
+        Output out = new Output(256);
+        out.writeByte(VERSION);
+        out.writeString(branchUndoLog.getXid());
+        out.writeLong(branchUndoLog.getBranchId());
+        List<SQLUndoLog> sqlUndoLogs = branchUndoLog.getSqlUndoLogs();
+        int size = sqlUndoLogs == null ? 0 : sqlUndoLogs.size();
+        out.writeVarInt(size);
+        for (int i = 0; i < size; i++) {
+            SQLUndoLog sqlUndoLog = sqlUndoLogs.get(i);
+            out.writeVarInt(sqlUndoLog.getSqlType().value());
+            out.writeString(sqlUndoLog.getTableName());
+            writeImage(out, sqlUndoLog.getBeforeImage());
+            writeImage(out, sqlUndoLog.getAfterImage());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public BranchUndoLog decode(byte[] bytes) {
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        if (bytes.length == 0) {
+            return branchUndoLog;
+        }
+        Input in = new Input(bytes);
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new ShouldNeverHappenException("unknown columnar undo log version: " + version);
+        }
+        branchUndoLog.setXid(in.readString());
+        branchUndoLog.setBranchId(in.readLong());
+        int size = in.readVarInt();
+        List<SQLUndoLog> sqlUndoLogs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SQLUndoLog sqlUndoLog = new SQLUndoLog();
+            sqlUndoLog.setSqlType(SQLType.valueOf(in.readVarInt()));
+            sqlUndoLog.setTableName(in.readString());
+            sqlUndoLog.setBeforeImage(readImage(in));
+            sqlUndoLog.setAfterImage(readImage(in));
+            sqlUndoLogs.add(sqlUndoLog);
+        }
+        branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
+        return branchUndoLog;
+    }
+
+    private static void writeImage(Output out, TableRecords image) {
+        if (image == null) {
+            out.writeByte(IMAGE_NULL);
+            return;
+        }
+        if (image instanceof TableRecords.EmptyTableRecords) {
+            out.writeByte(IMAGE_EMPTY);
+            out.writeString(image.getTableName());
+            return;
+        }
+        List<Row> rows = image.getRows();
+        boolean columnar = isColumnar(rows);
+        out.writeByte(columnar ? IMAGE_COLUMNS : IMAGE_ROWS);
+        out.writeString(image.getTableName());
+        out.writeVarInt(rows.size());
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (columnar) {
+            List<Field> columns = rows.get(0).getFields();
+            out.writeVarInt(columns.size());
+            for (Field column : columns) {
+                writeFieldHeader(out, column);
+            }
+            for (int column = 0; column < columns.size(); column++) {
+                writeColumn(out, rows, column);
+            }
+        } else {
+            for (Row row : rows) {
+                out.writeVarInt(row.getFields().size());
+                for (Field field : row.getFields()) {
+                    writeFieldHeader(out, field);
+                    byte kind = kindOf(field.getValue());
+                    out.writeByte(kind);
+                    writeValue(out, kind, field.getValue());
+                }
+            }
+        }
+    }
+
+    private static TableRecords readImage(Input in) {
+        byte imageKind = in.readByte();
+        if (imageKind == IMAGE_NULL) {
+            return null;
+        }
+        if (imageKind == IMAGE_EMPTY) {
+            TableRecords image = new TableRecords.EmptyTableRecords();
+            image.setTableName(in.readString());
+            return image;
+        }
+        TableRecords image = new TableRecords();
+        image.setTableName(in.readString());
+        int rowCount = in.readVarInt();
+        List<Row> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new Row());
+        }
+        image.setRows(rows);
+        if (rowCount == 0) {
+            return image;
+        }
+        if (imageKind == IMAGE_COLUMNS) {
+            int columnCount = in.readVarInt();
+            Field[] columns = new Field[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                columns[column] = readFieldHeader(in);
+            }
+            for (Row row : rows) {
+                row.setFields(new ArrayList<>(columnCount));
+            }
+            for (Field column : columns) {
+                readColumn(in, rows, column);
+            }
+        } else {
+            for (Row row : rows) {
+                int fieldCount = in.readVarInt();
+                List<Field> fields = new ArrayList<>(fieldCount);
+                for (int i = 0; i < fieldCount; i++) {
+                    Field field = readFieldHeader(in);
+                    field.setValue(readValue(in, in.readByte()));
+                    fields.add(field);
+                }
+                row.setFields(fields);
+            }
+        }
+        return image;
+    }
+
+    private static boolean isColumnar(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return true;
+        }
+        List<Field> columns = rows.get(0).getFields();
+        for (int i = 1; i < rows.size(); i++) {
+            List<Field> fields = rows.get(i).getFields();
+            if (fields.size() != columns.size()) {
+                return false;
+            }
+            for (int j = 0; j < fields.size(); j++) {
+                Field field = fields.get(j);
+                Field column = columns.get(j);
+                if (!field.getName().equals(column.getName()) || field.getType() != column.getType()
+                    || field.getKeyType() != column.getKeyType()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void writeFieldHeader(Output out, Field field) {
+        out.writeString(field.getName());
+        out.writeZigZagInt(field.getType());
+        out.writeByte(field.getKeyType() == KeyType.PrimaryKey ? (byte)1 : (byte)0);
+    }
+
+    private static Field readFieldHeader(Input in) {
+        Field field = new Field();
+        field.setName(in.readString());
+        field.setType(in.readZigZagInt());
+        if (in.readByte() == 1) {
+            field.setKeyType(KeyType.PrimaryKey);
+        }
+        return field;
+    }
+
+    private static void writeColumn(Output out, List<Row> rows, int column) {
+        byte kind = NULL;
+        boolean hasNull = false;
+        for (Row row : rows) {
+            byte valueKind = kindOf(row.getFields().get(column).getValue());
+            if (valueKind == NULL) {
+                hasNull = true;
+            } else if (kind == NULL) {
+                kind = valueKind;
+            } else if (kind != valueKind) {
+                kind = MIXED;
+                break;
+            }
+        }
+        out.writeByte(kind);
+        if (kind == NULL) {
+            return;
+        }
+        if (kind == MIXED) {
+            for (Row row : rows) {
+                Object value = row.getFields().get(column).getValue();
+                byte valueKind = kindOf(value);
+                out.writeByte(valueKind);
+                writeValue(out, valueKind, value);
+            }
+            return;
+        }
+        out.writeByte(hasNull ? (byte)1 : (byte)0);
+        if (hasNull) {
+            byte[] nulls = new byte[(rows.size() + 7) / 8];
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getFields().get(column).getValue() == null) {
+                    nulls[i >>> 3] |= 1 << (i & 7);
+                }
+            }
+            out.writeRaw(nulls);
+        }
+        for (Row row : rows) {
+            Object value = row.getFields().get(column).getValue();
+            if (value != null) {
+                writeValue(out, kind, value);
+            }
+        }
+    }
+
+    private static void readColumn(Input in, List<Row> rows, Field column) {
+        byte kind = in.readByte();
+        byte[] nulls = null;
+        if (kind != NULL && kind != MIXED && in.readByte() == 1) {
+            nulls = in.readRaw((rows.size() + 7) / 8);
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Object value;
+            if (kind == NULL || nulls != null && (nulls[i >>> 3] & 1 << (i & 7)) != 0) {
+                value = null;
+            } else if (kind == MIXED) {
+                value = readValue(in, in.readByte());
+            } else {
+                value = readValue(in, kind);
+            }
+            Field field = new Field(column.getName(), column.getType(), value);
+            field.setKeyType(column.getKeyType());
+            rows.get(i).add(field);
+        }
+    }
+
+    private static byte kindOf(Object value) {
+        if (value == null) {
+            return NULL;
+        } else if (value instanceof String) {
+            return STRING;
+        } else if (value instanceof Integer) {
+            return INT;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Short) {
+            return SHORT;
+        } else if (value instanceof Byte) {
+            return BYTE;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Float) {
+            return FLOAT;
+        } else if (value instanceof Double) {
+            return DOUBLE;
+        } else if (value instanceof BigDecimal) {
+            return BIG_DECIMAL;
+        } else if (value instanceof BigInteger) {
+            return BIG_INTEGER;
+        } else if (value instanceof Timestamp) {
+            return TIMESTAMP;
+        } else if (value instanceof java.sql.Date) {
+            return SQL_DATE;
+        } else if (value instanceof Time) {
+            return TIME;
+        } else if (value.getClass() == Date.class) {
+            return DATE;
+        } else if (value instanceof byte[]) {
+            return BYTES;
+        } else if (value instanceof SerialBlob) {
+            return BLOB;
+        } else if (value instanceof SerialClob) {
+            return CLOB;
+        } else if (value instanceof LocalDateTime) {
+            return LOCAL_DATE_TIME;
+        } else if (value instanceof LocalDate) {
+            return LOCAL_DATE;
+        } else if (value instanceof LocalTime) {
+            return LOCAL_TIME;
+        }
+        throw new NotSupportYetException("value type " + value.getClass().getName()
+            + " is not supported by the columnar undo log, use another undo log serialization");
+    }
+
+    private static void writeValue(Output out, byte kind, Object value) {
+        switch (kind) {
+            case NULL:
+                break;
+            case STRING:
+                out.writeString((String)value);
+                break;
+            case INT:
+                out.writeZigZagInt((Integer)value);
+                break;
+            case LONG:
+                out.writeZigZagLong((Long)value);
+                break;
+            case SHORT:
+                out.writeZigZagInt((Short)value);
+                break;
+            case BYTE:
+                out.writeByte((Byte)value);
+                break;
+            case BOOLEAN:
+                out.writeByte((Boolean)value ? (byte)1 : (byte)0);
+                break;
+            case FLOAT:
+                out.writeInt(Float.floatToIntBits((Float)value));
+                break;
+            case DOUBLE:
+                out.writeLong(Double.doubleToLongBits((Double)value));
+                break;
+            case BIG_DECIMAL:
+                BigDecimal decimal = (BigDecimal)value;
+                out.writeZigZagInt(decimal.scale());
+                out.writeBytes(decimal.unscaledValue().toByteArray());
+                break;
+            case BIG_INTEGER:
+                out.writeBytes(((BigInteger)value).toByteArray());
+                break;
+            case TIMESTAMP:
+                Timestamp timestamp = (Timestamp)value;
+                out.writeZigZagLong(timestamp.getTime());
+                out.writeVarInt(timestamp.getNanos());
+                break;
+            case SQL_DATE:
+            case TIME:
+            case DATE:
+                out.writeZigZagLong(((Date)value).getTime());
+                break;
+            case BYTES:
+                out.writeBytes((byte[])value);
+                break;
+            case BLOB:
+                try {
+                    SerialBlob blob = (SerialBlob)value;
+                    out.writeBytes(blob.getBytes(1, (int)blob.length()));
+                } catch (SQLException e) {
+                    throw new ShouldNeverHappenException(e);
+                }
+                break;
+            case CLOB:
+                try {
+                    SerialClob clob = (SerialClob)value;
+                    out.writeString(clob.getSubString(1, (int)clob.length()));
+                } catch (SQLException e) {
+                    throw new ShouldNeverHappenException(e);
+                }
+                break;
+            case LOCAL_DATE_TIME:
+                LocalDateTime localDateTime = (LocalDateTime)value;
+                out.writeZigZagLong(localDateTime.toLocalDate().toEpochDay());
+                out.writeVarLong(localDateTime.toLocalTime().toNanoOfDay());
+                break;
+            case LOCAL_DATE:
+                out.writeZigZagLong(((LocalDate)value).toEpochDay());
+                break;
+            case LOCAL_TIME:
+                out.writeVarLong(((LocalTime)value).toNanoOfDay());
+                break;
+            default:
+                throw new ShouldNeverHappenException("unknown value kind: " + kind);
+        }
+    }
+
+    private static Object readValue(Input in, byte kind) {
+        switch (kind) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readString();
+            case INT:
+                return in.readZigZagInt();
+            case LONG:
+                return in.readZigZagLong();
+            case SHORT:
+                return (short)in.readZigZagInt();
+            case BYTE:
+                return in.readByte();
+            case BOOLEAN:
+                return in.readByte() == 1;
+            case FLOAT:
+                return Float.intBitsToFloat(in.readInt());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case BIG_DECIMAL:
+                int scale = in.readZigZagInt();
+                return new BigDecimal(new BigInteger(in.readBytes()), scale);
+            case BIG_INTEGER:
+                return new BigInteger(in.readBytes());
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(in.readZigZagLong());
+                timestamp.setNanos(in.readVarInt());
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(in.readZigZagLong());
+            case TIME:
+                return new Time(in.readZigZagLong());
+            case DATE:
+                return new Date(in.readZigZagLong());
+            case BYTES:
+                return in.readBytes();
+            case BLOB:
+                try {
+                    return new SerialBlob(in.readBytes());
+                } catch (SQLException e) {
+                    throw new ShouldNeverHappenException(e);
+                }
+            case CLOB:
+                try {
+                    return new SerialClob(in.readString().toCharArray());
+                } catch (SQLException e) {
+                    throw new ShouldNeverHappenException(e);
+                }
+            case LOCAL_DATE_TIME:
+                LocalDate date = LocalDate.ofEpochDay(in.readZigZagLong());
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readVarLong()));
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(in.readZigZagLong());
+            case LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(in.readVarLong());
+            default:
+                throw new ShouldNeverHappenException("unknown value kind: " + kind);
+        }
+    }
+
+    private static class Output {
+
+        private byte[] buffer;
+
+        private int position;
+
+        Output(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+            }
+        }
+
+        void writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte)(value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte)(value >>> shift);
+            }
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte)((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte)value;
+        }
+
+        void writeZigZagInt(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        void writeZigZagLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeRaw(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            writeRaw(bytes);
+        }
+
+        /**
+         * the length is written plus one, 0 stands for null
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            writeRaw(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static class Input {
+
+        private final byte[] buffer;
+
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            return buffer[position++];
+        }
+
+        int readInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        int readVarInt() {
+            return (int)readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer[position++];
+                value |= (long)(b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        int readZigZagInt() {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readZigZagLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        byte[] readRaw(int length) {
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        byte[] readBytes() {
+            return readRaw(readVarInt());
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(buffer, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+}
@@ -156,4 +156,38 @@ public class DataCompareUtilsTest {
         rows2.add(row3);
         Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void isRowsEqualsInAnotherOrder() {
+        TableMeta tableMeta = Mockito.mock(TableMeta.class);
+        Mockito.when(tableMeta.getPkName()).thenReturn("pk");
+
+        List<Row> rows = new ArrayList<>();
+        rows.add(newRow("pk", "1", "name", "a"));
+        rows.add(newRow("pk", "2", "name", "b"));
+        rows.add(newRow("pk", "3", "name", "c"));
+
+        // the rows and their fields are in another order
+        List<Row> rows2 = new ArrayList<>();
+        rows2.add(newRow("pk", "1", "name", "a"));
+        rows2.add(newRow("NAME", "c", "PK", "3"));
+        rows2.add(newRow("name", "b", "pk", "2"));
+        Assertions.assertTrue(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+
+        rows2.set(2, newRow("name", "x", "pk", "2"));
+        Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+
+        rows2.set(2, newRow("pk", "4", "name", "b"));
+        Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+
+        rows2.set(2, newRow("pk", "2", "other", "b"));
+        Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+    }
+
+    private static Row newRow(String name0, Object value0, String name1, Object value1) {
+        Row row = new Row();
+        row.add(new Field(name0, 1, value0));
+        row.add(new Field(name1, 1, value1));
+        return row;
+    }
+}
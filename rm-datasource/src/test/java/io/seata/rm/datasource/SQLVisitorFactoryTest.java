@@ -19,6 +19,7 @@ import com.alibaba.druid.util.JdbcConstants;
 import io.seata.rm.datasource.sql.SQLRecognizer;
 import io.seata.rm.datasource.sql.SQLVisitorFactory;
 import io.seata.rm.datasource.sql.druid.MySQLSelectForUpdateRecognizer;
+import io.seata.rm.datasource.sql.druid.oracle.OracleUpdateRecognizer;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -42,4 +43,29 @@ public class SQLVisitorFactoryTest {
         recognizer = SQLVisitorFactory.get(sql, dbType);
         Assertions.assertTrue(recognizer instanceof MySQLSelectForUpdateRecognizer);
     }
+
+    /**
+     * Test the recognizers are parsed once per sql.
+     */
+    @Test
+    public void testRecognizerCache() {
+        String sql = "update t1 set a = ? where id = ?";
+        SQLRecognizer recognizer = SQLVisitorFactory.get(sql, JdbcConstants.MYSQL);
+        long hitCount = SQLVisitorFactory.getRecognizerCacheHitCount();
+        long missCount = SQLVisitorFactory.getRecognizerCacheMissCount();
+        Assertions.assertSame(recognizer, SQLVisitorFactory.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertEquals(hitCount + 1, SQLVisitorFactory.getRecognizerCacheHitCount());
+
+        // keyed by db type too
+        SQLRecognizer oracleRecognizer = SQLVisitorFactory.get(sql, JdbcConstants.ORACLE);
+        Assertions.assertTrue(oracleRecognizer instanceof OracleUpdateRecognizer);
+        Assertions.assertEquals(missCount + 1, SQLVisitorFactory.getRecognizerCacheMissCount());
+
+        // a sql needing no recognizer is cached too
+        sql = "select a from t1 where id = ?";
+        Assertions.assertNull(SQLVisitorFactory.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertNull(SQLVisitorFactory.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertEquals(hitCount + 2, SQLVisitorFactory.getRecognizerCacheHitCount());
+        Assertions.assertEquals(missCount + 2, SQLVisitorFactory.getRecognizerCacheMissCount());
+    }
 }
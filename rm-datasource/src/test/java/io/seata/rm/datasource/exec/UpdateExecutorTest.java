@@ -0,0 +1,257 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.rm.datasource.PreparedStatementProxy;
+import io.seata.rm.datasource.sql.SQLParsingException;
+import io.seata.rm.datasource.sql.SQLUpdateRecognizer;
+import io.seata.rm.datasource.sql.druid.BaseRecognizer;
+import io.seata.rm.datasource.sql.struct.ColumnMeta;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Null;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test the after image UpdateExecutor computes from the before image.
+ */
+public class UpdateExecutorTest {
+
+    private static final String ID_COLUMN = "id";
+    private static final String NAME_COLUMN = "name";
+    private static final String AGE_COLUMN = "age";
+    private static final String UNSIGNED_AGE_COLUMN = "unsigned_age";
+    private static final String UPDATE_TIME_COLUMN = "update_time";
+
+    private PreparedStatementProxy statementProxy;
+
+    private SQLUpdateRecognizer sqlUpdateRecognizer;
+
+    private TableMeta tableMeta;
+
+    private UpdateExecutor updateExecutor;
+
+    @BeforeEach
+    public void init() throws SQLException {
+        statementProxy = mock(PreparedStatementProxy.class);
+        when(statementProxy.getConnection()).thenThrow(new SQLException("queried"));
+        sqlUpdateRecognizer = mock(SQLUpdateRecognizer.class);
+
+        Map<String, ColumnMeta> columns = new HashMap<>();
+        columns.put(ID_COLUMN, newColumn(ID_COLUMN, Types.INTEGER, "INT", DatabaseMetaData.columnNoNulls, null));
+        columns.put(NAME_COLUMN, newColumn(NAME_COLUMN, Types.VARCHAR, "VARCHAR", DatabaseMetaData.columnNullable,
+            null));
+        columns.put(AGE_COLUMN, newColumn(AGE_COLUMN, Types.INTEGER, "INT", DatabaseMetaData.columnNoNulls, null));
+        columns.put(UNSIGNED_AGE_COLUMN, newColumn(UNSIGNED_AGE_COLUMN, Types.INTEGER, "INT UNSIGNED",
+            DatabaseMetaData.columnNullable, null));
+        columns.put(UPDATE_TIME_COLUMN, newColumn(UPDATE_TIME_COLUMN, Types.TIMESTAMP, "TIMESTAMP",
+            DatabaseMetaData.columnNoNulls, "CURRENT_TIMESTAMP"));
+        tableMeta = mock(TableMeta.class);
+        when(tableMeta.getPkName()).thenReturn(ID_COLUMN);
+        when(tableMeta.getColumnMeta(anyString())).thenAnswer(invocation -> columns.get(invocation.getArgument(0)));
+        when(tableMeta.containsPK(anyList())).thenAnswer(invocation -> ((List)invocation.getArgument(0)).contains(
+            ID_COLUMN));
+
+        updateExecutor = Mockito.spy(new UpdateExecutor(statementProxy, mock(StatementCallback.class),
+            sqlUpdateRecognizer));
+        doReturn(tableMeta).when(updateExecutor).getTableMeta();
+        doReturn(true).when(updateExecutor).isComputeAfterImage();
+    }
+
+    @Test
+    public void testComputedFromParametersAndLiterals() throws SQLException {
+        // update t set name = ?, age = 30 where ...
+        mockUpdate(Arrays.asList(NAME_COLUMN, AGE_COLUMN), Arrays.asList(new BaseRecognizer.VMarker(), 30),
+            Arrays.asList("tom"));
+        TableRecords beforeImage = newBeforeImage(NAME_COLUMN, AGE_COLUMN);
+
+        TableRecords afterImage = updateExecutor.afterImage(beforeImage);
+
+        verify(statementProxy, never()).getConnection();
+        Assertions.assertEquals(2, afterImage.size());
+        for (int i = 0; i < 2; i++) {
+            List<Field> fields = afterImage.getRows().get(i).getFields();
+            Assertions.assertEquals(ID_COLUMN, fields.get(0).getName());
+            Assertions.assertEquals(i + 1, fields.get(0).getValue());
+            Assertions.assertEquals(KeyType.PrimaryKey, fields.get(0).getKeyType());
+            Assertions.assertEquals("tom", fields.get(1).getValue());
+            Assertions.assertEquals(30, fields.get(2).getValue());
+            Assertions.assertEquals(Types.INTEGER, fields.get(2).getType());
+        }
+        // the before image is left as it is
+        Assertions.assertEquals("name1", beforeImage.getRows().get(0).getFields().get(1).getValue());
+        Assertions.assertEquals(1, afterImage.pkRows().get(0).getValue());
+    }
+
+    @Test
+    public void testComputedNull() {
+        mockUpdate(Arrays.asList(NAME_COLUMN), Arrays.asList(Null.get()));
+
+        TableRecords afterImage = updateExecutor.computeAfterImage(tableMeta, newBeforeImage(NAME_COLUMN));
+
+        Assertions.assertNotNull(afterImage);
+        Assertions.assertNull(afterImage.getRows().get(0).getFields().get(1).getValue());
+    }
+
+    @Test
+    public void testQueriedWhenSwitchedOff() {
+        doReturn(false).when(updateExecutor).isComputeAfterImage();
+        mockUpdate(Arrays.asList(AGE_COLUMN), Arrays.asList(30));
+
+        SQLException e = Assertions.assertThrows(SQLException.class,
+            () -> updateExecutor.afterImage(newBeforeImage(AGE_COLUMN)));
+        Assertions.assertEquals("queried", e.getMessage());
+    }
+
+    @Test
+    public void testQueriedWhenNotComputable() {
+        mockUpdate(Arrays.asList(NAME_COLUMN), Arrays.asList("tom"));
+
+        SQLException e = Assertions.assertThrows(SQLException.class,
+            () -> updateExecutor.afterImage(newBeforeImage(NAME_COLUMN)));
+        Assertions.assertEquals("queried", e.getMessage());
+    }
+
+    @Test
+    public void testNotComputedForPrimaryKeyUpdate() {
+        mockUpdate(Arrays.asList(ID_COLUMN, AGE_COLUMN), Arrays.asList(5, 30));
+        assertNotComputed(AGE_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedForExpression() {
+        // update t set age = age + 1 where ...
+        when(sqlUpdateRecognizer.getUpdateColumns()).thenReturn(Arrays.asList(AGE_COLUMN));
+        when(sqlUpdateRecognizer.getUpdateValues()).thenThrow(new SQLParsingException("Unknown SQLExpr"));
+        assertNotComputed(AGE_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedForStringLiteral() {
+        // how a literal string is stored depends on the sql mode
+        mockUpdate(Arrays.asList(NAME_COLUMN), Arrays.asList("tom"));
+        assertNotComputed(NAME_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedForBatch() {
+        mockUpdate(Arrays.asList(NAME_COLUMN), Arrays.asList(new BaseRecognizer.VMarker()),
+            Arrays.asList("tom", "jerry"));
+        assertNotComputed(NAME_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedForUnsigned() {
+        mockUpdate(Arrays.asList(UNSIGNED_AGE_COLUMN), Arrays.asList(30));
+        assertNotComputed(UNSIGNED_AGE_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedForOutOfRange() {
+        mockUpdate(Arrays.asList(AGE_COLUMN), Arrays.asList(3000000000L));
+        assertNotComputed(AGE_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedForNullIntoNotNull() {
+        mockUpdate(Arrays.asList(AGE_COLUMN), Arrays.asList(Null.get()));
+        assertNotComputed(AGE_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedForDuplicatedColumn() {
+        mockUpdate(Arrays.asList(NAME_COLUMN, NAME_COLUMN),
+            Arrays.asList(new BaseRecognizer.VMarker(), new BaseRecognizer.VMarker()), Arrays.asList("tom"),
+            Arrays.asList("jerry"));
+        assertNotComputed(NAME_COLUMN);
+    }
+
+    @Test
+    public void testNotComputedWithColumnUpdatedByDatabase() {
+        // like a MySQL ON UPDATE CURRENT_TIMESTAMP column
+        mockUpdate(Arrays.asList(AGE_COLUMN), Arrays.asList(30));
+        assertNotComputed(AGE_COLUMN, UPDATE_TIME_COLUMN);
+    }
+
+    private void assertNotComputed(String... columns) {
+        Assertions.assertNull(updateExecutor.computeAfterImage(tableMeta, newBeforeImage(columns)));
+    }
+
+    @SafeVarargs
+    private final void mockUpdate(List<String> columns, List<Object> values, List<Object>... parameters) {
+        when(sqlUpdateRecognizer.getUpdateColumns()).thenReturn(columns);
+        when(sqlUpdateRecognizer.getUpdateValues()).thenReturn(values);
+        ArrayList<Object>[] bound = new ArrayList[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            bound[i] = new ArrayList<>(parameters[i]);
+        }
+        when(statementProxy.getParameters()).thenReturn(bound);
+    }
+
+    private TableRecords newBeforeImage(String... columns) {
+        TableRecords beforeImage = new TableRecords(tableMeta);
+        for (int id = 1; id <= 2; id++) {
+            List<Field> fields = new ArrayList<>();
+            Field pkField = new Field(ID_COLUMN, Types.INTEGER, id);
+            pkField.setKeyType(KeyType.PrimaryKey);
+            fields.add(pkField);
+            for (String column : columns) {
+                ColumnMeta columnMeta = tableMeta.getColumnMeta(column);
+                Object value = columnMeta.getDataType() == Types.VARCHAR ? column + id : (Object)id;
+                fields.add(new Field(column, columnMeta.getDataType(), value));
+            }
+            Row row = new Row();
+            row.setFields(fields);
+            beforeImage.add(row);
+        }
+        return beforeImage;
+    }
+
+    private static ColumnMeta newColumn(String name, int dataType, String dataTypeName, int nullAble,
+                                        String columnDef) {
+        ColumnMeta columnMeta = new ColumnMeta();
+        columnMeta.setColumnName(name);
+        columnMeta.setDataType(dataType);
+        columnMeta.setDataTypeName(dataTypeName);
+        columnMeta.setColumnSize(16);
+        columnMeta.setNullAble(nullAble);
+        columnMeta.setColumnDef(columnDef);
+        return columnMeta;
+    }
+}
@@ -22,6 +22,8 @@ import java.util.List;
 
 import com.alibaba.druid.sql.ast.SQLStatement;
 import io.seata.rm.datasource.ParametersHolder;
+import io.seata.rm.datasource.sql.SQLParsingException;
+import io.seata.rm.datasource.sql.struct.Null;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -219,4 +221,27 @@ public class MySQLUpdateRecognizerTest extends AbstractMySQLRecognizerTest {
         Assertions.assertEquals(Arrays.asList(Arrays.asList("id1", "id2")), paramAppenderList);
         Assertions.assertEquals("id BETWEEN ? AND ?", whereCondition);
     }
+
+    /**
+     * Update values of null and placeholders.
+     */
+    @Test
+    public void updateRecognizerTest_nullAndPlaceholder() {
+
+        String sql = "UPDATE t1 SET name1 = ?, name2 = NULL, age = 18 WHERE id = ?";
+
+        SQLStatement statement = getSQLStatement(sql);
+
+        MySQLUpdateRecognizer mySQLUpdateRecognizer = new MySQLUpdateRecognizer(sql, statement);
+
+        List<Object> updateValues = mySQLUpdateRecognizer.getUpdateValues();
+        Assertions.assertEquals(3, updateValues.size());
+        Assertions.assertTrue(updateValues.get(0) instanceof BaseRecognizer.VMarker);
+        Assertions.assertSame(Null.get(), updateValues.get(1));
+        Assertions.assertEquals(18, ((Number)updateValues.get(2)).intValue());
+
+        String exprSql = "UPDATE t1 SET age = age + 1 WHERE id = ?";
+        MySQLUpdateRecognizer exprRecognizer = new MySQLUpdateRecognizer(exprSql, getSQLStatement(exprSql));
+        Assertions.assertThrows(SQLParsingException.class, exprRecognizer::getUpdateValues);
+    }
 }
@@ -16,6 +16,8 @@
 package io.seata.rm.datasource.undo;
 
 import com.alibaba.druid.util.JdbcConstants;
+import io.seata.core.codec.CompressorType;
+import io.seata.core.protocol.ProtocolConstants;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
@@ -89,4 +91,36 @@ public class UndoLogManagerTest {
         assertThat(sqlBuilder.toString()).isEqualTo(THE_APPEND_IN_SIZE_PARAM_STRING);
     }
 
+    @Test
+    public void testCompressRollbackInfo() {
+        byte[] rollbackInfo = new byte[1024];
+        String context = AbstractUndoLogManager.buildContext("jackson", CompressorType.GZIP);
+        byte[] compressed = AbstractUndoLogManager.compressRollbackInfo(rollbackInfo, CompressorType.GZIP);
+        assertThat(compressed.length).isLessThan(rollbackInfo.length);
+        assertThat(AbstractUndoLogManager.decompressRollbackInfo(compressed,
+            AbstractUndoLogManager.parseContext(context))).isEqualTo(rollbackInfo);
+
+        // the undo logs written without compression are read as they are
+        String plainContext = AbstractUndoLogManager.buildContext("jackson");
+        assertThat(AbstractUndoLogManager.decompressRollbackInfo(rollbackInfo,
+            AbstractUndoLogManager.parseContext(plainContext))).isSameAs(rollbackInfo);
+        assertThat(AbstractUndoLogManager.getRollbackInfoCompressor(rollbackInfo)).isEqualTo(CompressorType.NONE);
+    }
+
+    @Test
+    public void testCompressRollbackInfoBiggerThanFrame() {
+        // the rollback info is not bounded by the frame length the message bodies are decompressed to
+        byte[] rollbackInfo = new byte[ProtocolConstants.MAX_FRAME_LENGTH + 1024 * 1024];
+        for (int i = 0; i < rollbackInfo.length; i++) {
+            rollbackInfo[i] = (byte)(i % 127);
+        }
+        for (CompressorType compressorType : new CompressorType[] {CompressorType.GZIP, CompressorType.LZ4,
+            CompressorType.ZSTD, CompressorType.SNAPPY}) {
+            String context = AbstractUndoLogManager.buildContext("jackson", compressorType);
+            byte[] compressed = AbstractUndoLogManager.compressRollbackInfo(rollbackInfo, compressorType);
+            assertThat(AbstractUndoLogManager.decompressRollbackInfo(compressed,
+                AbstractUndoLogManager.parseContext(context))).as(compressorType.name()).isEqualTo(rollbackInfo);
+        }
+    }
+
 }
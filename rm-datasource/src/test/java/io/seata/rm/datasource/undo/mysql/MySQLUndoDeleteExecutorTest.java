@@ -26,7 +26,11 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -88,6 +92,53 @@ public class MySQLUndoDeleteExecutorTest extends BaseExecutorTest {
         Assertions.assertTrue(sql.contains("id"));
     }
     
+    @Test
+    public void buildMultiRowUndoSQL() {
+        String sql = executor.buildMultiRowUndoSQL(2).toLowerCase();
+        Assertions.assertEquals("insert into table_name (age, id) values (?, ?), (?, ?)", sql);
+    }
+
+    @Test
+    public void executeOnMultiRowBoundedByBytes() throws SQLException {
+        // each row is estimated to 400k bytes, so that two rows fit in the default 1m bytes of a statement
+        String bigValue = String.join("", Collections.nCopies(100000, "x"));
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Row row = new Row();
+            addField(row, "id", 1, String.valueOf(i));
+            addField(row, "age", 1, bigValue);
+            rows.add(row);
+        }
+        TableRecords beforeImage = new TableRecords();
+        beforeImage.setTableName("table_name");
+        beforeImage.setTableMeta(executor.getSqlUndoLog().getBeforeImage().getTableMeta());
+        beforeImage.setRows(rows);
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.DELETE);
+        sqlUndoLog.setTableMeta(executor.getSqlUndoLog().getBeforeImage().getTableMeta());
+        sqlUndoLog.setTableName("table_name");
+        sqlUndoLog.setBeforeImage(beforeImage);
+
+        Connection conn = Mockito.mock(Connection.class);
+        PreparedStatement undoPST = Mockito.mock(PreparedStatement.class);
+        Mockito.when(conn.prepareStatement(Mockito.anyString())).thenReturn(undoPST);
+        MySQLUndoDeleteExecutor bigExecutor = new MySQLUndoDeleteExecutor(sqlUndoLog) {
+            @Override
+            protected boolean dataValidationAndGoOn(Connection conn) {
+                return true;
+            }
+        };
+        bigExecutor.executeOn(conn);
+
+        Mockito.verify(conn).prepareStatement(bigExecutor.buildMultiRowUndoSQL(2));
+        Mockito.verify(conn).prepareStatement(bigExecutor.buildMultiRowUndoSQL(1));
+        Mockito.verify(undoPST, Mockito.times(3)).executeUpdate();
+        Mockito.verify(undoPST).setObject(2, "0", 1);
+        Mockito.verify(undoPST).setObject(4, "1", 1);
+        Mockito.verify(undoPST).setObject(2, "4", 1);
+        Mockito.verify(undoPST, Mockito.times(2)).close();
+    }
+
     @Test
     public void getUndoRows() {
         Assertions.assertEquals(executor.getUndoRows(), executor.getSqlUndoLog().getBeforeImage());
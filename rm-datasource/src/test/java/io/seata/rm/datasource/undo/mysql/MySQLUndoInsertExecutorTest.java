@@ -26,6 +26,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -88,6 +91,32 @@ public class MySQLUndoInsertExecutorTest extends BaseExecutorTest {
         Assertions.assertTrue(sql.contains("id"));
     }
 
+    @Test
+    public void buildMultiRowUndoSQL() {
+        String sql = executor.buildMultiRowUndoSQL(2).toLowerCase();
+        Assertions.assertEquals("delete from table_name where id in (?, ?)", sql);
+    }
+
+    @Test
+    public void executeOnMultiRow() throws SQLException {
+        Connection conn = Mockito.mock(Connection.class);
+        PreparedStatement undoPST = Mockito.mock(PreparedStatement.class);
+        Mockito.when(conn.prepareStatement(Mockito.anyString())).thenReturn(undoPST);
+
+        new MySQLUndoInsertExecutor(executor.getSqlUndoLog()) {
+            @Override
+            protected boolean dataValidationAndGoOn(Connection conn) {
+                return true;
+            }
+        }.executeOn(conn);
+
+        Mockito.verify(conn).prepareStatement(executor.buildMultiRowUndoSQL(2));
+        Mockito.verify(undoPST).setObject(1, "12345", 1);
+        Mockito.verify(undoPST).setObject(2, "12346", 1);
+        Mockito.verify(undoPST, Mockito.times(1)).executeUpdate();
+        Mockito.verify(undoPST).close();
+    }
+
     @Test
     public void getUndoRows() {
         Assertions.assertEquals(executor.getUndoRows(), executor.getSqlUndoLog().getAfterImage());
@@ -26,6 +26,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -89,6 +92,26 @@ public class MySQLUndoUpdateExecutorTest extends BaseExecutorTest {
         Assertions.assertTrue(sql.contains("age"));
     }
 
+    @Test
+    public void executeOnBatch() throws SQLException {
+        Connection conn = Mockito.mock(Connection.class);
+        PreparedStatement undoPST = Mockito.mock(PreparedStatement.class);
+        Mockito.when(conn.prepareStatement(Mockito.anyString())).thenReturn(undoPST);
+
+        new MySQLUndoUpdateExecutor(executor.getSqlUndoLog()) {
+            @Override
+            protected boolean dataValidationAndGoOn(Connection conn) {
+                return true;
+            }
+        }.executeOn(conn);
+
+        Mockito.verify(conn, Mockito.times(1)).prepareStatement(Mockito.anyString());
+        Mockito.verify(undoPST, Mockito.times(2)).addBatch();
+        Mockito.verify(undoPST, Mockito.times(1)).executeBatch();
+        Mockito.verify(undoPST, Mockito.never()).executeUpdate();
+        Mockito.verify(undoPST).close();
+    }
+
     @Test
     public void getUndoRows() {
         Assertions.assertEquals(executor.getUndoRows(), executor.getSqlUndoLog().getBeforeImage());
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo.parser;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.rowset.serial.SerialBlob;
+
+import io.seata.rm.datasource.sql.SQLType;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.BaseUndoLogParserTest;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test ColumnarUndoLogParser.
+ */
+class ColumnarUndoLogParserTest extends BaseUndoLogParserTest {
+
+    ColumnarUndoLogParser parser = new ColumnarUndoLogParser();
+
+    @Override
+    public UndoLogParser getParser() {
+        return parser;
+    }
+
+    @Test
+    void testValueTypes() throws Exception {
+        Timestamp timestamp = Timestamp.valueOf("2019-10-01 12:34:56.123456789");
+        TableRecords afterImage = new TableRecords();
+        afterImage.setTableName("table_name");
+        afterImage.setRows(new ArrayList<>(Arrays.asList(
+            newRow(1L, "a", new BigDecimal("-12.340"), timestamp, 7),
+            newRow(2L, null, null, null, "mixed"),
+            newRow(-3L, "中文", BigDecimal.ZERO, timestamp, null))));
+        // a row with other columns, the image is written row by row
+        TableRecords beforeImage = new TableRecords();
+        beforeImage.setTableName("table_name");
+        Row other = newRow(4L, "b", BigDecimal.ONE, timestamp, 1);
+        other.add(new Field("blob_col", JDBCType.BLOB.getVendorTypeNumber(), new SerialBlob(new byte[] {1, 2, 3})));
+        other.add(new Field("time_col", JDBCType.TIMESTAMP.getVendorTypeNumber(), LocalDateTime.of(2019, 10, 1, 1, 2)));
+        beforeImage.setRows(new ArrayList<>(Arrays.asList(newRow(5L, "c", null, null, null), other)));
+
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName("table_name");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        sqlUndoLog.setAfterImage(afterImage);
+        SQLUndoLog insertUndoLog = new SQLUndoLog();
+        insertUndoLog.setSqlType(SQLType.INSERT);
+        insertUndoLog.setTableName("table_name");
+        insertUndoLog.setBeforeImage(new TableRecords.EmptyTableRecords());
+        insertUndoLog.setAfterImage(afterImage);
+
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("xid");
+        branchUndoLog.setBranchId(1L);
+        branchUndoLog.setSqlUndoLogs(Arrays.asList(sqlUndoLog, insertUndoLog));
+
+        BranchUndoLog decoded = parser.decode(parser.encode(branchUndoLog));
+        Assertions.assertEquals("xid", decoded.getXid());
+        Assertions.assertEquals(2, decoded.getSqlUndoLogs().size());
+        SQLUndoLog decodedUndoLog = decoded.getSqlUndoLogs().get(0);
+        Assertions.assertEquals(SQLType.UPDATE, decodedUndoLog.getSqlType());
+        assertRowsEquals(afterImage.getRows(), decodedUndoLog.getAfterImage().getRows());
+        assertRowsEquals(beforeImage.getRows(), decodedUndoLog.getBeforeImage().getRows());
+        Assertions.assertTrue(decoded.getSqlUndoLogs().get(1).getBeforeImage() instanceof TableRecords.EmptyTableRecords);
+        Assertions.assertEquals(KeyType.PrimaryKey,
+            decodedUndoLog.getAfterImage().getRows().get(2).primaryKeys().get(0).getKeyType());
+    }
+
+    private static Row newRow(long id, String name, BigDecimal amount, Timestamp updated, Object other) {
+        Row row = new Row();
+        Field pk = new Field("id", JDBCType.BIGINT.getVendorTypeNumber(), id);
+        pk.setKeyType(KeyType.PrimaryKey);
+        row.add(pk);
+        row.add(new Field("name", JDBCType.VARCHAR.getVendorTypeNumber(), name));
+        row.add(new Field("amount", JDBCType.DECIMAL.getVendorTypeNumber(), amount));
+        row.add(new Field("updated", JDBCType.TIMESTAMP.getVendorTypeNumber(), updated));
+        row.add(new Field("other", JDBCType.OTHER.getVendorTypeNumber(), other));
+        return row;
+    }
+
+    private static void assertRowsEquals(List<Row> expected, List<Row> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            List<Field> expectedFields = expected.get(i).getFields();
+            List<Field> actualFields = actual.get(i).getFields();
+            Assertions.assertEquals(expectedFields.size(), actualFields.size());
+            for (int j = 0; j < expectedFields.size(); j++) {
+                Field expectedField = expectedFields.get(j);
+                Field actualField = actualFields.get(j);
+                Assertions.assertEquals(expectedField.getName(), actualField.getName());
+                Assertions.assertEquals(expectedField.getType(), actualField.getType());
+                Assertions.assertEquals(expectedField.getKeyType(), actualField.getKeyType());
+                Assertions.assertEquals(expectedField.getValue(), actualField.getValue());
+            }
+        }
+    }
+}
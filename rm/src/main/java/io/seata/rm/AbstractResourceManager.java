@@ -15,17 +15,24 @@
  */
 package io.seata.rm;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeoutException;
 
 import io.seata.common.exception.NotSupportYetException;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.RmTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.Resource;
 import io.seata.core.model.ResourceManager;
 import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BatchBranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -44,6 +51,12 @@ public abstract class AbstractResourceManager implements ResourceManager {
 
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractResourceManager.class);
 
+    /**
+     * Whether the lock keys are sent in the binary form, which needs a server of this version or later.
+     */
+    protected static final boolean LOCK_KEY_BINARY = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.CLIENT_LOCK_BINARY_KEY, false);
+
     /**
      * registry branch record
      * @param branchType the branch type
@@ -59,7 +72,7 @@ public abstract class AbstractResourceManager implements ResourceManager {
         try {
             BranchRegisterRequest request = new BranchRegisterRequest();
             request.setXid(xid);
-            request.setLockKey(lockKeys);
+            setLockKeys(request, lockKeys);
             request.setResourceId(resourceId);
             request.setBranchType(branchType);
             request.setApplicationData(applicationData);
@@ -76,6 +89,42 @@ public abstract class AbstractResourceManager implements ResourceManager {
         }
     }
 
+    /**
+     * registry several branch records of one global transaction in one round trip, all or nothing
+     * @param xid      the xid
+     * @param requests the branch register requests, their lock keys as strings
+     * @return the branch ids in the order of the requests
+     * @throws TransactionException
+     */
+    public List<Long> branchRegister(String xid, List<BranchRegisterRequest> requests) throws TransactionException {
+        try {
+            BatchBranchRegisterRequest request = new BatchBranchRegisterRequest();
+            request.setXid(xid);
+            // the requests of the caller are left untouched, their lock keys may be sent in the binary form
+            List<BranchRegisterRequest> branchRegisterRequests = new ArrayList<>(requests.size());
+            for (BranchRegisterRequest branchRegisterRequest : requests) {
+                BranchRegisterRequest sent = new BranchRegisterRequest();
+                sent.setXid(xid);
+                sent.setBranchType(branchRegisterRequest.getBranchType());
+                sent.setResourceId(branchRegisterRequest.getResourceId());
+                sent.setApplicationData(branchRegisterRequest.getApplicationData());
+                setLockKeys(sent, branchRegisterRequest.getLockKey());
+                branchRegisterRequests.add(sent);
+            }
+            request.setBranchRegisterRequests(branchRegisterRequests);
+
+            BatchBranchRegisterResponse response = (BatchBranchRegisterResponse) RmRpcClient.getInstance().sendMsgWithResponse(request);
+            if (response.getResultCode() == ResultCode.Failed) {
+                throw new RmTransactionException(response.getTransactionExceptionCode(), String.format("Response[ %s ]", response.getMsg()));
+            }
+            return response.getBranchIds();
+        } catch (TimeoutException toe) {
+            throw new RmTransactionException(TransactionExceptionCode.IO, "RPC Timeout", toe);
+        } catch (RuntimeException rex) {
+            throw new RmTransactionException(TransactionExceptionCode.BranchRegisterFailed, "Runtime", rex);
+        }
+    }
+
     /**
      * report branch status
      * @param branchType      the branch type
@@ -119,4 +168,21 @@ public abstract class AbstractResourceManager implements ResourceManager {
     public void registerResource(Resource resource) {
         RmRpcClient.getInstance().registerResource(resource.getResourceGroupId(), resource.getResourceId());
     }
+
+    /**
+     * Set the lock keys of the request, in the binary form if configured so and if they fit in it.
+     *
+     * @param request  the request
+     * @param lockKeys the lock keys
+     */
+    protected void setLockKeys(BranchRegisterRequest request, String lockKeys) {
+        if (LOCK_KEY_BINARY && lockKeys != null) {
+            LockKeys parsed = LockKeys.parse(lockKeys);
+            if (parsed.isEncodable()) {
+                request.setLockKeys(parsed);
+                return;
+            }
+        }
+        request.setLockKey(lockKeys);
+    }
 }
@@ -22,6 +22,7 @@ import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.rpc.netty.RpcServer;
 import io.seata.core.rpc.netty.ShutdownHook;
 import io.seata.server.coordinator.DefaultCoordinator;
+import io.seata.server.event.EventBusManager;
 import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.SessionHolder;
 
@@ -41,6 +42,7 @@ public class Server {
     private static final int MAX_SERVER_POOL_SIZE = 500;
     private static final int MAX_TASK_QUEUE_SIZE = 20000;
     private static final int KEEP_ALIVE_TIME = 500;
+    private static final int EVENT_BUS_SHUTDOWN_PRIORITY = 20;
     private static final ThreadPoolExecutor WORKING_THREADS = new ThreadPoolExecutor(MIN_SERVER_POOL_SIZE,
         MAX_SERVER_POOL_SIZE, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
         new LinkedBlockingQueue<>(MAX_TASK_QUEUE_SIZE),
@@ -75,6 +77,8 @@ public class Server {
         rpcServer.setHandler(coordinator);
         // register ShutdownHook
         ShutdownHook.getInstance().addDisposable(coordinator);
+        // after the coordinator, so that the events of its last work are delivered
+        ShutdownHook.getInstance().addDisposable(EventBusManager::shutdown, EVENT_BUS_SHUTDOWN_PRIORITY);
 
         //127.0.0.1 and 0.0.0.0 are not valid here.
         if (NetUtil.isValidIp(parameterParser.getHost(), false)) {
@@ -16,11 +16,16 @@
 package io.seata.server.coordinator;
 
 import io.seata.core.exception.TransactionException;
+import io.seata.core.lock.LockKeys;
+import io.seata.core.model.BranchType;
 import io.seata.core.model.ResourceManagerInbound;
 import io.seata.core.model.ResourceManagerOutbound;
 import io.seata.core.model.TransactionManager;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.server.session.GlobalSession;
 
+import java.util.List;
+
 /**
  * The interface Core.
  *
@@ -35,6 +40,46 @@ public interface Core extends TransactionManager, ResourceManagerOutbound {
      */
     void setResourceManagerInbound(ResourceManagerInbound resourceManagerInbound);
 
+    /**
+     * Branch register with the structured lock keys.
+     *
+     * @param branchType      the branch type
+     * @param resourceId      the resource id
+     * @param clientId        the client id
+     * @param xid             the xid
+     * @param applicationData the application data
+     * @param lockKeys        the lock keys
+     * @return the branch id
+     * @throws TransactionException the transaction exception
+     */
+    Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
+                        String applicationData, LockKeys lockKeys) throws TransactionException;
+
+    /**
+     * Register several branches of one global transaction at once, all or nothing.
+     *
+     * @param xid      the xid
+     * @param clientId the client id
+     * @param requests the branch register requests, their xid is ignored
+     * @return the branch ids in the order of the requests
+     * @throws TransactionException the transaction exception
+     */
+    List<Long> branchRegister(String xid, String clientId, List<BranchRegisterRequest> requests)
+        throws TransactionException;
+
+    /**
+     * Lock query with the structured lock keys.
+     *
+     * @param branchType the branch type
+     * @param resourceId the resource id
+     * @param xid        the xid
+     * @param lockKeys   the lock keys
+     * @return true if the rows can be locked
+     * @throws TransactionException the transaction exception
+     */
+    boolean lockQuery(BranchType branchType, String resourceId, String xid, LockKeys lockKeys)
+        throws TransactionException;
+
     /**
      * Do global commit.
      *
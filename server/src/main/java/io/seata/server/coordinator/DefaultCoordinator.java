@@ -18,7 +18,9 @@ package io.seata.server.coordinator;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -41,6 +43,8 @@ import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.transaction.AbstractTransactionRequestToTC;
 import io.seata.core.protocol.transaction.AbstractTransactionResponse;
+import io.seata.core.protocol.transaction.BatchBranchRegisterRequest;
+import io.seata.core.protocol.transaction.BatchBranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
@@ -71,6 +75,7 @@ import io.seata.server.event.EventBusManager;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.session.SessionTimeoutIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -109,6 +114,22 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
      */
     protected static final long TIMEOUT_RETRY_PERIOD = CONFIG.getLong(ConfigurationKeys.TIMEOUT_RETRY_PERIOD, 1000L);
 
+    /**
+     * The constant TIMEOUT_FULL_SCAN_PERIOD.
+     */
+    protected static final long TIMEOUT_FULL_SCAN_PERIOD = CONFIG.getLong(ConfigurationKeys.TIMEOUT_FULL_SCAN_PERIOD,
+        60 * 1000L);
+
+    /**
+     * The constant RETRY_SHARD_SIZE.
+     */
+    protected static final int RETRY_SHARD_SIZE = CONFIG.getInt(ConfigurationKeys.RETRY_SHARD_SIZE, 4);
+
+    /**
+     * The constant MAX_RETRY_BACKOFF.
+     */
+    protected static final long MAX_RETRY_BACKOFF = CONFIG.getLong(ConfigurationKeys.MAX_RETRY_BACKOFF, 60 * 1000L);
+
     /**
      * The Transaction undolog delete period.
      */
@@ -142,12 +163,23 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
     private ScheduledThreadPoolExecutor undoLogDelete = new ScheduledThreadPoolExecutor(1,
         new NamedThreadFactory("UndoLogDelete", 1));
 
+    private ShardedRetryExecutor retryRollbackingExecutor = new ShardedRetryExecutor("RetryRollbackingWorker",
+        RETRY_SHARD_SIZE, ROLLBACKING_RETRY_PERIOD, MAX_RETRY_BACKOFF);
+
+    private ShardedRetryExecutor retryCommittingExecutor = new ShardedRetryExecutor("RetryCommittingWorker",
+        RETRY_SHARD_SIZE, COMMITTING_RETRY_PERIOD, MAX_RETRY_BACKOFF);
+
+    private ShardedRetryExecutor asyncCommittingExecutor = new ShardedRetryExecutor("AsyncCommittingWorker",
+        RETRY_SHARD_SIZE, ASYN_COMMITTING_RETRY_PERIOD, MAX_RETRY_BACKOFF);
+
     private ServerMessageSender messageSender;
 
     private Core core = CoreFactory.get();
 
     private EventBus eventBus = EventBusManager.get();
 
+    private long lastTimeoutFullScan;
+
     /**
      * Instantiates a new Default coordinator.
      *
@@ -188,12 +220,25 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
     @Override
     protected void doBranchRegister(BranchRegisterRequest request, BranchRegisterResponse response,
                                     RpcContext rpcContext) throws TransactionException {
-        response.setBranchId(
-            core.branchRegister(request.getBranchType(), request.getResourceId(), rpcContext.getClientId(),
-                request.getXid(), request.getApplicationData(), request.getLockKey()));
+        if (request.getLockKeys() != null) {
+            response.setBranchId(
+                core.branchRegister(request.getBranchType(), request.getResourceId(), rpcContext.getClientId(),
+                    request.getXid(), request.getApplicationData(), request.getLockKeys()));
+        } else {
+            response.setBranchId(
+                core.branchRegister(request.getBranchType(), request.getResourceId(), rpcContext.getClientId(),
+                    request.getXid(), request.getApplicationData(), request.getLockKey()));
+        }
 
     }
 
+    @Override
+    protected void doBatchBranchRegister(BatchBranchRegisterRequest request, BatchBranchRegisterResponse response,
+                                         RpcContext rpcContext) throws TransactionException {
+        response.setBranchIds(
+            core.branchRegister(request.getXid(), rpcContext.getClientId(), request.getBranchRegisterRequests()));
+    }
+
     @Override
     protected void doBranchReport(BranchReportRequest request, BranchReportResponse response, RpcContext rpcContext)
         throws TransactionException {
@@ -206,8 +251,13 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
     @Override
     protected void doLockCheck(GlobalLockQueryRequest request, GlobalLockQueryResponse response, RpcContext rpcContext)
         throws TransactionException {
-        response.setLockable(core.lockQuery(request.getBranchType(), request.getResourceId(),
-            request.getXid(), request.getLockKey()));
+        if (request.getLockKeys() != null) {
+            response.setLockable(core.lockQuery(request.getBranchType(), request.getResourceId(),
+                request.getXid(), request.getLockKeys()));
+        } else {
+            response.setLockable(core.lockQuery(request.getBranchType(), request.getResourceId(),
+                request.getXid(), request.getLockKey()));
+        }
     }
 
     @Override
@@ -265,52 +315,81 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
 
     /**
      * Timeout check.
+     * <p>
+     * Only the sessions whose deadline has passed are taken from the {@link SessionTimeoutIndex}, all the sessions
+     * are scanned once per TIMEOUT_FULL_SCAN_PERIOD to catch the ones which are not indexed by this server, e.g.
+     * begun by another server sharing the same db store.
      *
      * @throws TransactionException the transaction exception
      */
     protected void timeoutCheck() throws TransactionException {
+        long now = System.currentTimeMillis();
+        List<SessionTimeoutIndex.Entry> expired = SessionTimeoutIndex.get().pollExpired(now);
+        if (expired.size() > 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Transaction Timeout Check Begin: " + expired.size());
+        }
+        for (SessionTimeoutIndex.Entry entry : expired) {
+            GlobalSession globalSession = SessionHolder.findGlobalSession(entry.getXid());
+            if (globalSession == null) {
+                continue;
+            }
+            try {
+                timeoutSession(globalSession);
+            } catch (TransactionException ex) {
+                SessionTimeoutIndex.get().requeue(entry);
+                LOGGER.info("Failed to check timeout [{}] {} {}", entry.getXid(), ex.getCode(), ex.getMessage());
+            }
+        }
+        if (expired.size() > 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Transaction Timeout Check End. ");
+        }
+
+        if (now - lastTimeoutFullScan < TIMEOUT_FULL_SCAN_PERIOD) {
+            return;
+        }
+        lastTimeoutFullScan = now;
         Collection<GlobalSession> allSessions = SessionHolder.getRootSessionManager().allSessions();
         if (CollectionUtils.isEmpty(allSessions)) {
             return;
         }
-        if (allSessions.size() > 0 && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Transaction Timeout Check Begin: " + allSessions.size());
-        }
         for (GlobalSession globalSession : allSessions) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(globalSession.getXid() + " " + globalSession.getStatus() + " " +
-                    globalSession.getBeginTime() + " " + globalSession.getTimeout());
+            // check without the lock first, most of the sessions are not timeout
+            if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
+                continue;
             }
-            boolean shouldTimeout = globalSession.lockAndExcute(() -> {
-                if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
-                    return false;
-                }
-                globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                globalSession.close();
-                globalSession.changeStatus(GlobalStatus.TimeoutRollbacking);
-
-                //transaction timeout and start rollbacking event
-                eventBus.post(
-                    new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-                        globalSession.getTransactionName(), globalSession.getBeginTime(), null,
-                        globalSession.getStatus()));
+            timeoutSession(globalSession);
+        }
+    }
 
-                return true;
-            });
-            if (!shouldTimeout) {
-                continue;
+    private void timeoutSession(GlobalSession globalSession) throws TransactionException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(globalSession.getXid() + " " + globalSession.getStatus() + " " +
+                globalSession.getBeginTime() + " " + globalSession.getTimeout());
+        }
+        boolean shouldTimeout = globalSession.lockAndExcute(() -> {
+            if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
+                return false;
             }
-            LOGGER.info(
-                "Global transaction[" + globalSession.getXid() + "] is timeout and will be rolled back.");
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            globalSession.close();
+            globalSession.changeStatus(GlobalStatus.TimeoutRollbacking);
 
-            globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
-            SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
+            //transaction timeout and start rollbacking event
+            eventBus.post(
+                new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
+                    globalSession.getTransactionName(), globalSession.getBeginTime(),
+                    GlobalTransactionEvent.NO_END_TIME, globalSession.getStatus()));
 
+            return true;
+        });
+        if (!shouldTimeout) {
+            return;
         }
-        if (allSessions.size() > 0 && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Transaction Timeout Check End. ");
-        }
+        LOGGER.info(
+            "Global transaction[" + globalSession.getXid() + "] is timeout and will be rolled back.");
 
+        globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
+        SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
     }
 
     /**
@@ -322,7 +401,7 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
             return;
         }
         long now = System.currentTimeMillis();
-        for (GlobalSession rollbackingSession : rollbackingSessions) {
+        awaitRetried(retryRollbackingExecutor.execute(rollbackingSessions, rollbackingSession -> {
             try {
                 if (isRetryTimeout(now, MAX_ROLLBACK_RETRY_TIMEOUT.toMillis(), rollbackingSession.getBeginTime())) {
                     /**
@@ -330,15 +409,17 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
                      */
                     SessionHolder.getRetryRollbackingSessionManager().removeGlobalSession(rollbackingSession);
                     LOGGER.error("GlobalSession rollback retry timeout [{}]", rollbackingSession.getXid());
-                    continue;
+                    return true;
                 }
                 rollbackingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
                 core.doGlobalRollback(rollbackingSession, true);
+                return isEnded(rollbackingSession);
             } catch (TransactionException ex) {
                 LOGGER.info("Failed to retry rollbacking [{}] {} {}",
                     rollbackingSession.getXid(), ex.getCode(), ex.getMessage());
+                return false;
             }
-        }
+        }), ROLLBACKING_RETRY_PERIOD);
     }
 
     /**
@@ -350,7 +431,7 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
             return;
         }
         long now = System.currentTimeMillis();
-        for (GlobalSession committingSession : committingSessions) {
+        awaitRetried(retryCommittingExecutor.execute(committingSessions, committingSession -> {
             try {
                 if (isRetryTimeout(now, MAX_COMMIT_RETRY_TIMEOUT.toMillis(), committingSession.getBeginTime())) {
                     /**
@@ -358,15 +439,17 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
                      */
                     SessionHolder.getRetryCommittingSessionManager().removeGlobalSession(committingSession);
                     LOGGER.error("GlobalSession commit retry timeout [{}]", committingSession.getXid());
-                    continue;
+                    return true;
                 }
                 committingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
                 core.doGlobalCommit(committingSession, true);
+                return isEnded(committingSession);
             } catch (TransactionException ex) {
                 LOGGER.info("Failed to retry committing [{}] {} {}",
                     committingSession.getXid(), ex.getCode(), ex.getMessage());
+                return false;
             }
-        }
+        }), COMMITTING_RETRY_PERIOD);
     }
 
     private boolean isRetryTimeout(long now, long timeout, long beginTime) {
@@ -389,18 +472,46 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
         if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
             return;
         }
-        for (GlobalSession asyncCommittingSession : asyncCommittingSessions) {
+        awaitRetried(asyncCommittingExecutor.execute(asyncCommittingSessions, asyncCommittingSession -> {
             try {
                 // Instruction reordering in DefaultCore#asyncCommit may cause this situation
                 if (GlobalStatus.AsyncCommitting != asyncCommittingSession.getStatus()) {
-                   continue;
+                    return true;
                 }
                 asyncCommittingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
                 core.doGlobalCommit(asyncCommittingSession, true);
+                return isEnded(asyncCommittingSession);
             } catch (TransactionException ex) {
                 LOGGER.info("Failed to async committing [{}] {} {}",
                     asyncCommittingSession.getXid(), ex.getCode(), ex.getMessage());
+                return false;
             }
+        }), ASYN_COMMITTING_RETRY_PERIOD);
+    }
+
+    private boolean isEnded(GlobalSession globalSession) {
+        switch (globalSession.getStatus()) {
+            case Committed:
+            case CommitFailed:
+            case Rollbacked:
+            case RollbackFailed:
+            case TimeoutRollbacked:
+            case TimeoutRollbackFailed:
+            case Finished:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Wait for the sessions of one round at most one period, the slow ones go on in their shards.
+     */
+    private void awaitRetried(CountDownLatch retried, long period) {
+        try {
+            retried.await(period, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -498,11 +609,17 @@ public class DefaultCoordinator extends AbstractTCInboundHandler
         retryCommitting.shutdown();
         asyncCommitting.shutdown();
         timeoutCheck.shutdown();
+        retryRollbackingExecutor.shutdown();
+        retryCommittingExecutor.shutdown();
+        asyncCommittingExecutor.shutdown();
         try {
             retryRollbacking.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             retryCommitting.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             asyncCommitting.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             timeoutCheck.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            retryRollbackingExecutor.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS);
+            retryCommittingExecutor.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS);
+            asyncCommittingExecutor.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS);
         } catch (InterruptedException ignore) {
 
         }
@@ -15,16 +15,22 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.seata.core.event.EventBus;
 import io.seata.core.event.GlobalTransactionEvent;
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.GlobalTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.model.ResourceManagerInbound;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.server.coordinator.PhaseTwoDispatcher.BranchOutcome;
 import io.seata.server.event.EventBusManager;
 import io.seata.server.lock.LockManager;
 import io.seata.server.lock.LockerFactory;
@@ -56,6 +62,8 @@ public class DefaultCore implements Core {
 
     private EventBus eventBus = EventBusManager.get();
 
+    private PhaseTwoDispatcher phaseTwoDispatcher = PhaseTwoDispatcher.get();
+
     @Override
     public void setResourceManagerInbound(ResourceManagerInbound resourceManagerInbound) {
         this.resourceManagerInbound = resourceManagerInbound;
@@ -64,19 +72,27 @@ public class DefaultCore implements Core {
     @Override
     public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
                                String applicationData, String lockKeys) throws TransactionException {
+        return doBranchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys, null);
+    }
+
+    @Override
+    public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
+                               String applicationData, LockKeys lockKeys) throws TransactionException {
+        return doBranchRegister(branchType, resourceId, clientId, xid, applicationData, null, lockKeys);
+    }
+
+    private Long doBranchRegister(BranchType branchType, String resourceId, String clientId, String xid,
+                                  String applicationData, String lockKey, LockKeys lockKeys)
+        throws TransactionException {
         GlobalSession globalSession = assertGlobalSessionNotNull(xid);
         return globalSession.lockAndExcute(() -> {
-            if (!globalSession.isActive()) {
-                throw new GlobalTransactionException(GlobalTransactionNotActive,
-                    String.format("Could not register branch into global session xid = %s status = %s", globalSession.getXid(), globalSession.getStatus()));
-            }
-            if (globalSession.getStatus() != GlobalStatus.Begin) {
-                throw new GlobalTransactionException(GlobalTransactionStatusInvalid,
-                    String.format("Could not register branch into global session xid = %s status = %s while expecting %s", globalSession.getXid(), globalSession.getStatus(), GlobalStatus.Begin));
-            }
+            assertGlobalSessionRegistrable(globalSession);
             globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
             BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, branchType, resourceId,
-                applicationData, lockKeys, clientId);
+                applicationData, lockKey, clientId);
+            if (lockKeys != null) {
+                branchSession.setLockKeys(lockKeys);
+            }
             if (!branchSession.lock()) {
                 throw new BranchTransactionException(LockKeyConflict,
                     String.format("Global lock acquire failed xid = %s branchId = %s", globalSession.getXid(), branchSession.getBranchId()));
@@ -93,6 +109,80 @@ public class DefaultCore implements Core {
         });
     }
 
+    @Override
+    public List<Long> branchRegister(String xid, String clientId, List<BranchRegisterRequest> requests)
+        throws TransactionException {
+        GlobalSession globalSession = assertGlobalSessionNotNull(xid);
+        return globalSession.lockAndExcute(() -> {
+            assertGlobalSessionRegistrable(globalSession);
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            List<BranchSession> branchSessions = new ArrayList<>(requests.size());
+            for (BranchRegisterRequest request : requests) {
+                BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, request.getBranchType(),
+                    request.getResourceId(), request.getApplicationData(), request.getLockKey(), clientId);
+                if (request.getLockKeys() != null) {
+                    branchSession.setLockKeys(request.getLockKeys());
+                }
+                branchSessions.add(branchSession);
+            }
+            if (!lockManager.acquireLock(branchSessions)) {
+                throw new BranchTransactionException(LockKeyConflict,
+                    String.format("Global lock acquire failed xid = %s branches = %s", globalSession.getXid(), branchSessions.size()));
+            }
+            try {
+                globalSession.addBranches(branchSessions);
+            } catch (TransactionException ex) {
+                discardBranches(globalSession, branchSessions);
+                throw ex;
+            } catch (RuntimeException ex) {
+                discardBranches(globalSession, branchSessions);
+                throw new BranchTransactionException(FailedToAddBranch,
+                    String.format("Failed to store branches xid = %s branches = %s", globalSession.getXid(), branchSessions.size()));
+            }
+            List<Long> branchIds = new ArrayList<>(branchSessions.size());
+            for (BranchSession branchSession : branchSessions) {
+                branchIds.add(branchSession.getBranchId());
+            }
+            LOGGER.info("Successfully register branches xid = {}, branchIds = {}", globalSession.getXid(), branchIds);
+            return branchIds;
+        });
+    }
+
+    /**
+     * Release the locks of a batch failed to be stored and remove the branches already written, nothing of the
+     * batch is kept.
+     *
+     * @param globalSession  the global session
+     * @param branchSessions the branch sessions of the batch
+     */
+    private void discardBranches(GlobalSession globalSession, List<BranchSession> branchSessions) {
+        for (BranchSession branchSession : branchSessions) {
+            try {
+                globalSession.removeBranch(branchSession);
+            } catch (TransactionException | RuntimeException ex) {
+                LOGGER.error("Failed to discard branch xid = {} branchId = {}", globalSession.getXid(),
+                    branchSession.getBranchId(), ex);
+                try {
+                    branchSession.unlock();
+                } catch (TransactionException | RuntimeException unlockEx) {
+                    LOGGER.error("Failed to release the locks of branch xid = {} branchId = {}", globalSession.getXid(),
+                        branchSession.getBranchId(), unlockEx);
+                }
+            }
+        }
+    }
+
+    private void assertGlobalSessionRegistrable(GlobalSession globalSession) throws TransactionException {
+        if (!globalSession.isActive()) {
+            throw new GlobalTransactionException(GlobalTransactionNotActive,
+                String.format("Could not register branch into global session xid = %s status = %s", globalSession.getXid(), globalSession.getStatus()));
+        }
+        if (globalSession.getStatus() != GlobalStatus.Begin) {
+            throw new GlobalTransactionException(GlobalTransactionStatusInvalid,
+                String.format("Could not register branch into global session xid = %s status = %s while expecting %s", globalSession.getXid(), globalSession.getStatus(), GlobalStatus.Begin));
+        }
+    }
+
     private GlobalSession assertGlobalSessionNotNull(String xid) throws TransactionException {
         GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
         if (globalSession == null) {
@@ -126,6 +216,16 @@ public class DefaultCore implements Core {
 
     }
 
+    @Override
+    public boolean lockQuery(BranchType branchType, String resourceId, String xid, LockKeys lockKeys)
+        throws TransactionException {
+        if (branchType == BranchType.AT) {
+            return lockManager.isLockable(xid, resourceId, lockKeys);
+        } else {
+            return true;
+        }
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
         throws TransactionException {
@@ -137,7 +237,8 @@ public class DefaultCore implements Core {
 
         //transaction start event
         eventBus.post(new GlobalTransactionEvent(session.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-            session.getTransactionName(), session.getBeginTime(), null, session.getStatus()));
+            session.getTransactionName(), session.getBeginTime(), GlobalTransactionEvent.NO_END_TIME,
+            session.getStatus()));
 
         LOGGER.info("Successfully begin global transaction xid = {}", session.getXid());
         return session.getXid();
@@ -177,56 +278,69 @@ public class DefaultCore implements Core {
     public void doGlobalCommit(GlobalSession globalSession, boolean retrying) throws TransactionException {
         //start committing event
         eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-            globalSession.getTransactionName(), globalSession.getBeginTime(), null, globalSession.getStatus()));
+            globalSession.getTransactionName(), globalSession.getBeginTime(), GlobalTransactionEvent.NO_END_TIME,
+            globalSession.getStatus()));
 
+        List<BranchSession> branchSessions = new ArrayList<>();
         for (BranchSession branchSession : globalSession.getSortedBranches()) {
             BranchStatus currentStatus = branchSession.getStatus();
             if (currentStatus == BranchStatus.PhaseOne_Failed) {
                 globalSession.removeBranch(branchSession);
                 continue;
             }
-            try {
-                BranchStatus branchStatus = resourceManagerInbound.branchCommit(branchSession.getBranchType(),
-                    branchSession.getXid(), branchSession.getBranchId(),
-                    branchSession.getResourceId(), branchSession.getApplicationData());
-
-                switch (branchStatus) {
-                    case PhaseTwo_Committed:
-                        globalSession.removeBranch(branchSession);
-                        continue;
-                    case PhaseTwo_CommitFailed_Unretryable:
-                        if (globalSession.canBeCommittedAsync()) {
-                            LOGGER.error("By [{}], failed to commit branch {}", branchStatus, branchSession);
-                            continue;
-                        } else {
-                            SessionHelper.endCommitFailed(globalSession);
-                            LOGGER.error("Finally, failed to commit global[{}] since branch[{}] commit failed",
-                                globalSession.getXid(), branchSession.getBranchId());
-                            return;
-                        }
-                    default:
-                        if (!retrying) {
-                            queueToRetryCommit(globalSession);
-                            return;
-                        }
-                        if (globalSession.canBeCommittedAsync()) {
-                            LOGGER.error("By [{}], failed to commit branch {}", branchStatus, branchSession);
-                            continue;
-                        } else {
-                            LOGGER.error(
-                                "Failed to commit global[{}] since branch[{}] commit failed, will retry later.",
-                                globalSession.getXid(), branchSession.getBranchId());
-                            return;
-                        }
-
-                }
-
-            } catch (Exception ex) {
+            branchSessions.add(branchSession);
+        }
+        BranchOutcome[] outcomes = phaseTwoDispatcher.dispatchCommit(branchSessions,
+            branchSession -> resourceManagerInbound.branchCommit(branchSession.getBranchType(),
+                branchSession.getXid(), branchSession.getBranchId(),
+                branchSession.getResourceId(), branchSession.getApplicationData()));
+
+        // the branches are committed concurrently, release all the committed ones before judging the failed ones
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i].getBranchStatus() == BranchStatus.PhaseTwo_Committed) {
+                globalSession.removeBranch(branchSessions.get(i));
+            }
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            BranchSession branchSession = branchSessions.get(i);
+            BranchStatus branchStatus = outcomes[i].getBranchStatus();
+            if (branchStatus == null) {
+                Exception ex = outcomes[i].getCause();
                 LOGGER.error("Exception committing branch {}", branchSession, ex);
                 if (!retrying) {
                     queueToRetryCommit(globalSession);
                     throw new TransactionException(ex);
                 }
+                continue;
+            }
+            switch (branchStatus) {
+                case PhaseTwo_Committed:
+                    continue;
+                case PhaseTwo_CommitFailed_Unretryable:
+                    // judged on the branches left, the committed ones are removed already
+                    if (globalSession.canBeCommittedAsync()) {
+                        LOGGER.error("By [{}], failed to commit branch {}", branchStatus, branchSession);
+                        continue;
+                    } else {
+                        SessionHelper.endCommitFailed(globalSession);
+                        LOGGER.error("Finally, failed to commit global[{}] since branch[{}] commit failed",
+                            globalSession.getXid(), branchSession.getBranchId());
+                        return;
+                    }
+                default:
+                    if (!retrying) {
+                        queueToRetryCommit(globalSession);
+                        return;
+                    }
+                    if (globalSession.canBeCommittedAsync()) {
+                        LOGGER.error("By [{}], failed to commit branch {}", branchStatus, branchSession);
+                        continue;
+                    } else {
+                        LOGGER.error(
+                            "Failed to commit global[{}] since branch[{}] commit failed, will retry later.",
+                            globalSession.getXid(), branchSession.getBranchId());
+                        return;
+                    }
 
             }
 
@@ -297,43 +411,61 @@ public class DefaultCore implements Core {
     public void doGlobalRollback(GlobalSession globalSession, boolean retrying) throws TransactionException {
         //start rollback event
         eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(), GlobalTransactionEvent.ROLE_TC,
-            globalSession.getTransactionName(), globalSession.getBeginTime(), null, globalSession.getStatus()));
+            globalSession.getTransactionName(), globalSession.getBeginTime(), GlobalTransactionEvent.NO_END_TIME,
+            globalSession.getStatus()));
 
+        List<BranchSession> branchSessions = new ArrayList<>();
         for (BranchSession branchSession : globalSession.getReverseSortedBranches()) {
             BranchStatus currentBranchStatus = branchSession.getStatus();
             if (currentBranchStatus == BranchStatus.PhaseOne_Failed) {
                 globalSession.removeBranch(branchSession);
                 continue;
             }
-            try {
-                BranchStatus branchStatus = resourceManagerInbound.branchRollback(branchSession.getBranchType(),
-                    branchSession.getXid(), branchSession.getBranchId(),
-                    branchSession.getResourceId(), branchSession.getApplicationData());
-
-                switch (branchStatus) {
-                    case PhaseTwo_Rollbacked:
-                        globalSession.removeBranch(branchSession);
-                        LOGGER.info("Successfully rollback branch xid={} branchId={}", globalSession.getXid(), branchSession.getBranchId());
-                        continue;
-                    case PhaseTwo_RollbackFailed_Unretryable:
-                        SessionHelper.endRollbackFailed(globalSession);
-                        LOGGER.info("Failed to rollback branch and stop retry xid={} branchId={}", globalSession.getXid(), branchSession.getBranchId());
-                        return;
-                    default:
-                        LOGGER.info("Failed to rollback branch xid={} branchId={}", globalSession.getXid(), branchSession.getBranchId());
-                        if (!retrying) {
-                            queueToRetryRollback(globalSession);
-                        }
-                        return;
-
-                }
-            } catch (Exception ex) {
+            branchSessions.add(branchSession);
+        }
+        BranchOutcome[] outcomes = phaseTwoDispatcher.dispatchRollback(branchSessions,
+            branchSession -> resourceManagerInbound.branchRollback(branchSession.getBranchType(),
+                branchSession.getXid(), branchSession.getBranchId(),
+                branchSession.getResourceId(), branchSession.getApplicationData()));
+
+        // branches on independent resources are rollbacked concurrently, release the rollbacked ones first
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] != null && outcomes[i].getBranchStatus() == BranchStatus.PhaseTwo_Rollbacked) {
+                BranchSession branchSession = branchSessions.get(i);
+                globalSession.removeBranch(branchSession);
+                LOGGER.info("Successfully rollback branch xid={} branchId={}", globalSession.getXid(), branchSession.getBranchId());
+            }
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == null) {
+                // skipped since a former branch on the same resource failed
+                continue;
+            }
+            BranchSession branchSession = branchSessions.get(i);
+            BranchStatus branchStatus = outcomes[i].getBranchStatus();
+            if (branchStatus == null) {
+                Exception ex = outcomes[i].getCause();
                 LOGGER.error("Exception rollbacking branch xid={} branchId={}", globalSession.getXid(), branchSession.getBranchId(), ex);
                 if (!retrying) {
                     queueToRetryRollback(globalSession);
                 }
                 throw new TransactionException(ex);
             }
+            switch (branchStatus) {
+                case PhaseTwo_Rollbacked:
+                    continue;
+                case PhaseTwo_RollbackFailed_Unretryable:
+                    SessionHelper.endRollbackFailed(globalSession);
+                    LOGGER.info("Failed to rollback branch and stop retry xid={} branchId={}", globalSession.getXid(), branchSession.getBranchId());
+                    return;
+                default:
+                    LOGGER.info("Failed to rollback branch xid={} branchId={}", globalSession.getXid(), branchSession.getBranchId());
+                    if (!retrying) {
+                        queueToRetryRollback(globalSession);
+                    }
+                    return;
+
+            }
 
         }
         SessionHelper.endRollbacked(globalSession);
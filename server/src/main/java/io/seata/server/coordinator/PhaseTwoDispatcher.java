@@ -0,0 +1,230 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.server.session.BranchSession;
+
+/**
+ * Dispatches the phase two requests of the branches of one global transaction concurrently.
+ * <p>
+ * Commits are fanned out over lanes keyed by RM channel (resource id + client id), each channel being split into at
+ * most {@link #maxInflightPerChannel} lanes. Rollbacks keep the reverse order of the branches registered on the same
+ * resource and stop a resource's lane at its first failure, only branches on independent resources are rolled back
+ * concurrently. The outcomes are returned in the order of the given branches, the caller is responsible for applying
+ * them to the global session.
+ */
+public class PhaseTwoDispatcher {
+
+    private static final int DEFAULT_DISPATCH_THREAD_SIZE = 16;
+
+    private static final int DEFAULT_MAX_INFLIGHT_PER_CHANNEL = 8;
+
+    private static final long KEEP_ALIVE_MILLS = 60 * 1000L;
+
+    private static class SingletonHolder {
+        private static final PhaseTwoDispatcher INSTANCE = new PhaseTwoDispatcher(
+            ConfigurationFactory.getInstance().getInt(ConfigurationKeys.PHASE_TWO_DISPATCH_THREAD_SIZE,
+                DEFAULT_DISPATCH_THREAD_SIZE),
+            ConfigurationFactory.getInstance().getInt(ConfigurationKeys.PHASE_TWO_MAX_INFLIGHT_PER_CHANNEL,
+                DEFAULT_MAX_INFLIGHT_PER_CHANNEL));
+    }
+
+    /**
+     * Get the shared phase two dispatcher.
+     *
+     * @return the phase two dispatcher
+     */
+    public static final PhaseTwoDispatcher get() {
+        return SingletonHolder.INSTANCE;
+    }
+
+    private final ThreadPoolExecutor dispatchExecutor;
+
+    private final int maxInflightPerChannel;
+
+    /**
+     * Instantiates a new Phase two dispatcher.
+     *
+     * @param dispatchThreadSize    the dispatch thread size, branches are dispatched serially if not positive
+     * @param maxInflightPerChannel the max in-flight phase two requests per RM channel
+     */
+    public PhaseTwoDispatcher(int dispatchThreadSize, int maxInflightPerChannel) {
+        this.maxInflightPerChannel = Math.max(1, maxInflightPerChannel);
+        if (dispatchThreadSize > 0) {
+            // the caller runs the lane itself when all dispatch threads are busy
+            this.dispatchExecutor = new ThreadPoolExecutor(dispatchThreadSize, dispatchThreadSize, KEEP_ALIVE_MILLS,
+                TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new NamedThreadFactory("PhaseTwoDispatch", dispatchThreadSize),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+            this.dispatchExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            this.dispatchExecutor = null;
+        }
+    }
+
+    /**
+     * Dispatch branch commit of the branches.
+     *
+     * @param branches the branches to commit
+     * @param call     the branch commit call
+     * @return the outcomes, in the order of the branches
+     */
+    public BranchOutcome[] dispatchCommit(List<BranchSession> branches, BranchCall call) {
+        Map<String, List<Integer>> channels = new LinkedHashMap<>();
+        for (int i = 0; i < branches.size(); i++) {
+            BranchSession branchSession = branches.get(i);
+            channels.computeIfAbsent(branchSession.getResourceId() + "|" + branchSession.getClientId(),
+                k -> new ArrayList<>()).add(i);
+        }
+        List<List<Integer>> lanes = new ArrayList<>();
+        for (List<Integer> channel : channels.values()) {
+            int laneCount = Math.min(maxInflightPerChannel, channel.size());
+            List<List<Integer>> channelLanes = new ArrayList<>(laneCount);
+            for (int i = 0; i < laneCount; i++) {
+                channelLanes.add(new ArrayList<>());
+            }
+            for (int i = 0; i < channel.size(); i++) {
+                channelLanes.get(i % laneCount).add(channel.get(i));
+            }
+            lanes.addAll(channelLanes);
+        }
+        return dispatch(branches, lanes, call, null);
+    }
+
+    /**
+     * Dispatch branch rollback of the branches.
+     *
+     * @param branches the branches to rollback, in rollback order
+     * @param call     the branch rollback call
+     * @return the outcomes, in the order of the branches, null for the branches skipped after a failure
+     */
+    public BranchOutcome[] dispatchRollback(List<BranchSession> branches, BranchCall call) {
+        Map<String, List<Integer>> resources = new LinkedHashMap<>();
+        for (int i = 0; i < branches.size(); i++) {
+            resources.computeIfAbsent(branches.get(i).getResourceId(), k -> new ArrayList<>()).add(i);
+        }
+        return dispatch(branches, new ArrayList<>(resources.values()), call, BranchStatus.PhaseTwo_Rollbacked);
+    }
+
+    private BranchOutcome[] dispatch(List<BranchSession> branches, List<List<Integer>> lanes, BranchCall call,
+                                     BranchStatus stopUnless) {
+        BranchOutcome[] outcomes = new BranchOutcome[branches.size()];
+        if (dispatchExecutor == null || lanes.size() <= 1) {
+            for (List<Integer> lane : lanes) {
+                runLane(branches, lane, call, stopUnless, outcomes);
+            }
+            return outcomes;
+        }
+        List<Future<?>> futures = new ArrayList<>(lanes.size() - 1);
+        for (int i = 1; i < lanes.size(); i++) {
+            List<Integer> lane = lanes.get(i);
+            futures.add(dispatchExecutor.submit(() -> runLane(branches, lane, call, stopUnless, outcomes)));
+        }
+        runLane(branches, lanes.get(0), call, stopUnless, outcomes);
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for phase two dispatch", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Phase two dispatch failed", e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    private void runLane(List<BranchSession> branches, List<Integer> lane, BranchCall call, BranchStatus stopUnless,
+                         BranchOutcome[] outcomes) {
+        for (int index : lane) {
+            BranchOutcome outcome;
+            try {
+                outcome = new BranchOutcome(call.call(branches.get(index)), null);
+            } catch (Exception ex) {
+                outcome = new BranchOutcome(null, ex);
+            }
+            // each slot is written by exactly one lane, visibility is guaranteed by Future.get()
+            outcomes[index] = outcome;
+            if (stopUnless != null && outcome.getBranchStatus() != stopUnless) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The phase two call of one branch.
+     */
+    @FunctionalInterface
+    public interface BranchCall {
+
+        /**
+         * Call branch status.
+         *
+         * @param branchSession the branch session
+         * @return the branch status
+         * @throws TransactionException the transaction exception
+         */
+        BranchStatus call(BranchSession branchSession) throws TransactionException;
+    }
+
+    /**
+     * The outcome of the phase two call of one branch.
+     */
+    public static class BranchOutcome {
+
+        private final BranchStatus branchStatus;
+
+        private final Exception cause;
+
+        private BranchOutcome(BranchStatus branchStatus, Exception cause) {
+            this.branchStatus = branchStatus;
+            this.cause = cause;
+        }
+
+        /**
+         * Gets branch status.
+         *
+         * @return the branch status, null if the call failed
+         */
+        public BranchStatus getBranchStatus() {
+            return branchStatus;
+        }
+
+        /**
+         * Gets cause.
+         *
+         * @return the cause, null if the call returned a status
+         */
+        public Exception getCause() {
+            return cause;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.server.session.GlobalSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the retry handling of the global sessions on a set of single threaded shards.
+ * <p>
+ * A session is always handled by the shard chosen by its transaction id, so a session is never handled concurrently,
+ * and a session whose handling is still running is skipped by the next rounds. A session which is not done after
+ * being handled is not handled again before its backoff, doubled after every failed attempt up to maxBackoffMills, is
+ * over.
+ */
+public class ShardedRetryExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedRetryExecutor.class);
+
+    private final ThreadPoolExecutor[] shards;
+
+    private final long baseBackoffMills;
+
+    private final long maxBackoffMills;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, RetryState> retryStates = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Sharded retry executor.
+     *
+     * @param name             the name of the shard threads
+     * @param shardSize        the shard size
+     * @param baseBackoffMills the backoff after the first failed attempt
+     * @param maxBackoffMills  the max backoff
+     */
+    public ShardedRetryExecutor(String name, int shardSize, long baseBackoffMills, long maxBackoffMills) {
+        int size = Math.max(1, shardSize);
+        NamedThreadFactory threadFactory = new NamedThreadFactory(name, size);
+        this.shards = new ThreadPoolExecutor[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                threadFactory);
+        }
+        this.baseBackoffMills = baseBackoffMills;
+        this.maxBackoffMills = Math.max(baseBackoffMills, maxBackoffMills);
+    }
+
+    /**
+     * Hand the due sessions over to their shards.
+     *
+     * @param sessions the sessions to retry
+     * @param handler  the handler
+     * @return the latch counted down when all the dispatched sessions have been handled
+     */
+    public CountDownLatch execute(Collection<GlobalSession> sessions, SessionHandler handler) {
+        long now = System.currentTimeMillis();
+        Set<Long> present = new HashSet<>(sessions.size());
+        CountDownLatch dispatched = new CountDownLatch(sessions.size());
+        for (GlobalSession globalSession : sessions) {
+            long transactionId = globalSession.getTransactionId();
+            present.add(transactionId);
+            RetryState retryState = retryStates.get(transactionId);
+            if ((retryState != null && retryState.nextRetryAt > now) || !inFlight.add(transactionId)) {
+                dispatched.countDown();
+                continue;
+            }
+            shardOf(transactionId).execute(() -> {
+                boolean done = false;
+                try {
+                    done = handler.handle(globalSession);
+                } catch (Throwable t) {
+                    LOGGER.error("Exception handling global session [{}]", globalSession.getXid(), t);
+                } finally {
+                    if (done) {
+                        retryStates.remove(transactionId);
+                    } else {
+                        retryStates.computeIfAbsent(transactionId, k -> new RetryState()).backoff();
+                    }
+                    inFlight.remove(transactionId);
+                    dispatched.countDown();
+                }
+            });
+        }
+        // forget the sessions which are gone
+        retryStates.keySet().removeIf(transactionId -> !present.contains(transactionId)
+            && !inFlight.contains(transactionId));
+        return dispatched;
+    }
+
+    /**
+     * Shutdown the shards.
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    /**
+     * Await termination of the shards.
+     *
+     * @param timeoutMills the timeout mills
+     * @throws InterruptedException the interrupted exception
+     */
+    public void awaitTermination(long timeoutMills) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMills;
+        for (ThreadPoolExecutor shard : shards) {
+            shard.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private ThreadPoolExecutor shardOf(long transactionId) {
+        int hash = Long.hashCode(transactionId);
+        hash ^= hash >>> 16;
+        return shards[(hash & Integer.MAX_VALUE) % shards.length];
+    }
+
+    private class RetryState {
+
+        private int failedTimes;
+
+        private volatile long nextRetryAt;
+
+        private void backoff() {
+            failedTimes++;
+            long backoff = baseBackoffMills << Math.min(failedTimes - 1, 30);
+            if (backoff <= 0 || backoff > maxBackoffMills) {
+                backoff = maxBackoffMills;
+            }
+            nextRetryAt = System.currentTimeMillis() + backoff;
+        }
+    }
+
+    /**
+     * The retry handling of one global session.
+     */
+    @FunctionalInterface
+    public interface SessionHandler {
+
+        /**
+         * Handle the global session.
+         *
+         * @param globalSession the global session
+         * @return true if the session needs no more retry
+         * @throws Exception the exception
+         */
+        boolean handle(GlobalSession globalSession) throws Exception;
+    }
+}
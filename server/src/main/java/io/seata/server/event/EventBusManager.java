@@ -15,6 +15,10 @@
  */
 package io.seata.server.event;
 
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.event.AsyncEventBus;
 import io.seata.core.event.EventBus;
 import io.seata.core.event.GuavaEventBus;
 
@@ -24,11 +28,37 @@ import io.seata.core.event.GuavaEventBus;
  * @author zhengyangyong
  */
 public class EventBusManager {
+    private static final String IDENTIFIER = "tc";
+
+    private static final String SYNC_TYPE = "sync";
+
+    private static final int DEFAULT_QUEUE_SIZE = 16384;
+
     private static class SingletonHolder {
-        private static EventBus INSTANCE = new GuavaEventBus("tc");
+        private static EventBus INSTANCE = createEventBus();
+    }
+
+    private static EventBus createEventBus() {
+        Configuration configuration = ConfigurationFactory.getInstance();
+        if (SYNC_TYPE.equalsIgnoreCase(configuration.getConfig(ConfigurationKeys.EVENT_BUS_TYPE, "async"))) {
+            return new GuavaEventBus(IDENTIFIER);
+        }
+        AsyncEventBus.FullPolicy fullPolicy = AsyncEventBus.FullPolicy.valueOf(
+            configuration.getConfig(ConfigurationKeys.EVENT_BUS_FULL_POLICY, "block").toUpperCase());
+        return new AsyncEventBus(IDENTIFIER, configuration.getInt(ConfigurationKeys.EVENT_BUS_QUEUE_SIZE,
+            DEFAULT_QUEUE_SIZE), fullPolicy);
     }
 
     public static final EventBus get() {
         return SingletonHolder.INSTANCE;
     }
+
+    /**
+     * Stop the dispatcher of the async event bus after delivering the events already posted.
+     */
+    public static void shutdown() {
+        if (SingletonHolder.INSTANCE instanceof AsyncEventBus) {
+            ((AsyncEventBus)SingletonHolder.INSTANCE).shutdown();
+        }
+    }
 }
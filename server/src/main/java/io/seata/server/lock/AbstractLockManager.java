@@ -19,7 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import io.seata.common.XID;
-import io.seata.common.util.StringUtils;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.lock.RowLock;
 import io.seata.server.session.BranchSession;
 import org.slf4j.Logger;
@@ -45,17 +45,11 @@ public abstract class AbstractLockManager implements LockManager {
      * @return the list
      */
     protected List<RowLock> collectRowLocks(BranchSession branchSession) {
-        List<RowLock> locks = new ArrayList<>();
-        if (branchSession == null || StringUtils.isBlank(branchSession.getLockKey())) {
-            return locks;
+        if (branchSession == null) {
+            return new ArrayList<>();
         }
-        String xid = branchSession.getXid();
-        String resourceId = branchSession.getResourceId();
-        long transactionId = branchSession.getTransactionId();
-
-        String lockKey = branchSession.getLockKey();
-
-        return collectRowLocks(lockKey, resourceId, xid, transactionId, branchSession.getBranchId());
+        return collectRowLocks(branchSession.getLockKeys(), branchSession.getResourceId(), branchSession.getXid(),
+            branchSession.getTransactionId(), branchSession.getBranchId());
     }
 
     /**
@@ -67,7 +61,19 @@ public abstract class AbstractLockManager implements LockManager {
      * @return the list
      */
     protected List<RowLock> collectRowLocks(String lockKey, String resourceId, String xid) {
-        return collectRowLocks(lockKey, resourceId, xid, XID.getTransactionId(xid), null);
+        return collectRowLocks(LockKeys.parse(lockKey), resourceId, xid, XID.getTransactionId(xid), null);
+    }
+
+    /**
+     * Collect row locks list.
+     *
+     * @param lockKeys   the lock keys
+     * @param resourceId the resource id
+     * @param xid        the xid
+     * @return the list
+     */
+    protected List<RowLock> collectRowLocks(LockKeys lockKeys, String resourceId, String xid) {
+        return collectRowLocks(lockKeys, resourceId, xid, XID.getTransactionId(xid), null);
     }
 
     /**
@@ -82,36 +88,32 @@ public abstract class AbstractLockManager implements LockManager {
      */
     protected List<RowLock> collectRowLocks(String lockKey, String resourceId, String xid, Long transactionId,
                                             Long branchID) {
-        List<RowLock> locks = new ArrayList<RowLock>();
+        return collectRowLocks(LockKeys.parse(lockKey), resourceId, xid, transactionId, branchID);
+    }
 
-        String[] tableGroupedLockKeys = lockKey.split(";");
-        for (String tableGroupedLockKey : tableGroupedLockKeys) {
-            int idx = tableGroupedLockKey.indexOf(":");
-            if (idx < 0) {
-                return locks;
-            }
-            String tableName = tableGroupedLockKey.substring(0, idx);
-            String mergedPKs = tableGroupedLockKey.substring(idx + 1);
-            if (StringUtils.isBlank(mergedPKs)) {
-                return locks;
-            }
-            String[] pks = mergedPKs.split(",");
-            if (pks == null || pks.length == 0) {
-                return locks;
-            }
-            for (String pk : pks) {
-                if (StringUtils.isNotBlank(pk)) {
-                    RowLock rowLock = new RowLock();
-                    rowLock.setXid(xid);
-                    rowLock.setTransactionId(transactionId);
-                    rowLock.setBranchId(branchID);
-                    rowLock.setTableName(tableName);
-                    rowLock.setPk(pk);
-                    rowLock.setResourceId(resourceId);
-                    locks.add(rowLock);
-                }
-            }
-        }
+    /**
+     * Collect row locks list, no string is split.
+     *
+     * @param lockKeys      the lock keys
+     * @param resourceId    the resource id
+     * @param xid           the xid
+     * @param transactionId the transaction id
+     * @param branchID      the branch id
+     * @return the list
+     */
+    protected List<RowLock> collectRowLocks(LockKeys lockKeys, String resourceId, String xid, Long transactionId,
+                                            Long branchID) {
+        List<RowLock> locks = new ArrayList<>(lockKeys.size());
+        lockKeys.forEach((tableName, pk) -> {
+            RowLock rowLock = new RowLock();
+            rowLock.setXid(xid);
+            rowLock.setTransactionId(transactionId);
+            rowLock.setBranchId(branchID);
+            rowLock.setTableName(tableName);
+            rowLock.setPk(pk);
+            rowLock.setResourceId(resourceId);
+            locks.add(rowLock);
+        });
         return locks;
     }
 
@@ -16,14 +16,16 @@
 package io.seata.server.lock;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import io.seata.common.util.CollectionUtils;
-import io.seata.common.util.StringUtils;
 import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.lock.Locker;
 import io.seata.core.lock.RowLock;
 import io.seata.core.store.StoreMode;
@@ -38,6 +40,8 @@ import io.seata.server.session.GlobalSession;
  */
 public class DefaultLockManager extends AbstractLockManager {
 
+    private static final String ROW_KEY_SEPARATOR = "^^^";
+
     private static Locker locker = null;
 
     /**
@@ -50,11 +54,6 @@ public class DefaultLockManager extends AbstractLockManager {
         if (branchSession == null) {
             throw new IllegalArgumentException("branchSession can't be null for memory/file locker.");
         }
-        String lockKey = branchSession.getLockKey();
-        if (StringUtils.isNullOrEmpty(lockKey)) {
-            //no lock
-            return true;
-        }
         //get locks of branch
         List<RowLock> locks = collectRowLocks(branchSession);
         if (CollectionUtils.isEmpty(locks)) {
@@ -64,6 +63,39 @@ public class DefaultLockManager extends AbstractLockManager {
         return getLocker(branchSession).acquireLock(locks);
     }
 
+    @Override
+    public boolean acquireLock(List<BranchSession> branchSessions) throws TransactionException {
+        String storeMode = CONFIG.getConfig(ConfigurationKeys.STORE_MODE);
+        if (StoreMode.DB.name().equalsIgnoreCase(storeMode)
+            || StoreMode.REDIS.name().equalsIgnoreCase(storeMode)) {
+            // one check and insert for all the rows, a row locked by several branches is inserted once
+            List<RowLock> locks = new ArrayList<>();
+            Set<String> rowKeys = new HashSet<>();
+            for (BranchSession branchSession : branchSessions) {
+                for (RowLock rowLock : collectRowLocks(branchSession)) {
+                    if (rowKeys.add(rowLock.getResourceId() + ROW_KEY_SEPARATOR + rowLock.getTableName()
+                        + ROW_KEY_SEPARATOR + rowLock.getPk())) {
+                        locks.add(rowLock);
+                    }
+                }
+            }
+            if (CollectionUtils.isEmpty(locks)) {
+                //no lock
+                return true;
+            }
+            return getLocker().acquireLock(locks);
+        }
+        for (int i = 0; i < branchSessions.size(); i++) {
+            if (!acquireLock(branchSessions.get(i))) {
+                for (int j = 0; j < i; j++) {
+                    releaseLock(branchSessions.get(j));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean releaseLock(BranchSession branchSession) throws TransactionException {
         if (branchSession == null) {
@@ -82,7 +114,8 @@ public class DefaultLockManager extends AbstractLockManager {
     public boolean releaseGlobalSessionLock(GlobalSession globalSession) throws TransactionException {
         ArrayList<BranchSession> branchSessions = globalSession.getBranchSessions();
         String storeMode = CONFIG.getConfig(ConfigurationKeys.STORE_MODE);
-        if (StoreMode.DB.name().equalsIgnoreCase(storeMode)) {
+        if (StoreMode.DB.name().equalsIgnoreCase(storeMode)
+            || StoreMode.REDIS.name().equalsIgnoreCase(storeMode)) {
             List<RowLock> locks = new ArrayList<>();
             for (BranchSession branchSession : branchSessions) {
                 locks.addAll(collectRowLocks(branchSession));
@@ -123,6 +156,17 @@ public class DefaultLockManager extends AbstractLockManager {
         }
     }
 
+    @Override
+    public boolean isLockable(String xid, String resourceId, LockKeys lockKeys) throws TransactionException {
+        List<RowLock> locks = collectRowLocks(lockKeys, resourceId, xid);
+        try {
+            return getLocker().isLockable(locks);
+        } catch (Exception t) {
+            LOGGER.error("isLockable error, xid:" + xid + ", resourceId:" + resourceId + ", lockKeys:" + lockKeys, t);
+            return false;
+        }
+    }
+
     @Override
     public void cleanAllLocks() throws TransactionException {
         getLocker().cleanAllLocks();
@@ -15,7 +15,10 @@
  */
 package io.seata.server.lock;
 
+import java.util.List;
+
 import io.seata.core.exception.TransactionException;
+import io.seata.core.lock.LockKeys;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 
@@ -35,6 +38,15 @@ public interface LockManager {
      */
     boolean acquireLock(BranchSession branchSession) throws TransactionException;
 
+    /**
+     * Acquire the locks of the branches registered in one batch, all or nothing.
+     *
+     * @param branchSessions the branch sessions of one global session
+     * @return the boolean
+     * @throws TransactionException the transaction exception
+     */
+    boolean acquireLock(List<BranchSession> branchSessions) throws TransactionException;
+
     /**
      * Un lock boolean.
      *
@@ -64,6 +76,17 @@ public interface LockManager {
      */
     boolean isLockable(String xid, String resourceId, String lockKey) throws TransactionException;
 
+    /**
+     * Is lockable boolean.
+     *
+     * @param xid        the xid
+     * @param resourceId the resource id
+     * @param lockKeys   the structured lock keys
+     * @return the boolean
+     * @throws TransactionException the transaction exception
+     */
+    boolean isLockable(String xid, String resourceId, LockKeys lockKeys) throws TransactionException;
+
     /**
      * Clean all locks.
      *
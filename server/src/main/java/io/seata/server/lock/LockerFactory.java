@@ -91,6 +91,12 @@ public class LockerFactory {
             locker = EnhancedServiceLoader.load(Locker.class, storeMode, new Class[] {DataSource.class},
                 new Object[] {logStoreDataSource});
             lockerMap.put(storeMode, locker);
+        } else if (StoreMode.REDIS.name().equalsIgnoreCase(storeMode)) {
+            if (lockerMap.get(storeMode) != null) {
+                return lockerMap.get(storeMode);
+            }
+            locker = EnhancedServiceLoader.load(Locker.class, storeMode);
+            lockerMap.put(storeMode, locker);
         } else if (StoreMode.FILE.name().equalsIgnoreCase(storeMode)) {
             locker = EnhancedServiceLoader.load(Locker.class, storeMode,
                 new Class[] {BranchSession.class}, new Object[] {branchSession});
@@ -0,0 +1,86 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock.memory;
+
+/**
+ * The row locks acquired by one branch, kept as the table ids and the pks shared with the lock table in two growing
+ * arrays.
+ */
+public class HeldRowLocks {
+
+    private static final int[] EMPTY_TABLE_IDS = new int[0];
+
+    private static final String[] EMPTY_PKS = new String[0];
+
+    private int[] tableIds = EMPTY_TABLE_IDS;
+
+    private String[] pks = EMPTY_PKS;
+
+    private int size;
+
+    /**
+     * Record an acquired lock.
+     *
+     * @param tableId the table id
+     * @param pk      the pk
+     */
+    public synchronized void add(int tableId, String pk) {
+        if (size == pks.length) {
+            int capacity = Math.max(8, pks.length * 2);
+            int[] grownTableIds = new int[capacity];
+            String[] grownPks = new String[capacity];
+            System.arraycopy(tableIds, 0, grownTableIds, 0, size);
+            System.arraycopy(pks, 0, grownPks, 0, size);
+            tableIds = grownTableIds;
+            pks = grownPks;
+        }
+        tableIds[size] = tableId;
+        pks[size++] = pk;
+    }
+
+    /**
+     * Release all the recorded locks held by the transaction from the table and forget them.
+     *
+     * @param lockTable     the lock table
+     * @param transactionId the transaction id
+     */
+    public void releaseFrom(RowLockTable lockTable, long transactionId) {
+        int[] releasedTableIds;
+        String[] releasedPks;
+        int released;
+        synchronized (this) {
+            releasedTableIds = tableIds;
+            releasedPks = pks;
+            released = size;
+            tableIds = EMPTY_TABLE_IDS;
+            pks = EMPTY_PKS;
+            size = 0;
+        }
+        for (int i = 0; i < released; i++) {
+            // remove lock only if it locked by myself
+            lockTable.remove(releasedTableIds[i], releasedPks[i], transactionId);
+        }
+    }
+
+    /**
+     * Number of the recorded locks.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
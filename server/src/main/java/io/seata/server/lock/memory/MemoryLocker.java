@@ -15,14 +15,8 @@
  */
 package io.seata.server.lock.memory;
 
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
-import io.netty.util.internal.ConcurrentSet;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.util.CollectionUtils;
@@ -40,14 +34,7 @@ import io.seata.server.session.BranchSession;
 @LoadLevel(name = "file")
 public class MemoryLocker extends AbstractLocker {
 
-    private static final int BUCKET_PER_TABLE = 128;
-
-    private static final ConcurrentMap<String/* resourceId */,
-        ConcurrentMap<String/* tableName */,
-            ConcurrentMap<Integer/* bucketId */,
-                ConcurrentMap<String/* pk */, Long/* transactionId */>>>>
-        LOCK_MAP
-        = new ConcurrentHashMap<>();
+    private static final RowLockTable LOCK_TABLE = new RowLockTable();
 
     /**
      * The Branch session.
@@ -71,38 +58,16 @@ public class MemoryLocker extends AbstractLocker {
         }
         String resourceId = branchSession.getResourceId();
         long transactionId = branchSession.getTransactionId();
-
-        ConcurrentMap<ConcurrentMap<String, Long>, Set<String>> bucketHolder = branchSession.getLockHolder();
-        ConcurrentMap<String, ConcurrentMap<Integer, ConcurrentMap<String, Long>>> dbLockMap = LOCK_MAP.get(resourceId);
-        if (dbLockMap == null) {
-            LOCK_MAP.putIfAbsent(resourceId,
-                new ConcurrentHashMap<>());
-            dbLockMap = LOCK_MAP.get(resourceId);
-        }
+        HeldRowLocks heldRowLocks = branchSession.getLockHolder();
 
         for (RowLock lock : rowLocks) {
             String tableName = lock.getTableName();
             String pk = lock.getPk();
-            ConcurrentMap<Integer, ConcurrentMap<String, Long>> tableLockMap = dbLockMap.get(tableName);
-            if (tableLockMap == null) {
-                dbLockMap.putIfAbsent(tableName, new ConcurrentHashMap<>());
-                tableLockMap = dbLockMap.get(tableName);
-            }
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            ConcurrentMap<String, Long> bucketLockMap = tableLockMap.get(bucketId);
-            if (bucketLockMap == null) {
-                tableLockMap.putIfAbsent(bucketId, new ConcurrentHashMap<>());
-                bucketLockMap = tableLockMap.get(bucketId);
-            }
-            Long previousLockTransactionId = bucketLockMap.putIfAbsent(pk, transactionId);
-            if (previousLockTransactionId == null) {
+            int tableId = LOCK_TABLE.tableId(resourceId, tableName);
+            long previousLockTransactionId = LOCK_TABLE.putIfAbsent(tableId, pk, transactionId);
+            if (previousLockTransactionId == 0) {
                 //No existing lock, and now locked by myself
-                Set<String> keysInHolder = bucketHolder.get(bucketLockMap);
-                if (keysInHolder == null) {
-                    bucketHolder.putIfAbsent(bucketLockMap, new ConcurrentSet<>());
-                    keysInHolder = bucketHolder.get(bucketLockMap);
-                }
-                keysInHolder.add(pk);
+                heldRowLocks.add(tableId, pk);
             } else if (previousLockTransactionId == transactionId) {
                 // Locked by me before
                 continue;
@@ -122,21 +87,7 @@ public class MemoryLocker extends AbstractLocker {
 
     @Override
     public boolean releaseLock(List<RowLock> rowLock) {
-        ConcurrentMap<ConcurrentMap<String, Long>, Set<String>> lockHolder = branchSession.getLockHolder();
-        if (lockHolder == null || lockHolder.size() == 0) {
-            return true;
-        }
-        Iterator<Map.Entry<ConcurrentMap<String, Long>, Set<String>>> it = lockHolder.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<ConcurrentMap<String, Long>, Set<String>> entry = it.next();
-            ConcurrentMap<String, Long> bucket = entry.getKey();
-            Set<String> keys = entry.getValue();
-            for (String key : keys) {
-                // remove lock only if it locked by myself
-                bucket.remove(key, branchSession.getTransactionId());
-            }
-        }
-        lockHolder.clear();
+        branchSession.getLockHolder().releaseFrom(LOCK_TABLE, branchSession.getTransactionId());
         return true;
     }
 
@@ -146,28 +97,14 @@ public class MemoryLocker extends AbstractLocker {
             //no lock
             return true;
         }
-        Long transactionId = rowLocks.get(0).getTransactionId();
+        long transactionId = rowLocks.get(0).getTransactionId();
         String resourceId = rowLocks.get(0).getResourceId();
-        ConcurrentMap<String, ConcurrentMap<Integer, ConcurrentMap<String, Long>>> dbLockMap = LOCK_MAP.get(resourceId);
-        if (dbLockMap == null) {
-            return true;
-        }
         for (RowLock rowLock : rowLocks) {
-            String xid = rowLock.getXid();
             String tableName = rowLock.getTableName();
             String pk = rowLock.getPk();
-
-            ConcurrentMap<Integer, ConcurrentMap<String, Long>> tableLockMap = dbLockMap.get(tableName);
-            if (tableLockMap == null) {
-                continue;
-            }
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            Map<String, Long> bucketLockMap = tableLockMap.get(bucketId);
-            if (bucketLockMap == null) {
-                continue;
-            }
-            Long lockingTransactionId = bucketLockMap.get(pk);
-            if (lockingTransactionId == null || lockingTransactionId.longValue() == transactionId) {
+            int tableId = LOCK_TABLE.findTableId(resourceId, tableName);
+            long lockingTransactionId = tableId == 0 ? 0 : LOCK_TABLE.get(tableId, pk);
+            if (lockingTransactionId == 0 || lockingTransactionId == transactionId) {
                 // Locked by me
                 continue;
             } else {
@@ -180,6 +117,6 @@ public class MemoryLocker extends AbstractLocker {
 
     @Override
     public void cleanAllLocks() {
-        LOCK_MAP.clear();
+        LOCK_TABLE.clear();
     }
 }
@@ -0,0 +1,294 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock.memory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The table of the row locks held in memory.
+ * <p>
+ * A row lock is identified by the id of its table, interned once per (resourceId, tableName), and its pk. The 64 bits
+ * hash of the two picks the stripe and the slot, and is compared before the pk itself, so that a probe rarely compares
+ * strings. Each stripe is an open addressing table of arrays guarded by its own monitor, the owner transaction id is
+ * stored as a long and 0 marks an empty slot. No key string is built per lock, the pk is the one of the lock request.
+ */
+public class RowLockTable {
+
+    private static final int STRIPE_BITS = 6;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Integer>> tableIds = new ConcurrentHashMap<>();
+
+    private final AtomicInteger lastTableId = new AtomicInteger();
+
+    /**
+     * Instantiates a new Row lock table.
+     */
+    public RowLockTable() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * The id of a table of a resource, interned on first use. The ids are kept for good, there are no more of them
+     * than the tables ever locked.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @return the table id, never 0
+     */
+    public int tableId(String resourceId, String tableName) {
+        ConcurrentMap<String, Integer> resourceTableIds = tableIds.get(resourceId);
+        if (resourceTableIds == null) {
+            resourceTableIds = tableIds.computeIfAbsent(resourceId, k -> new ConcurrentHashMap<>());
+        }
+        Integer tableId = resourceTableIds.get(tableName);
+        if (tableId == null) {
+            tableId = resourceTableIds.computeIfAbsent(tableName, k -> lastTableId.incrementAndGet());
+        }
+        return tableId;
+    }
+
+    /**
+     * The id of a table of a resource if it was ever locked.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @return the table id, 0 if no row of the table was ever locked
+     */
+    public int findTableId(String resourceId, String tableName) {
+        ConcurrentMap<String, Integer> resourceTableIds = tableIds.get(resourceId);
+        Integer tableId = resourceTableIds == null ? null : resourceTableIds.get(tableName);
+        return tableId == null ? 0 : tableId;
+    }
+
+    /**
+     * The hash of a row, only overridden by the tests to make rows collide.
+     *
+     * @param tableId the table id
+     * @param pk      the pk
+     * @return the hash
+     */
+    long hash(int tableId, String pk) {
+        long h = (FNV_OFFSET ^ tableId) * FNV_PRIME;
+        for (int i = 0; i < pk.length(); i++) {
+            h = (h ^ pk.charAt(i)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Lock the row for the transaction if it is not locked yet.
+     *
+     * @param tableId       the table id
+     * @param pk            the pk
+     * @param transactionId the transaction id
+     * @return 0 if the row is locked now, otherwise the transaction id already holding the lock
+     */
+    public long putIfAbsent(int tableId, String pk, long transactionId) {
+        long hash = hash(tableId, pk);
+        return stripeOf(hash).putIfAbsent(hash, tableId, pk, transactionId);
+    }
+
+    /**
+     * Get the transaction holding the lock of the row.
+     *
+     * @param tableId the table id
+     * @param pk      the pk
+     * @return the transaction id, 0 if the row is not locked
+     */
+    public long get(int tableId, String pk) {
+        long hash = hash(tableId, pk);
+        return stripeOf(hash).get(hash, tableId, pk);
+    }
+
+    /**
+     * Unlock the row if it is locked by the transaction.
+     *
+     * @param tableId       the table id
+     * @param pk            the pk
+     * @param transactionId the transaction id
+     * @return true if the lock is removed
+     */
+    public boolean remove(int tableId, String pk, long transactionId) {
+        long hash = hash(tableId, pk);
+        return stripeOf(hash).remove(hash, tableId, pk, transactionId);
+    }
+
+    /**
+     * Number of the held locks.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Remove all the locks.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private Stripe stripeOf(long hash) {
+        return stripes[(int)(hash >>> (Long.SIZE - STRIPE_BITS))];
+    }
+
+    /**
+     * One stripe of the table, linear probing with backward shift deletion.
+     */
+    private static class Stripe {
+
+        private long[] hashes;
+
+        private int[] tableIds;
+
+        private String[] pks;
+
+        private long[] owners;
+
+        private int mask;
+
+        private int size;
+
+        Stripe() {
+            allocate(INITIAL_CAPACITY);
+        }
+
+        synchronized long putIfAbsent(long hash, int tableId, String pk, long transactionId) {
+            int i = (int)hash & mask;
+            while (owners[i] != 0) {
+                if (matches(i, hash, tableId, pk)) {
+                    return owners[i];
+                }
+                i = (i + 1) & mask;
+            }
+            hashes[i] = hash;
+            tableIds[i] = tableId;
+            pks[i] = pk;
+            owners[i] = transactionId;
+            if (++size * 2 > owners.length) {
+                resize(owners.length << 1);
+            }
+            return 0;
+        }
+
+        synchronized long get(long hash, int tableId, String pk) {
+            int i = indexOf(hash, tableId, pk);
+            return i < 0 ? 0 : owners[i];
+        }
+
+        synchronized boolean remove(long hash, int tableId, String pk, long transactionId) {
+            int i = indexOf(hash, tableId, pk);
+            if (i < 0 || owners[i] != transactionId) {
+                return false;
+            }
+            // shift back the following entries of the probe sequence into the freed slot
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (owners[j] == 0) {
+                    break;
+                }
+                int home = (int)hashes[j] & mask;
+                if (i <= j ? (i < home && home <= j) : (i < home || home <= j)) {
+                    continue;
+                }
+                hashes[i] = hashes[j];
+                tableIds[i] = tableIds[j];
+                pks[i] = pks[j];
+                owners[i] = owners[j];
+                i = j;
+            }
+            pks[i] = null;
+            owners[i] = 0;
+            size--;
+            return true;
+        }
+
+        synchronized void clear() {
+            allocate(INITIAL_CAPACITY);
+            size = 0;
+        }
+
+        private boolean matches(int i, long hash, int tableId, String pk) {
+            return hashes[i] == hash && tableIds[i] == tableId && pks[i].equals(pk);
+        }
+
+        private int indexOf(long hash, int tableId, String pk) {
+            int i = (int)hash & mask;
+            while (owners[i] != 0) {
+                if (matches(i, hash, tableId, pk)) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void allocate(int capacity) {
+            hashes = new long[capacity];
+            tableIds = new int[capacity];
+            pks = new String[capacity];
+            owners = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        private void resize(int capacity) {
+            long[] oldHashes = hashes;
+            int[] oldTableIds = tableIds;
+            String[] oldPks = pks;
+            long[] oldOwners = owners;
+            allocate(capacity);
+            for (int k = 0; k < oldOwners.length; k++) {
+                if (oldOwners[k] != 0) {
+                    int i = (int)oldHashes[k] & mask;
+                    while (owners[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    hashes[i] = oldHashes[k];
+                    tableIds[i] = oldTableIds[k];
+                    pks[i] = oldPks[k];
+                    owners[i] = oldOwners[k];
+                }
+            }
+        }
+    }
+}
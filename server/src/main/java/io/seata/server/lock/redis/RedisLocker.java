@@ -0,0 +1,96 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock.redis;
+
+import java.util.List;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.loader.LoadLevel;
+import io.seata.common.util.CollectionUtils;
+import io.seata.core.lock.AbstractLocker;
+import io.seata.core.lock.RowLock;
+import io.seata.core.store.LockStore;
+import io.seata.server.store.redis.JedisPooledFactory;
+import io.seata.server.store.redis.LockStoreRedisDAO;
+
+/**
+ * The redis locker.
+ */
+@LoadLevel(name = "redis")
+public class RedisLocker extends AbstractLocker {
+
+    private LockStore lockStore;
+
+    /**
+     * Instantiates a new Redis locker.
+     */
+    public RedisLocker() {
+        lockStore = new LockStoreRedisDAO(JedisPooledFactory.getJedisPoolInstance());
+    }
+
+    @Override
+    public boolean acquireLock(List<RowLock> locks) {
+        if (CollectionUtils.isEmpty(locks)) {
+            //no lock
+            return true;
+        }
+        try {
+            return lockStore.acquireLock(convertToLockDO(locks));
+        } catch (StoreException e) {
+            throw e;
+        } catch (Exception t) {
+            LOGGER.error("AcquireLock error, locks:" + CollectionUtils.toString(locks), t);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean releaseLock(List<RowLock> locks) {
+        if (CollectionUtils.isEmpty(locks)) {
+            //no lock
+            return true;
+        }
+        try {
+            return lockStore.unLock(convertToLockDO(locks));
+        } catch (StoreException e) {
+            throw e;
+        } catch (Exception t) {
+            LOGGER.error("unLock error, locks:" + CollectionUtils.toString(locks), t);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isLockable(List<RowLock> locks) {
+        try {
+            return lockStore.isLockable(convertToLockDO(locks));
+        } catch (StoreException e) {
+            throw e;
+        } catch (Exception t) {
+            LOGGER.error("isLockable error, locks:" + CollectionUtils.toString(locks), t);
+            return false;
+        }
+    }
+
+    /**
+     * Sets lock store.
+     *
+     * @param lockStore the lock store
+     */
+    public void setLockStore(LockStore lockStore) {
+        this.lockStore = lockStore;
+    }
+}
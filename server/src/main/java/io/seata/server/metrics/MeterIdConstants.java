@@ -58,4 +58,9 @@ public class MeterIdConstants {
         .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
         .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
         .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_ROLLBACKED);
+
+    public static final Id GAUGE_EVENT_DROPPED = new Id(IdConstants.SEATA_EVENT_BUS)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_GAUGE)
+        .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_DROPPED);
 }
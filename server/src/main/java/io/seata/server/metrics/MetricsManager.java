@@ -19,6 +19,8 @@ import java.util.List;
 
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.event.AsyncEventBus;
+import io.seata.core.event.EventBus;
 import io.seata.metrics.exporter.Exporter;
 import io.seata.metrics.exporter.ExporterFactory;
 import io.seata.metrics.registry.Registry;
@@ -55,7 +57,12 @@ public class MetricsManager {
                 //only at least one metrics exporter implement had imported in pom then need register MetricsSubscriber
                 if (exporters.size() != 0) {
                     exporters.forEach(exporter -> exporter.setRegistry(registry));
-                    EventBusManager.get().register(new MetricsSubscriber(registry));
+                    EventBus eventBus = EventBusManager.get();
+                    eventBus.register(new MetricsSubscriber(registry));
+                    if (eventBus instanceof AsyncEventBus) {
+                        registry.getGauge(MeterIdConstants.GAUGE_EVENT_DROPPED,
+                            ((AsyncEventBus)eventBus)::getDroppedCount);
+                    }
                 }
             }
         }
@@ -15,6 +15,8 @@
  */
 package io.seata.server.session;
 
+import java.util.List;
+
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.GlobalTransactionException;
 import io.seata.core.exception.TransactionException;
@@ -94,6 +96,17 @@ public abstract class AbstractSessionManager implements SessionManager, SessionL
         writeSession(LogOperation.BRANCH_ADD, branchSession);
     }
 
+    @Override
+    public void addBranchSessions(GlobalSession session, List<BranchSession> branchSessions)
+        throws TransactionException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("MANAGER[" + name + "] SESSIONS" + branchSessions + " " + LogOperation.BRANCH_ADD);
+        }
+        if (!transactionStoreManager.writeSessions(LogOperation.BRANCH_ADD, branchSessions)) {
+            throw new BranchTransactionException(TransactionExceptionCode.FailedWriteSession, "Fail to store branch session");
+        }
+    }
+
     @Override
     public void updateBranchSessionStatus(BranchSession branchSession, BranchStatus status)
         throws TransactionException {
@@ -133,6 +146,12 @@ public abstract class AbstractSessionManager implements SessionManager, SessionL
         addBranchSession(globalSession, branchSession);
     }
 
+    @Override
+    public void onAddBranches(GlobalSession globalSession, List<BranchSession> branchSessions)
+        throws TransactionException {
+        addBranchSessions(globalSession, branchSessions);
+    }
+
     @Override
     public void onRemoveBranch(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         removeBranchSession(globalSession, branchSession);
@@ -172,6 +191,15 @@ public abstract class AbstractSessionManager implements SessionManager, SessionL
     public void destroy() {
     }
 
+    /**
+     * Gets transaction store manager.
+     *
+     * @return the transaction store manager
+     */
+    public TransactionStoreManager getTransactionStoreManager() {
+        return transactionStoreManager;
+    }
+
     /**
      * Sets transaction store manager.
      *
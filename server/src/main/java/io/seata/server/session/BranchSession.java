@@ -17,15 +17,14 @@ package io.seata.server.session;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import io.seata.common.util.CompressUtil;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.lock.LockKeys;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.server.lock.LockerFactory;
+import io.seata.server.lock.memory.HeldRowLocks;
 import io.seata.server.store.SessionStorable;
 import io.seata.server.store.StoreConfig;
 import org.slf4j.Logger;
@@ -57,6 +56,11 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private String lockKey;
 
+    /**
+     * the structured form of the lock key, each form is built from the other one at most once
+     */
+    private LockKeys lockKeys;
+
     private BranchType branchType;
 
     private BranchStatus status = BranchStatus.Unknown;
@@ -65,8 +69,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private String applicationData;
 
-    private ConcurrentMap<ConcurrentMap<String, Long>, Set<String>> lockHolder
-        = new ConcurrentHashMap<>();
+    private HeldRowLocks lockHolder = new HeldRowLocks();
 
     /**
      * Gets application data.
@@ -146,6 +149,10 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      * @return the lock key
      */
     public String getLockKey() {
+        // empty lock keys are parsed from a null lock key too, which stays null
+        if (lockKey == null && lockKeys != null && !lockKeys.isEmpty()) {
+            lockKey = lockKeys.toLockKeyString();
+        }
         return lockKey;
     }
 
@@ -156,6 +163,29 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      */
     public void setLockKey(String lockKey) {
         this.lockKey = lockKey;
+        this.lockKeys = null;
+    }
+
+    /**
+     * Gets the structured lock keys.
+     *
+     * @return the lock keys
+     */
+    public LockKeys getLockKeys() {
+        if (lockKeys == null) {
+            lockKeys = LockKeys.parse(lockKey);
+        }
+        return lockKeys;
+    }
+
+    /**
+     * Sets the structured lock keys.
+     *
+     * @param lockKeys the lock keys
+     */
+    public void setLockKeys(LockKeys lockKeys) {
+        this.lockKeys = lockKeys;
+        this.lockKey = null;
     }
 
     /**
@@ -263,7 +293,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      *
      * @return the lock holder
      */
-    public ConcurrentMap<ConcurrentMap<String, Long>, Set<String>> getLockHolder() {
+    public HeldRowLocks getLockHolder() {
         return lockHolder;
     }
 
@@ -282,7 +312,8 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
         byte[] resourceIdBytes = resourceId != null ? resourceId.getBytes() : null;
 
-        byte[] lockKeyBytes = lockKey != null ? lockKey.getBytes() : null;
+        String lockKeyString = getLockKey();
+        byte[] lockKeyBytes = lockKeyString != null ? lockKeyString.getBytes() : null;
 
         byte[] clientIdBytes = clientId != null ? clientId.getBytes() : null;
 
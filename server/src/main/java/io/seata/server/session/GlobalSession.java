@@ -18,8 +18,9 @@ package io.seata.server.session;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -97,7 +98,10 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         return branchSessions.remove(branchSession);
     }
 
-    private Set<SessionLifecycleListener> lifecycleListeners = new HashSet<>();
+    /**
+     * Shared by the threads handling the cached session, iterated on each event and seldom changed
+     */
+    private Set<SessionLifecycleListener> lifecycleListeners = new CopyOnWriteArraySet<>();
 
     /**
      * Can be committed async boolean.
@@ -130,6 +134,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
             lifecycleListener.onBegin(this);
         }
+        SessionTimeoutIndex.get().add(this);
     }
 
     @Override
@@ -168,6 +173,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
     public void end() throws TransactionException {
         // Clean locks first
         clean();
+        SessionTimeoutIndex.get().remove(this);
 
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
             lifecycleListener.onEnd(this);
@@ -218,6 +224,22 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         add(branchSession);
     }
 
+    /**
+     * Add the branches registered in one batch, they are stored together.
+     *
+     * @param branchSessions the branch sessions
+     * @throws TransactionException the transaction exception
+     */
+    public void addBranches(List<BranchSession> branchSessions) throws TransactionException {
+        for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
+            lifecycleListener.onAddBranches(this, branchSessions);
+        }
+        for (BranchSession branchSession : branchSessions) {
+            branchSession.setStatus(BranchStatus.Registered);
+            add(branchSession);
+        }
+    }
+
     @Override
     public void removeBranch(BranchSession branchSession) throws TransactionException {
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
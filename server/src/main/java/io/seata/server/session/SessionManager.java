@@ -72,6 +72,20 @@ public interface SessionManager extends SessionLifecycleListener, Disposable {
      */
     void addBranchSession(GlobalSession globalSession, BranchSession session) throws TransactionException;
 
+    /**
+     * Add branch sessions of one global session at once.
+     *
+     * @param globalSession  the global session
+     * @param branchSessions the branch sessions
+     * @throws TransactionException the transaction exception
+     */
+    default void addBranchSessions(GlobalSession globalSession, List<BranchSession> branchSessions)
+        throws TransactionException {
+        for (BranchSession branchSession : branchSessions) {
+            addBranchSession(globalSession, branchSession);
+        }
+    }
+
     /**
      * Update branch session status.
      *
@@ -0,0 +1,171 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The deadline ordered index of the global sessions, used to find the timeout sessions without scanning all of
+ * them. A session is indexed on its deadline (begin time + timeout) when it begins and is dropped when it ends.
+ */
+public class SessionTimeoutIndex {
+
+    private static final SessionTimeoutIndex INSTANCE = new SessionTimeoutIndex();
+
+    private final ConcurrentSkipListSet<Entry> deadlines = new ConcurrentSkipListSet<>();
+
+    /**
+     * Get the shared session timeout index.
+     *
+     * @return the session timeout index
+     */
+    public static SessionTimeoutIndex get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Index the global session on its deadline.
+     *
+     * @param globalSession the global session
+     */
+    public void add(GlobalSession globalSession) {
+        deadlines.add(new Entry(deadlineOf(globalSession), globalSession.getTransactionId(), globalSession.getXid()));
+    }
+
+    /**
+     * Drop the global session from the index.
+     *
+     * @param globalSession the global session
+     */
+    public void remove(GlobalSession globalSession) {
+        deadlines.remove(new Entry(deadlineOf(globalSession), globalSession.getTransactionId(), null));
+    }
+
+    /**
+     * Remove and return the entries whose deadline has passed.
+     *
+     * @param now the current time millis
+     * @return the expired entries, ordered by deadline
+     */
+    public List<Entry> pollExpired(long now) {
+        List<Entry> expired = new ArrayList<>();
+        Entry first;
+        while ((first = firstOrNull()) != null && first.getDeadline() < now) {
+            if (deadlines.remove(first)) {
+                expired.add(first);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Put back an entry polled from the index, e.g. when its session could not be handled.
+     *
+     * @param entry the entry
+     */
+    public void requeue(Entry entry) {
+        deadlines.add(entry);
+    }
+
+    /**
+     * Size of the index.
+     *
+     * @return the size
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    private Entry firstOrNull() {
+        return deadlines.ceiling(Entry.MIN);
+    }
+
+    private static long deadlineOf(GlobalSession globalSession) {
+        return globalSession.getBeginTime() + globalSession.getTimeout();
+    }
+
+    /**
+     * The index entry, identified by deadline and transaction id.
+     */
+    public static final class Entry implements Comparable<Entry> {
+
+        private static final Entry MIN = new Entry(Long.MIN_VALUE, Long.MIN_VALUE, null);
+
+        private final long deadline;
+
+        private final long transactionId;
+
+        private final String xid;
+
+        private Entry(long deadline, long transactionId, String xid) {
+            this.deadline = deadline;
+            this.transactionId = transactionId;
+            this.xid = xid;
+        }
+
+        /**
+         * Gets deadline.
+         *
+         * @return the deadline
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Gets transaction id.
+         *
+         * @return the transaction id
+         */
+        public long getTransactionId() {
+            return transactionId;
+        }
+
+        /**
+         * Gets xid.
+         *
+         * @return the xid
+         */
+        public String getXid() {
+            return xid;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int c = Long.compare(deadline, o.deadline);
+            return c != 0 ? c : Long.compare(transactionId, o.transactionId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry)o;
+            return deadline == entry.deadline && transactionId == entry.transactionId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(deadline) * 31 + Long.hashCode(transactionId);
+        }
+    }
+}
@@ -23,6 +23,9 @@ import io.seata.common.executor.Initialize;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.util.StringUtils;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -54,11 +57,23 @@ public class DataBaseSessionManager extends AbstractSessionManager
      */
     protected static final Logger LOGGER = LoggerFactory.getLogger(DataBaseSessionManager.class);
 
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+    /**
+     * Disabled by default: the cache is only coherent when no other TC changes the sessions of the database.
+     */
+    private static final int DEFAULT_SESSION_CACHE_SIZE = 0;
+
     /**
      * The Task name.
      */
     protected String taskName;
 
+    /**
+     * The cache of the live sessions, null when disabled.
+     */
+    protected GlobalSessionCache sessionCache;
+
     /**
      * Instantiates a new Data base session manager.
      */
@@ -79,6 +94,12 @@ public class DataBaseSessionManager extends AbstractSessionManager
     @Override
     public void init() {
         transactionStoreManager = EnhancedServiceLoader.load(TransactionStoreManager.class, StoreMode.DB.name());
+        if (StringUtils.isBlank(taskName)) {
+            int cacheSize = CONFIG.getInt(ConfigurationKeys.STORE_DB_SESSION_CACHE_SIZE, DEFAULT_SESSION_CACHE_SIZE);
+            if (cacheSize > 0) {
+                sessionCache = new GlobalSessionCache(cacheSize);
+            }
+        }
     }
 
     @Override
@@ -88,6 +109,9 @@ public class DataBaseSessionManager extends AbstractSessionManager
             if (!ret) {
                 throw new StoreException("addGlobalSession failed.");
             }
+            if (sessionCache != null) {
+                sessionCache.put(session);
+            }
         } else {
             boolean ret = transactionStoreManager.writeSession(LogOperation.GLOBAL_UPDATE, session);
             if (!ret) {
@@ -106,6 +130,9 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (!ret) {
             throw new StoreException("updateGlobalSessionStatus failed.");
         }
+        if (sessionCache != null) {
+            sessionCache.invalidateIfOther(session);
+        }
     }
 
     @Override
@@ -113,6 +140,9 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (StringUtils.isNotBlank(taskName)) {
             return;
         }
+        if (sessionCache != null) {
+            sessionCache.invalidate(session.getXid());
+        }
         boolean ret = transactionStoreManager.writeSession(LogOperation.GLOBAL_REMOVE, session);
         if (!ret) {
             throw new StoreException("removeGlobalSession failed.");
@@ -128,6 +158,24 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (!ret) {
             throw new StoreException("addBranchSession failed.");
         }
+        if (sessionCache != null) {
+            sessionCache.invalidateIfOther(globalSession);
+        }
+    }
+
+    @Override
+    public void addBranchSessions(GlobalSession globalSession, List<BranchSession> branchSessions)
+        throws TransactionException {
+        if (StringUtils.isNotBlank(taskName)) {
+            return;
+        }
+        boolean ret = transactionStoreManager.writeSessions(LogOperation.BRANCH_ADD, branchSessions);
+        if (!ret) {
+            throw new StoreException("addBranchSessions failed.");
+        }
+        if (sessionCache != null) {
+            sessionCache.invalidateIfOther(globalSession);
+        }
     }
 
     @Override
@@ -139,6 +187,9 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (!ret) {
             throw new StoreException("updateBranchSessionStatus failed.");
         }
+        if (sessionCache != null) {
+            sessionCache.invalidateIfOther(session);
+        }
     }
 
     @Override
@@ -150,11 +201,52 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (!ret) {
             throw new StoreException("removeBranchSession failed.");
         }
+        if (sessionCache != null) {
+            sessionCache.invalidateIfOther(globalSession);
+        }
     }
 
     @Override
     public GlobalSession findGlobalSession(String xid) {
-        return transactionStoreManager.readSession(xid);
+        if (sessionCache == null) {
+            return transactionStoreManager.readSession(xid);
+        }
+        GlobalSession session = sessionCache.get(xid);
+        if (session != null) {
+            return session;
+        }
+        session = transactionStoreManager.readSession(xid);
+        if (session == null) {
+            return null;
+        }
+        // every request of the transaction adds this listener, add it before the session is shared
+        session.addSessionLifecycleListener(this);
+        return sessionCache.putIfAbsent(session);
+    }
+
+    @Override
+    public void destroy() {
+        if (transactionStoreManager != null) {
+            transactionStoreManager.shutdown();
+        }
+    }
+
+    /**
+     * Sets session cache.
+     *
+     * @param sessionCache the session cache, null to disable
+     */
+    public void setSessionCache(GlobalSessionCache sessionCache) {
+        this.sessionCache = sessionCache;
+    }
+
+    /**
+     * Gets session cache.
+     *
+     * @return the session cache, null when disabled
+     */
+    public GlobalSessionCache getSessionCache() {
+        return sessionCache;
     }
 
     @Override
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session.db;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+
+/**
+ * Bounded cache of the live global sessions of the db store, the least recently used session is evicted first.
+ * <p>
+ * The cached session is the object every request of its transaction works on, so that its status and branches are
+ * kept up to date by the session manager writing them. A session changed through any other object is invalidated,
+ * and read again from the database on the next lookup.
+ */
+public class GlobalSessionCache {
+
+    private final int maxSize;
+
+    private final Map<String, GlobalSession> sessions;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Instantiates a new Global session cache.
+     *
+     * @param maxSize the max number of sessions
+     */
+    public GlobalSessionCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.sessions = new LinkedHashMap<String, GlobalSession>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GlobalSession> eldest) {
+                return size() > GlobalSessionCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the cached session.
+     *
+     * @param xid the xid
+     * @return the session, null if not cached
+     */
+    public GlobalSession get(String xid) {
+        GlobalSession session;
+        synchronized (sessions) {
+            session = sessions.get(xid);
+        }
+        if (session != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return session;
+    }
+
+    /**
+     * Cache the session, unless another one of the same transaction is cached already.
+     *
+     * @param session the session
+     * @return the cached session
+     */
+    public GlobalSession putIfAbsent(GlobalSession session) {
+        synchronized (sessions) {
+            GlobalSession cached = sessions.putIfAbsent(session.getXid(), session);
+            return cached != null ? cached : session;
+        }
+    }
+
+    /**
+     * Cache the session in place of any other one of the same transaction.
+     *
+     * @param session the session
+     */
+    public void put(GlobalSession session) {
+        synchronized (sessions) {
+            sessions.put(session.getXid(), session);
+        }
+    }
+
+    /**
+     * Invalidate the transaction, unless the cached session is the given one.
+     *
+     * @param session the session which was changed
+     */
+    public void invalidateIfOther(GlobalSession session) {
+        synchronized (sessions) {
+            GlobalSession cached = sessions.get(session.getXid());
+            if (cached != null && cached != session) {
+                sessions.remove(session.getXid());
+            }
+        }
+    }
+
+    /**
+     * Invalidate the transaction of the branch, unless the branch belongs to the cached session.
+     *
+     * @param branchSession the branch which was changed
+     */
+    public void invalidateIfOther(BranchSession branchSession) {
+        synchronized (sessions) {
+            GlobalSession cached = sessions.get(branchSession.getXid());
+            if (cached != null && cached.getBranch(branchSession.getBranchId()) != branchSession) {
+                sessions.remove(branchSession.getXid());
+            }
+        }
+    }
+
+    /**
+     * Invalidate the transaction.
+     *
+     * @param xid the xid
+     */
+    public void invalidate(String xid) {
+        synchronized (sessions) {
+            sessions.remove(xid);
+        }
+    }
+
+    /**
+     * Number of the cached sessions.
+     *
+     * @return the size
+     */
+    public int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    /**
+     * Number of the lookups served by the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Number of the lookups read from the database.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+}
@@ -69,6 +69,9 @@ public class FileBasedSessionManager extends DefaultSessionManager implements Re
     public void reload() {
         restoreSessions();
         washSessions();
+        if (transactionStoreManager instanceof ReloadableStore) {
+            ((ReloadableStore)transactionStoreManager).checkpoint(sessionMap.values());
+        }
     }
 
     private void restoreSessions() {
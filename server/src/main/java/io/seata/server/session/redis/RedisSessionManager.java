@@ -0,0 +1,51 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session.redis;
+
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.common.loader.LoadLevel;
+import io.seata.core.store.StoreMode;
+import io.seata.server.session.db.DataBaseSessionManager;
+import io.seata.server.store.TransactionStoreManager;
+
+/**
+ * The redis session manager, the sessions are read from and written to redis by the redis transaction store manager.
+ * The live sessions are not cached, the store may be shared by several TCs.
+ */
+@LoadLevel(name = "redis")
+public class RedisSessionManager extends DataBaseSessionManager {
+
+    /**
+     * Instantiates a new Redis session manager.
+     */
+    public RedisSessionManager() {
+        super();
+    }
+
+    /**
+     * Instantiates a new Redis session manager.
+     *
+     * @param name the name
+     */
+    public RedisSessionManager(String name) {
+        super(name);
+    }
+
+    @Override
+    public void init() {
+        transactionStoreManager = EnhancedServiceLoader.load(TransactionStoreManager.class, StoreMode.REDIS.name());
+    }
+}
@@ -15,8 +15,11 @@
  */
 package io.seata.server.store;
 
+import java.util.Collection;
 import java.util.List;
 
+import io.seata.server.session.GlobalSession;
+
 /**
  * The interface Reloadable store.
  *
@@ -42,5 +45,12 @@ public interface ReloadableStore {
      */
     boolean hasRemaining(boolean isHistory);
 
+    /**
+     * Persist the restored sessions as the new starting point of the store, the data they were restored from can
+     * be dropped afterwards.
+     *
+     * @param globalSessions the restored global sessions
+     */
+    void checkpoint(Collection<GlobalSession> globalSessions);
 
 }
@@ -38,6 +38,9 @@ public class StoreConfig {
     // default 16kb
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 16;
 
+    // default 16mb
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 16;
+
     public static int getMaxBranchSessionSize() {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "max-branch-session-size", DEFAULT_MAX_BRANCH_SESSION_SIZE);
     }
@@ -50,6 +53,10 @@ public class StoreConfig {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "file-write-buffer-cache-size", DEFAULT_WRITE_BUFFER_SIZE);
     }
 
+    public static int getSegmentSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "segment-size", DEFAULT_SEGMENT_SIZE);
+    }
+
     public static FlushDiskMode getFlushDiskMode() {
         return FlushDiskMode.findDiskMode(CONFIGURATION.getConfig(STORE_FILE_PREFIX + "flush-disk-mode"));
     }
@@ -36,6 +36,22 @@ public interface TransactionStoreManager {
      */
     boolean writeSession(LogOperation logOperation, SessionStorable session);
 
+    /**
+     * Write sessions of the same log operation as one batch.
+     *
+     * @param logOperation the log operation
+     * @param sessions     the sessions
+     * @return the boolean
+     */
+    default boolean writeSessions(LogOperation logOperation, List<? extends SessionStorable> sessions) {
+        for (SessionStorable session : sessions) {
+            if (!writeSession(logOperation, session)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 
     /**
      * Read global session global session.
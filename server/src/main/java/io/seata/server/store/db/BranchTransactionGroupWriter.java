@@ -0,0 +1,305 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.db;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import io.seata.core.store.BranchTransactionDO;
+import io.seata.core.store.LogStore;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group commit of the branch table writes.
+ * <p>
+ * Callers queue their write and wait. The writer thread drains whatever was queued meanwhile, and applies it with
+ * one jdbc batch per statement in a single database transaction, then wakes up all the callers of the batch: under
+ * load many branch events share one commit, and a single write is not delayed. Queued writes of the same branch are
+ * coalesced, an insert followed by a delete writes nothing. When a batch fails its writes are applied one by one, so
+ * that each caller gets the result of its own write.
+ */
+public class BranchTransactionGroupWriter implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BranchTransactionGroupWriter.class);
+
+    private static final long MAX_WAIT_TIME_MILLS = 2000L;
+
+    private final LogStore logStore;
+
+    private final int maxBatchSize;
+
+    private final ConcurrentLinkedQueue<WriteRequest> writeRequests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The request which could not be coalesced into the previous batch, only used by the writer thread
+     */
+    private WriteRequest carriedOver;
+
+    private volatile Thread writerThread;
+
+    private volatile boolean stopping = false;
+
+    private volatile boolean terminated = false;
+
+    /**
+     * Instantiates a new Branch transaction group writer.
+     *
+     * @param logStore     the log store
+     * @param maxBatchSize the max number of writes in a batch
+     */
+    public BranchTransactionGroupWriter(LogStore logStore, int maxBatchSize) {
+        this.logStore = logStore;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Write a branch transaction, and wait until its batch is committed.
+     *
+     * @param logOperation        one of the branch log operations
+     * @param branchTransactionDO the branch transaction do
+     * @return true if written
+     */
+    public boolean write(LogOperation logOperation, BranchTransactionDO branchTransactionDO) {
+        WriteRequest writeRequest = new WriteRequest(logOperation, branchTransactionDO);
+        putRequest(writeRequest);
+        return writeRequest.waitForWrite();
+    }
+
+    /**
+     * Write branch transactions, and wait until their batches are committed.
+     *
+     * @param logOperation         one of the branch log operations
+     * @param branchTransactionDOs the branch transaction dos
+     * @return true if all are written
+     */
+    public boolean write(LogOperation logOperation, List<BranchTransactionDO> branchTransactionDOs) {
+        List<WriteRequest> requests = new ArrayList<>(branchTransactionDOs.size());
+        // queued back to back, so that they are most likely committed together
+        for (BranchTransactionDO branchTransactionDO : branchTransactionDOs) {
+            WriteRequest writeRequest = new WriteRequest(logOperation, branchTransactionDO);
+            requests.add(writeRequest);
+            putRequest(writeRequest);
+        }
+        boolean result = true;
+        for (WriteRequest writeRequest : requests) {
+            result &= writeRequest.waitForWrite();
+        }
+        return result;
+    }
+
+    private void putRequest(WriteRequest writeRequest) {
+        writeRequests.offer(writeRequest);
+        LockSupport.unpark(writerThread);
+    }
+
+    /**
+     * Stop after the queued writes are done.
+     */
+    public void shutdown() {
+        stopping = true;
+        LockSupport.unpark(writerThread);
+    }
+
+    @Override
+    public void run() {
+        writerThread = Thread.currentThread();
+        try {
+            while (!stopping) {
+                try {
+                    if (!writeBatch()) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_TIME_MILLS));
+                    }
+                } catch (Exception exx) {
+                    LOGGER.error("write branch transactions error: {}", exx.getMessage(), exx);
+                }
+            }
+            while (writeBatch()) {
+                // drain until empty
+            }
+        } finally {
+            terminated = true;
+        }
+    }
+
+    /**
+     * Coalesce the queued writes into a batch and commit it.
+     *
+     * @return false if there is nothing to write
+     */
+    private boolean writeBatch() {
+        WriteRequest request = carriedOver != null ? carriedOver : writeRequests.poll();
+        carriedOver = null;
+        if (request == null) {
+            return false;
+        }
+        Map<Long, PendingWrite> batch = new LinkedHashMap<>();
+        List<WriteRequest> requests = new ArrayList<>();
+        do {
+            PendingWrite pending = batch.get(request.branchTransactionDO.getBranchId());
+            if (pending == null) {
+                batch.put(request.branchTransactionDO.getBranchId(), new PendingWrite(request));
+            } else if (!pending.coalesce(request)) {
+                carriedOver = request;
+                break;
+            }
+            requests.add(request);
+        } while (requests.size() < maxBatchSize && (request = writeRequests.poll()) != null);
+
+        boolean result;
+        try {
+            result = commit(batch);
+        } catch (Exception exx) {
+            LOGGER.error("write branch transactions in batch error, write them one by one: {}", exx.getMessage(), exx);
+            for (WriteRequest writeRequest : requests) {
+                writeRequest.wakeup(writeOne(writeRequest));
+            }
+            return true;
+        }
+        for (WriteRequest writeRequest : requests) {
+            writeRequest.wakeup(result);
+        }
+        return true;
+    }
+
+    private boolean commit(Map<Long, PendingWrite> batch) {
+        List<BranchTransactionDO> insertDOs = new ArrayList<>();
+        List<BranchTransactionDO> updateDOs = new ArrayList<>();
+        List<BranchTransactionDO> deleteDOs = new ArrayList<>();
+        for (PendingWrite pending : batch.values()) {
+            if (pending.logOperation == null) {
+                continue;
+            }
+            switch (pending.logOperation) {
+                case BRANCH_ADD:
+                    insertDOs.add(pending.branchTransactionDO);
+                    break;
+                case BRANCH_UPDATE:
+                    updateDOs.add(pending.branchTransactionDO);
+                    break;
+                default:
+                    deleteDOs.add(pending.branchTransactionDO);
+                    break;
+            }
+        }
+        if (insertDOs.isEmpty() && updateDOs.isEmpty() && deleteDOs.isEmpty()) {
+            return true;
+        }
+        return logStore.writeBranchTransactionDOs(insertDOs, updateDOs, deleteDOs);
+    }
+
+    private boolean writeOne(WriteRequest writeRequest) {
+        try {
+            switch (writeRequest.logOperation) {
+                case BRANCH_ADD:
+                    return logStore.insertBranchTransactionDO(writeRequest.branchTransactionDO);
+                case BRANCH_UPDATE:
+                    logStore.updateBranchTransactionDO(writeRequest.branchTransactionDO);
+                    return true;
+                default:
+                    logStore.deleteBranchTransactionDO(writeRequest.branchTransactionDO);
+                    return true;
+            }
+        } catch (Exception exx) {
+            LOGGER.error("write branch transaction error: {}", exx.getMessage(), exx);
+            return false;
+        }
+    }
+
+    /**
+     * The write of one branch left once the queued writes of the branch are coalesced.
+     */
+    private static class PendingWrite {
+
+        /**
+         * null when nothing is left to write
+         */
+        private LogOperation logOperation;
+
+        private BranchTransactionDO branchTransactionDO;
+
+        PendingWrite(WriteRequest request) {
+            this.logOperation = request.logOperation;
+            this.branchTransactionDO = request.branchTransactionDO;
+        }
+
+        /**
+         * Coalesce a later write of the branch.
+         *
+         * @param request the later write
+         * @return false if it cannot be coalesced and must go to the next batch
+         */
+        boolean coalesce(WriteRequest request) {
+            if (logOperation == LogOperation.BRANCH_ADD) {
+                if (request.logOperation == LogOperation.BRANCH_UPDATE) {
+                    branchTransactionDO = request.branchTransactionDO;
+                    return true;
+                } else if (request.logOperation == LogOperation.BRANCH_REMOVE) {
+                    logOperation = null;
+                    return true;
+                }
+            } else if (logOperation == LogOperation.BRANCH_UPDATE) {
+                if (request.logOperation != LogOperation.BRANCH_ADD) {
+                    logOperation = request.logOperation;
+                    branchTransactionDO = request.branchTransactionDO;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private class WriteRequest {
+
+        private final LogOperation logOperation;
+
+        private final BranchTransactionDO branchTransactionDO;
+
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        private volatile boolean writeResult;
+
+        WriteRequest(LogOperation logOperation, BranchTransactionDO branchTransactionDO) {
+            this.logOperation = logOperation;
+            this.branchTransactionDO = branchTransactionDO;
+        }
+
+        void wakeup(boolean result) {
+            this.writeResult = result;
+            this.written.countDown();
+        }
+
+        boolean waitForWrite() {
+            try {
+                while (!written.await(MAX_WAIT_TIME_MILLS, TimeUnit.MILLISECONDS)) {
+                    if (terminated) {
+                        return false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                LOGGER.error("Interrupted", e);
+            }
+            return writeResult;
+        }
+    }
+}
@@ -16,7 +16,11 @@
 package io.seata.server.store.db;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.DataSource;
@@ -25,6 +29,7 @@ import io.seata.common.exception.StoreException;
 import io.seata.common.executor.Initialize;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.loader.LoadLevel;
+import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
 import io.seata.config.Configuration;
@@ -65,6 +70,11 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
      */
     protected static final int DEFAULT_LOG_QUERY_LIMIT = 100;
 
+    /**
+     * The constant DEFAULT_BRANCH_GROUP_COMMIT_MAX_SIZE.
+     */
+    protected static final int DEFAULT_BRANCH_GROUP_COMMIT_MAX_SIZE = 512;
+
     /**
      * is inited
      */
@@ -80,6 +90,16 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
      */
     protected int logQueryLimit;
 
+    /**
+     * Where the next page of each statuses goes on from
+     */
+    private final Map<String, PageCursor> pageCursors = new ConcurrentHashMap<>();
+
+    /**
+     * The group writer of the branch table, null when the branch writes are not group committed.
+     */
+    protected BranchTransactionGroupWriter branchGroupWriter;
+
     /**
      * Instantiates a new Database transaction store manager.
      */
@@ -98,9 +118,31 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
         DataSource logStoreDataSource = dataSourceGenerator.generateDataSource();
         logStore = EnhancedServiceLoader.load(LogStore.class, StoreMode.DB.name(), new Class[] {DataSource.class},
             new Object[] {logStoreDataSource});
+        if (CONFIG.getBoolean(ConfigurationKeys.STORE_DB_BRANCH_GROUP_COMMIT, false)) {
+            startBranchGroupWriter(CONFIG.getInt(ConfigurationKeys.STORE_DB_BRANCH_GROUP_COMMIT_MAX_SIZE,
+                DEFAULT_BRANCH_GROUP_COMMIT_MAX_SIZE));
+        }
         inited.set(true);
     }
 
+    /**
+     * Group commit the branch table writes from now on.
+     *
+     * @param maxBatchSize the max number of writes committed together
+     */
+    public void startBranchGroupWriter(int maxBatchSize) {
+        branchGroupWriter = new BranchTransactionGroupWriter(logStore, maxBatchSize);
+        Thread writerThread = new NamedThreadFactory("branchGroupWriter", 1, true).newThread(branchGroupWriter);
+        writerThread.start();
+    }
+
+    @Override
+    public void shutdown() {
+        if (branchGroupWriter != null) {
+            branchGroupWriter.shutdown();
+        }
+    }
+
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
         if (LogOperation.GLOBAL_ADD.equals(logOperation)) {
@@ -109,6 +151,9 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
             logStore.updateGlobalTransactionDO(convertGlobalTransactionDO(session));
         } else if (LogOperation.GLOBAL_REMOVE.equals(logOperation)) {
             logStore.deleteGlobalTransactionDO(convertGlobalTransactionDO(session));
+        } else if (branchGroupWriter != null && (LogOperation.BRANCH_ADD.equals(logOperation)
+            || LogOperation.BRANCH_UPDATE.equals(logOperation) || LogOperation.BRANCH_REMOVE.equals(logOperation))) {
+            return branchGroupWriter.write(logOperation, convertBranchTransactionDO(session));
         } else if (LogOperation.BRANCH_ADD.equals(logOperation)) {
             logStore.insertBranchTransactionDO(convertBranchTransactionDO(session));
         } else if (LogOperation.BRANCH_UPDATE.equals(logOperation)) {
@@ -121,6 +166,26 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
         return true;
     }
 
+    @Override
+    public boolean writeSessions(LogOperation logOperation, List<? extends SessionStorable> sessions) {
+        if (!LogOperation.BRANCH_ADD.equals(logOperation)) {
+            for (SessionStorable session : sessions) {
+                if (!writeSession(logOperation, session)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        List<BranchTransactionDO> branchTransactionDOs = new ArrayList<>(sessions.size());
+        for (SessionStorable session : sessions) {
+            branchTransactionDOs.add(convertBranchTransactionDO(session));
+        }
+        if (branchGroupWriter != null) {
+            return branchGroupWriter.write(logOperation, branchTransactionDOs);
+        }
+        return logStore.insertBranchTransactionDOs(branchTransactionDOs);
+    }
+
     /**
      * Read session global session.
      *
@@ -160,6 +225,10 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
 
     /**
      * Read session list.
+     * <p>
+     * One page of log query limit global transactions is read per call, in transaction id order, and the branches of
+     * the page are read in one query. The next call of the same statuses goes on after the last transaction read, and
+     * starts over once a page comes back short.
      *
      * @param statuses the statuses
      * @return the list
@@ -169,18 +238,40 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
         for (int i = 0; i < statuses.length; i++) {
             states[i] = statuses[i].getCode();
         }
-        List<GlobalSession> globalSessions = new ArrayList<GlobalSession>();
+        String cursorKey = Arrays.toString(states);
+        PageCursor cursor = pageCursors.getOrDefault(cursorKey, PageCursor.START);
         //global transaction
-        List<GlobalTransactionDO> globalTransactionDOs = logStore.queryGlobalTransactionDO(states, logQueryLimit);
+        List<GlobalTransactionDO> globalTransactionDOs = logStore.queryGlobalTransactionDO(states,
+            cursor.transactionId, cursor.xid, logQueryLimit);
+        if (CollectionUtils.isEmpty(globalTransactionDOs) || globalTransactionDOs.size() < logQueryLimit) {
+            pageCursors.remove(cursorKey);
+        } else {
+            GlobalTransactionDO last = globalTransactionDOs.get(globalTransactionDOs.size() - 1);
+            pageCursors.put(cursorKey, new PageCursor(last.getTransactionId(), last.getXid()));
+        }
         if (CollectionUtils.isEmpty(globalTransactionDOs)) {
             return null;
         }
+        List<GlobalSession> globalSessions = new ArrayList<>(globalTransactionDOs.size());
+        readSessions(globalTransactionDOs, globalSessions);
+        return globalSessions;
+    }
+
+    private void readSessions(List<GlobalTransactionDO> globalTransactionDOs, List<GlobalSession> globalSessions) {
+        List<String> xids = new ArrayList<>(globalTransactionDOs.size());
         for (GlobalTransactionDO globalTransactionDO : globalTransactionDOs) {
-            List<BranchTransactionDO> branchTransactionDOs = logStore.queryBranchTransactionDO(
-                globalTransactionDO.getXid());
-            globalSessions.add(getGlobalSession(globalTransactionDO, branchTransactionDOs));
+            xids.add(globalTransactionDO.getXid());
+        }
+        //branch transactions
+        Map<String, List<BranchTransactionDO>> branchTransactionDOMap = new HashMap<>(xids.size());
+        for (BranchTransactionDO branchTransactionDO : logStore.queryBranchTransactionDO(xids)) {
+            branchTransactionDOMap.computeIfAbsent(branchTransactionDO.getXid(), xid -> new ArrayList<>())
+                .add(branchTransactionDO);
+        }
+        for (GlobalTransactionDO globalTransactionDO : globalTransactionDOs) {
+            globalSessions.add(getGlobalSession(globalTransactionDO,
+                branchTransactionDOMap.get(globalTransactionDO.getXid())));
         }
-        return globalSessions;
     }
 
     @Override
@@ -303,4 +394,21 @@ public class DatabaseTransactionStoreManager extends AbstractTransactionStoreMan
     public void setLogQueryLimit(int logQueryLimit) {
         this.logQueryLimit = logQueryLimit;
     }
-}
\ No newline at end of file
+
+    /**
+     * The last global transaction of a page, in transaction id then xid order.
+     */
+    private static final class PageCursor {
+
+        private static final PageCursor START = new PageCursor(Long.MIN_VALUE, "");
+
+        private final long transactionId;
+
+        private final String xid;
+
+        PageCursor(long transactionId, String xid) {
+            this.transactionId = transactionId;
+            this.xid = xid;
+        }
+    }
+}
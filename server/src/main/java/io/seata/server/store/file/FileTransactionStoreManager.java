@@ -22,20 +22,31 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.LockSupport;
 
 import io.seata.common.exception.StoreException;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.thread.NamedThreadFactory;
-import io.seata.common.util.CollectionUtils;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
@@ -52,6 +63,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The type File transaction store manager.
+ * <p>
+ * The sessions are appended to a log of fixed size memory mapped segments, see {@link LogSegment}. The file named
+ * after the store only holds the index of the segments, it is replaced atomically whenever a segment is added or
+ * dropped. A segment is dropped as soon as all the sessions written into it have ended, the sessions running longer
+ * than MAX_TRX_TIMEOUT_MILLS are written again at the head of the log so that they do not hold the old segments.
+ * The data files of the former format are still restored, and dropped by the checkpoint following the reload.
  *
  * @author jimin.jm @alibaba-inc.com
  */
@@ -70,13 +87,13 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private static final int SHUTDOWN_CHECK_INTERNAL = 1 * 1000;
 
-    private static final int MAX_WRITE_RETRY = 5;
-
     private static final String HIS_DATA_FILENAME_POSTFIX = ".1";
 
-    private static final AtomicLong FILE_TRX_NUM = new AtomicLong(0);
+    private static final String LEGACY_DATA_FILENAME_POSTFIX = ".legacy";
+
+    private static final String INDEX_TMP_FILENAME_POSTFIX = ".tmp";
 
-    private static final AtomicLong FILE_FLUSH_NUM = new AtomicLong(0);
+    private static final int INDEX_MAGIC = 0x53454753;
 
     private static final int MARK_SIZE = 4;
 
@@ -86,21 +103,19 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private static final int MAX_FLUSH_NUM = 10;
 
-    private static int PER_FILE_BLOCK_SIZE = 65535 * 8;
+    private static final int MAX_BATCH_SIZE = 1024;
 
     private static long MAX_TRX_TIMEOUT_MILLS = 30 * 60 * 1000;
 
-    private static volatile long trxStartTimeMills = System.currentTimeMillis();
+    private static final int SEGMENT_SIZE = StoreConfig.getSegmentSize();
 
-    private File currDataFile;
+    private static final int MAX_DATA_SIZE = SEGMENT_SIZE - LogSegment.RECORD_HEADER_SIZE;
 
-    private RandomAccessFile currRaf;
-
-    private FileChannel currFileChannel;
+    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
 
-    private long recoverCurrOffset = 0;
+    private static final int MAX_WAIT_FOR_FLUSH_TIME_MILLS = 2 * 1000;
 
-    private long recoverHisOffset = 0;
+    private static final int RECOVER_THREADS = Runtime.getRuntime().availableProcessors();
 
     private SessionManager sessionManager;
 
@@ -108,21 +123,56 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private String hisFullFileName;
 
+    private String legacyFullFileName;
+
     private WriteDataFileRunnable writeDataFileRunnable;
 
-    private ReentrantLock writeSessionLock = new ReentrantLock();
+    /**
+     * the segments written by this store, the head is the last one; owned by the writer thread
+     */
+    private final TreeMap<Long, LogSegment> segments = new TreeMap<>();
 
-    private volatile long lastModifiedTime;
+    private LogSegment head;
 
-    private static final int MAX_WRITE_BUFFER_SIZE = StoreConfig.getFileWriteBufferCacheSize();
+    /**
+     * the segments found at startup, kept until the checkpoint; owned by the writer thread once started
+     */
+    private final List<Long> recoveredSegments = new ArrayList<>();
 
-    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(MAX_WRITE_BUFFER_SIZE);
+    /**
+     * the sessions not ended yet, by transaction id, and the number of them first written into each segment
+     */
+    private final Map<Long, LiveSession> liveSessions = new HashMap<>();
 
-    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
+    private final TreeMap<Long, Integer> pinnedSegments = new TreeMap<>();
 
-    private static final int MAX_WAIT_FOR_FLUSH_TIME_MILLS = 2 * 1000;
+    private boolean compacting = false;
+
+    private long writtenNum = 0;
 
-    private static final int INT_BYTE_SIZE = 4;
+    private long flushedNum = 0;
+
+    private long lastFlushTime = System.currentTimeMillis();
+
+    private final List<File> legacyFiles = new ArrayList<>();
+
+    private int legacyFileIndex = 0;
+
+    private long recoverLegacyOffset = 0;
+
+    private final List<Long> recoverSegments = new ArrayList<>();
+
+    private ExecutorService recoverExecutor;
+
+    private final ArrayDeque<Future<List<TransactionWriteStore>>> decoding = new ArrayDeque<>();
+
+    private int submittedSegments = 0;
+
+    private int consumedSegments = 0;
+
+    private List<TransactionWriteStore> decoded = Collections.emptyList();
+
+    private int decodedPos = 0;
 
     /**
      * Instantiates a new File transaction store manager.
@@ -132,6 +182,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
      * @throws IOException the io exception
      */
     public FileTransactionStoreManager(String fullFileName, SessionManager sessionManager) throws IOException {
+        this.sessionManager = sessionManager;
         initFile(fullFileName);
         fileWriteExecutor = new ThreadPoolExecutor(MAX_THREAD_WRITE, MAX_THREAD_WRITE, Integer.MAX_VALUE,
             TimeUnit.MILLISECONDS,
@@ -139,126 +190,175 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
             new NamedThreadFactory("fileTransactionStore", MAX_THREAD_WRITE, true));
         writeDataFileRunnable = new WriteDataFileRunnable();
         fileWriteExecutor.submit(writeDataFileRunnable);
-        this.sessionManager = sessionManager;
     }
 
     private void initFile(String fullFileName) throws IOException {
         this.currFullFileName = fullFileName;
         this.hisFullFileName = fullFileName + HIS_DATA_FILENAME_POSTFIX;
+        this.legacyFullFileName = fullFileName + LEGACY_DATA_FILENAME_POSTFIX;
         try {
-            currDataFile = new File(currFullFileName);
-            if (!currDataFile.exists()) {
-                //create parent dir first
-                if (currDataFile.getParentFile() != null && !currDataFile.getParentFile().exists()) {
-                    currDataFile.getParentFile().mkdirs();
+            File indexFile = new File(currFullFileName);
+            //create parent dir first
+            if (indexFile.getParentFile() != null && !indexFile.getParentFile().exists()) {
+                indexFile.getParentFile().mkdirs();
+            }
+            List<Long> indexed = readIndex(indexFile);
+            if (indexed == null) {
+                // a data file of the former format, restored then dropped by the checkpoint, it holds the latest
+                // sessions when a former upgrade left a legacy file behind
+                Files.move(indexFile.toPath(), new File(legacyFullFileName).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+                indexed = new ArrayList<>();
+            }
+            for (Long segmentIndex : indexed) {
+                if (LogSegment.fileOf(currFullFileName, segmentIndex).exists()) {
+                    recoveredSegments.add(segmentIndex);
+                } else {
+                    LOGGER.error("segment " + segmentIndex + " of " + indexFile.getName() + " is missing");
+                }
+            }
+            recoverSegments.addAll(recoveredSegments);
+            deleteOrphanSegments(indexFile, new HashSet<>(indexed));
+            long headIndex = indexed.isEmpty() ? 1 : Collections.max(indexed) + 1;
+            head = LogSegment.create(currFullFileName, headIndex, SEGMENT_SIZE);
+            segments.put(headIndex, head);
+            writeIndex();
+            for (String legacyFileName : new String[] {hisFullFileName, legacyFullFileName}) {
+                File legacyFile = new File(legacyFileName);
+                if (legacyFile.exists()) {
+                    legacyFiles.add(legacyFile);
                 }
-                currDataFile.createNewFile();
-                trxStartTimeMills = System.currentTimeMillis();
-            } else {
-                trxStartTimeMills = currDataFile.lastModified();
             }
-            lastModifiedTime = System.currentTimeMillis();
-            currRaf = new RandomAccessFile(currDataFile, "rw");
-            currRaf.seek(currDataFile.length());
-            currFileChannel = currRaf.getChannel();
         } catch (IOException exx) {
             LOGGER.error("init file error," + exx.getMessage());
             throw exx;
         }
     }
 
-    @Override
-    public boolean writeSession(LogOperation logOperation, SessionStorable session) {
-        writeSessionLock.lock();
-        long curFileTrxNum;
-        try {
-            if (!writeDataFile(new TransactionWriteStore(session, logOperation).encode())) {
-                return false;
-            }
-            lastModifiedTime = System.currentTimeMillis();
-            curFileTrxNum = FILE_TRX_NUM.incrementAndGet();
-            if (curFileTrxNum % PER_FILE_BLOCK_SIZE == 0 &&
-                (System.currentTimeMillis() - trxStartTimeMills) > MAX_TRX_TIMEOUT_MILLS) {
-                return saveHistory();
+    /**
+     * Read the segment index.
+     *
+     * @return the indexes of the segments, null if the file is a data file of the former format
+     */
+    private List<Long> readIndex(File indexFile) throws IOException {
+        List<Long> indexed = new ArrayList<>();
+        if (!indexFile.exists() || indexFile.length() == 0) {
+            return indexed;
+        }
+        ByteBuffer byteBuffer = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+        if (byteBuffer.remaining() < MARK_SIZE * 2 || byteBuffer.getInt() != INDEX_MAGIC) {
+            return null;
+        }
+        int count = byteBuffer.getInt();
+        for (int i = 0; i < count && byteBuffer.remaining() >= Long.BYTES; i++) {
+            indexed.add(byteBuffer.getLong());
+        }
+        return indexed;
+    }
+
+    private void writeIndex() throws IOException {
+        List<Long> indexed = new ArrayList<>(recoveredSegments);
+        indexed.addAll(segments.keySet());
+        ByteBuffer byteBuffer = ByteBuffer.allocate(MARK_SIZE * 2 + indexed.size() * Long.BYTES);
+        byteBuffer.putInt(INDEX_MAGIC);
+        byteBuffer.putInt(indexed.size());
+        for (Long segmentIndex : indexed) {
+            byteBuffer.putLong(segmentIndex);
+        }
+        byteBuffer.flip();
+        File tmpFile = new File(currFullFileName + INDEX_TMP_FILENAME_POSTFIX);
+        try (FileChannel fileChannel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (byteBuffer.hasRemaining()) {
+                fileChannel.write(byteBuffer);
             }
-        } catch (Exception exx) {
-            LOGGER.error("writeSession error," + exx.getMessage());
+            fileChannel.force(true);
+        }
+        Files.move(tmpFile.toPath(), new File(currFullFileName).toPath(), StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private boolean saveIndex() {
+        try {
+            writeIndex();
+            return true;
+        } catch (IOException exx) {
+            LOGGER.error("write segment index error," + exx.getMessage());
             return false;
-        } finally {
-            writeSessionLock.unlock();
         }
-        flushDisk(curFileTrxNum, currFileChannel);
-        return true;
     }
 
-    private void flushDisk(long curFileNum, FileChannel currFileChannel) {
+    private void deleteOrphanSegments(File indexFile, Set<Long> indexed) {
+        File dir = indexFile.getAbsoluteFile().getParentFile();
+        File[] files = dir == null ? null : dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            long segmentIndex = LogSegment.indexOf(indexFile.getName(), file.getName());
+            if (segmentIndex >= 0 && !indexed.contains(segmentIndex)) {
+                deleteFile(file);
+            }
+        }
+    }
 
-        if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
-            SyncFlushRequest syncFlushRequest = new SyncFlushRequest(curFileNum, currFileChannel);
-            writeDataFileRunnable.putRequest(syncFlushRequest);
-            syncFlushRequest.waitForFlush(MAX_WAIT_FOR_FLUSH_TIME_MILLS);
-        } else {
-            writeDataFileRunnable.putRequest(new AsyncFlushRequest(curFileNum, currFileChannel));
+    private void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("delete file error," + file.getName());
         }
     }
 
-    /**
-     * get all overTimeSessionStorables
-     * merge write file
-     *
-     * @throws IOException
-     */
-    private boolean saveHistory() throws IOException {
-        boolean result;
+    @Override
+    public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        byte[] data;
         try {
-            result = findTimeoutAndSave();
-            writeDataFileRunnable.putRequest(new CloseFileRequest(currFileChannel, currRaf));
-            Files.move(currDataFile.toPath(), new File(hisFullFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException exx) {
-            LOGGER.error("save history data file error," + exx.getMessage());
-            result = false;
-        } finally {
-            initFile(currFullFileName);
+            data = new TransactionWriteStore(session, logOperation).encode();
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error," + exx.getMessage());
+            return false;
         }
-        return result;
+        if (data == null || data.length > MAX_DATA_SIZE) {
+            return false;
+        }
+        WriteRequest writeRequest = new WriteRequest(logOperation, session, data);
+        writeDataFileRunnable.putRequest(writeRequest);
+        return writeRequest.waitForWrite();
     }
 
-    private boolean findTimeoutAndSave() throws IOException {
-        List<GlobalSession> globalSessionsOverMaxTimeout =
-            sessionManager.findGlobalSessions(new SessionCondition(MAX_TRX_TIMEOUT_MILLS));
-        if (CollectionUtils.isEmpty(globalSessionsOverMaxTimeout)) {
-            return true;
-        }
-        List<byte[]> listBytes = new ArrayList<>();
-        int totalSize = 0;
-        // 1. find all data and merge
-        for (GlobalSession globalSession : globalSessionsOverMaxTimeout) {
-            TransactionWriteStore globalWriteStore = new TransactionWriteStore(globalSession, LogOperation.GLOBAL_ADD);
-            byte[] data = globalWriteStore.encode();
-            listBytes.add(data);
-            totalSize += data.length + INT_BYTE_SIZE;
-            List<BranchSession> branchSessIonsOverMaXTimeout = globalSession.getSortedBranches();
-            if (null != branchSessIonsOverMaXTimeout) {
-                for (BranchSession branchSession : branchSessIonsOverMaXTimeout) {
-                    TransactionWriteStore branchWriteStore =
-                        new TransactionWriteStore(branchSession, LogOperation.BRANCH_ADD);
-                    data = branchWriteStore.encode();
-                    listBytes.add(data);
-                    totalSize += data.length + INT_BYTE_SIZE;
-                }
+    @Override
+    public boolean writeSessions(LogOperation logOperation, List<? extends SessionStorable> sessions) {
+        List<WriteRequest> writeRequests = new ArrayList<>(sessions.size());
+        for (SessionStorable session : sessions) {
+            byte[] data;
+            try {
+                data = new TransactionWriteStore(session, logOperation).encode();
+            } catch (Exception exx) {
+                LOGGER.error("writeSession error," + exx.getMessage());
+                return false;
             }
+            if (data == null || data.length > MAX_DATA_SIZE) {
+                return false;
+            }
+            writeRequests.add(new WriteRequest(logOperation, session, data));
         }
-        // 2. batch write
-        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(totalSize);
-        for (byte[] bytes : listBytes) {
-            byteBuffer.putInt(bytes.length);
-            byteBuffer.put(bytes);
+        // queued back to back, so that the writer appends and flushes them in one batch
+        for (WriteRequest writeRequest : writeRequests) {
+            writeDataFileRunnable.putRequest(writeRequest);
         }
-        if (writeDataFileByBuffer(byteBuffer)) {
-            currFileChannel.force(false);
-            return true;
+        boolean result = true;
+        for (WriteRequest writeRequest : writeRequests) {
+            result &= writeRequest.waitForWrite();
+        }
+        return result;
+    }
+
+    @Override
+    public void checkpoint(Collection<GlobalSession> globalSessions) {
+        CheckpointRequest checkpointRequest = new CheckpointRequest(new ArrayList<>(globalSessions));
+        writeDataFileRunnable.putRequest(checkpointRequest);
+        if (!checkpointRequest.waitForWrite()) {
+            LOGGER.error("checkpoint of the restored sessions failed, the former data files are kept");
         }
-        return false;
     }
 
     @Override
@@ -273,9 +373,11 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public void shutdown() {
+        boolean writerTerminated = true;
         if (null != fileWriteExecutor) {
             fileWriteExecutor.shutdown();
             stopping = true;
+            LockSupport.unpark(writeDataFileRunnable.writerThread);
             int retry = 0;
             while (!fileWriteExecutor.isTerminated() && retry < MAX_SHUTDOWN_RETRY) {
                 ++retry;
@@ -284,56 +386,106 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
                 } catch (InterruptedException ignore) {
                 }
             }
-            if (retry >= MAX_SHUTDOWN_RETRY) {
+            if (!fileWriteExecutor.isTerminated()) {
                 fileWriteExecutor.shutdownNow();
+                try {
+                    writerTerminated = fileWriteExecutor.awaitTermination(SHUTDOWN_CHECK_INTERNAL,
+                        TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                    writerTerminated = fileWriteExecutor.isTerminated();
+                }
             }
         }
-        try {
-            currFileChannel.force(true);
-        } catch (IOException e) {
-            LOGGER.error("filechannel force error", e);
+        if (writerTerminated) {
+            flush();
+            for (LogSegment segment : segments.values()) {
+                segment.close();
+            }
+        } else {
+            // unmapping a segment the writer still writes to would crash the jvm
+            LOGGER.error("the file writer did not stop, its segments are left open");
+        }
+        if (null != recoverExecutor) {
+            recoverExecutor.shutdownNow();
         }
-        closeFile(currRaf);
     }
 
     @Override
     public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
-        File file = null;
-        long currentOffset = 0;
-        if (isHistory) {
-            file = new File(hisFullFileName);
-            currentOffset = recoverHisOffset;
-        } else {
-            file = new File(currFullFileName);
-            currentOffset = recoverCurrOffset;
-        }
-        if (file.exists()) {
-            return parseDataFile(file, readSize, currentOffset);
-        }
-        return null;
+        return isHistory ? readLegacyFiles(readSize) : readSegments(readSize);
     }
 
     @Override
     public boolean hasRemaining(boolean isHistory) {
-        File file = null;
-        RandomAccessFile raf = null;
-        long currentOffset = 0;
         if (isHistory) {
-            file = new File(hisFullFileName);
-            currentOffset = recoverHisOffset;
-        } else {
-            file = new File(currFullFileName);
-            currentOffset = recoverCurrOffset;
+            while (legacyFileIndex < legacyFiles.size()) {
+                if (recoverLegacyOffset < legacyFiles.get(legacyFileIndex).length()) {
+                    return true;
+                }
+                legacyFileIndex++;
+                recoverLegacyOffset = 0;
+            }
+            return false;
         }
-        try {
-            raf = new RandomAccessFile(file, "r");
-            return currentOffset < raf.length();
+        return decodedPos < decoded.size() || consumedSegments < recoverSegments.size();
+    }
 
-        } catch (IOException ignore) {
+    private List<TransactionWriteStore> readLegacyFiles(int readSize) {
+        if (!hasRemaining(true)) {
+            return Collections.emptyList();
+        }
+        File file = legacyFiles.get(legacyFileIndex);
+        List<TransactionWriteStore> transactionWriteStores = parseDataFile(file, readSize, recoverLegacyOffset);
+        if (transactionWriteStores == null || transactionWriteStores.size() < readSize) {
+            // the end of the file, or a broken record
+            recoverLegacyOffset = file.length();
+        }
+        return transactionWriteStores == null ? Collections.emptyList() : transactionWriteStores;
+    }
+
+    private List<TransactionWriteStore> readSegments(int readSize) {
+        while (decodedPos >= decoded.size()) {
+            if (consumedSegments >= recoverSegments.size()) {
+                return Collections.emptyList();
+            }
+            decoded = nextDecodedSegment();
+            decodedPos = 0;
+        }
+        int end = Math.min(decoded.size(), decodedPos + readSize);
+        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(decoded.subList(decodedPos, end));
+        decodedPos = end;
+        return transactionWriteStores;
+    }
+
+    /**
+     * Take the next decoded segment, the following segments are decoded in parallel meanwhile.
+     */
+    private List<TransactionWriteStore> nextDecodedSegment() {
+        if (recoverExecutor == null) {
+            int threads = Math.max(1, Math.min(RECOVER_THREADS, recoverSegments.size()));
+            recoverExecutor = new ThreadPoolExecutor(threads, threads, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("fileStoreRecover", threads));
+        }
+        while (decoding.size() < RECOVER_THREADS * 2 && submittedSegments < recoverSegments.size()) {
+            File file = LogSegment.fileOf(currFullFileName, recoverSegments.get(submittedSegments++));
+            decoding.add(recoverExecutor.submit(() -> LogSegment.decode(file)));
+        }
+        Future<List<TransactionWriteStore>> future = decoding.poll();
+        consumedSegments++;
+        try {
+            return future.get();
+        } catch (ExecutionException exx) {
+            LOGGER.error("decode segment error:" + exx.getCause().getMessage());
+            return Collections.emptyList();
+        } catch (InterruptedException exx) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
         } finally {
-            closeFile(raf);
+            if (consumedSegments >= recoverSegments.size()) {
+                recoverExecutor.shutdown();
+            }
         }
-        return false;
     }
 
     private List<TransactionWriteStore> parseDataFile(File file, int readSize, long currentOffset) {
@@ -380,11 +532,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         } finally {
             try {
                 if (null != fileChannel) {
-                    if (isHisFile(file)) {
-                        recoverHisOffset = fileChannel.position();
-                    } else {
-                        recoverCurrOffset = fileChannel.position();
-                    }
+                    recoverLegacyOffset = fileChannel.position();
                 }
                 closeFile(raf);
             } catch (IOException exx) {
@@ -394,11 +542,6 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     }
 
-    private boolean isHisFile(File file) {
-
-        return file.getName().endsWith(HIS_DATA_FILENAME_POSTFIX);
-    }
-
     private void closeFile(RandomAccessFile raf) {
         try {
             if (null != raf) {
@@ -410,204 +553,372 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         }
     }
 
-    private boolean writeDataFile(byte[] bs) {
-        if (bs == null || bs.length >= Integer.MAX_VALUE - 3) {
+    private void flush() {
+        try {
+            head.force();
+        } catch (RuntimeException exx) {
+            LOGGER.error("flush error:" + exx.getMessage());
+        }
+        flushedNum = writtenNum;
+        lastFlushTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Append one record at the head of the log, rolling to a new segment when the head is full.
+     */
+    private boolean append(LogOperation logOperation, long transactionId, String xid, byte[] data) {
+        if (!head.hasRoom(data.length) && !roll()) {
             return false;
         }
-        ByteBuffer byteBuffer = null;
+        head.append(data);
+        writtenNum++;
+        if (logOperation == LogOperation.GLOBAL_REMOVE) {
+            LiveSession liveSession = liveSessions.remove(transactionId);
+            if (liveSession != null) {
+                unpin(liveSession.segmentIndex);
+            }
+        } else if (!liveSessions.containsKey(transactionId)) {
+            liveSessions.put(transactionId, new LiveSession(xid, head.getIndex()));
+            pinnedSegments.merge(head.getIndex(), 1, Integer::sum);
+        }
+        return true;
+    }
 
-        if (bs.length + 4 > MAX_WRITE_BUFFER_SIZE) {
-            //allocateNew
-            byteBuffer = ByteBuffer.allocateDirect(bs.length + 4);
-        } else {
-            byteBuffer = writeBuffer;
-            //recycle
-            byteBuffer.clear();
+    private void unpin(long segmentIndex) {
+        pinnedSegments.computeIfPresent(segmentIndex, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+    private boolean appendSession(GlobalSession globalSession) {
+        boolean result = appendStore(new TransactionWriteStore(globalSession, LogOperation.GLOBAL_ADD),
+            globalSession.getTransactionId(), globalSession.getXid());
+        for (BranchSession branchSession : globalSession.getSortedBranches()) {
+            result &= appendStore(new TransactionWriteStore(branchSession, LogOperation.BRANCH_ADD),
+                globalSession.getTransactionId(), globalSession.getXid());
+        }
+        return result;
+    }
+
+    private boolean appendStore(TransactionWriteStore writeStore, long transactionId, String xid) {
+        byte[] data;
+        try {
+            data = writeStore.encode();
+        } catch (Exception exx) {
+            LOGGER.error("encode session error," + exx.getMessage());
+            return false;
+        }
+        if (data == null || data.length > MAX_DATA_SIZE) {
+            return false;
         }
+        return append(writeStore.getOperate(), transactionId, xid, data);
+    }
 
-        byteBuffer.putInt(bs.length);
-        byteBuffer.put(bs);
-        return writeDataFileByBuffer(byteBuffer);
+    private boolean roll() {
+        LogSegment next;
+        try {
+            next = LogSegment.create(currFullFileName, head.getIndex() + 1, SEGMENT_SIZE);
+        } catch (IOException exx) {
+            LOGGER.error("create segment error," + exx.getMessage());
+            return false;
+        }
+        flush();
+        head.close();
+        head = next;
+        segments.put(next.getIndex(), next);
+        saveIndex();
+        compact();
+        return true;
     }
 
-    private boolean writeDataFileByBuffer(ByteBuffer byteBuffer) {
-        byteBuffer.flip();
-        for (int retry = 0; retry < MAX_WRITE_RETRY; retry++) {
-            try {
-                while (byteBuffer.hasRemaining()) {
-                    currFileChannel.write(byteBuffer);
+    /**
+     * Drop the segments whose sessions have all ended, after moving the long running sessions which hold the oldest
+     * segments to the head of the log.
+     */
+    private void compact() {
+        if (compacting) {
+            return;
+        }
+        compacting = true;
+        try {
+            long now = System.currentTimeMillis();
+            while (!pinnedSegments.isEmpty()) {
+                long oldest = pinnedSegments.firstKey();
+                LogSegment segment = segments.get(oldest);
+                if (oldest == head.getIndex() || segment == null
+                    || now - segment.getCreateTime() < MAX_TRX_TIMEOUT_MILLS) {
+                    break;
                 }
-                return true;
-            } catch (IOException exx) {
-                LOGGER.error("write data file error:" + exx.getMessage());
+                relocate(oldest);
+            }
+            long keepFrom = pinnedSegments.isEmpty() ? head.getIndex() : Math.min(pinnedSegments.firstKey(),
+                head.getIndex());
+            List<LogSegment> dropped = new ArrayList<>(segments.headMap(keepFrom).values());
+            if (dropped.isEmpty()) {
+                return;
+            }
+            segments.headMap(keepFrom).clear();
+            if (!saveIndex()) {
+                for (LogSegment segment : dropped) {
+                    segments.put(segment.getIndex(), segment);
+                }
+                return;
             }
+            for (LogSegment segment : dropped) {
+                segment.close();
+                deleteFile(LogSegment.fileOf(currFullFileName, segment.getIndex()));
+            }
+        } finally {
+            compacting = false;
         }
-        LOGGER.error("write dataFile failed,retry more than :" + MAX_WRITE_RETRY);
-        return false;
     }
 
-    interface StoreRequest {
-
+    private void relocate(long segmentIndex) {
+        List<LiveSession> relocated = new ArrayList<>();
+        Iterator<LiveSession> iterator = liveSessions.values().iterator();
+        while (iterator.hasNext()) {
+            LiveSession liveSession = iterator.next();
+            if (liveSession.segmentIndex == segmentIndex) {
+                relocated.add(liveSession);
+                iterator.remove();
+            }
+        }
+        pinnedSegments.remove(segmentIndex);
+        for (LiveSession liveSession : relocated) {
+            GlobalSession globalSession = sessionManager == null ? null : sessionManager.findGlobalSession(
+                liveSession.xid);
+            if (globalSession != null) {
+                appendSession(globalSession);
+            }
+        }
     }
 
-    abstract class AbstractFlushRequest implements StoreRequest {
-        private final long curFileTrxNum;
+    private void doCheckpoint(CheckpointRequest checkpointRequest) {
+        boolean result = true;
+        for (GlobalSession globalSession : checkpointRequest.globalSessions) {
+            result &= appendSession(globalSession);
+        }
+        flush();
+        if (result) {
+            List<Long> dropped = new ArrayList<>(recoveredSegments);
+            recoveredSegments.clear();
+            if (saveIndex()) {
+                for (Long segmentIndex : dropped) {
+                    deleteFile(LogSegment.fileOf(currFullFileName, segmentIndex));
+                }
+                for (File legacyFile : legacyFiles) {
+                    deleteFile(legacyFile);
+                }
+            } else {
+                recoveredSegments.addAll(dropped);
+                result = false;
+            }
+        }
+        checkpointRequest.wakeupWritten(result);
+        checkpointRequest.wakeupFlushed();
+    }
 
-        private final FileChannel curFileChannel;
+    /**
+     * The live session first written into a segment.
+     */
+    private static class LiveSession {
 
-        protected AbstractFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            this.curFileTrxNum = curFileTrxNum;
-            this.curFileChannel = curFileChannel;
-        }
+        private final String xid;
 
-        public long getCurFileTrxNum() {
-            return curFileTrxNum;
-        }
+        private final long segmentIndex;
 
-        public FileChannel getCurFileChannel() {
-            return curFileChannel;
+        LiveSession(String xid, long segmentIndex) {
+            this.xid = xid;
+            this.segmentIndex = segmentIndex;
         }
     }
 
-    class SyncFlushRequest extends AbstractFlushRequest {
+    /**
+     * The request handed over to the writer thread.
+     */
+    abstract class AbstractStoreRequest {
 
-        private final CountDownLatch countDownLatch = new CountDownLatch(1);
+        volatile boolean writeResult;
 
-        public SyncFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            super(curFileTrxNum, curFileChannel);
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        private final CountDownLatch flushed = new CountDownLatch(1);
+
+        void wakeupWritten(boolean result) {
+            this.writeResult = result;
+            this.written.countDown();
         }
 
-        public void wakeupCustomer() {
-            this.countDownLatch.countDown();
+        void wakeupFlushed() {
+            this.flushed.countDown();
         }
 
-        public void waitForFlush(long timeout) {
+        /**
+         * Wait until the request is written, and flushed in sync flush disk mode.
+         *
+         * @return true if the request is written
+         */
+        boolean waitForWrite() {
             try {
-                this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
+                while (!written.await(MAX_WAIT_TIME_MILLS, TimeUnit.MILLISECONDS)) {
+                    if (writeDataFileRunnable.isTerminated()) {
+                        return false;
+                    }
+                }
+                if (writeResult && FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+                    flushed.await(MAX_WAIT_FOR_FLUSH_TIME_MILLS, TimeUnit.MILLISECONDS);
+                }
             } catch (InterruptedException e) {
                 LOGGER.error("Interrupted", e);
             }
+            return writeResult;
         }
     }
 
-    class AsyncFlushRequest extends AbstractFlushRequest {
-
-        public AsyncFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            super(curFileTrxNum, curFileChannel);
-        }
+    /**
+     * The request of writing one encoded session.
+     */
+    class WriteRequest extends AbstractStoreRequest {
 
-    }
+        private final LogOperation logOperation;
 
-    class CloseFileRequest implements StoreRequest {
+        private final long transactionId;
 
-        private FileChannel fileChannel;
+        private final String xid;
 
-        private RandomAccessFile file;
+        private final byte[] data;
 
-        public CloseFileRequest(FileChannel fileChannel, RandomAccessFile file) {
-            this.fileChannel = fileChannel;
-            this.file = file;
+        WriteRequest(LogOperation logOperation, SessionStorable session, byte[] data) {
+            this.logOperation = logOperation;
+            if (session instanceof BranchSession) {
+                this.transactionId = ((BranchSession)session).getTransactionId();
+                this.xid = ((BranchSession)session).getXid();
+            } else {
+                this.transactionId = ((GlobalSession)session).getTransactionId();
+                this.xid = ((GlobalSession)session).getXid();
+            }
+            this.data = data;
         }
+    }
 
-        public FileChannel getFileChannel() {
-            return fileChannel;
-        }
+    /**
+     * The request of writing the restored sessions and dropping the data they were restored from.
+     */
+    class CheckpointRequest extends AbstractStoreRequest {
+
+        private final List<GlobalSession> globalSessions;
 
-        public RandomAccessFile getFile() {
-            return file;
+        CheckpointRequest(List<GlobalSession> globalSessions) {
+            this.globalSessions = globalSessions;
         }
     }
 
     /**
      * The type Write data file runnable.
+     * <p>
+     * The only thread writing the log: callers append their encoded sessions to a lock free queue, the writer
+     * drains them in batches, copies each batch into the mapped head segment, flushes it with one force() in sync
+     * flush disk mode, then wakes up all the callers of the batch.
      */
     class WriteDataFileRunnable implements Runnable {
 
-        private LinkedBlockingQueue<StoreRequest> storeRequests = new LinkedBlockingQueue<>();
+        private final ConcurrentLinkedQueue<AbstractStoreRequest> storeRequests = new ConcurrentLinkedQueue<>();
+
+        private final List<AbstractStoreRequest> batch = new ArrayList<>();
+
+        private volatile Thread writerThread;
+
+        private volatile boolean terminated = false;
+
+        public void putRequest(final AbstractStoreRequest request) {
+            storeRequests.offer(request);
+            LockSupport.unpark(writerThread);
+        }
 
-        public void putRequest(final StoreRequest request) {
-            storeRequests.add(request);
+        public boolean isTerminated() {
+            return terminated;
         }
 
         @Override
         public void run() {
-            while (!stopping) {
-                try {
-                    StoreRequest storeRequest = storeRequests.poll(MAX_WAIT_TIME_MILLS, TimeUnit.MILLISECONDS);
-                    handleStoreRequest(storeRequest);
-                } catch (Exception exx) {
-                    LOGGER.error("write file error: {}", exx.getMessage(), exx);
+            writerThread = Thread.currentThread();
+            try {
+                while (!stopping) {
+                    try {
+                        boolean written = writeBatch();
+                        flushOnCondition();
+                        if (!written) {
+                            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_TIME_MILLS));
+                        }
+                    } catch (Exception exx) {
+                        LOGGER.error("write file error: {}", exx.getMessage(), exx);
+                    }
                 }
+                handleRestRequest();
+            } finally {
+                terminated = true;
             }
-            handleRestRequest();
         }
 
         /**
          * handle the rest requests when stopping is true
          */
         private void handleRestRequest() {
-            int remainNums = storeRequests.size();
-            for (int i = 0; i < remainNums; i++) {
-                handleStoreRequest(storeRequests.poll());
+            while (writeBatch()) {
+                // drain until empty
             }
         }
 
-        private void handleStoreRequest(StoreRequest storeRequest) {
-            if (storeRequest == null) {
-                flushOnCondition(currFileChannel);
-            }
-            if (storeRequest instanceof SyncFlushRequest) {
-                syncFlush((SyncFlushRequest)storeRequest);
-            } else if (storeRequest instanceof AsyncFlushRequest) {
-                async((AsyncFlushRequest)storeRequest);
-            } else if (storeRequest instanceof CloseFileRequest) {
-                closeAndFlush((CloseFileRequest)storeRequest);
+        /**
+         * Write one batch of the queued requests.
+         *
+         * @return false if there is nothing to write
+         */
+        private boolean writeBatch() {
+            AbstractStoreRequest request = storeRequests.poll();
+            if (request == null) {
+                return false;
             }
+            do {
+                if (request instanceof CheckpointRequest) {
+                    finishBatch();
+                    doCheckpoint((CheckpointRequest)request);
+                } else {
+                    WriteRequest writeRequest = (WriteRequest)request;
+                    writeRequest.writeResult = append(writeRequest.logOperation, writeRequest.transactionId,
+                        writeRequest.xid, writeRequest.data);
+                    batch.add(writeRequest);
+                }
+            } while (batch.size() < MAX_BATCH_SIZE && (request = storeRequests.poll()) != null);
+            finishBatch();
+            return true;
         }
 
-        private void closeAndFlush(CloseFileRequest req) {
-            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-            flush(req.getFileChannel());
-            FILE_FLUSH_NUM.addAndGet(diff);
-            closeFile(currRaf);
-        }
-
-        private void async(AsyncFlushRequest req) {
-            if (req.getCurFileTrxNum() < FILE_FLUSH_NUM.get()) {
-                flushOnCondition(req.getCurFileChannel());
+        private void finishBatch() {
+            if (batch.isEmpty()) {
+                return;
             }
-        }
-
-        private void syncFlush(SyncFlushRequest req) {
-            if (req.getCurFileTrxNum() < FILE_FLUSH_NUM.get()) {
-                long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-                flush(req.getCurFileChannel());
-                FILE_FLUSH_NUM.addAndGet(diff);
+            for (AbstractStoreRequest request : batch) {
+                request.wakeupWritten(request.writeResult);
             }
-            // notify
-            req.wakeupCustomer();
+            if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL && writtenNum != flushedNum) {
+                flush();
+            }
+            for (AbstractStoreRequest request : batch) {
+                request.wakeupFlushed();
+            }
+            batch.clear();
         }
 
-        private void flushOnCondition(FileChannel fileChannel) {
+        private void flushOnCondition() {
             if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
                 return;
             }
-            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
+            long diff = writtenNum - flushedNum;
             if (diff == 0) {
                 return;
             }
-            if (diff % MAX_FLUSH_NUM == 0 ||
-                System.currentTimeMillis() - lastModifiedTime > MAX_FLUSH_TIME_MILLS) {
-                flush(fileChannel);
-                FILE_FLUSH_NUM.addAndGet(diff);
-            }
-        }
-
-        private void flush(FileChannel fileChannel) {
-            try {
-                fileChannel.force(false);
-            } catch (IOException exx) {
-                LOGGER.error("flush error:" + exx.getMessage());
+            if (diff >= MAX_FLUSH_NUM ||
+                System.currentTimeMillis() - lastFlushTime > MAX_FLUSH_TIME_MILLS) {
+                flush();
             }
         }
     }
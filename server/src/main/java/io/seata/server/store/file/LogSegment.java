@@ -0,0 +1,221 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import io.netty.util.internal.PlatformDependent;
+import io.seata.server.store.TransactionWriteStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One fixed size, memory mapped segment of the session log.
+ * <p>
+ * A segment is a sequence of records [length][crc32 of data][data] followed by zeros: a zero length, a length
+ * beyond the segment or a crc mismatch marks the end of the segment.
+ */
+class LogSegment {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogSegment.class);
+
+    /**
+     * The size of the record header: length and crc.
+     */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private final long index;
+
+    private final File file;
+
+    private final long createTime = System.currentTimeMillis();
+
+    private RandomAccessFile raf;
+
+    private MappedByteBuffer buffer;
+
+    private final CRC32 crc32 = new CRC32();
+
+    private LogSegment(long index, File file) {
+        this.index = index;
+        this.file = file;
+    }
+
+    /**
+     * Create a new segment file and map it for writing.
+     *
+     * @param baseName the full file name the segments are named after
+     * @param index    the index of the segment
+     * @param size     the size of the segment
+     * @return the log segment
+     * @throws IOException the io exception
+     */
+    static LogSegment create(String baseName, long index, int size) throws IOException {
+        LogSegment segment = new LogSegment(index, fileOf(baseName, index));
+        segment.raf = new RandomAccessFile(segment.file, "rw");
+        try {
+            segment.raf.setLength(size);
+            segment.buffer = segment.raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException exx) {
+            segment.close();
+            throw exx;
+        }
+        return segment;
+    }
+
+    /**
+     * The file of the segment with the given index.
+     *
+     * @param baseName the full file name the segments are named after
+     * @param index    the index of the segment
+     * @return the file
+     */
+    static File fileOf(String baseName, long index) {
+        return new File(baseName + "-" + String.format("%020d", index));
+    }
+
+    /**
+     * Parse the segment index out of a segment file name.
+     *
+     * @param baseFileName the file name (without directory) the segments are named after
+     * @param fileName     the file name to parse
+     * @return the index, -1 if the file is not a segment
+     */
+    static long indexOf(String baseFileName, String fileName) {
+        String prefix = baseFileName + "-";
+        if (!fileName.startsWith(prefix) || fileName.length() != prefix.length() + 20) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Whether a record of the given data length fits in the rest of the segment.
+     *
+     * @param dataLength the data length
+     * @return the boolean
+     */
+    boolean hasRoom(int dataLength) {
+        return buffer.remaining() >= RECORD_HEADER_SIZE + dataLength;
+    }
+
+    /**
+     * Append one record.
+     *
+     * @param data the data
+     */
+    void append(byte[] data) {
+        crc32.reset();
+        crc32.update(data, 0, data.length);
+        buffer.putInt(data.length);
+        buffer.putInt((int)crc32.getValue());
+        buffer.put(data);
+    }
+
+    /**
+     * Force the written records to the disk.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Close the file of the segment and unmap it, so that the disk space of a deleted segment is freed at once rather
+     * than when the gc gets to the mapping. The segment must not be written to anymore.
+     */
+    void close() {
+        if (buffer != null) {
+            MappedByteBuffer mapped = buffer;
+            buffer = null;
+            PlatformDependent.freeDirectBuffer(mapped);
+        }
+        try {
+            if (raf != null) {
+                raf.close();
+                raf = null;
+            }
+        } catch (IOException exx) {
+            LOGGER.error("file close error," + exx.getMessage());
+        }
+    }
+
+    long getIndex() {
+        return index;
+    }
+
+    long getCreateTime() {
+        return createTime;
+    }
+
+    /**
+     * Decode all the valid records of a segment file.
+     *
+     * @param file the segment file
+     * @return the decoded records in order
+     * @throws IOException the io exception
+     */
+    static List<TransactionWriteStore> decode(File file) throws IOException {
+        MappedByteBuffer mapped;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            mapped = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        try {
+            return decode(file, mapped);
+        } finally {
+            PlatformDependent.freeDirectBuffer(mapped);
+        }
+    }
+
+    private static List<TransactionWriteStore> decode(File file, MappedByteBuffer mapped) {
+        List<TransactionWriteStore> writeStores = new ArrayList<>();
+        CRC32 crc32 = new CRC32();
+        while (mapped.remaining() >= RECORD_HEADER_SIZE) {
+            int length = mapped.getInt();
+            if (length == 0) {
+                break;
+            }
+            int crc = mapped.getInt();
+            if (length < 0 || length > mapped.remaining()) {
+                LOGGER.warn("truncated record at {} of {}", mapped.position() - RECORD_HEADER_SIZE, file.getName());
+                break;
+            }
+            byte[] data = new byte[length];
+            mapped.get(data);
+            crc32.reset();
+            crc32.update(data, 0, length);
+            if ((int)crc32.getValue() != crc) {
+                LOGGER.warn("crc mismatch at {} of {}", mapped.position() - length - RECORD_HEADER_SIZE,
+                    file.getName());
+                break;
+            }
+            TransactionWriteStore writeStore = new TransactionWriteStore();
+            writeStore.decode(data);
+            writeStores.add(writeStore);
+        }
+        return writeStores;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.redis;
+
+import io.seata.common.util.StringUtils;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Protocol;
+
+/**
+ * The jedis pool of the redis store, shared by the session and lock stores.
+ */
+public class JedisPooledFactory {
+
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+    private static final String DEFAULT_HOST = "127.0.0.1";
+
+    private static final int DEFAULT_PORT = 6379;
+
+    private static final int DEFAULT_MIN_CONN = 1;
+
+    private static final int DEFAULT_MAX_CONN = 10;
+
+    private static volatile JedisPool jedisPool;
+
+    private JedisPooledFactory() {
+    }
+
+    /**
+     * Get the jedis pool, created from the store.redis configuration on first use.
+     *
+     * @return the jedis pool
+     */
+    public static JedisPool getJedisPoolInstance() {
+        if (jedisPool == null) {
+            synchronized (JedisPooledFactory.class) {
+                if (jedisPool == null) {
+                    JedisPoolConfig poolConfig = new JedisPoolConfig();
+                    int maxConn = CONFIG.getInt(ConfigurationKeys.STORE_REDIS_MAX_CONN, DEFAULT_MAX_CONN);
+                    poolConfig.setMinIdle(CONFIG.getInt(ConfigurationKeys.STORE_REDIS_MIN_CONN, DEFAULT_MIN_CONN));
+                    poolConfig.setMaxIdle(maxConn);
+                    poolConfig.setMaxTotal(maxConn);
+                    String password = CONFIG.getConfig(ConfigurationKeys.STORE_REDIS_PASSWORD);
+                    jedisPool = new JedisPool(poolConfig,
+                        CONFIG.getConfig(ConfigurationKeys.STORE_REDIS_HOST, DEFAULT_HOST),
+                        CONFIG.getInt(ConfigurationKeys.STORE_REDIS_PORT, DEFAULT_PORT), Protocol.DEFAULT_TIMEOUT,
+                        StringUtils.isBlank(password) ? null : password,
+                        CONFIG.getInt(ConfigurationKeys.STORE_REDIS_DATABASE, Protocol.DEFAULT_DATABASE));
+                }
+            }
+        }
+        return jedisPool;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.redis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.util.CollectionUtils;
+import io.seata.core.constants.ServerTableColumnsName;
+import io.seata.core.store.LockDO;
+import io.seata.core.store.LockStore;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * The redis lock store.
+ * <p>
+ * A row lock is a hash keyed by its row key, with the columns of the lock table as fields. The locks of a request are
+ * checked and taken by one lua script, so they are acquired all or nothing, atomically.
+ */
+public class LockStoreRedisDAO implements LockStore {
+
+    /**
+     * The key prefix of the row locks.
+     */
+    public static final String LOCK_KEY_PREFIX = "SEATA_ROW_LOCK_";
+
+    private static final int ACQUIRE_ARGS_PER_LOCK = 7;
+
+    /**
+     * KEYS: locks. ARGV per lock: xid, transaction id, branch id, resource id, table name, pk, row key.
+     */
+    private static final RedisScript ACQUIRE_LOCKS_SCRIPT = new RedisScript(
+        "for i, key in ipairs(KEYS) do\n"
+            + "  local owner = redis.call('HGET', key, '" + ServerTableColumnsName.LOCK_TABLE_XID + "')\n"
+            + "  if owner and owner ~= ARGV[(i - 1) * " + ACQUIRE_ARGS_PER_LOCK + " + 1] then\n"
+            + "    return 0\n"
+            + "  end\n"
+            + "end\n"
+            + "for i, key in ipairs(KEYS) do\n"
+            + "  if redis.call('EXISTS', key) == 0 then\n"
+            + "    local p = (i - 1) * " + ACQUIRE_ARGS_PER_LOCK + "\n"
+            + "    redis.call('HMSET', key, '" + ServerTableColumnsName.LOCK_TABLE_XID + "', ARGV[p + 1], '"
+            + ServerTableColumnsName.LOCK_TABLE_TRANSACTION_ID + "', ARGV[p + 2], '"
+            + ServerTableColumnsName.LOCK_TABLE_BRANCH_ID + "', ARGV[p + 3], '"
+            + ServerTableColumnsName.LOCK_TABLE_RESOURCE_ID + "', ARGV[p + 4], '"
+            + ServerTableColumnsName.LOCK_TABLE_TABLE_NAME + "', ARGV[p + 5], '"
+            + ServerTableColumnsName.LOCK_TABLE_PK + "', ARGV[p + 6], '"
+            + ServerTableColumnsName.LOCK_TABLE_ROW_KEY + "', ARGV[p + 7])\n"
+            + "  end\n"
+            + "end\n"
+            + "return 1");
+
+    /**
+     * KEYS: locks. ARGV: the xid of each lock, a lock held by another transaction is left alone.
+     */
+    private static final RedisScript RELEASE_LOCKS_SCRIPT = new RedisScript(
+        "for i, key in ipairs(KEYS) do\n"
+            + "  if redis.call('HGET', key, '" + ServerTableColumnsName.LOCK_TABLE_XID + "') == ARGV[i] then\n"
+            + "    redis.call('DEL', key)\n"
+            + "  end\n"
+            + "end\n"
+            + "return 1");
+
+    private final JedisPool jedisPool;
+
+    /**
+     * Instantiates a new Lock store redis dao.
+     *
+     * @param jedisPool the jedis pool
+     */
+    public LockStoreRedisDAO(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    @Override
+    public boolean acquireLock(LockDO lockDO) {
+        return acquireLock(Collections.singletonList(lockDO));
+    }
+
+    @Override
+    public boolean acquireLock(List<LockDO> lockDOs) {
+        if (CollectionUtils.isEmpty(lockDOs)) {
+            return true;
+        }
+        List<String> keys = new ArrayList<>(lockDOs.size());
+        List<String> args = new ArrayList<>(lockDOs.size() * ACQUIRE_ARGS_PER_LOCK);
+        for (LockDO lockDO : lockDOs) {
+            keys.add(LOCK_KEY_PREFIX + lockDO.getRowKey());
+            args.add(lockDO.getXid());
+            args.add(String.valueOf(lockDO.getTransactionId()));
+            args.add(String.valueOf(lockDO.getBranchId()));
+            args.add(lockDO.getResourceId());
+            args.add(lockDO.getTableName());
+            args.add(lockDO.getPk());
+            args.add(lockDO.getRowKey());
+        }
+        Object result = execute(jedis -> ACQUIRE_LOCKS_SCRIPT.eval(jedis, keys, args));
+        return result instanceof Long && (Long)result == 1L;
+    }
+
+    @Override
+    public boolean unLock(LockDO lockDO) {
+        return unLock(Collections.singletonList(lockDO));
+    }
+
+    @Override
+    public boolean unLock(List<LockDO> lockDOs) {
+        if (CollectionUtils.isEmpty(lockDOs)) {
+            return true;
+        }
+        List<String> keys = new ArrayList<>(lockDOs.size());
+        List<String> args = new ArrayList<>(lockDOs.size());
+        for (LockDO lockDO : lockDOs) {
+            keys.add(LOCK_KEY_PREFIX + lockDO.getRowKey());
+            args.add(lockDO.getXid());
+        }
+        execute(jedis -> RELEASE_LOCKS_SCRIPT.eval(jedis, keys, args));
+        return true;
+    }
+
+    @Override
+    public boolean isLockable(List<LockDO> lockDOs) {
+        if (CollectionUtils.isEmpty(lockDOs)) {
+            return true;
+        }
+        List<String> owners = execute(jedis -> {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<String>> responses = new ArrayList<>(lockDOs.size());
+            for (LockDO lockDO : lockDOs) {
+                responses.add(pipeline.hget(LOCK_KEY_PREFIX + lockDO.getRowKey(),
+                    ServerTableColumnsName.LOCK_TABLE_XID));
+            }
+            pipeline.sync();
+            List<String> xids = new ArrayList<>(responses.size());
+            for (Response<String> response : responses) {
+                xids.add(response.get());
+            }
+            return xids;
+        });
+        for (int i = 0; i < lockDOs.size(); i++) {
+            String owner = owners.get(i);
+            if (owner != null && !owner.equals(lockDOs.get(i).getXid())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> T execute(Function<Jedis, T> action) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return action.apply(jedis);
+        } catch (JedisException e) {
+            throw new StoreException(e);
+        }
+    }
+}
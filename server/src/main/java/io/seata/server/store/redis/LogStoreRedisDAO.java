@@ -0,0 +1,475 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.redis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.StringUtils;
+import io.seata.core.constants.ServerTableColumnsName;
+import io.seata.core.store.BranchTransactionDO;
+import io.seata.core.store.GlobalTransactionDO;
+import io.seata.core.store.LogStore;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * The redis log store.
+ * <p>
+ * A global transaction is a hash keyed by its xid, with the columns of the global table as fields, and a key maps its
+ * transaction id to its xid. A branch transaction is a hash keyed by its branch id, and the branch ids of a global
+ * transaction are listed in the order they were added. Each global status has an index of its transactions, a sorted
+ * set whose members all have the same score and start with the transaction id, so that the retry schedulers page
+ * through it by transaction id and xid. The writes which change several keys are run by lua scripts, and are atomic.
+ * <p>
+ * The scripts compute the key of the status index, so the store needs a standalone redis rather than a cluster.
+ */
+public class LogStoreRedisDAO implements LogStore {
+
+    /**
+     * The key prefix of the global transactions.
+     */
+    public static final String GLOBAL_KEY_PREFIX = "SEATA_GLOBAL_";
+
+    /**
+     * The key prefix of the xids by transaction id.
+     */
+    public static final String TRANSACTION_ID_KEY_PREFIX = "SEATA_TRANSACTION_ID_";
+
+    /**
+     * The key prefix of the global status indexes.
+     */
+    public static final String STATUS_INDEX_KEY_PREFIX = "SEATA_STATUS_";
+
+    /**
+     * The key prefix of the branch transactions.
+     */
+    public static final String BRANCH_KEY_PREFIX = "SEATA_BRANCH_";
+
+    /**
+     * The key prefix of the branch id lists of the global transactions.
+     */
+    public static final String BRANCHES_KEY_PREFIX = "SEATA_BRANCHES_";
+
+    private static final int INDEX_TRANSACTION_ID_LENGTH = 16;
+
+    private static final String INDEX_TRANSACTION_ID_PADDING = "0000000000000000";
+
+    private static final String BRANCH_ADD = "add";
+
+    private static final String BRANCH_UPDATE = "update";
+
+    private static final String BRANCH_DELETE = "delete";
+
+    /**
+     * KEYS: global, transaction id, status index. ARGV: xid, index member, field value pairs.
+     */
+    private static final RedisScript INSERT_GLOBAL_SCRIPT = new RedisScript(
+        "if redis.call('EXISTS', KEYS[1]) == 1 then\n"
+            + "  return 0\n"
+            + "end\n"
+            + "redis.call('HMSET', KEYS[1], unpack(ARGV, 3))\n"
+            + "redis.call('SET', KEYS[2], ARGV[1])\n"
+            + "redis.call('ZADD', KEYS[3], 0, ARGV[2])\n"
+            + "return 1");
+
+    /**
+     * KEYS: global. ARGV: status index key prefix, index member, status, gmt modified.
+     */
+    private static final RedisScript UPDATE_GLOBAL_STATUS_SCRIPT = new RedisScript(
+        "local status = redis.call('HGET', KEYS[1], '" + ServerTableColumnsName.GLOBAL_TABLE_STATUS + "')\n"
+            + "if not status then\n"
+            + "  return 0\n"
+            + "end\n"
+            + "redis.call('ZREM', ARGV[1] .. status, ARGV[2])\n"
+            + "redis.call('ZADD', ARGV[1] .. ARGV[3], 0, ARGV[2])\n"
+            + "redis.call('HMSET', KEYS[1], '" + ServerTableColumnsName.GLOBAL_TABLE_STATUS + "', ARGV[3], '"
+            + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED + "', ARGV[4])\n"
+            + "return 1");
+
+    /**
+     * KEYS: global, transaction id. ARGV: status index key prefix, index member.
+     */
+    private static final RedisScript DELETE_GLOBAL_SCRIPT = new RedisScript(
+        "local status = redis.call('HGET', KEYS[1], '" + ServerTableColumnsName.GLOBAL_TABLE_STATUS + "')\n"
+            + "if not status then\n"
+            + "  return 0\n"
+            + "end\n"
+            + "redis.call('ZREM', ARGV[1] .. status, ARGV[2])\n"
+            + "redis.call('DEL', KEYS[1], KEYS[2])\n"
+            + "return 1");
+
+    /**
+     * KEYS: branch and branch list pairs. ARGV per branch: operation, branch id, number of fields, field value pairs.
+     * Nothing is written if a branch to add exists already, and -1 is returned. Otherwise the number of branches
+     * written is returned, the branches to update or delete which do not exist are skipped.
+     */
+    private static final RedisScript WRITE_BRANCHES_SCRIPT = new RedisScript(
+        "local writes = {}\n"
+            + "local pos = 1\n"
+            + "for i = 1, #KEYS, 2 do\n"
+            + "  if ARGV[pos] == '" + BRANCH_ADD + "' and redis.call('EXISTS', KEYS[i]) == 1 then\n"
+            + "    return -1\n"
+            + "  end\n"
+            + "  writes[#writes + 1] = {i, pos}\n"
+            + "  pos = pos + 3 + 2 * tonumber(ARGV[pos + 2])\n"
+            + "end\n"
+            + "local written = 0\n"
+            + "for _, write in ipairs(writes) do\n"
+            + "  local i, p = write[1], write[2]\n"
+            + "  local last = p + 2 + 2 * tonumber(ARGV[p + 2])\n"
+            + "  if ARGV[p] == '" + BRANCH_ADD + "' then\n"
+            + "    redis.call('HMSET', KEYS[i], unpack(ARGV, p + 3, last))\n"
+            + "    redis.call('RPUSH', KEYS[i + 1], ARGV[p + 1])\n"
+            + "    written = written + 1\n"
+            + "  elseif redis.call('EXISTS', KEYS[i]) == 1 then\n"
+            + "    if ARGV[p] == '" + BRANCH_UPDATE + "' then\n"
+            + "      redis.call('HMSET', KEYS[i], unpack(ARGV, p + 3, last))\n"
+            + "    else\n"
+            + "      redis.call('DEL', KEYS[i])\n"
+            + "      redis.call('LREM', KEYS[i + 1], 0, ARGV[p + 1])\n"
+            + "    end\n"
+            + "    written = written + 1\n"
+            + "  end\n"
+            + "end\n"
+            + "return written");
+
+    private final JedisPool jedisPool;
+
+    /**
+     * Instantiates a new Log store redis dao.
+     *
+     * @param jedisPool the jedis pool
+     */
+    public LogStoreRedisDAO(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    @Override
+    public GlobalTransactionDO queryGlobalTransactionDO(String xid) {
+        return execute(jedis -> convertGlobalTransactionDO(jedis.hgetAll(GLOBAL_KEY_PREFIX + xid)));
+    }
+
+    @Override
+    public GlobalTransactionDO queryGlobalTransactionDO(long transactionId) {
+        return execute(jedis -> {
+            String xid = jedis.get(TRANSACTION_ID_KEY_PREFIX + transactionId);
+            if (xid == null) {
+                return null;
+            }
+            return convertGlobalTransactionDO(jedis.hgetAll(GLOBAL_KEY_PREFIX + xid));
+        });
+    }
+
+    @Override
+    public List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, int limit) {
+        return queryGlobalTransactionDO(status, Long.MIN_VALUE, "", limit);
+    }
+
+    @Override
+    public List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, long afterTransactionId, String afterXid,
+                                                              int limit) {
+        String min = "(" + indexMember(afterTransactionId, afterXid);
+        return execute(jedis -> {
+            List<String> members = new ArrayList<>();
+            for (int s : status) {
+                members.addAll(jedis.zrangeByLex(STATUS_INDEX_KEY_PREFIX + s, min, "+", 0, limit));
+            }
+            if (status.length > 1) {
+                Collections.sort(members);
+                if (members.size() > limit) {
+                    members = members.subList(0, limit);
+                }
+            }
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<Map<String, String>>> responses = new ArrayList<>(members.size());
+            for (String member : members) {
+                responses.add(pipeline.hgetAll(GLOBAL_KEY_PREFIX + member.substring(INDEX_TRANSACTION_ID_LENGTH)));
+            }
+            pipeline.sync();
+            List<GlobalTransactionDO> globalTransactionDOs = new ArrayList<>(responses.size());
+            for (Response<Map<String, String>> response : responses) {
+                GlobalTransactionDO globalTransactionDO = convertGlobalTransactionDO(response.get());
+                // removed since the index was read
+                if (globalTransactionDO != null) {
+                    globalTransactionDOs.add(globalTransactionDO);
+                }
+            }
+            return globalTransactionDOs;
+        });
+    }
+
+    @Override
+    public boolean insertGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String xid = globalTransactionDO.getXid();
+        String now = String.valueOf(System.currentTimeMillis());
+        List<String> args = new ArrayList<>();
+        args.add(xid);
+        args.add(indexMember(globalTransactionDO.getTransactionId(), xid));
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_XID, xid);
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID,
+            String.valueOf(globalTransactionDO.getTransactionId()));
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_STATUS, String.valueOf(globalTransactionDO.getStatus()));
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_APPLICATION_ID, globalTransactionDO.getApplicationId());
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_SERVICE_GROUP,
+            globalTransactionDO.getTransactionServiceGroup());
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_NAME, globalTransactionDO.getTransactionName());
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_TIMEOUT, String.valueOf(globalTransactionDO.getTimeout()));
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_BEGIN_TIME,
+            String.valueOf(globalTransactionDO.getBeginTime()));
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_APPLICATION_DATA, globalTransactionDO.getApplicationData());
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_GMT_CREATE, now);
+        addField(args, ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED, now);
+        List<String> keys = Arrays.asList(GLOBAL_KEY_PREFIX + xid,
+            TRANSACTION_ID_KEY_PREFIX + globalTransactionDO.getTransactionId(),
+            STATUS_INDEX_KEY_PREFIX + globalTransactionDO.getStatus());
+        return execute(jedis -> isOne(INSERT_GLOBAL_SCRIPT.eval(jedis, keys, args)));
+    }
+
+    @Override
+    public boolean updateGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String xid = globalTransactionDO.getXid();
+        List<String> keys = Collections.singletonList(GLOBAL_KEY_PREFIX + xid);
+        List<String> args = Arrays.asList(STATUS_INDEX_KEY_PREFIX,
+            indexMember(globalTransactionDO.getTransactionId(), xid), String.valueOf(globalTransactionDO.getStatus()),
+            String.valueOf(System.currentTimeMillis()));
+        return execute(jedis -> isOne(UPDATE_GLOBAL_STATUS_SCRIPT.eval(jedis, keys, args)));
+    }
+
+    @Override
+    public boolean deleteGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
+        String xid = globalTransactionDO.getXid();
+        List<String> keys = Arrays.asList(GLOBAL_KEY_PREFIX + xid,
+            TRANSACTION_ID_KEY_PREFIX + globalTransactionDO.getTransactionId());
+        List<String> args = Arrays.asList(STATUS_INDEX_KEY_PREFIX,
+            indexMember(globalTransactionDO.getTransactionId(), xid));
+        return execute(jedis -> isOne(DELETE_GLOBAL_SCRIPT.eval(jedis, keys, args)));
+    }
+
+    @Override
+    public List<BranchTransactionDO> queryBranchTransactionDO(String xid) {
+        return queryBranchTransactionDO(Collections.singletonList(xid));
+    }
+
+    @Override
+    public List<BranchTransactionDO> queryBranchTransactionDO(List<String> xids) {
+        if (CollectionUtils.isEmpty(xids)) {
+            return new ArrayList<>();
+        }
+        return execute(jedis -> {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<List<String>>> branchIdResponses = new ArrayList<>(xids.size());
+            for (String xid : xids) {
+                branchIdResponses.add(pipeline.lrange(BRANCHES_KEY_PREFIX + xid, 0, -1));
+            }
+            pipeline.sync();
+            pipeline = jedis.pipelined();
+            List<Response<Map<String, String>>> responses = new ArrayList<>();
+            for (Response<List<String>> branchIdResponse : branchIdResponses) {
+                for (String branchId : branchIdResponse.get()) {
+                    responses.add(pipeline.hgetAll(BRANCH_KEY_PREFIX + branchId));
+                }
+            }
+            pipeline.sync();
+            List<BranchTransactionDO> branchTransactionDOs = new ArrayList<>(responses.size());
+            for (Response<Map<String, String>> response : responses) {
+                BranchTransactionDO branchTransactionDO = convertBranchTransactionDO(response.get());
+                // removed since the list was read
+                if (branchTransactionDO != null) {
+                    branchTransactionDOs.add(branchTransactionDO);
+                }
+            }
+            return branchTransactionDOs;
+        });
+    }
+
+    @Override
+    public boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        return writeBranchTransactionDOs(Collections.singletonList(branchTransactionDO), Collections.emptyList(),
+            Collections.emptyList());
+    }
+
+    @Override
+    public boolean insertBranchTransactionDOs(List<BranchTransactionDO> branchTransactionDOs) {
+        return writeBranchTransactionDOs(branchTransactionDOs, Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Override
+    public boolean writeBranchTransactionDOs(List<BranchTransactionDO> insertDOs, List<BranchTransactionDO> updateDOs,
+                                             List<BranchTransactionDO> deleteDOs) {
+        return writeBranches(insertDOs, updateDOs, deleteDOs) >= 0;
+    }
+
+    @Override
+    public boolean updateBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        return writeBranches(Collections.emptyList(), Collections.singletonList(branchTransactionDO),
+            Collections.emptyList()) > 0;
+    }
+
+    @Override
+    public boolean deleteBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+        return writeBranches(Collections.emptyList(), Collections.emptyList(),
+            Collections.singletonList(branchTransactionDO)) > 0;
+    }
+
+    /**
+     * Write the branches in one script.
+     *
+     * @return the number of branches written, -1 if a branch to insert exists already
+     */
+    private long writeBranches(List<BranchTransactionDO> insertDOs, List<BranchTransactionDO> updateDOs,
+                               List<BranchTransactionDO> deleteDOs) {
+        int size = insertDOs.size() + updateDOs.size() + deleteDOs.size();
+        if (size == 0) {
+            return 0;
+        }
+        String now = String.valueOf(System.currentTimeMillis());
+        List<String> keys = new ArrayList<>(size * 2);
+        List<String> args = new ArrayList<>();
+        for (BranchTransactionDO branchTransactionDO : insertDOs) {
+            addBranchWrite(keys, args, BRANCH_ADD, branchTransactionDO);
+            List<String> fields = new ArrayList<>();
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_XID, branchTransactionDO.getXid());
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_TRANSACTION_ID,
+                String.valueOf(branchTransactionDO.getTransactionId()));
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_BRANCH_XID,
+                String.valueOf(branchTransactionDO.getBranchId()));
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_RESOURCE_GROUP_ID,
+                branchTransactionDO.getResourceGroupId());
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_RESOURCE_ID, branchTransactionDO.getResourceId());
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_LOCK_KEY, branchTransactionDO.getLockKey());
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_BRANCH_TYPE, branchTransactionDO.getBranchType());
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_STATUS,
+                String.valueOf(branchTransactionDO.getStatus()));
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_CLIENT_ID, branchTransactionDO.getClientId());
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_APPLICATION_DATA,
+                branchTransactionDO.getApplicationData());
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_GMT_CREATE, now);
+            addField(fields, ServerTableColumnsName.BRANCH_TABLE_GMT_MODIFIED, now);
+            args.add(String.valueOf(fields.size() / 2));
+            args.addAll(fields);
+        }
+        for (BranchTransactionDO branchTransactionDO : updateDOs) {
+            addBranchWrite(keys, args, BRANCH_UPDATE, branchTransactionDO);
+            args.add("2");
+            addField(args, ServerTableColumnsName.BRANCH_TABLE_STATUS,
+                String.valueOf(branchTransactionDO.getStatus()));
+            addField(args, ServerTableColumnsName.BRANCH_TABLE_GMT_MODIFIED, now);
+        }
+        for (BranchTransactionDO branchTransactionDO : deleteDOs) {
+            addBranchWrite(keys, args, BRANCH_DELETE, branchTransactionDO);
+            args.add("0");
+        }
+        return execute(jedis -> (Long)WRITE_BRANCHES_SCRIPT.eval(jedis, keys, args));
+    }
+
+    private static void addBranchWrite(List<String> keys, List<String> args, String operation,
+                                       BranchTransactionDO branchTransactionDO) {
+        keys.add(BRANCH_KEY_PREFIX + branchTransactionDO.getBranchId());
+        keys.add(BRANCHES_KEY_PREFIX + branchTransactionDO.getXid());
+        args.add(operation);
+        args.add(String.valueOf(branchTransactionDO.getBranchId()));
+    }
+
+    /**
+     * The member of a global transaction in its status index. The transaction id is offset into an unsigned hex
+     * number of fixed length, so that the members sort as the transaction ids then the xids.
+     *
+     * @param transactionId the transaction id
+     * @param xid           the xid
+     * @return the member
+     */
+    static String indexMember(long transactionId, String xid) {
+        String hex = Long.toHexString(transactionId ^ Long.MIN_VALUE);
+        return INDEX_TRANSACTION_ID_PADDING.substring(hex.length()) + hex + xid;
+    }
+
+    private <T> T execute(Function<Jedis, T> action) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return action.apply(jedis);
+        } catch (JedisException e) {
+            throw new StoreException(e);
+        }
+    }
+
+    private static boolean isOne(Object result) {
+        return result instanceof Long && (Long)result == 1L;
+    }
+
+    private static void addField(List<String> args, String field, String value) {
+        // a hash can not hold a null value, a missing field reads as null
+        if (value != null) {
+            args.add(field);
+            args.add(value);
+        }
+    }
+
+    private static GlobalTransactionDO convertGlobalTransactionDO(Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return null;
+        }
+        GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+        globalTransactionDO.setXid(map.get(ServerTableColumnsName.GLOBAL_TABLE_XID));
+        globalTransactionDO.setStatus(Integer.parseInt(map.get(ServerTableColumnsName.GLOBAL_TABLE_STATUS)));
+        globalTransactionDO.setApplicationId(map.get(ServerTableColumnsName.GLOBAL_TABLE_APPLICATION_ID));
+        globalTransactionDO.setBeginTime(Long.parseLong(map.get(ServerTableColumnsName.GLOBAL_TABLE_BEGIN_TIME)));
+        globalTransactionDO.setTimeout(Integer.parseInt(map.get(ServerTableColumnsName.GLOBAL_TABLE_TIMEOUT)));
+        globalTransactionDO.setTransactionId(
+            Long.parseLong(map.get(ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID)));
+        globalTransactionDO.setTransactionName(map.get(ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_NAME));
+        globalTransactionDO.setTransactionServiceGroup(
+            map.get(ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_SERVICE_GROUP));
+        globalTransactionDO.setApplicationData(map.get(ServerTableColumnsName.GLOBAL_TABLE_APPLICATION_DATA));
+        globalTransactionDO.setGmtCreate(toDate(map.get(ServerTableColumnsName.GLOBAL_TABLE_GMT_CREATE)));
+        globalTransactionDO.setGmtModified(toDate(map.get(ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED)));
+        return globalTransactionDO;
+    }
+
+    private static BranchTransactionDO convertBranchTransactionDO(Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return null;
+        }
+        BranchTransactionDO branchTransactionDO = new BranchTransactionDO();
+        branchTransactionDO.setResourceGroupId(map.get(ServerTableColumnsName.BRANCH_TABLE_RESOURCE_GROUP_ID));
+        branchTransactionDO.setStatus(Integer.parseInt(map.get(ServerTableColumnsName.BRANCH_TABLE_STATUS)));
+        branchTransactionDO.setApplicationData(map.get(ServerTableColumnsName.BRANCH_TABLE_APPLICATION_DATA));
+        branchTransactionDO.setClientId(map.get(ServerTableColumnsName.BRANCH_TABLE_CLIENT_ID));
+        branchTransactionDO.setLockKey(map.get(ServerTableColumnsName.BRANCH_TABLE_LOCK_KEY));
+        branchTransactionDO.setXid(map.get(ServerTableColumnsName.BRANCH_TABLE_XID));
+        branchTransactionDO.setResourceId(map.get(ServerTableColumnsName.BRANCH_TABLE_RESOURCE_ID));
+        branchTransactionDO.setBranchId(Long.parseLong(map.get(ServerTableColumnsName.BRANCH_TABLE_BRANCH_XID)));
+        branchTransactionDO.setBranchType(map.get(ServerTableColumnsName.BRANCH_TABLE_BRANCH_TYPE));
+        branchTransactionDO.setTransactionId(
+            Long.parseLong(map.get(ServerTableColumnsName.BRANCH_TABLE_TRANSACTION_ID)));
+        branchTransactionDO.setGmtCreate(toDate(map.get(ServerTableColumnsName.BRANCH_TABLE_GMT_CREATE)));
+        branchTransactionDO.setGmtModified(toDate(map.get(ServerTableColumnsName.BRANCH_TABLE_GMT_MODIFIED)));
+        return branchTransactionDO;
+    }
+
+    private static Date toDate(String millis) {
+        return StringUtils.isBlank(millis) ? null : new Date(Long.parseLong(millis));
+    }
+}
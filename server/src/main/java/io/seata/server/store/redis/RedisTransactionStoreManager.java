@@ -0,0 +1,44 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.redis;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.server.store.db.DatabaseTransactionStoreManager;
+
+/**
+ * The redis transaction store manager, the sessions are converted and paged through as in the database store, and
+ * kept in redis by the redis log store.
+ */
+@LoadLevel(name = "redis")
+public class RedisTransactionStoreManager extends DatabaseTransactionStoreManager {
+
+    /**
+     * Instantiates a new Redis transaction store manager.
+     */
+    public RedisTransactionStoreManager() {
+    }
+
+    @Override
+    public synchronized void init() {
+        if (inited.get()) {
+            return;
+        }
+        logQueryLimit = CONFIG.getInt(ConfigurationKeys.STORE_REDIS_QUERY_LIMIT, DEFAULT_LOG_QUERY_LIMIT);
+        logStore = new LogStoreRedisDAO(JedisPooledFactory.getJedisPoolInstance());
+        inited.set(true);
+    }
+}
@@ -18,8 +18,15 @@ package io.seata.server.coordinator;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.eventbus.Subscribe;
+import io.seata.core.event.AsyncEventBus;
+import io.seata.core.event.EventBus;
+import io.seata.core.event.GlobalTransactionEvent;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.transaction.GlobalBeginRequest;
 import io.seata.core.protocol.transaction.GlobalBeginResponse;
 import io.seata.core.protocol.transaction.GlobalCommitRequest;
@@ -28,6 +35,7 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.rpc.RpcContext;
 import io.seata.metrics.Measurement;
+import io.seata.server.event.EventBusManager;
 import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.SessionHolder;
 import org.junit.jupiter.api.Assertions;
@@ -47,17 +55,32 @@ public class DefaultCoordinatorMetricsTest {
 
         MetricsManager.get().init();
 
+        CountDownLatch committed = new CountDownLatch(1);
+        EventBusManager.get().register(new Object() {
+            @Subscribe
+            public void onGlobalTransactionEvent(GlobalTransactionEvent event) {
+                if (event.getStatus() == GlobalStatus.Committed) {
+                    committed.countDown();
+                }
+            }
+        });
+
         //start a transaction
         GlobalBeginRequest request = new GlobalBeginRequest();
         request.setTransactionName("test_transaction");
         GlobalBeginResponse response = new GlobalBeginResponse();
         coordinator.doGlobalBegin(request, response, new RpcContext());
 
+        //events are delivered to the metrics subscriber by the dispatcher thread of the event bus
+        flushEventBus();
+
         Map<String, Measurement> measurements = new HashMap<>();
         MetricsManager.get().getRegistry().measure().forEach(
             measurement -> measurements.put(measurement.getId().toString(), measurement));
 
-        Assertions.assertEquals(1, measurements.size());
+        Assertions.assertEquals(2, measurements.size());
+        Assertions.assertEquals(0,
+            measurements.get("seata.event.bus(meter=gauge,role=tc,status=dropped)").getValue(), 0);
         Assertions.assertEquals(1,
             measurements.get("seata.transaction(meter=counter,role=tc,status=active)").getValue(), 0);
 
@@ -66,13 +89,14 @@ public class DefaultCoordinatorMetricsTest {
         commitRequest.setXid(response.getXid());
         coordinator.doGlobalCommit(commitRequest, new GlobalCommitResponse(), new RpcContext());
 
-        //we need sleep for a short while because default canBeCommittedAsync() is true
-        Thread.sleep(200);
+        //default canBeCommittedAsync() is true, the transaction is committed by the async committing task
+        Assertions.assertTrue(committed.await(10, TimeUnit.SECONDS));
+        flushEventBus();
 
         measurements.clear();
         MetricsManager.get().getRegistry().measure().forEach(
             measurement -> measurements.put(measurement.getId().toString(), measurement));
-        Assertions.assertEquals(9, measurements.size());
+        Assertions.assertEquals(14, measurements.size());
         Assertions.assertEquals(0,
             measurements.get("seata.transaction(meter=counter,role=tc,status=active)").getValue(), 0);
         Assertions
@@ -98,12 +122,12 @@ public class DefaultCoordinatorMetricsTest {
         rollbackRequest.setXid(response.getXid());
         coordinator.doGlobalRollback(rollbackRequest, new GlobalRollbackResponse(), new RpcContext());
 
-        Thread.sleep(200);
+        flushEventBus();
 
         measurements.clear();
         MetricsManager.get().getRegistry().measure().forEach(
             measurement -> measurements.put(measurement.getId().toString(), measurement));
-        Assertions.assertEquals(17, measurements.size());
+        Assertions.assertEquals(26, measurements.size());
         Assertions.assertEquals(0,
             measurements.get("seata.transaction(meter=counter,role=tc,status=active)").getValue(), 0);
 
@@ -116,7 +140,8 @@ public class DefaultCoordinatorMetricsTest {
         Assertions.assertEquals(0,
             measurements.get("seata.transaction(meter=summary,role=tc,statistic=total,status=committed)").getValue(),
             0);
-        Assertions.assertEquals(0,
+        //timer count is cumulative, it is not reset by measuring
+        Assertions.assertEquals(1,
             measurements.get("seata.transaction(meter=timer,role=tc,statistic=count,status=committed)").getValue(), 0);
 
         Assertions.assertEquals(1,
@@ -129,6 +154,14 @@ public class DefaultCoordinatorMetricsTest {
             0);
         Assertions.assertEquals(1,
             measurements.get("seata.transaction(meter=timer,role=tc,statistic=count,status=rollbacked)").getValue(), 0);
+        Assertions.assertTrue(
+            measurements.get("seata.transaction(meter=timer,role=tc,statistic=p99,status=rollbacked)").getValue() >= 0);
     }
 
+    private static void flushEventBus() throws InterruptedException {
+        EventBus eventBus = EventBusManager.get();
+        if (eventBus instanceof AsyncEventBus) {
+            Assertions.assertTrue(((AsyncEventBus)eventBus).flush(10, TimeUnit.SECONDS));
+        }
+    }
 }
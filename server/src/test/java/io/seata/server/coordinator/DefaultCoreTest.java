@@ -15,7 +15,9 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Stream;
 
 import io.seata.core.exception.TransactionException;
@@ -23,10 +25,15 @@ import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.model.ResourceManagerInbound;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.server.session.AbstractSessionManager;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.store.SessionStorable;
+import io.seata.server.store.TransactionStoreManager;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +41,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
 
 /**
  * The type Default core test.
@@ -102,6 +110,60 @@ public class DefaultCoreTest {
         Assertions.assertEquals(globalSession.getSortedBranches().size(), 1);
     }
 
+    /**
+     * Batch branch register test, the batch is registered all or nothing.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void batchBranchRegisterTest() throws Exception {
+        String xid = core.begin(applicationId, txServiceGroup, txName, timeout);
+        List<Long> branchIds = core.branchRegister(xid, clientId,
+            Arrays.asList(newBranchRegisterRequest("tb_20:1"), newBranchRegisterRequest("tb_20:2,3")));
+        globalSession = SessionHolder.findGlobalSession(xid);
+        Assertions.assertEquals(2, globalSession.getSortedBranches().size());
+        Assertions.assertEquals(2, branchIds.size());
+        Assertions.assertNotEquals(branchIds.get(0), branchIds.get(1));
+
+        String otherXid = core.begin(applicationId, txServiceGroup, txName, timeout);
+        Assertions.assertThrows(TransactionException.class, () -> core.branchRegister(otherXid, clientId,
+            Arrays.asList(newBranchRegisterRequest("tb_21:1"), newBranchRegisterRequest("tb_20:3"))));
+        Assertions.assertEquals(0, SessionHolder.findGlobalSession(otherXid).getSortedBranches().size());
+        Assertions.assertTrue(core.lockQuery(BranchType.AT, resourceId, otherXid, "tb_21:1"));
+        Assertions.assertFalse(core.lockQuery(BranchType.AT, resourceId, otherXid, "tb_20:3"));
+    }
+
+    /**
+     * Batch branch register test with a store failing after the first branch, nothing of the batch is kept.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void batchBranchRegisterStoreFailedTest() throws Exception {
+        String xid = core.begin(applicationId, txServiceGroup, txName, timeout);
+        AbstractSessionManager rootSessionManager = (AbstractSessionManager)SessionHolder.getRootSessionManager();
+        TransactionStoreManager transactionStoreManager = rootSessionManager.getTransactionStoreManager();
+        TransactionStoreManager failingStoreManager = Mockito.spy(transactionStoreManager);
+        Mockito.doAnswer(invocation -> {
+            List<SessionStorable> sessions = invocation.getArgument(1);
+            failingStoreManager.writeSession(LogOperation.BRANCH_ADD, sessions.get(0));
+            return false;
+        }).when(failingStoreManager).writeSessions(Mockito.eq(LogOperation.BRANCH_ADD), Mockito.anyList());
+        rootSessionManager.setTransactionStoreManager(failingStoreManager);
+        try {
+            Assertions.assertThrows(TransactionException.class, () -> core.branchRegister(xid, clientId,
+                Arrays.asList(newBranchRegisterRequest("tb_22:1"), newBranchRegisterRequest("tb_22:2"))));
+            Mockito.verify(failingStoreManager, Mockito.times(2)).writeSession(Mockito.eq(LogOperation.BRANCH_REMOVE),
+                Mockito.any(BranchSession.class));
+        } finally {
+            rootSessionManager.setTransactionStoreManager(transactionStoreManager);
+        }
+        Assertions.assertEquals(0, SessionHolder.findGlobalSession(xid).getSortedBranches().size());
+        String otherXid = core.begin(applicationId, txServiceGroup, txName, timeout);
+        Assertions.assertTrue(core.lockQuery(BranchType.AT, resourceId, otherXid, "tb_22:1"));
+        Assertions.assertTrue(core.lockQuery(BranchType.AT, resourceId, otherXid, "tb_22:2"));
+    }
+
     /**
      * Branch report test.
      *
@@ -184,6 +246,38 @@ public class DefaultCoreTest {
         Assertions.assertEquals(globalSession.getStatus(), GlobalStatus.Begin);
     }
 
+    /**
+     * Do global commit test, an AT branch failing once the TCC branch is committed is left to the async commit.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void doGlobalCommitUnretryableAfterTccCommittedTest() throws Exception {
+        String xid = core.begin(applicationId, txServiceGroup, txName, timeout);
+        globalSession = SessionHolder.findGlobalSession(xid);
+        BranchSession tccBranch = SessionHelper.newBranchByGlobal(globalSession, BranchType.TCC, resourceId,
+            applicationData, null, clientId);
+        globalSession.addBranch(tccBranch);
+        globalSession.changeBranchStatus(tccBranch, BranchStatus.PhaseOne_Done);
+        BranchSession atBranch = SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, resourceId,
+            applicationData, "t1:2", clientId);
+        globalSession.addBranch(atBranch);
+        globalSession.changeBranchStatus(atBranch, BranchStatus.PhaseOne_Done);
+        core.setResourceManagerInbound(new MockResourceManagerInbound(BranchStatus.PhaseTwo_Committed,
+            BranchStatus.PhaseOne_Done) {
+            @Override
+            public BranchStatus branchCommit(BranchType branchType, String xid, long branchId, String resourceId,
+                                             String applicationData) {
+                return branchType == BranchType.TCC ? BranchStatus.PhaseTwo_Committed
+                    : BranchStatus.PhaseTwo_CommitFailed_Unretryable;
+            }
+        });
+        core.doGlobalCommit(globalSession, false);
+        Assertions.assertEquals(GlobalStatus.Begin, globalSession.getStatus());
+        Assertions.assertNull(globalSession.getBranch(tccBranch.getBranchId()));
+        Assertions.assertNotNull(globalSession.getBranch(atBranch.getBranchId()));
+    }
+
     /**
      * Do global commit test.
      *
@@ -324,6 +418,14 @@ public class DefaultCoreTest {
         }
     }
 
+    private static BranchRegisterRequest newBranchRegisterRequest(String lockKey) {
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setBranchType(BranchType.AT);
+        request.setResourceId(resourceId);
+        request.setLockKey(lockKey);
+        return request;
+    }
+
     private static class MockResourceManagerInbound implements ResourceManagerInbound {
 
         private BranchStatus commitStatus;
@@ -0,0 +1,123 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.BranchType;
+import io.seata.server.coordinator.PhaseTwoDispatcher.BranchOutcome;
+import io.seata.server.session.BranchSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Phase two dispatcher test.
+ */
+public class PhaseTwoDispatcherTest {
+
+    /**
+     * Commits of branches on different channels should be in flight at the same time.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testDispatchCommitConcurrently() throws Exception {
+        PhaseTwoDispatcher dispatcher = new PhaseTwoDispatcher(4, 1);
+        List<BranchSession> branches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            branches.add(newBranch(i, "res_" + i));
+        }
+        CountDownLatch inflight = new CountDownLatch(3);
+        BranchOutcome[] outcomes = dispatcher.dispatchCommit(branches, branchSession -> {
+            inflight.countDown();
+            try {
+                return inflight.await(5, TimeUnit.SECONDS) ? BranchStatus.PhaseTwo_Committed
+                    : BranchStatus.PhaseTwo_CommitFailed_Retryable;
+            } catch (InterruptedException e) {
+                throw new TransactionException(e);
+            }
+        });
+        for (BranchOutcome outcome : outcomes) {
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Committed, outcome.getBranchStatus());
+        }
+    }
+
+    /**
+     * Branches on the same resource are rollbacked in order and stop at the first failure.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testDispatchRollbackKeepResourceOrder() throws Exception {
+        PhaseTwoDispatcher dispatcher = new PhaseTwoDispatcher(4, 8);
+        List<BranchSession> branches = new ArrayList<>();
+        branches.add(newBranch(3, "res_a"));
+        branches.add(newBranch(2, "res_b"));
+        branches.add(newBranch(1, "res_a"));
+        List<Long> called = new ArrayList<>();
+        BranchOutcome[] outcomes = dispatcher.dispatchRollback(branches, branchSession -> {
+            if ("res_a".equals(branchSession.getResourceId())) {
+                synchronized (called) {
+                    called.add(branchSession.getBranchId());
+                }
+                if (branchSession.getBranchId() == 3) {
+                    throw new TransactionException("rollback failed");
+                }
+            }
+            return BranchStatus.PhaseTwo_Rollbacked;
+        });
+        Assertions.assertNotNull(outcomes[0].getCause());
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked, outcomes[1].getBranchStatus());
+        Assertions.assertNull(outcomes[2]);
+        Assertions.assertEquals(1, called.size());
+    }
+
+    /**
+     * A dispatcher without threads calls the branches one after another on the caller thread.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testDispatchSerially() throws Exception {
+        PhaseTwoDispatcher dispatcher = new PhaseTwoDispatcher(0, 8);
+        List<BranchSession> branches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            branches.add(newBranch(i, "res_" + i));
+        }
+        Thread caller = Thread.currentThread();
+        BranchOutcome[] outcomes = dispatcher.dispatchCommit(branches,
+            branchSession -> Thread.currentThread() == caller ? BranchStatus.PhaseTwo_Committed
+                : BranchStatus.PhaseTwo_CommitFailed_Retryable);
+        for (BranchOutcome outcome : outcomes) {
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Committed, outcome.getBranchStatus());
+        }
+    }
+
+    private BranchSession newBranch(long branchId, String resourceId) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid("127.0.0.1:8091:1");
+        branchSession.setBranchId(branchId);
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setResourceId(resourceId);
+        branchSession.setClientId("c_1");
+        return branchSession;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Sharded retry executor test.
+ */
+public class ShardedRetryExecutorTest {
+
+    private ShardedRetryExecutor executor = new ShardedRetryExecutor("RetryTest", 2, 60 * 1000L, 60 * 1000L);
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * A failed session waits for its backoff while the done ones are retried normally.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testFailedSessionBackoff() throws Exception {
+        GlobalSession failing = GlobalSession.createGlobalSession("demo-app", "my_test_tx_group", "failing", 1000);
+        GlobalSession healthy = GlobalSession.createGlobalSession("demo-app", "my_test_tx_group", "healthy", 1000);
+        List<GlobalSession> sessions = Arrays.asList(failing, healthy);
+        Map<String, AtomicInteger> handled = new ConcurrentHashMap<>();
+        ShardedRetryExecutor.SessionHandler handler = globalSession -> {
+            handled.computeIfAbsent(globalSession.getTransactionName(), k -> new AtomicInteger()).incrementAndGet();
+            return globalSession == healthy;
+        };
+
+        Assertions.assertTrue(executor.execute(sessions, handler).await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(executor.execute(sessions, handler).await(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(1, handled.get("failing").get());
+        Assertions.assertEquals(2, handled.get("healthy").get());
+    }
+}
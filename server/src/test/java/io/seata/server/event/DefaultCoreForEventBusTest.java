@@ -16,11 +16,13 @@
 package io.seata.server.event;
 
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.eventbus.Subscribe;
+import io.seata.core.event.AsyncEventBus;
+import io.seata.core.event.EventBus;
 import io.seata.core.event.GlobalTransactionEvent;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.GlobalStatus;
@@ -37,27 +39,11 @@ import org.junit.jupiter.api.Test;
  * @author zhengyangyong
  */
 public class DefaultCoreForEventBusTest {
-    @Test
-    public void test() throws IOException, TransactionException, InterruptedException {
-        class GlobalTransactionEventSubscriber {
-            private final Map<GlobalStatus, AtomicInteger> eventCounters;
-
-            public Map<GlobalStatus, AtomicInteger> getEventCounters() {
-                return eventCounters;
-            }
-
-            public GlobalTransactionEventSubscriber() {
-                this.eventCounters = new ConcurrentHashMap<>();
-            }
 
-            @Subscribe
-            public void processGlobalTransactionEvent(GlobalTransactionEvent event) {
-                AtomicInteger counter = eventCounters.computeIfAbsent(event.getStatus(),
-                    status -> new AtomicInteger(0));
-                counter.addAndGet(1);
-            }
-        }
+    private static final long AWAIT_MILLIS = 10000;
 
+    @Test
+    public void test() throws IOException, TransactionException, InterruptedException {
         SessionHolder.init(null);
         DefaultCoordinator coordinator = new DefaultCoordinator(null);
         coordinator.init();
@@ -70,36 +56,75 @@ public class DefaultCoreForEventBusTest {
         //start a transaction
         String xid = core.begin("test_app_id", "default_group", "test_tran_name", 30000);
 
-        Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Begin).get());
+        //events are delivered by the dispatcher thread of the event bus
+        flushEventBus();
+        Assertions.assertEquals(1, subscriber.getCount(GlobalStatus.Begin));
 
         //commit this transaction
         core.commit(xid);
 
-        //we need sleep for a short while because default canBeCommittedAsync() is true
-        Thread.sleep(1000);
-
-        //check
-        Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.AsyncCommitting).get());
-        Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Committed).get());
+        //default canBeCommittedAsync() is true, the transaction is committed by the async committing task
+        Assertions.assertTrue(subscriber.awaitCount(GlobalStatus.Committed, 1, AWAIT_MILLIS));
+        Assertions.assertEquals(1, subscriber.getCount(GlobalStatus.AsyncCommitting));
+        Assertions.assertEquals(1, subscriber.getCount(GlobalStatus.Committed));
 
         //start another new transaction
         xid = core.begin("test_app_id", "default_group", "test_tran_name2", 30000);
 
-        Assertions.assertEquals(2, subscriber.getEventCounters().get(GlobalStatus.Begin).get());
+        flushEventBus();
+        Assertions.assertEquals(2, subscriber.getCount(GlobalStatus.Begin));
 
         core.rollback(xid);
 
         //check
-        Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Rollbacking).get());
-        Assertions.assertEquals(1, subscriber.getEventCounters().get(GlobalStatus.Rollbacked).get());
+        flushEventBus();
+        Assertions.assertEquals(1, subscriber.getCount(GlobalStatus.Rollbacking));
+        Assertions.assertEquals(1, subscriber.getCount(GlobalStatus.Rollbacked));
 
         //start more one new transaction for test timeout and let this transaction immediately timeout
-        xid = core.begin("test_app_id", "default_group", "test_tran_name3", 0);
+        core.begin("test_app_id", "default_group", "test_tran_name3", 0);
 
-        //sleep for check ->  DefaultCoordinator.timeoutCheck
-        Thread.sleep(1000);
+        //found by DefaultCoordinator.timeoutCheck, which runs every second
+        Assertions.assertTrue(subscriber.awaitCount(GlobalStatus.TimeoutRollbacking, 1, AWAIT_MILLIS));
+    }
+
+    private static void flushEventBus() throws InterruptedException {
+        EventBus eventBus = EventBusManager.get();
+        if (eventBus instanceof AsyncEventBus) {
+            Assertions.assertTrue(((AsyncEventBus)eventBus).flush(AWAIT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    public static class GlobalTransactionEventSubscriber {
+        private final Map<GlobalStatus, Integer> eventCounters = new EnumMap<>(GlobalStatus.class);
 
-        //at lease retry once because DefaultCoordinator.timeoutCheck is 1 second
-        Assertions.assertTrue(subscriber.getEventCounters().get(GlobalStatus.TimeoutRollbacking).get() >= 1);
+        @Subscribe
+        public synchronized void processGlobalTransactionEvent(GlobalTransactionEvent event) {
+            eventCounters.merge(event.getStatus(), 1, Integer::sum);
+            notifyAll();
+        }
+
+        public synchronized int getCount(GlobalStatus status) {
+            return eventCounters.getOrDefault(status, 0);
+        }
+
+        /**
+         * Wait until the subscriber received the count of events of the status.
+         *
+         * @param status        the status
+         * @param count         the count
+         * @param timeoutMillis the max time to wait
+         * @return false if they are not received in time
+         * @throws InterruptedException the interrupted exception
+         */
+        public synchronized boolean awaitCount(GlobalStatus status, int count, long timeoutMillis)
+            throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining;
+            while (getCount(status) < count && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                wait(remaining);
+            }
+            return getCount(status) >= count;
+        }
     }
 }
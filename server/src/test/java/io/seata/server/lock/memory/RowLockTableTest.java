@@ -0,0 +1,139 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock.memory;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Row lock table test.
+ */
+public class RowLockTableTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1/db";
+
+    /**
+     * Locks survive the growth of the table and the removal of their neighbours.
+     */
+    @Test
+    public void testPutGetRemove() {
+        RowLockTable table = new RowLockTable();
+        int t = table.tableId(RESOURCE_ID, "t_order");
+        int count = 100000;
+        for (int pk = 0; pk < count; pk++) {
+            Assertions.assertEquals(0, table.putIfAbsent(t, key(pk), txOf(pk)));
+        }
+        Assertions.assertEquals(count, table.size());
+        Assertions.assertEquals(txOf(7), table.putIfAbsent(t, key(7), 999L));
+
+        for (int pk = 0; pk < count; pk += 2) {
+            Assertions.assertFalse(table.remove(t, key(pk), 999L));
+            Assertions.assertTrue(table.remove(t, key(pk), txOf(pk)));
+        }
+        for (int pk = 0; pk < count; pk++) {
+            Assertions.assertEquals(pk % 2 == 0 ? 0 : txOf(pk), table.get(t, key(pk)));
+        }
+        Assertions.assertEquals(count / 2, table.size());
+
+        table.clear();
+        Assertions.assertEquals(0, table.size());
+        Assertions.assertEquals(0, table.get(t, key(1)));
+    }
+
+    /**
+     * Rows whose keys hash the same keep their own locks.
+     */
+    @Test
+    public void testHashCollision() {
+        RowLockTable table = new RowLockTable() {
+            @Override
+            long hash(int tableId, String pk) {
+                return 42L;
+            }
+        };
+        int t = table.tableId(RESOURCE_ID, "t_order");
+        int count = 300;
+        for (int pk = 0; pk < count; pk++) {
+            Assertions.assertEquals(0, table.putIfAbsent(t, key(pk), txOf(pk)));
+        }
+        Assertions.assertEquals(count, table.size());
+        Assertions.assertEquals(txOf(3), table.putIfAbsent(t, key(3), 999L));
+        // another transaction can not release a row it does not own through a colliding key
+        Assertions.assertFalse(table.remove(t, key(count), txOf(0)));
+        Assertions.assertEquals(0, table.get(t, key(count)));
+
+        for (int pk = 0; pk < count; pk += 3) {
+            Assertions.assertTrue(table.remove(t, key(pk), txOf(pk)));
+        }
+        for (int pk = 0; pk < count; pk++) {
+            Assertions.assertEquals(pk % 3 == 0 ? 0 : txOf(pk), table.get(t, key(pk)));
+        }
+    }
+
+    /**
+     * The same pk in different tables or resources is a different row.
+     */
+    @Test
+    public void testTableIds() {
+        RowLockTable table = new RowLockTable();
+        Assertions.assertEquals(0, table.findTableId(RESOURCE_ID, "t_order"));
+        int orders = table.tableId(RESOURCE_ID, "t_order");
+        int items = table.tableId(RESOURCE_ID, "t_item");
+        int otherOrders = table.tableId("jdbc:mysql://127.0.0.2/db", "t_order");
+        Assertions.assertNotEquals(0, orders);
+        Assertions.assertEquals(orders, table.tableId(RESOURCE_ID, "t_order"));
+        Assertions.assertEquals(orders, table.findTableId(RESOURCE_ID, "t_order"));
+        Assertions.assertNotEquals(orders, items);
+        Assertions.assertNotEquals(orders, otherOrders);
+
+        Assertions.assertEquals(0, table.putIfAbsent(orders, "1", 1L));
+        Assertions.assertEquals(0, table.putIfAbsent(items, "1", 2L));
+        Assertions.assertEquals(0, table.putIfAbsent(otherOrders, "1", 3L));
+        Assertions.assertEquals(1L, table.get(orders, "1"));
+        Assertions.assertEquals(2L, table.get(items, "1"));
+        Assertions.assertEquals(3L, table.get(otherOrders, "1"));
+    }
+
+    /**
+     * The held locks are released from the table by their owner only, once.
+     */
+    @Test
+    public void testHeldRowLocks() {
+        RowLockTable table = new RowLockTable();
+        int t = table.tableId(RESOURCE_ID, "t_order");
+        HeldRowLocks held = new HeldRowLocks();
+        for (int pk = 0; pk < 100; pk++) {
+            Assertions.assertEquals(0, table.putIfAbsent(t, key(pk), 1L));
+            held.add(t, key(pk));
+        }
+        Assertions.assertEquals(0, table.putIfAbsent(t, key(100), 2L));
+        held.add(t, key(100));
+        Assertions.assertEquals(101, held.size());
+
+        held.releaseFrom(table, 1L);
+        Assertions.assertEquals(0, held.size());
+        Assertions.assertEquals(1, table.size());
+        Assertions.assertEquals(2L, table.get(t, key(100)));
+    }
+
+    private static String key(int pk) {
+        return String.valueOf(pk);
+    }
+
+    private static long txOf(int pk) {
+        return 1000L + pk % 10;
+    }
+}
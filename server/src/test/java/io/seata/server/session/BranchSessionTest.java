@@ -17,7 +17,9 @@ package io.seata.server.session;
 
 import io.seata.core.model.BranchType;
 import io.seata.server.UUIDGenerator;
+import io.seata.core.lock.LockKeys;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -53,6 +55,20 @@ public class BranchSessionTest {
 
     }
 
+    /**
+     * A null lock key stays null once parsed, and the lock keys give back the lock key string.
+     */
+    @Test
+    public void lockKeyTest() {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setLockKey(null);
+        Assertions.assertTrue(branchSession.getLockKeys().isEmpty());
+        Assertions.assertNull(branchSession.getLockKey());
+
+        branchSession.setLockKeys(LockKeys.parse("t_1:1,2"));
+        Assertions.assertEquals("t_1:1,2", branchSession.getLockKey());
+    }
+
     /**
      * Branch session provider object [ ] [ ].
      *
@@ -19,10 +19,13 @@ import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 /**
@@ -151,6 +154,36 @@ public class GlobalSessionTest {
         Assertions.assertEquals(expected.getTransactionName(), globalSession.getTransactionName());
     }
 
+    /**
+     * Listeners changed by other threads while the events are fired.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void concurrentLifecycleListenersTest() throws Exception {
+        GlobalSession globalSession = new GlobalSession("demo-app", "my_test_tx_group", "test", 6000);
+        SessionLifecycleListener listener = Mockito.mock(SessionLifecycleListener.class);
+        globalSession.addSessionLifecycleListener(listener);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread changer = new Thread(() -> {
+            while (running.get()) {
+                SessionLifecycleListener other = Mockito.mock(SessionLifecycleListener.class);
+                globalSession.addSessionLifecycleListener(other);
+                globalSession.removeSessionLifecycleListener(other);
+            }
+        });
+        changer.start();
+        try {
+            for (int i = 0; i < 10000; i++) {
+                globalSession.changeStatus(GlobalStatus.Begin);
+            }
+        } finally {
+            running.set(false);
+            changer.join();
+        }
+        Mockito.verify(listener, Mockito.times(10000)).onStatusChange(globalSession, GlobalStatus.Begin);
+    }
+
     /**
      * Global session provider object [ ] [ ].
      *
@@ -0,0 +1,59 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Session timeout index test.
+ */
+public class SessionTimeoutIndexTest {
+
+    /**
+     * Only the sessions whose deadline has passed are polled, ended sessions are dropped.
+     */
+    @Test
+    public void testPollExpired() {
+        SessionTimeoutIndex index = new SessionTimeoutIndex();
+        GlobalSession early = newSession(1000L, 100);
+        GlobalSession ended = newSession(1000L, 200);
+        GlobalSession late = newSession(1000L, 5000);
+        index.add(late);
+        index.add(ended);
+        index.add(early);
+        index.remove(ended);
+
+        Assertions.assertTrue(index.pollExpired(1100L).isEmpty());
+        List<SessionTimeoutIndex.Entry> expired = index.pollExpired(1500L);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(early.getXid(), expired.get(0).getXid());
+        Assertions.assertEquals(1, index.size());
+
+        index.requeue(expired.get(0));
+        Assertions.assertEquals(2, index.pollExpired(Long.MAX_VALUE).size());
+        Assertions.assertEquals(0, index.size());
+    }
+
+    private GlobalSession newSession(long beginTime, int timeout) {
+        GlobalSession globalSession = GlobalSession.createGlobalSession("demo-app", "my_test_tx_group", "test",
+            timeout);
+        globalSession.setBeginTime(beginTime);
+        return globalSession;
+    }
+}
@@ -38,6 +38,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * The type Data base session manager test.
@@ -53,10 +56,12 @@ public class DataBaseSessionManagerTest {
 
     static BasicDataSource dataSource = null;
 
+    static DatabaseTransactionStoreManager transactionStoreManager = null;
+
     @BeforeAll
     public static void start() throws Exception {
         DataBaseSessionManager tempSessionManager = new DataBaseSessionManager();
-        DatabaseTransactionStoreManager transactionStoreManager = new DatabaseTransactionStoreManager();
+        transactionStoreManager = new DatabaseTransactionStoreManager();
 
         dataSource =  new BasicDataSource();
         dataSource.setDriverClassName("org.h2.Driver");
@@ -561,6 +566,74 @@ public class DataBaseSessionManagerTest {
         }
     }
 
+    @Test
+    public void test_findGlobalSessionsByPage() throws Exception {
+        List<String> xids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            GlobalSession globalSession = GlobalSession.createGlobalSession("test",
+                    "test", "test123", 100);
+            String xid = XID.generateXID(globalSession.getTransactionId());
+            xids.add(xid);
+            globalSession.setXid(xid);
+            globalSession.setTransactionId(146757978);
+            globalSession.setBeginTime(System.currentTimeMillis());
+            globalSession.setStatus(GlobalStatus.TimeoutRollbackRetrying);
+            sessionManager.addGlobalSession(globalSession);
+
+            BranchSession branchSession = new BranchSession();
+            branchSession.setXid(xid);
+            branchSession.setTransactionId(globalSession.getTransactionId());
+            branchSession.setBranchId(UUIDGenerator.generateUUID());
+            branchSession.setResourceId("tb_1");
+            branchSession.setLockKey("t_1");
+            branchSession.setBranchType(BranchType.AT);
+            branchSession.setStatus(BranchStatus.PhaseOne_Done);
+            sessionManager.addBranchSession(globalSession, branchSession);
+        }
+
+        transactionStoreManager.setLogQueryLimit(2);
+        try {
+            // one page per call, going on from the last page
+            List<String> found = new ArrayList<>();
+            int[] pageSizes = {2, 2, 1};
+            for (int pageSize : pageSizes) {
+                Collection<GlobalSession> rets = sessionManager.findGlobalSessions(
+                    new SessionCondition(GlobalStatus.TimeoutRollbackRetrying));
+                Assertions.assertNotNull(rets);
+                Assertions.assertEquals(pageSize, rets.size());
+                for (GlobalSession globalSession : rets) {
+                    Assertions.assertTrue(xids.contains(globalSession.getXid()));
+                    Assertions.assertEquals(1, globalSession.getSortedBranches().size());
+                    found.add(globalSession.getXid());
+                }
+            }
+            Assertions.assertEquals(5, new HashSet<>(found).size());
+
+            // starts over after the short page
+            Collection<GlobalSession> rets = sessionManager.findGlobalSessions(
+                new SessionCondition(GlobalStatus.TimeoutRollbackRetrying));
+            Assertions.assertEquals(2, rets.size());
+            Assertions.assertEquals(found.subList(0, 2),
+                rets.stream().map(GlobalSession::getXid).collect(Collectors.toList()));
+        } finally {
+            transactionStoreManager.setLogQueryLimit(100);
+            Connection conn = null;
+            try {
+                conn = dataSource.getConnection();
+                for (String xid : xids) {
+                    conn.createStatement().execute("delete from branch_table where xid= '" + xid + "'");
+                    conn.createStatement().execute("delete from global_table where xid= '" + xid + "'");
+                }
+            } finally {
+                if (conn != null) {
+                    conn.close();
+                }
+            }
+            // the short page resets the cursor for the other tests
+            sessionManager.findGlobalSessions(new SessionCondition(GlobalStatus.TimeoutRollbackRetrying));
+        }
+    }
+
     @Test
     public void test_transactionNameGreaterDbSize() throws Exception {
 
@@ -600,6 +673,39 @@ public class DataBaseSessionManagerTest {
         }
     }
 
+    @Test
+    public void test_findGlobalSessionFromCache() throws Exception {
+        DataBaseSessionManager cachedSessionManager = new DataBaseSessionManager();
+        cachedSessionManager.setTransactionStoreManager(transactionStoreManager);
+        cachedSessionManager.setSessionCache(new GlobalSessionCache(10));
+        GlobalSessionCache cache = cachedSessionManager.getSessionCache();
 
-
+        GlobalSession session = GlobalSession.createGlobalSession("test",
+                "test", "test123", 100);
+        String xid = XID.generateXID(session.getTransactionId());
+        session.setXid(xid);
+        session.setBeginTime(System.currentTimeMillis());
+        session.setStatus(GlobalStatus.Begin);
+        cachedSessionManager.addGlobalSession(session);
+
+        Assertions.assertSame(session, cachedSessionManager.findGlobalSession(xid));
+        Assertions.assertEquals(1, cache.getHitCount());
+
+        // a change through the cached session keeps it cached
+        cachedSessionManager.updateGlobalSessionStatus(session, GlobalStatus.Committing);
+        Assertions.assertSame(session, cachedSessionManager.findGlobalSession(xid));
+
+        // a change through another copy of the session invalidates it
+        GlobalSession copy = transactionStoreManager.readSession(xid);
+        Assertions.assertNotSame(session, copy);
+        cachedSessionManager.updateGlobalSessionStatus(copy, GlobalStatus.CommitRetrying);
+        Assertions.assertEquals(0, cache.size());
+        GlobalSession reloaded = cachedSessionManager.findGlobalSession(xid);
+        Assertions.assertEquals(GlobalStatus.CommitRetrying, reloaded.getStatus());
+        Assertions.assertSame(reloaded, cachedSessionManager.findGlobalSession(xid));
+
+        cachedSessionManager.removeGlobalSession(reloaded);
+        Assertions.assertNull(cachedSessionManager.findGlobalSession(xid));
+        Assertions.assertEquals(0, cache.size());
+    }
 }
\ No newline at end of file
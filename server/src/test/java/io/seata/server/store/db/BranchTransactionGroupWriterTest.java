@@ -0,0 +1,168 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.exception.StoreException;
+import io.seata.core.store.BranchTransactionDO;
+import io.seata.core.store.db.LogStoreDataBaseDAO;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test BranchTransactionGroupWriter.
+ */
+public class BranchTransactionGroupWriterTest {
+
+    private final RecordingLogStore logStore = new RecordingLogStore();
+
+    private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+
+    private BranchTransactionGroupWriter writer;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    public void setUp() {
+        writer = new BranchTransactionGroupWriter(logStore, 100);
+        Thread thread = new Thread(writer, "groupWriterTest");
+        thread.setDaemon(true);
+        thread.start();
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseFirstBatch.countDown();
+        writer.shutdown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testCoalesceQueuedWrites() throws Exception {
+        Future<Boolean> first = write(LogOperation.BRANCH_ADD, newBranch(1, 0));
+        Assertions.assertTrue(firstBatchStarted.await(2, TimeUnit.SECONDS));
+
+        // queued while the first batch is committed
+        List<Future<Boolean>> results = new ArrayList<>();
+        results.add(write(LogOperation.BRANCH_ADD, newBranch(2, 0)));
+        results.add(write(LogOperation.BRANCH_ADD, newBranch(3, 0)));
+        results.add(write(LogOperation.BRANCH_UPDATE, newBranch(3, 2)));
+        results.add(write(LogOperation.BRANCH_UPDATE, newBranch(1, 2)));
+        results.add(write(LogOperation.BRANCH_REMOVE, newBranch(2, 0)));
+        releaseFirstBatch.countDown();
+
+        Assertions.assertTrue(first.get(2, TimeUnit.SECONDS));
+        for (Future<Boolean> result : results) {
+            Assertions.assertTrue(result.get(2, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(2, logStore.batches.size());
+        List<List<BranchTransactionDO>> second = logStore.batches.get(1);
+        // the branch 2 is added and removed within the batch, nothing is written for it
+        Assertions.assertEquals(Collections.singletonList(3L), branchIds(second.get(0)));
+        Assertions.assertEquals(2, second.get(0).get(0).getStatus());
+        Assertions.assertEquals(Collections.singletonList(1L), branchIds(second.get(1)));
+        Assertions.assertTrue(second.get(2).isEmpty());
+    }
+
+    @Test
+    public void testWriteOneByOneWhenBatchFails() throws Exception {
+        logStore.failBatches = true;
+        Future<Boolean> first = write(LogOperation.BRANCH_ADD, newBranch(1, 0));
+        Assertions.assertTrue(firstBatchStarted.await(2, TimeUnit.SECONDS));
+        Future<Boolean> duplicated = write(LogOperation.BRANCH_ADD, newBranch(-1, 0));
+        Future<Boolean> other = write(LogOperation.BRANCH_ADD, newBranch(2, 0));
+        releaseFirstBatch.countDown();
+
+        Assertions.assertTrue(first.get(2, TimeUnit.SECONDS));
+        Assertions.assertFalse(duplicated.get(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(other.get(2, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList(1L, 2L), logStore.inserted);
+    }
+
+    private Future<Boolean> write(LogOperation logOperation, BranchTransactionDO branchTransactionDO)
+        throws InterruptedException {
+        Future<Boolean> future = callers.submit(() -> writer.write(logOperation, branchTransactionDO));
+        // let the write be queued before the next one
+        Thread.sleep(50);
+        return future;
+    }
+
+    private static BranchTransactionDO newBranch(long branchId, int status) {
+        BranchTransactionDO branchTransactionDO = new BranchTransactionDO();
+        branchTransactionDO.setXid("127.0.0.1:8091:1");
+        branchTransactionDO.setBranchId(branchId);
+        branchTransactionDO.setStatus(status);
+        return branchTransactionDO;
+    }
+
+    private static List<Long> branchIds(List<BranchTransactionDO> branchTransactionDOs) {
+        List<Long> branchIds = new ArrayList<>();
+        for (BranchTransactionDO branchTransactionDO : branchTransactionDOs) {
+            branchIds.add(branchTransactionDO.getBranchId());
+        }
+        return branchIds;
+    }
+
+    private class RecordingLogStore extends LogStoreDataBaseDAO {
+
+        private final List<List<List<BranchTransactionDO>>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<Long> inserted = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile boolean failBatches;
+
+        @Override
+        public boolean writeBranchTransactionDOs(List<BranchTransactionDO> insertDOs,
+                                                 List<BranchTransactionDO> updateDOs,
+                                                 List<BranchTransactionDO> deleteDOs) {
+            firstBatchStarted.countDown();
+            try {
+                releaseFirstBatch.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failBatches) {
+                throw new StoreException("batch failed");
+            }
+            batches.add(Arrays.asList(insertDOs, updateDOs, deleteDOs));
+            return true;
+        }
+
+        @Override
+        public boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
+            if (branchTransactionDO.getBranchId() < 0) {
+                throw new StoreException("duplicated branch");
+            }
+            inserted.add(branchTransactionDO.getBranchId());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.file;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.XID;
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import io.seata.server.store.TransactionWriteStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The type File transaction store manager test.
+ */
+public class FileTransactionStoreManagerTest {
+
+    @TempDir
+    Path storeDir;
+
+    /**
+     * The records are recovered in order from the segments of the former store, which are dropped by the checkpoint.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testRecoverAndCheckpoint() throws Exception {
+        String fullFileName = storeDir.resolve("root.data").toString();
+        GlobalSession globalSession = newGlobalSession();
+        BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, "res",
+            "ta:1", "c_1");
+        globalSession.add(branchSession);
+        GlobalSession endedSession = newGlobalSession();
+
+        FileTransactionStoreManager store = new FileTransactionStoreManager(fullFileName, null);
+        Assertions.assertTrue(store.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        Assertions.assertTrue(store.writeSession(LogOperation.BRANCH_ADD, branchSession));
+        Assertions.assertTrue(store.writeSession(LogOperation.GLOBAL_ADD, endedSession));
+        Assertions.assertTrue(store.writeSession(LogOperation.GLOBAL_REMOVE, endedSession));
+        store.shutdown();
+
+        FileTransactionStoreManager reopened = new FileTransactionStoreManager(fullFileName, null);
+        List<TransactionWriteStore> recovered = readAll(reopened);
+        Assertions.assertEquals(4, recovered.size());
+        Assertions.assertEquals(LogOperation.GLOBAL_ADD, recovered.get(0).getOperate());
+        Assertions.assertEquals(LogOperation.BRANCH_ADD, recovered.get(1).getOperate());
+        Assertions.assertEquals(LogOperation.GLOBAL_REMOVE, recovered.get(3).getOperate());
+        Assertions.assertEquals(globalSession.getXid(),
+            ((GlobalSession)recovered.get(0).getSessionRequest()).getXid());
+
+        reopened.checkpoint(Collections.singletonList(globalSession));
+        Assertions.assertFalse(LogSegment.fileOf(fullFileName, 1).exists());
+        reopened.shutdown();
+
+        FileTransactionStoreManager checkpointed = new FileTransactionStoreManager(fullFileName, null);
+        recovered = readAll(checkpointed);
+        Assertions.assertEquals(2, recovered.size());
+        Assertions.assertEquals(LogOperation.GLOBAL_ADD, recovered.get(0).getOperate());
+        Assertions.assertEquals(LogOperation.BRANCH_ADD, recovered.get(1).getOperate());
+        checkpointed.shutdown();
+    }
+
+    /**
+     * The recovery of a segment stops at the first record whose crc does not match.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testRecoverStopsAtCorruptedRecord() throws Exception {
+        String fullFileName = storeDir.resolve("root.data").toString();
+        GlobalSession first = newGlobalSession();
+        GlobalSession second = newGlobalSession();
+
+        FileTransactionStoreManager store = new FileTransactionStoreManager(fullFileName, null);
+        Assertions.assertTrue(store.writeSession(LogOperation.GLOBAL_ADD, first));
+        Assertions.assertTrue(store.writeSession(LogOperation.GLOBAL_ADD, second));
+        store.shutdown();
+
+        File segmentFile = LogSegment.fileOf(fullFileName, 1);
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFile, "rw")) {
+            int firstLength = raf.readInt();
+            long secondData = LogSegment.RECORD_HEADER_SIZE * 2 + firstLength;
+            raf.seek(secondData);
+            int b = raf.read();
+            raf.seek(secondData);
+            raf.write(b ^ 0xFF);
+        }
+
+        FileTransactionStoreManager reopened = new FileTransactionStoreManager(fullFileName, null);
+        List<TransactionWriteStore> recovered = readAll(reopened);
+        Assertions.assertEquals(1, recovered.size());
+        Assertions.assertEquals(first.getXid(), ((GlobalSession)recovered.get(0).getSessionRequest()).getXid());
+        reopened.shutdown();
+    }
+
+    /**
+     * Concurrent writers share the batches of the writer thread, every write is acknowledged and recovered, and the
+     * writes of each caller keep their order.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testConcurrentWritesAreGroupCommitted() throws Exception {
+        String fullFileName = storeDir.resolve("root.data").toString();
+        int writers = 8;
+        int writesPerWriter = 50;
+        FileTransactionStoreManager store = new FileTransactionStoreManager(fullFileName, null);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < writers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<String> xids = new ArrayList<>();
+                    for (int j = 0; j < writesPerWriter; j++) {
+                        GlobalSession globalSession = newGlobalSession();
+                        Assertions.assertTrue(store.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+                        xids.add(globalSession.getXid());
+                    }
+                    return xids;
+                }));
+            }
+            start.countDown();
+            Map<String, Integer> positions = new HashMap<>();
+            List<List<String>> written = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                written.add(future.get(30, TimeUnit.SECONDS));
+            }
+            store.shutdown();
+
+            FileTransactionStoreManager reopened = new FileTransactionStoreManager(fullFileName, null);
+            List<TransactionWriteStore> recovered = readAll(reopened);
+            reopened.shutdown();
+            Assertions.assertEquals(writers * writesPerWriter, recovered.size());
+            for (int i = 0; i < recovered.size(); i++) {
+                positions.put(((GlobalSession)recovered.get(i).getSessionRequest()).getXid(), i);
+            }
+            for (List<String> xids : written) {
+                int previous = -1;
+                for (String xid : xids) {
+                    Integer position = positions.get(xid);
+                    Assertions.assertNotNull(position);
+                    Assertions.assertTrue(position > previous);
+                    previous = position;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A write queued once the writer thread is gone fails instead of waiting forever.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testWriteAfterShutdownFails() throws Exception {
+        String fullFileName = storeDir.resolve("root.data").toString();
+        FileTransactionStoreManager store = new FileTransactionStoreManager(fullFileName, null);
+        Assertions.assertTrue(store.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession()));
+        store.shutdown();
+        Assertions.assertFalse(store.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession()));
+    }
+
+    /**
+     * A data file of the former format replaces the legacy file a former upgrade left behind.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testLegacyFileReplaced() throws Exception {
+        String fullFileName = storeDir.resolve("root.data").toString();
+        byte[] formerData = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        Files.write(Paths.get(fullFileName), formerData);
+        Files.write(Paths.get(fullFileName + ".legacy"), new byte[] {11, 12});
+
+        FileTransactionStoreManager store = new FileTransactionStoreManager(fullFileName, null);
+        Assertions.assertArrayEquals(formerData, Files.readAllBytes(Paths.get(fullFileName + ".legacy")));
+        Assertions.assertTrue(LogSegment.fileOf(fullFileName, 1).exists());
+        store.shutdown();
+    }
+
+    /**
+     * A segment is unmapped when closed rather than when the gc gets to it, closing it again does nothing.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testSegmentUnmappedOnClose() throws Exception {
+        Path maps = Paths.get("/proc/self/maps");
+        Assumptions.assumeTrue(Files.isReadable(maps));
+        String fullFileName = storeDir.resolve("root.data").toString();
+        String segmentPath = LogSegment.fileOf(fullFileName, 1).getCanonicalPath();
+        LogSegment segment = LogSegment.create(fullFileName, 1, 1024);
+        segment.append(new TransactionWriteStore(newGlobalSession(), LogOperation.GLOBAL_ADD).encode());
+        segment.force();
+        Assertions.assertTrue(new String(Files.readAllBytes(maps)).contains(segmentPath));
+
+        segment.close();
+        segment.close();
+        Assertions.assertFalse(new String(Files.readAllBytes(maps)).contains(segmentPath));
+        // so is the mapping a recovery decodes
+        Assertions.assertEquals(1, LogSegment.decode(LogSegment.fileOf(fullFileName, 1)).size());
+        Assertions.assertFalse(new String(Files.readAllBytes(maps)).contains(segmentPath));
+    }
+
+    private List<TransactionWriteStore> readAll(FileTransactionStoreManager store) {
+        List<TransactionWriteStore> stores = new ArrayList<>();
+        while (store.hasRemaining(true)) {
+            stores.addAll(store.readWriteStore(100, true));
+        }
+        while (store.hasRemaining(false)) {
+            stores.addAll(store.readWriteStore(1, false));
+        }
+        return stores;
+    }
+
+    private GlobalSession newGlobalSession() {
+        GlobalSession globalSession = GlobalSession.createGlobalSession("demo-app", "my_test_tx_group", "test",
+            6000);
+        globalSession.setXid(XID.generateXID(globalSession.getTransactionId()));
+        return globalSession;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.redis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.seata.core.store.LockDO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Test LockStoreRedisDAO, against the redis server of RedisTestServer. The tests are skipped when there is none.
+ */
+public class LockStoreRedisDAOTest {
+
+    private static JedisPool jedisPool;
+
+    private static LockStoreRedisDAO lockStoreRedisDAO;
+
+    @BeforeAll
+    public static void start() {
+        jedisPool = RedisTestServer.getJedisPool();
+        lockStoreRedisDAO = new LockStoreRedisDAO(jedisPool);
+        Assumptions.assumeTrue(RedisTestServer.isAvailable());
+    }
+
+    @Test
+    public void test_acquireLocks() {
+        List<LockDO> locks = newLocks("redis-lock-test-1", "a", "b", "c");
+        List<LockDO> otherLocks = newLocks("redis-lock-test-2", "d", "c");
+        lockStoreRedisDAO.unLock(locks);
+        lockStoreRedisDAO.unLock(otherLocks);
+        try {
+            Assertions.assertTrue(lockStoreRedisDAO.acquireLock(locks));
+            // reentrant
+            Assertions.assertTrue(lockStoreRedisDAO.acquireLock(locks.get(0)));
+            Assertions.assertTrue(lockStoreRedisDAO.isLockable(locks));
+
+            // all or nothing, the row c is locked by the first transaction
+            Assertions.assertFalse(lockStoreRedisDAO.isLockable(otherLocks));
+            Assertions.assertFalse(lockStoreRedisDAO.acquireLock(otherLocks));
+            Assertions.assertTrue(lockStoreRedisDAO.isLockable(newLocks("redis-lock-test-3", "d")));
+
+            // the locks of another transaction are not released
+            Assertions.assertTrue(lockStoreRedisDAO.unLock(otherLocks));
+            Assertions.assertFalse(lockStoreRedisDAO.isLockable(otherLocks));
+
+            Assertions.assertTrue(lockStoreRedisDAO.unLock(locks));
+            Assertions.assertTrue(lockStoreRedisDAO.acquireLock(otherLocks));
+        } finally {
+            lockStoreRedisDAO.unLock(locks);
+            lockStoreRedisDAO.unLock(otherLocks);
+        }
+    }
+
+    private static List<LockDO> newLocks(String xid, String... pks) {
+        List<LockDO> locks = new ArrayList<>();
+        for (String pk : Arrays.asList(pks)) {
+            LockDO lock = new LockDO();
+            lock.setXid(xid);
+            lock.setTransactionId(1L);
+            lock.setBranchId(1L);
+            lock.setResourceId("test");
+            lock.setTableName("t");
+            lock.setPk(pk);
+            lock.setRowKey("test^^^t^^^redis-lock-test-" + pk);
+            locks.add(lock);
+        }
+        return locks;
+    }
+}
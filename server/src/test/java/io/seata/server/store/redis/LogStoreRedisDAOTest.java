@@ -0,0 +1,225 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.redis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.GlobalStatus;
+import io.seata.core.store.BranchTransactionDO;
+import io.seata.core.store.GlobalTransactionDO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Test LogStoreRedisDAO, against the redis server of RedisTestServer. The tests which need it are skipped when there
+ * is none.
+ */
+public class LogStoreRedisDAOTest {
+
+    private static final String XID_PREFIX = "redis-log-test-";
+
+    static JedisPool jedisPool;
+
+    static LogStoreRedisDAO logStoreRedisDAO;
+
+    @BeforeAll
+    public static void start() {
+        jedisPool = RedisTestServer.getJedisPool();
+        logStoreRedisDAO = new LogStoreRedisDAO(jedisPool);
+    }
+
+    @Test
+    public void indexMember_sorted_by_transactionId_then_xid() {
+        List<String> members = Arrays.asList(
+            LogStoreRedisDAO.indexMember(100L, "b"),
+            LogStoreRedisDAO.indexMember(-1L, "a"),
+            LogStoreRedisDAO.indexMember(100L, "a"),
+            LogStoreRedisDAO.indexMember(Long.MAX_VALUE, "a"),
+            LogStoreRedisDAO.indexMember(Long.MIN_VALUE, "a"),
+            LogStoreRedisDAO.indexMember(0x1000L, "a"));
+        List<String> sorted = new ArrayList<>(members);
+        Collections.sort(sorted);
+        Assertions.assertEquals(Arrays.asList(members.get(4), members.get(1), members.get(2), members.get(0),
+            members.get(5), members.get(3)), sorted);
+        // the first page starts after every member
+        Assertions.assertTrue(LogStoreRedisDAO.indexMember(Long.MIN_VALUE, "").compareTo(members.get(4)) < 0);
+    }
+
+    @Test
+    public void global_insert_query_update_delete() {
+        Assumptions.assumeTrue(RedisTestServer.isAvailable());
+        GlobalTransactionDO globalTransactionDO = newGlobal(XID_PREFIX + "1", 1L, GlobalStatus.Begin);
+        logStoreRedisDAO.deleteGlobalTransactionDO(globalTransactionDO);
+        try {
+            Assertions.assertTrue(logStoreRedisDAO.insertGlobalTransactionDO(globalTransactionDO));
+            Assertions.assertFalse(logStoreRedisDAO.insertGlobalTransactionDO(globalTransactionDO));
+
+            GlobalTransactionDO byXid = logStoreRedisDAO.queryGlobalTransactionDO(globalTransactionDO.getXid());
+            Assertions.assertEquals(globalTransactionDO.getTransactionId(), byXid.getTransactionId());
+            Assertions.assertEquals("test", byXid.getTransactionName());
+            Assertions.assertNull(byXid.getApplicationData());
+            Assertions.assertNotNull(byXid.getGmtCreate());
+            GlobalTransactionDO byId = logStoreRedisDAO.queryGlobalTransactionDO(
+                globalTransactionDO.getTransactionId());
+            Assertions.assertEquals(globalTransactionDO.getXid(), byId.getXid());
+
+            globalTransactionDO.setStatus(GlobalStatus.CommitRetrying.getCode());
+            Assertions.assertTrue(logStoreRedisDAO.updateGlobalTransactionDO(globalTransactionDO));
+            Assertions.assertEquals(GlobalStatus.CommitRetrying.getCode(),
+                logStoreRedisDAO.queryGlobalTransactionDO(globalTransactionDO.getXid()).getStatus());
+            // moved from the index of its previous status
+            Assertions.assertTrue(queryByStatus(GlobalStatus.Begin).isEmpty());
+            Assertions.assertEquals(Collections.singletonList(globalTransactionDO.getXid()),
+                queryByStatus(GlobalStatus.CommitRetrying));
+
+            Assertions.assertTrue(logStoreRedisDAO.deleteGlobalTransactionDO(globalTransactionDO));
+            Assertions.assertNull(logStoreRedisDAO.queryGlobalTransactionDO(globalTransactionDO.getXid()));
+            Assertions.assertNull(logStoreRedisDAO.queryGlobalTransactionDO(globalTransactionDO.getTransactionId()));
+            Assertions.assertTrue(queryByStatus(GlobalStatus.CommitRetrying).isEmpty());
+            Assertions.assertFalse(logStoreRedisDAO.updateGlobalTransactionDO(globalTransactionDO));
+        } finally {
+            logStoreRedisDAO.deleteGlobalTransactionDO(globalTransactionDO);
+        }
+    }
+
+    @Test
+    public void queryGlobalTransactionDO_by_statuses_after() {
+        Assumptions.assumeTrue(RedisTestServer.isAvailable());
+        List<GlobalTransactionDO> globalTransactionDOs = new ArrayList<>();
+        GlobalStatus[] statuses = {GlobalStatus.CommitRetrying, GlobalStatus.RollbackRetrying, GlobalStatus.Begin};
+        for (int i = 0; i < 6; i++) {
+            globalTransactionDOs.add(newGlobal(XID_PREFIX + "page-" + i, 1000L + i, statuses[i % 3]));
+        }
+        try {
+            for (GlobalTransactionDO globalTransactionDO : globalTransactionDOs) {
+                logStoreRedisDAO.deleteGlobalTransactionDO(globalTransactionDO);
+                Assertions.assertTrue(logStoreRedisDAO.insertGlobalTransactionDO(globalTransactionDO));
+            }
+            int[] retrying = {GlobalStatus.CommitRetrying.getCode(), GlobalStatus.RollbackRetrying.getCode()};
+            List<String> xids = new ArrayList<>();
+            long afterTransactionId = 999L;
+            String afterXid = "";
+            while (true) {
+                List<GlobalTransactionDO> page = logStoreRedisDAO.queryGlobalTransactionDO(retrying,
+                    afterTransactionId, afterXid, 3);
+                for (GlobalTransactionDO globalTransactionDO : page) {
+                    xids.add(globalTransactionDO.getXid());
+                }
+                if (page.size() < 3) {
+                    break;
+                }
+                afterTransactionId = page.get(page.size() - 1).getTransactionId();
+                afterXid = page.get(page.size() - 1).getXid();
+            }
+            Assertions.assertEquals(Arrays.asList(XID_PREFIX + "page-0", XID_PREFIX + "page-1",
+                XID_PREFIX + "page-3", XID_PREFIX + "page-4"), xids);
+        } finally {
+            for (GlobalTransactionDO globalTransactionDO : globalTransactionDOs) {
+                logStoreRedisDAO.deleteGlobalTransactionDO(globalTransactionDO);
+            }
+        }
+    }
+
+    @Test
+    public void branch_write_query() {
+        Assumptions.assumeTrue(RedisTestServer.isAvailable());
+        String xid1 = XID_PREFIX + "branch-1";
+        String xid2 = XID_PREFIX + "branch-2";
+        BranchTransactionDO branch1 = newBranch(xid1, 2001L);
+        BranchTransactionDO branch2 = newBranch(xid1, 2002L);
+        BranchTransactionDO branch3 = newBranch(xid2, 2003L);
+        List<BranchTransactionDO> all = Arrays.asList(branch1, branch2, branch3);
+        logStoreRedisDAO.writeBranchTransactionDOs(Collections.emptyList(), Collections.emptyList(), all);
+        try {
+            Assertions.assertTrue(logStoreRedisDAO.insertBranchTransactionDOs(Arrays.asList(branch1, branch2)));
+            // all or nothing, the branch 2 exists already
+            Assertions.assertFalse(logStoreRedisDAO.insertBranchTransactionDOs(Arrays.asList(branch3, branch2)));
+            Assertions.assertTrue(logStoreRedisDAO.queryBranchTransactionDO(xid2).isEmpty());
+            Assertions.assertTrue(logStoreRedisDAO.insertBranchTransactionDO(branch3));
+
+            List<BranchTransactionDO> branches = logStoreRedisDAO.queryBranchTransactionDO(Arrays.asList(xid1, xid2));
+            Assertions.assertEquals(Arrays.asList(2001L, 2002L, 2003L), branchIds(branches));
+            Assertions.assertEquals("lock-key", branches.get(0).getLockKey());
+            Assertions.assertNull(branches.get(0).getApplicationData());
+
+            branch1.setStatus(BranchStatus.PhaseTwo_Committed.getCode());
+            Assertions.assertTrue(logStoreRedisDAO.writeBranchTransactionDOs(Collections.emptyList(),
+                Collections.singletonList(branch1), Collections.singletonList(branch2)));
+            branches = logStoreRedisDAO.queryBranchTransactionDO(xid1);
+            Assertions.assertEquals(Collections.singletonList(2001L), branchIds(branches));
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Committed.getCode(), branches.get(0).getStatus());
+
+            // a removed branch is not written back by an update
+            Assertions.assertFalse(logStoreRedisDAO.updateBranchTransactionDO(branch2));
+            Assertions.assertTrue(logStoreRedisDAO.deleteBranchTransactionDO(branch1));
+            Assertions.assertTrue(logStoreRedisDAO.queryBranchTransactionDO(xid1).isEmpty());
+        } finally {
+            logStoreRedisDAO.writeBranchTransactionDOs(Collections.emptyList(), Collections.emptyList(), all);
+        }
+    }
+
+    private List<String> queryByStatus(GlobalStatus status) {
+        List<String> xids = new ArrayList<>();
+        for (GlobalTransactionDO globalTransactionDO : logStoreRedisDAO.queryGlobalTransactionDO(
+            new int[] {status.getCode()}, 100)) {
+            if (globalTransactionDO.getXid().startsWith(XID_PREFIX)) {
+                xids.add(globalTransactionDO.getXid());
+            }
+        }
+        return xids;
+    }
+
+    private static GlobalTransactionDO newGlobal(String xid, long transactionId, GlobalStatus status) {
+        GlobalTransactionDO globalTransactionDO = new GlobalTransactionDO();
+        globalTransactionDO.setXid(xid);
+        globalTransactionDO.setTransactionId(transactionId);
+        globalTransactionDO.setStatus(status.getCode());
+        globalTransactionDO.setApplicationId("test");
+        globalTransactionDO.setTransactionServiceGroup("test");
+        globalTransactionDO.setTransactionName("test");
+        globalTransactionDO.setTimeout(60000);
+        globalTransactionDO.setBeginTime(System.currentTimeMillis());
+        return globalTransactionDO;
+    }
+
+    private static BranchTransactionDO newBranch(String xid, long branchId) {
+        BranchTransactionDO branchTransactionDO = new BranchTransactionDO();
+        branchTransactionDO.setXid(xid);
+        branchTransactionDO.setTransactionId(1L);
+        branchTransactionDO.setBranchId(branchId);
+        branchTransactionDO.setResourceId("test");
+        branchTransactionDO.setLockKey("lock-key");
+        branchTransactionDO.setBranchType("AT");
+        branchTransactionDO.setStatus(BranchStatus.Registered.getCode());
+        branchTransactionDO.setClientId("client");
+        return branchTransactionDO;
+    }
+
+    private static List<Long> branchIds(List<BranchTransactionDO> branchTransactionDOs) {
+        List<Long> branchIds = new ArrayList<>();
+        for (BranchTransactionDO branchTransactionDO : branchTransactionDOs) {
+            branchIds.add(branchTransactionDO.getBranchId());
+        }
+        return branchIds;
+    }
+}
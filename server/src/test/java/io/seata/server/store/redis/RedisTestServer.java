@@ -0,0 +1,92 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.redis;
+
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Protocol;
+
+/**
+ * The redis server of the redis store tests, shared by the test classes.
+ * <p>
+ * A redis container is started when docker is available, otherwise a redis server running on the local host is used.
+ * The tests which need it are skipped when there is neither.
+ */
+final class RedisTestServer {
+
+    private static final String IMAGE = "redis:5.0.7";
+
+    private static JedisPool jedisPool;
+
+    private static boolean available;
+
+    private RedisTestServer() {
+    }
+
+    /**
+     * Gets the pool to the server, started on the first call.
+     *
+     * @return the jedis pool
+     */
+    static synchronized JedisPool getJedisPool() {
+        if (jedisPool == null) {
+            jedisPool = start();
+            available = ping(jedisPool);
+        }
+        return jedisPool;
+    }
+
+    /**
+     * Whether a redis server answers.
+     *
+     * @return true if it does
+     */
+    static synchronized boolean isAvailable() {
+        getJedisPool();
+        return available;
+    }
+
+    private static JedisPool start() {
+        if (isDockerAvailable()) {
+            GenericContainer<?> redis = new GenericContainer<>(IMAGE).withExposedPorts(Protocol.DEFAULT_PORT);
+            redis.start();
+            // stopped by the reaper of testcontainers when the tests exit
+            return new JedisPool(new JedisPoolConfig(), redis.getContainerIpAddress(),
+                redis.getMappedPort(Protocol.DEFAULT_PORT));
+        }
+        return new JedisPool(new JedisPoolConfig(), "127.0.0.1", Protocol.DEFAULT_PORT);
+    }
+
+    private static boolean isDockerAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private static boolean ping(JedisPool jedisPool) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return "PONG".equals(jedis.ping());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}